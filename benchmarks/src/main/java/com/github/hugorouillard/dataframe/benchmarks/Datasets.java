@@ -0,0 +1,120 @@
+package com.github.hugorouillard.dataframe.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generated datasets shared by the benchmarks. The same seed, size and mix always give the same rows,
+ * so numbers from two runs can be compared.
+ */
+public final class Datasets {
+    static final char DELIMITER = ';';
+
+    private static final String[] ROLES = {"TOP", "JUNGLE", "MID", "ADC", "SUPPORT"};
+    private static final String[] CLASSES = {"Mage", "Fighter", "Tank", "Marksman", "Assassin", "Controller"};
+
+    /**
+     * Column types of a generated dataset, each with eight columns.
+     */
+    public enum Mix {
+        /** int, long and double columns only. */
+        NUMERIC(new String[]{"Id", "Games", "Score", "Win %", "Pick %", "Ban %", "KDA", "Rank"}),
+        /** Numbers next to low cardinality labels, booleans and a few missing cells. */
+        MIXED(new String[]{"Id", "Name", "Role", "Class", "Win %", "Ban %", "Ranked", "Games"}),
+        /** Mostly free text. */
+        TEXT(new String[]{"Id", "Name", "Role", "Class", "Title", "Lane", "Patch", "Comment"});
+
+        private final String[] labels;
+
+        Mix(String[] labels) {
+            this.labels = labels;
+        }
+
+        String[] labels() {
+            return labels.clone();
+        }
+    }
+
+    private Datasets() {
+    }
+
+    /**
+     * @return the cells of one row, as written in the CSV file
+     */
+    static String[] row(Mix mix, int index, Random random) {
+        switch (mix) {
+            case NUMERIC:
+                return new String[]{
+                        String.valueOf(index),
+                        String.valueOf(10_000_000_000L + random.nextInt(1_000_000)),
+                        String.valueOf(random.nextInt(10_000)),
+                        decimal(40 + random.nextDouble() * 20),
+                        decimal(random.nextDouble() * 30),
+                        decimal(random.nextDouble() * 50),
+                        decimal(random.nextDouble() * 5),
+                        String.valueOf(random.nextInt(100))
+                };
+            case MIXED:
+                return new String[]{
+                        String.valueOf(index),
+                        "Champion" + random.nextInt(160),
+                        ROLES[random.nextInt(ROLES.length)],
+                        CLASSES[random.nextInt(CLASSES.length)],
+                        random.nextInt(50) == 0 ? "" : decimal(40 + random.nextDouble() * 20),
+                        decimal(random.nextDouble() * 50),
+                        String.valueOf(random.nextBoolean()),
+                        random.nextInt(50) == 0 ? "" : String.valueOf(random.nextInt(100_000))
+                };
+            default:
+                return new String[]{
+                        String.valueOf(index),
+                        "Champion" + random.nextInt(160),
+                        ROLES[random.nextInt(ROLES.length)],
+                        CLASSES[random.nextInt(CLASSES.length)],
+                        "the " + Long.toString(random.nextLong() & Long.MAX_VALUE, 36),
+                        ROLES[random.nextInt(ROLES.length)].toLowerCase(),
+                        "13." + random.nextInt(24) + "b",
+                        Long.toString(random.nextLong() & Long.MAX_VALUE, 36) + " " + Integer.toString(random.nextInt() & Integer.MAX_VALUE, 36)
+                };
+        }
+    }
+
+    /**
+     * @return the lines of a CSV file, without the header
+     */
+    static String[] lines(Mix mix, int rows) {
+        Random random = new Random(42);
+        String[] lines = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            lines[i] = String.join(String.valueOf(DELIMITER), row(mix, i, random));
+        }
+        return lines;
+    }
+
+    /**
+     * Writes a CSV file with a header and the given number of rows to a temporary file.
+     *
+     * @return the path of the file, to be deleted by the caller
+     */
+    static Path writeCsv(Mix mix, int rows) throws IOException {
+        Path file = Files.createTempFile("dataframe-bench-" + mix.name().toLowerCase() + "-" + rows + "-", ".csv");
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(String.join(String.valueOf(DELIMITER), mix.labels()));
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                writer.write(String.join(String.valueOf(DELIMITER), row(mix, i, random)));
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    private static String decimal(double value) {
+        return String.valueOf(Math.round(value * 100) / 100.0);
+    }
+}
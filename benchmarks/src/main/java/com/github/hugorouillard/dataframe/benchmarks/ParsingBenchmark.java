@@ -0,0 +1,66 @@
+package com.github.hugorouillard.dataframe.benchmarks;
+
+import com.github.hugorouillard.dataframe.ConversionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits CSV rows with {@link ConversionUtils#parseCSVRow} and classifies cells with
+ * {@link ConversionUtils#parseStringType}. Scores are per row, and per cell.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+    private static final int ROWS = 1024;
+    private static final int CELLS = ROWS * 8;
+
+    @Param({"NUMERIC", "MIXED", "TEXT"})
+    public Datasets.Mix mix;
+
+    private String[] lines;
+    private String[] cells;
+
+    @Setup
+    public void generate() {
+        lines = Datasets.lines(mix, ROWS);
+        cells = new String[CELLS];
+        Random random = new Random(42);
+        for (int i = 0; i < ROWS; i++) {
+            System.arraycopy(Datasets.row(mix, i, random), 0, cells, i * 8, 8);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void parseCSVRow(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(ConversionUtils.parseCSVRow(line, Datasets.DELIMITER));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void parseStringType(Blackhole blackhole) {
+        for (String cell : cells) {
+            blackhole.consume(ConversionUtils.parseStringType(cell));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.hugorouillard.dataframe.benchmarks;
+
+import com.github.hugorouillard.dataframe.Dataframe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.hugorouillard.dataframe.Expression.col;
+
+/**
+ * Row selection by index and by condition on a frame read from a generated CSV file. Selections return views, so
+ * {@link #selectRowsAndMean()} also reads the selected values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionBenchmark {
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    @Param({"NUMERIC", "MIXED"})
+    public Datasets.Mix mix;
+
+    private Dataframe frame;
+    private int[] indices;
+    private int win;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        Path file = Datasets.writeCsv(mix, rows);
+        try {
+            frame = new Dataframe(file.toString(), Datasets.DELIMITER);
+        } finally {
+            Files.delete(file);
+        }
+        win = Arrays.asList(frame.getLabels()).indexOf("Win %");
+
+        // a tenth of the rows, sorted like the result of a filter
+        Random random = new Random(42);
+        indices = new int[rows / 10];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = random.nextInt(rows);
+        }
+        Arrays.sort(indices);
+    }
+
+    @Benchmark
+    public Dataframe selectRows() {
+        return frame.selectRows(indices);
+    }
+
+    @Benchmark
+    public double selectRowsAndMean() {
+        return frame.selectRows(indices).getDataTab()[win].mean();
+    }
+
+    @Benchmark
+    public Dataframe filterRows() {
+        return frame.filterRows("Win %", value -> value != null && ((Number) value).doubleValue() > 50);
+    }
+
+    /**
+     * The condition of {@link #filterRows()} as an expression, for comparison.
+     */
+    @Benchmark
+    public Dataframe filterExpression() {
+        return frame.filter(col("Win %").gt(50));
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.hugorouillard.dataframe.benchmarks;
+
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.Series;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Series statistics and {@link Dataframe#describe()} over a frame of four columns of the same type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsBenchmark {
+    private static final int COLUMNS = 4;
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    @Param({"INT", "LONG", "DOUBLE"})
+    public String type;
+
+    private Dataframe frame;
+    private Series<?> series;
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        Object[] columns = new Object[COLUMNS];
+        String[] labels = new String[COLUMNS];
+        for (int col = 0; col < COLUMNS; col++) {
+            labels[col] = type + col;
+            columns[col] = column(random);
+        }
+        frame = new Dataframe(labels, columns);
+        series = frame.getDataTab()[0];
+
+        // describe prints its table, which must not flood the benchmark output
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreOutput() {
+        System.setOut(out);
+    }
+
+    private Object column(Random random) {
+        switch (type) {
+            case "INT":
+                return random.ints(rows, 0, 100_000).toArray();
+            case "LONG":
+                return random.longs(rows, 10_000_000_000L, 20_000_000_000L).toArray();
+            default:
+                return random.doubles(rows, 0, 100).toArray();
+        }
+    }
+
+    @Benchmark
+    public double mean() {
+        return series.mean();
+    }
+
+    @Benchmark
+    public double std() {
+        return series.std();
+    }
+
+    @Benchmark
+    public double median() {
+        return series.median();
+    }
+
+    @Benchmark
+    public void describe() {
+        frame.describe();
+    }
+}
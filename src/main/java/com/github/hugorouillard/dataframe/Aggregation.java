@@ -0,0 +1,96 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Collections;
+
+/**
+ * Aggregation of the values of a column into a single value. Missing values are skipped, except by FIRST and LAST
+ * which take the value of the first or last row, missing or not.
+ * <p>
+ * SUM, MIN and MAX of INT and LONG columns are computed on longs, so they stay exact beyond 2^53; sums overflow like
+ * long additions. The other numerical aggregations are computed on doubles.
+ */
+public enum Aggregation {
+    COUNT,
+    SUM,
+    MEAN,
+    MIN,
+    MAX,
+    FIRST,
+    LAST;
+
+    /**
+     * @return the label of the aggregated column, like {@code mean(Price)}
+     */
+    String label(String columnLabel) {
+        return name().toLowerCase() + "(" + columnLabel + ")";
+    }
+
+    /**
+     * @return true if the aggregation only applies to numerical columns
+     */
+    boolean numerical() {
+        return this == SUM || this == MEAN || this == MIN || this == MAX;
+    }
+
+    /**
+     * @return true if the aggregation of the column is computed on longs
+     */
+    boolean integral(Column<?> column) {
+        ColumnType type = column.getType();
+        return (this == SUM || this == MIN || this == MAX) && (type == ColumnType.INT || type == ColumnType.LONG);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the aggregation does not apply to the column
+     */
+    void check(Column<?> column) {
+        if (numerical() && !column.isNumeric()) {
+            throw new IllegalArgumentException("Series must contain numerical values");
+        }
+    }
+
+    /**
+     * @return a single row column holding the aggregated value: a LONG count, the value of the first or last row,
+     * a LONG for the integral aggregations, missing for MIN and MAX over no value, or a DOUBLE for the other ones,
+     * NaN for MIN, MAX and MEAN over no value
+     * @throws IllegalArgumentException if the aggregation does not apply to the column
+     */
+    Column<?> apply(Column<?> column) {
+        check(column);
+        switch (this) {
+            case COUNT:
+                return new LongColumn(new long[]{column.count()});
+            case FIRST:
+            case LAST:
+                if (column.size() == 0) {
+                    return Column.fromList(Collections.singletonList(null));
+                }
+                return column.select(new int[]{this == FIRST ? 0 : column.size() - 1});
+            case SUM:
+                if (integral(column)) {
+                    long sum = 0;
+                    for (int i = column.nextValid(0); i >= 0; i = column.nextValid(i + 1)) {
+                        sum += column.getLong(i);
+                    }
+                    return new LongColumn(new long[]{sum});
+                }
+                return new DoubleColumn(new double[]{column.sum()});
+            case MEAN:
+                return new DoubleColumn(new double[]{column.sum() / column.count()});
+            case MIN:
+                return extreme(column, column.argMin());
+            default:
+                return extreme(column, column.argMax());
+        }
+    }
+
+    private Column<?> extreme(Column<?> column, int index) {
+        if (!integral(column)) {
+            return new DoubleColumn(new double[]{index < 0 ? Double.NaN : column.getDouble(index)});
+        }
+        if (index < 0) {
+            return new LongColumn(new long[1], new Bitmap(1));
+        }
+        return new LongColumn(new long[]{column.getLong(index)});
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Element-wise arithmetic operator.
+ */
+enum Arithmetic {
+    ADD("+"),
+    SUBTRACT("-"),
+    MULTIPLY("*"),
+    DIVIDE("/");
+
+    private final String symbol;
+
+    Arithmetic(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * @return the Java operator
+     */
+    String symbol() {
+        return symbol;
+    }
+
+    long apply(long left, long right) {
+        switch (this) {
+            case ADD:
+                return left + right;
+            case SUBTRACT:
+                return left - right;
+            case MULTIPLY:
+                return left * right;
+            default:
+                return left / right;
+        }
+    }
+
+    double apply(double left, double right) {
+        switch (this) {
+            case ADD:
+                return left + right;
+            case SUBTRACT:
+                return left - right;
+            case MULTIPLY:
+                return left * right;
+            default:
+                return left / right;
+        }
+    }
+}
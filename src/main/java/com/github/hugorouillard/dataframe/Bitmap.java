@@ -0,0 +1,220 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size set of bits, one per row, packed into 64-bit words.
+ * Bits beyond {@link #size()} are always cleared, so a word equal to -1 is always fully inside the bitmap.
+ */
+public final class Bitmap {
+    private final long[] words;
+    private final int size;
+
+    /**
+     * Creates a bitmap with all bits cleared.
+     *
+     * @param size the number of bits
+     */
+    public Bitmap(int size) {
+        this.size = size;
+        this.words = new long[wordCount(size)];
+    }
+
+    /**
+     * @param size the number of bits
+     * @return a bitmap with all bits set
+     */
+    public static Bitmap allSet(int size) {
+        Bitmap bitmap = new Bitmap(size);
+        Arrays.fill(bitmap.words, -1L);
+        bitmap.clearTail();
+        return bitmap;
+    }
+
+    static int wordCount(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    public void clear(int index) {
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * @return the number of set bits
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param from the first index to look at
+     * @return the index of the first set bit at or after {@code from}, -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    /**
+     * @param indices the bit indices to keep, in order
+     * @return a new bitmap where bit i is the bit at {@code indices[i]}
+     */
+    public Bitmap select(int[] indices) {
+        Bitmap selected = new Bitmap(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            if (get(indices[i])) {
+                selected.set(i);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * @return a new bitmap holding the bits set in both bitmaps
+     * @throws IllegalArgumentException if the bitmaps do not have the same size
+     */
+    public Bitmap and(Bitmap other) {
+        checkSameSize(other);
+        Bitmap result = new Bitmap(size);
+        for (int w = 0; w < words.length; w++) {
+            result.words[w] = words[w] & other.words[w];
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bitmap holding the bits set in either bitmap
+     * @throws IllegalArgumentException if the bitmaps do not have the same size
+     */
+    public Bitmap or(Bitmap other) {
+        checkSameSize(other);
+        Bitmap result = new Bitmap(size);
+        for (int w = 0; w < words.length; w++) {
+            result.words[w] = words[w] | other.words[w];
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bitmap holding the bits set in this bitmap but not in the other one
+     * @throws IllegalArgumentException if the bitmaps do not have the same size
+     */
+    public Bitmap andNot(Bitmap other) {
+        checkSameSize(other);
+        Bitmap result = new Bitmap(size);
+        for (int w = 0; w < words.length; w++) {
+            result.words[w] = words[w] & ~other.words[w];
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bitmap with every bit flipped
+     */
+    public Bitmap not() {
+        Bitmap result = new Bitmap(size);
+        for (int w = 0; w < words.length; w++) {
+            result.words[w] = ~words[w];
+        }
+        result.clearTail();
+        return result;
+    }
+
+    private void checkSameSize(Bitmap other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Bitmaps must have the same size");
+        }
+    }
+
+    /**
+     * @return the indices of the set bits, in increasing order
+     */
+    public int[] toIndices() {
+        int[] indices = new int[cardinality()];
+        int n = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                indices[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * @param from the first bit index to keep
+     * @param length the number of bits to keep
+     * @return a new bitmap where bit i is the bit at {@code from + i}
+     */
+    public Bitmap slice(int from, int length) {
+        Bitmap sliced = new Bitmap(length);
+        int first = from >>> 6;
+        int shift = from & 63;
+        for (int w = 0; w < sliced.words.length; w++) {
+            long word = words[first + w] >>> shift;
+            if (shift != 0 && first + w + 1 < words.length) {
+                word |= words[first + w + 1] << (64 - shift);
+            }
+            sliced.words[w] = word;
+        }
+        sliced.clearTail();
+        return sliced;
+    }
+
+    /**
+     * Gives direct access to the packed words, for bitwise scans.
+     * Bit i of the bitmap is bit {@code i % 64} of word {@code i / 64}.
+     */
+    long[] words() {
+        return words;
+    }
+
+    private void clearTail() {
+        if ((size & 63) != 0) {
+            words[words.length - 1] &= (1L << size) - 1;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Bitmap)) {
+            return false;
+        }
+        Bitmap other = (Bitmap) o;
+        return size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,639 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Evaluators of compiled {@link Expression}s. An expression is evaluated over blocks of {@link #BLOCK_ROWS} rows:
+ * each node of the tree writes the values of a whole block into a primitive buffer, with the {@link Kernels}, before
+ * its parent reads them. The virtual call of a node is thus paid once per block rather than once per row, the inner
+ * loops see primitive arrays only, and the buffers of a block stay in the cache between the nodes.
+ * <p>
+ * Evaluators own their buffers: an evaluator is used by a single thread, the others use a {@code copy()}.
+ */
+final class BlockKernels {
+    /**
+     * Rows evaluated at once, a multiple of 64 so that a block fills whole bitmap words.
+     */
+    static final int BLOCK_ROWS = 1024;
+    private static final int BLOCK_WORDS = BLOCK_ROWS >>> 6;
+
+    private BlockKernels() {
+    }
+
+    /**
+     * @return the mask of the rows satisfying a condition, evaluated morsel by morsel in the given mode
+     */
+    static Bitmap mask(MaskBlock condition, int size, Parallelism parallelism) {
+        Bitmap mask = new Bitmap(size);
+        long[] words = mask.words();
+        parallelism.forEachMorsel(size, (m, from, to) -> {
+            MaskBlock block = m == 0 ? condition : condition.copy();
+            long[] blockWords = new long[BLOCK_WORDS];
+            for (int base = from; base < to; base += BLOCK_ROWS) {
+                int length = Math.min(BLOCK_ROWS, to - base);
+                block.eval(base, length, blockWords);
+                System.arraycopy(blockWords, 0, words, base >>> 6, Bitmap.wordCount(length));
+            }
+        });
+        return mask;
+    }
+
+    /**
+     * @return the values of an integral expression for every row, evaluated morsel by morsel in the given mode
+     */
+    static long[] longs(LongBlock expression, int size, Parallelism parallelism) {
+        long[] values = new long[size];
+        parallelism.forEachMorsel(size, (m, from, to) -> {
+            LongBlock block = m == 0 ? expression : expression.copy();
+            long[] buffer = new long[BLOCK_ROWS];
+            for (int base = from; base < to; base += BLOCK_ROWS) {
+                int length = Math.min(BLOCK_ROWS, to - base);
+                block.eval(base, length, buffer);
+                System.arraycopy(buffer, 0, values, base, length);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * @return the values of a numerical expression for every row, evaluated morsel by morsel in the given mode
+     */
+    static double[] doubles(DoubleBlock expression, int size, Parallelism parallelism) {
+        double[] values = new double[size];
+        parallelism.forEachMorsel(size, (m, from, to) -> {
+            DoubleBlock block = m == 0 ? expression : expression.copy();
+            double[] buffer = new double[BLOCK_ROWS];
+            for (int base = from; base < to; base += BLOCK_ROWS) {
+                int length = Math.min(BLOCK_ROWS, to - base);
+                block.eval(base, length, buffer);
+                System.arraycopy(buffer, 0, values, base, length);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Clears the bits of the block rows which are missing in the validity, null if no row is missing.
+     */
+    private static void clearMissing(long[] words, int from, int length, Bitmap validity) {
+        if (validity != null) {
+            long[] valid = validity.words();
+            int offset = from >>> 6;
+            for (int w = 0; w < Bitmap.wordCount(length); w++) {
+                words[w] &= valid[offset + w];
+            }
+        }
+    }
+
+    /**
+     * Evaluator of an integral expression.
+     */
+    abstract static class LongBlock {
+        /**
+         * Writes the values of the rows from {@code from} to {@code from + length} at the start of {@code out}.
+         */
+        abstract void eval(int from, int length, long[] out);
+
+        /**
+         * @return an evaluator of the same expression with its own buffers
+         */
+        abstract LongBlock copy();
+    }
+
+    /**
+     * Evaluator of a numerical expression, as doubles.
+     */
+    abstract static class DoubleBlock {
+        /**
+         * Writes the values of the rows from {@code from} to {@code from + length} at the start of {@code out}.
+         */
+        abstract void eval(int from, int length, double[] out);
+
+        /**
+         * @return an evaluator of the same expression with its own buffers
+         */
+        abstract DoubleBlock copy();
+    }
+
+    /**
+     * Evaluator of a condition.
+     */
+    abstract static class MaskBlock {
+        /**
+         * Writes the bits of the rows from {@code from}, a multiple of 64, to {@code from + length} at the start of
+         * {@code words}, the bits past the block cleared.
+         */
+        abstract void eval(int from, int length, long[] words);
+
+        /**
+         * @return an evaluator of the same condition with its own buffers
+         */
+        abstract MaskBlock copy();
+    }
+
+    static final class IntColumnLongs extends LongBlock {
+        private final int[] values;
+
+        IntColumnLongs(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        void eval(int from, int length, long[] out) {
+            for (int i = 0; i < length; i++) {
+                out[i] = values[from + i];
+            }
+        }
+
+        @Override
+        LongBlock copy() {
+            return this;
+        }
+    }
+
+    static final class LongColumnLongs extends LongBlock {
+        private final long[] values;
+
+        LongColumnLongs(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        void eval(int from, int length, long[] out) {
+            System.arraycopy(values, from, out, 0, length);
+        }
+
+        @Override
+        LongBlock copy() {
+            return this;
+        }
+    }
+
+    static final class LongConstant extends LongBlock {
+        private final long value;
+
+        LongConstant(long value) {
+            this.value = value;
+        }
+
+        @Override
+        void eval(int from, int length, long[] out) {
+            Arrays.fill(out, 0, length, value);
+        }
+
+        @Override
+        LongBlock copy() {
+            return this;
+        }
+    }
+
+    static final class LongArithmetic extends LongBlock {
+        private final Arithmetic operator;
+        private final LongBlock left;
+        private final LongBlock right;
+        private final long[] buffer = new long[BLOCK_ROWS];
+
+        LongArithmetic(Arithmetic operator, LongBlock left, LongBlock right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int length, long[] out) {
+            left.eval(from, length, out);
+            right.eval(from, length, buffer);
+            Kernels.apply(operator, out, buffer, out, length);
+        }
+
+        @Override
+        LongBlock copy() {
+            return new LongArithmetic(operator, left.copy(), right.copy());
+        }
+    }
+
+    static final class LongScalarArithmetic extends LongBlock {
+        private final Arithmetic operator;
+        private final LongBlock left;
+        private final long right;
+
+        LongScalarArithmetic(Arithmetic operator, LongBlock left, long right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int length, long[] out) {
+            left.eval(from, length, out);
+            Kernels.apply(operator, out, right, out, length);
+        }
+
+        @Override
+        LongBlock copy() {
+            return new LongScalarArithmetic(operator, left.copy(), right);
+        }
+    }
+
+    static final class IntColumnDoubles extends DoubleBlock {
+        private final int[] values;
+
+        IntColumnDoubles(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        void eval(int from, int length, double[] out) {
+            for (int i = 0; i < length; i++) {
+                out[i] = values[from + i];
+            }
+        }
+
+        @Override
+        DoubleBlock copy() {
+            return this;
+        }
+    }
+
+    static final class LongColumnDoubles extends DoubleBlock {
+        private final long[] values;
+
+        LongColumnDoubles(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        void eval(int from, int length, double[] out) {
+            for (int i = 0; i < length; i++) {
+                out[i] = values[from + i];
+            }
+        }
+
+        @Override
+        DoubleBlock copy() {
+            return this;
+        }
+    }
+
+    static final class DoubleColumnDoubles extends DoubleBlock {
+        private final double[] values;
+
+        DoubleColumnDoubles(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        void eval(int from, int length, double[] out) {
+            System.arraycopy(values, from, out, 0, length);
+        }
+
+        @Override
+        DoubleBlock copy() {
+            return this;
+        }
+    }
+
+    static final class DoubleConstant extends DoubleBlock {
+        private final double value;
+
+        DoubleConstant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        void eval(int from, int length, double[] out) {
+            Arrays.fill(out, 0, length, value);
+        }
+
+        @Override
+        DoubleBlock copy() {
+            return this;
+        }
+    }
+
+    /**
+     * Integral expression read as doubles.
+     */
+    static final class LongsAsDoubles extends DoubleBlock {
+        private final LongBlock values;
+        private final long[] buffer = new long[BLOCK_ROWS];
+
+        LongsAsDoubles(LongBlock values) {
+            this.values = values;
+        }
+
+        @Override
+        void eval(int from, int length, double[] out) {
+            values.eval(from, length, buffer);
+            for (int i = 0; i < length; i++) {
+                out[i] = buffer[i];
+            }
+        }
+
+        @Override
+        DoubleBlock copy() {
+            return new LongsAsDoubles(values.copy());
+        }
+    }
+
+    static final class DoubleArithmetic extends DoubleBlock {
+        private final Arithmetic operator;
+        private final DoubleBlock left;
+        private final DoubleBlock right;
+        private final double[] buffer = new double[BLOCK_ROWS];
+
+        DoubleArithmetic(Arithmetic operator, DoubleBlock left, DoubleBlock right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int length, double[] out) {
+            left.eval(from, length, out);
+            right.eval(from, length, buffer);
+            Kernels.apply(operator, out, buffer, out, length);
+        }
+
+        @Override
+        DoubleBlock copy() {
+            return new DoubleArithmetic(operator, left.copy(), right.copy());
+        }
+    }
+
+    static final class DoubleScalarArithmetic extends DoubleBlock {
+        private final Arithmetic operator;
+        private final DoubleBlock left;
+        private final double right;
+
+        DoubleScalarArithmetic(Arithmetic operator, DoubleBlock left, double right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int length, double[] out) {
+            left.eval(from, length, out);
+            Kernels.apply(operator, out, right, out, length);
+        }
+
+        @Override
+        DoubleBlock copy() {
+            return new DoubleScalarArithmetic(operator, left.copy(), right);
+        }
+    }
+
+    /*
+     * Comparisons clear the rows where an operand is missing, given by the validity of the columns they read.
+     */
+
+    static final class LongComparison extends MaskBlock {
+        private final Comparison comparison;
+        private final LongBlock left;
+        private final LongBlock right;
+        private final Bitmap validity;
+        private final long[] leftBuffer = new long[BLOCK_ROWS];
+        private final long[] rightBuffer = new long[BLOCK_ROWS];
+
+        LongComparison(Comparison comparison, LongBlock left, LongBlock right, Bitmap validity) {
+            this.comparison = comparison;
+            this.left = left;
+            this.right = right;
+            this.validity = validity;
+        }
+
+        @Override
+        void eval(int from, int length, long[] words) {
+            left.eval(from, length, leftBuffer);
+            right.eval(from, length, rightBuffer);
+            Kernels.compare(leftBuffer, rightBuffer, length, comparison, words);
+            clearMissing(words, from, length, validity);
+        }
+
+        @Override
+        MaskBlock copy() {
+            return new LongComparison(comparison, left.copy(), right.copy(), validity);
+        }
+    }
+
+    static final class LongScalarComparison extends MaskBlock {
+        private final Comparison comparison;
+        private final LongBlock left;
+        private final long right;
+        private final Bitmap validity;
+        private final long[] buffer = new long[BLOCK_ROWS];
+
+        LongScalarComparison(Comparison comparison, LongBlock left, long right, Bitmap validity) {
+            this.comparison = comparison;
+            this.left = left;
+            this.right = right;
+            this.validity = validity;
+        }
+
+        @Override
+        void eval(int from, int length, long[] words) {
+            left.eval(from, length, buffer);
+            Kernels.compare(buffer, length, comparison, right, words);
+            clearMissing(words, from, length, validity);
+        }
+
+        @Override
+        MaskBlock copy() {
+            return new LongScalarComparison(comparison, left.copy(), right, validity);
+        }
+    }
+
+    static final class DoubleComparison extends MaskBlock {
+        private final Comparison comparison;
+        private final DoubleBlock left;
+        private final DoubleBlock right;
+        private final Bitmap validity;
+        private final double[] leftBuffer = new double[BLOCK_ROWS];
+        private final double[] rightBuffer = new double[BLOCK_ROWS];
+
+        DoubleComparison(Comparison comparison, DoubleBlock left, DoubleBlock right, Bitmap validity) {
+            this.comparison = comparison;
+            this.left = left;
+            this.right = right;
+            this.validity = validity;
+        }
+
+        @Override
+        void eval(int from, int length, long[] words) {
+            left.eval(from, length, leftBuffer);
+            right.eval(from, length, rightBuffer);
+            Kernels.compare(leftBuffer, rightBuffer, length, comparison, words);
+            clearMissing(words, from, length, validity);
+        }
+
+        @Override
+        MaskBlock copy() {
+            return new DoubleComparison(comparison, left.copy(), right.copy(), validity);
+        }
+    }
+
+    static final class DoubleScalarComparison extends MaskBlock {
+        private final Comparison comparison;
+        private final DoubleBlock left;
+        private final double right;
+        private final Bitmap validity;
+        private final double[] buffer = new double[BLOCK_ROWS];
+
+        DoubleScalarComparison(Comparison comparison, DoubleBlock left, double right, Bitmap validity) {
+            this.comparison = comparison;
+            this.left = left;
+            this.right = right;
+            this.validity = validity;
+        }
+
+        @Override
+        void eval(int from, int length, long[] words) {
+            left.eval(from, length, buffer);
+            Kernels.compare(buffer, length, comparison, right, words);
+            clearMissing(words, from, length, validity);
+        }
+
+        @Override
+        MaskBlock copy() {
+            return new DoubleScalarComparison(comparison, left.copy(), right, validity);
+        }
+    }
+
+    /**
+     * Boolean column read as a condition, missing rows being false.
+     */
+    static final class BooleanColumnMask extends MaskBlock {
+        private final boolean[] values;
+        private final Bitmap validity;
+
+        BooleanColumnMask(boolean[] values, Bitmap validity) {
+            this.values = values;
+            this.validity = validity;
+        }
+
+        @Override
+        void eval(int from, int length, long[] words) {
+            for (int base = 0; base < length; base += 64) {
+                long word = 0;
+                int end = Math.min(base + 64, length);
+                for (int i = base; i < end; i++) {
+                    if (values[from + i]) {
+                        word |= 1L << i;
+                    }
+                }
+                words[base >>> 6] = word;
+            }
+            clearMissing(words, from, length, validity);
+        }
+
+        @Override
+        MaskBlock copy() {
+            return this;
+        }
+    }
+
+    /**
+     * Condition evaluated beforehand over every row.
+     */
+    static final class BitmapMask extends MaskBlock {
+        private final Bitmap mask;
+
+        BitmapMask(Bitmap mask) {
+            this.mask = mask;
+        }
+
+        @Override
+        void eval(int from, int length, long[] words) {
+            System.arraycopy(mask.words(), from >>> 6, words, 0, Bitmap.wordCount(length));
+        }
+
+        @Override
+        MaskBlock copy() {
+            return this;
+        }
+    }
+
+    static final class And extends MaskBlock {
+        private final MaskBlock left;
+        private final MaskBlock right;
+        private final long[] buffer = new long[BLOCK_WORDS];
+
+        And(MaskBlock left, MaskBlock right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int length, long[] words) {
+            left.eval(from, length, words);
+            int wordCount = Bitmap.wordCount(length);
+            long any = 0;
+            for (int w = 0; w < wordCount; w++) {
+                any |= words[w];
+            }
+            // the right condition is not evaluated on blocks where the left one selects nothing
+            if (any != 0) {
+                right.eval(from, length, buffer);
+                for (int w = 0; w < wordCount; w++) {
+                    words[w] &= buffer[w];
+                }
+            }
+        }
+
+        @Override
+        MaskBlock copy() {
+            return new And(left.copy(), right.copy());
+        }
+    }
+
+    static final class Or extends MaskBlock {
+        private final MaskBlock left;
+        private final MaskBlock right;
+        private final long[] buffer = new long[BLOCK_WORDS];
+
+        Or(MaskBlock left, MaskBlock right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void eval(int from, int length, long[] words) {
+            left.eval(from, length, words);
+            right.eval(from, length, buffer);
+            for (int w = 0; w < Bitmap.wordCount(length); w++) {
+                words[w] |= buffer[w];
+            }
+        }
+
+        @Override
+        MaskBlock copy() {
+            return new Or(left.copy(), right.copy());
+        }
+    }
+
+    static final class Not extends MaskBlock {
+        private final MaskBlock operand;
+
+        Not(MaskBlock operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        void eval(int from, int length, long[] words) {
+            operand.eval(from, length, words);
+            int wordCount = Bitmap.wordCount(length);
+            for (int w = 0; w < wordCount; w++) {
+                words[w] = ~words[w];
+            }
+            if ((length & 63) != 0) {
+                words[wordCount - 1] &= (1L << length) - 1;
+            }
+        }
+
+        @Override
+        MaskBlock copy() {
+            return new Not(operand.copy());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Column of boolean values backed by a primitive array.
+ * Missing rows hold false in the array and are cleared in the validity bitmap.
+ */
+public class BooleanColumn extends Column<Boolean> {
+    private final boolean[] values;
+
+    public BooleanColumn(boolean[] values) {
+        this(values, null);
+    }
+
+    /**
+     * @param values the values of the column
+     * @param validity the validity of each row, null if no row is missing
+     */
+    public BooleanColumn(boolean[] values, Bitmap validity) {
+        super(validity);
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public Boolean get(int index) {
+        return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.BOOLEAN;
+    }
+
+    @Override
+    BooleanColumn withMissing(Bitmap present) {
+        return new BooleanColumn(values, validity == null ? present : validity.and(present));
+    }
+
+    @Override
+    public BooleanColumn select(int[] indices) {
+        boolean[] selected = new boolean[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+        return new BooleanColumn(selected, selectValidity(indices));
+    }
+
+    @Override
+    boolean[] booleanValues() {
+        return values;
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return values[index];
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Column of primitive values read from byte buffers rather than from heap arrays: the memory-mapped blocks of a file
+ * opened by {@link Dataframe#open(String)}, whose values are only loaded when read, or the memory of an
+ * {@link OffHeapStorage}.
+ * <p>
+ * A buffer holds at most 2 GB, so the values are split into chunks of {@link #CHUNK_ROWS} rows, one buffer each.
+ * Selections copy the selected values into a heap column of the same type.
+ *
+ * @param <V> the boxed type of the values
+ */
+abstract class BufferColumn<V> extends Column<V> {
+    static final int CHUNK_SHIFT = 27;
+    static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_ROWS - 1;
+
+    protected final int size;
+    // statistics of the whole column, known in advance, null if they must be computed
+    private final ColumnStats stats;
+
+    /**
+     * @param size the number of rows
+     * @param validity the validity of each row, null if no row is missing
+     * @param stats the statistics of the whole column, null if they are not known
+     */
+    BufferColumn(int size, Bitmap validity, ColumnStats stats) {
+        super(validity);
+        this.size = size;
+        this.stats = stats;
+    }
+
+    /**
+     * @return the number of chunks holding this number of rows
+     */
+    static int chunkCount(int size) {
+        return (size + CHUNK_MASK) >>> CHUNK_SHIFT;
+    }
+
+    /**
+     * @return the number of rows of the chunk
+     */
+    static int chunkRows(int size, int chunk) {
+        return Math.min(CHUNK_ROWS, size - (chunk << CHUNK_SHIFT));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ColumnStats stats(int from, int to) {
+        if (stats != null && from == 0 && to == size) {
+            return new ColumnStats().merge(stats);
+        }
+        return super.stats(from, to);
+    }
+}
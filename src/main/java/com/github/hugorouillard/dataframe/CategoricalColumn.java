@@ -0,0 +1,206 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary-encoded column of String values: each row stores the int code of its value in the categories array.
+ * Missing rows are cleared in the validity bitmap, their code is meaningless.
+ * <p>
+ * Rows holding equal values hold equal codes, so equality tests and grouping can work on the codes alone.
+ */
+public class CategoricalColumn extends Column<String> {
+    private final int[] codes;
+    private final String[] categories;
+    // code of each category, built on the first lookup
+    private Map<String, Integer> codeIndex;
+
+    /**
+     * @param codes the code of each row, an index in categories
+     * @param categories the distinct values of the column
+     * @param validity the valid rows, null if no row is missing
+     */
+    public CategoricalColumn(int[] codes, String[] categories, Bitmap validity) {
+        super(validity);
+        this.codes = codes;
+        this.categories = categories;
+    }
+
+    /**
+     * Encodes String values, the categories being ordered by first appearance. Null values are missing rows.
+     */
+    public static CategoricalColumn encode(String[] values) {
+        Map<String, Integer> index = new HashMap<>();
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                Integer code = index.putIfAbsent(values[i], index.size());
+                codes[i] = code == null ? index.size() - 1 : code;
+            }
+        }
+        String[] categories = new String[index.size()];
+        for (Map.Entry<String, Integer> entry : index.entrySet()) {
+            categories[entry.getValue()] = entry.getKey();
+        }
+        return new CategoricalColumn(codes, categories, validityOf(Arrays.asList(values)));
+    }
+
+    @Override
+    public int size() {
+        return codes.length;
+    }
+
+    @Override
+    public String get(int index) {
+        return isNull(index) ? null : categories[codes[index]];
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.CATEGORICAL;
+    }
+
+    @Override
+    CategoricalColumn withMissing(Bitmap present) {
+        return new CategoricalColumn(codes, categories, validity == null ? present : validity.and(present));
+    }
+
+    @Override
+    public CategoricalColumn select(int[] indices) {
+        int[] selected = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = codes[indices[i]];
+        }
+        return new CategoricalColumn(selected, categories, selectValidity(indices));
+    }
+
+    /**
+     * @return the code of a row, -1 if it is missing
+     */
+    public int getCode(int index) {
+        return isNull(index) ? -1 : codes[index];
+    }
+
+    /**
+     * @return the number of distinct values, which are coded from 0 to this count excluded
+     */
+    public int categoryCount() {
+        return categories.length;
+    }
+
+    public String getCategory(int code) {
+        return categories[code];
+    }
+
+    /**
+     * @return the distinct values, indexed by code
+     */
+    public List<String> getCategories() {
+        return Collections.unmodifiableList(Arrays.asList(categories));
+    }
+
+    /**
+     * @return the code of a value, -1 if no row holds it
+     */
+    public int codeOf(String value) {
+        if (codeIndex == null) {
+            Map<String, Integer> index = new HashMap<>();
+            for (int code = 0; code < categories.length; code++) {
+                index.put(categories[code], code);
+            }
+            codeIndex = index;
+        }
+        Integer code = codeIndex.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * @return a STRING column holding the same values
+     */
+    public StringColumn decode() {
+        String[] values = new String[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            values[i] = get(i);
+        }
+        return new StringColumn(values);
+    }
+
+    /**
+     * Decides whether encoding pays off for an automatically encoded column.
+     *
+     * @return this column if it has at most one distinct value for two rows, else its decoded values
+     */
+    Column<String> decodeIfHighCardinality() {
+        return categories.length <= codes.length / 2 ? this : decode();
+    }
+
+    @Override
+    public Bitmap maskEqual(Object value) {
+        return value == null ? super.maskEqual(null) : maskIn(Collections.singleton(value));
+    }
+
+    /**
+     * Looks each value up once in the categories, then selects the rows by code.
+     */
+    @Override
+    public Bitmap maskIn(Collection<?> values) {
+        boolean[] selected = new boolean[categories.length];
+        boolean selectsNull = false;
+        for (Object value : values) {
+            if (value == null) {
+                selectsNull = true;
+            } else if (value instanceof String && codeOf((String) value) >= 0) {
+                selected[codeOf((String) value)] = true;
+            }
+        }
+        Bitmap mask = new Bitmap(codes.length);
+        long[] words = mask.words();
+        for (int i = 0; i < codes.length; i++) {
+            if (isNull(i) ? selectsNull : selected[codes[i]]) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Concatenates categorical columns, merging their categories.
+     */
+    static CategoricalColumn concat(List<CategoricalColumn> parts) {
+        Map<String, Integer> index = new HashMap<>();
+        int size = 0;
+        for (CategoricalColumn part : parts) {
+            size += part.size();
+        }
+        int[] codes = new int[size];
+        Bitmap validity = null;
+        int offset = 0;
+        for (CategoricalColumn part : parts) {
+            int[] remap = new int[part.categories.length];
+            for (int code = 0; code < remap.length; code++) {
+                Integer merged = index.putIfAbsent(part.categories[code], index.size());
+                remap[code] = merged == null ? index.size() - 1 : merged;
+            }
+            for (int i = 0; i < part.size(); i++) {
+                if (part.isNull(i)) {
+                    if (validity == null) {
+                        validity = Bitmap.allSet(size);
+                    }
+                    validity.clear(offset + i);
+                } else {
+                    codes[offset + i] = remap[part.codes[i]];
+                }
+            }
+            offset += part.size();
+        }
+        String[] categories = new String[index.size()];
+        for (Map.Entry<String, Integer> entry : index.entrySet()) {
+            categories[entry.getValue()] = entry.getKey();
+        }
+        return new CategoricalColumn(codes, categories, validity);
+    }
+}
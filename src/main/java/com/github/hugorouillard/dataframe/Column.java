@@ -0,0 +1,665 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * Typed storage behind a {@link Series}.
+ * Numerical and boolean columns keep their values in primitive arrays, so aggregations
+ * never go through boxed objects. Values are only boxed when read through {@link #get(int)}.
+ * <p>
+ * Missing values are tracked by a validity bitmap (one bit per row, set when the row holds a value)
+ * instead of null elements, so columns with missing values keep their primitive storage.
+ * Aggregations skip the invalid rows.
+ *
+ * @param <V> the boxed type of the values returned by {@link #get(int)}
+ */
+public abstract class Column<V> {
+    /**
+     * Validity of each row, null when every row holds a value.
+     */
+    protected final Bitmap validity;
+
+    protected Column(Bitmap validity) {
+        this.validity = validity;
+    }
+
+    /**
+     * @return the number of values in the column
+     */
+    public abstract int size();
+
+    /**
+     * @param index the row index
+     * @return the (boxed) value at the given index, null if the row is missing
+     */
+    public abstract V get(int index);
+
+    /**
+     * @return the storage type of the column
+     */
+    public abstract ColumnType getType();
+
+    /**
+     * Returns a new column containing the values at the given indices, in that order.
+     * Indices are expected to be in bounds.
+     *
+     * @param indices the row indices to keep
+     * @return a new column of the same type
+     */
+    public abstract Column<V> select(int[] indices);
+
+    /**
+     * Returns a view of the rows at the given indices, in that order. No value is copied: the view reads them
+     * from this column, until an aggregation materializes it. Indices are expected to be in bounds.
+     *
+     * @param indices the row indices to keep, the array must not be modified afterwards
+     * @return a view of the selected rows
+     */
+    public Column<V> view(int[] indices) {
+        return new IndexedColumn<>(this, indices);
+    }
+
+    /**
+     * Returns a view of a range of rows. No value is copied: the view reads them from this column.
+     *
+     * @param offset the first row of the range
+     * @param length the number of rows of the range
+     * @return a view of the range
+     * @throws IllegalArgumentException if the range is not inside the column
+     */
+    public Column<V> slice(int offset, int length) {
+        checkRange(offset, length);
+        return new SliceColumn<>(this, offset, length);
+    }
+
+    protected void checkRange(int offset, int length) {
+        if (offset < 0 || length < 0 || offset > size() - length) {
+            throw new IllegalArgumentException("Invalid row range");
+        }
+    }
+
+    /**
+     * Same as {@link #select(int[])}, except that negative indices give missing rows.
+     *
+     * @param indices the row indices to keep, -1 for a missing row
+     * @return a new column of the same type
+     */
+    Column<V> selectOrMissing(int[] indices) {
+        int[] rows = new int[indices.length];
+        Bitmap present = new Bitmap(indices.length);
+        boolean missing = false;
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] >= 0) {
+                rows[i] = indices[i];
+                present.set(i);
+            } else {
+                missing = true;
+            }
+        }
+        if (!missing) {
+            return select(indices);
+        }
+        if (size() == 0) {
+            // no row to select from, every row is missing
+            ColumnBuilder builder = ColumnBuilder.forType(getType(), indices.length);
+            for (int i = 0; i < indices.length; i++) {
+                builder.appendNull();
+            }
+            @SuppressWarnings("unchecked")
+            Column<V> nulls = (Column<V>) builder.build();
+            return nulls;
+        }
+        return select(rows).withMissing(present);
+    }
+
+    /**
+     * @param present the rows to keep, every other row becomes missing
+     * @return a column of the same type and values, missing where this one is or where present is cleared
+     */
+    Column<V> withMissing(Bitmap present) {
+        return materialize().withMissing(present);
+    }
+
+    /**
+     * @return a column storing its own values, this column if it is not a view
+     */
+    public Column<V> materialize() {
+        return this;
+    }
+
+    /**
+     * @return the validity bitmap of the column, null if it has no missing value
+     */
+    public Bitmap getValidity() {
+        return validity;
+    }
+
+    /**
+     * @param index the row index
+     * @return true if the row holds no value
+     */
+    public boolean isNull(int index) {
+        return validity != null && !validity.get(index);
+    }
+
+    /**
+     * @return the number of missing values
+     */
+    public int nullCount() {
+        return validity == null ? 0 : size() - validity.cardinality();
+    }
+
+    /**
+     * @return the number of non-missing values
+     */
+    public int count() {
+        return size() - nullCount();
+    }
+
+    /**
+     * @param from the first row to look at
+     * @return the first row at or after {@code from} holding a value, -1 if there is none
+     */
+    protected int nextValid(int from) {
+        if (validity == null) {
+            return from < size() ? from : -1;
+        }
+        return validity.nextSetBit(from);
+    }
+
+    /**
+     * @param base the first row of a validity word
+     * @param from the first row of a range, inclusive
+     * @param to the last row of a range, exclusive
+     * @return the bits of the word holding rows of the range
+     */
+    protected static long rangeMask(int base, int from, int to) {
+        long mask = -1L;
+        if (base < from) {
+            mask <<= from - base;
+        }
+        if (base + 64 > to) {
+            mask &= -1L >>> (base + 64 - to);
+        }
+        return mask;
+    }
+
+    /**
+     * @param indices the row indices to keep
+     * @return the validity of the selected rows, null if the column has no missing value
+     */
+    protected Bitmap selectValidity(int[] indices) {
+        return validity == null ? null : validity.select(indices);
+    }
+
+    /**
+     * @return true if the column holds numerical values
+     */
+    public boolean isNumeric() {
+        return getType().isNumeric();
+    }
+
+    public int getInt(int index) {
+        throw unsupported("int");
+    }
+
+    public long getLong(int index) {
+        throw unsupported("long");
+    }
+
+    public double getDouble(int index) {
+        throw unsupported("double");
+    }
+
+    public boolean getBoolean(int index) {
+        throw unsupported("boolean");
+    }
+
+    /**
+     * @return the sum of the non-missing values, as a double
+     */
+    public double sum() {
+        double sum = 0;
+        for (int i = nextValid(0); i >= 0; i = nextValid(i + 1)) {
+            sum += getDouble(i);
+        }
+        return sum;
+    }
+
+    /**
+     * @param mean the mean of the column
+     * @return the sum of the squared differences between each non-missing value and the mean
+     */
+    public double sumSquaredDiff(double mean) {
+        double sum = 0;
+        for (int i = nextValid(0); i >= 0; i = nextValid(i + 1)) {
+            double diff = getDouble(i) - mean;
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    /**
+     * @return the count, sum, mean, variance, min and max of the non-missing values, computed in a single pass
+     */
+    public ColumnStats stats() {
+        return stats(0, size());
+    }
+
+    /**
+     * @param from the first row, inclusive
+     * @param to the last row, exclusive
+     * @return the statistics of the non-missing values between these rows
+     */
+    public ColumnStats stats(int from, int to) {
+        ColumnStats stats = new ColumnStats();
+        boolean integral = getType() == ColumnType.INT || getType() == ColumnType.LONG;
+        for (int i = nextValid(from); i >= 0 && i < to; i = nextValid(i + 1)) {
+            if (integral) {
+                stats.add(getLong(i));
+            } else {
+                stats.add(getDouble(i));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * @return the index of the first minimum value, -1 if the column has no value
+     */
+    public int argMin() {
+        return argMin(0, size());
+    }
+
+    /**
+     * @param from the first row, inclusive
+     * @param to the last row, exclusive
+     * @return the index of the first minimum value between these rows, -1 if there is no value
+     */
+    public int argMin(int from, int to) {
+        int index = nextValid(from);
+        if (index >= to) {
+            return -1;
+        }
+        for (int i = index; i >= 0 && i < to; i = nextValid(i + 1)) {
+            if (getDouble(i) < getDouble(index)) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return the index of the first maximum value, -1 if the column has no value
+     */
+    public int argMax() {
+        return argMax(0, size());
+    }
+
+    /**
+     * @param from the first row, inclusive
+     * @param to the last row, exclusive
+     * @return the index of the first maximum value between these rows, -1 if there is no value
+     */
+    public int argMax(int from, int to) {
+        int index = nextValid(from);
+        if (index >= to) {
+            return -1;
+        }
+        for (int i = index; i >= 0 && i < to; i = nextValid(i + 1)) {
+            if (getDouble(i) > getDouble(index)) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return a fresh primitive copy of the non-missing values
+     */
+    public double[] toDoubleArray() {
+        double[] values = new double[count()];
+        int n = 0;
+        for (int i = nextValid(0); i >= 0; i = nextValid(i + 1)) {
+            values[n++] = getDouble(i);
+        }
+        return values;
+    }
+
+    /*
+     * Unboxed values of every row, missing rows included with an unspecified value, for the loops of element-wise
+     * operations. Columns backed by an array of the requested type return that array, which must not be modified.
+     */
+
+    int[] intValues() {
+        int[] values = new int[size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getInt(i);
+        }
+        return values;
+    }
+
+    long[] longValues() {
+        long[] values = new long[size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getLong(i);
+        }
+        return values;
+    }
+
+    double[] doubleValues() {
+        double[] values = new double[size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getDouble(i);
+        }
+        return values;
+    }
+
+    boolean[] booleanValues() {
+        boolean[] values = new boolean[size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getBoolean(i);
+        }
+        return values;
+    }
+
+    /**
+     * @param condition the condition on the int values
+     * @return a mask of the rows holding a value that satisfies the condition, missing rows are never set
+     */
+    public Bitmap maskInt(IntPredicate condition) {
+        Bitmap mask = new Bitmap(size());
+        for (int i = nextValid(0); i >= 0; i = nextValid(i + 1)) {
+            if (condition.test(getInt(i))) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param condition the condition on the long values
+     * @return a mask of the rows holding a value that satisfies the condition, missing rows are never set
+     */
+    public Bitmap maskLong(LongPredicate condition) {
+        Bitmap mask = new Bitmap(size());
+        for (int i = nextValid(0); i >= 0; i = nextValid(i + 1)) {
+            if (condition.test(getLong(i))) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param condition the condition on the double values
+     * @return a mask of the rows holding a value that satisfies the condition, missing rows are never set
+     */
+    public Bitmap maskDouble(DoublePredicate condition) {
+        Bitmap mask = new Bitmap(size());
+        for (int i = nextValid(0); i >= 0; i = nextValid(i + 1)) {
+            if (condition.test(getDouble(i))) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param value the value to look for, null matching the missing rows
+     * @return a mask of the rows equal to the value
+     */
+    public Bitmap maskEqual(Object value) {
+        Bitmap mask = new Bitmap(size());
+        for (int i = 0; i < size(); i++) {
+            if (Objects.equals(get(i), value)) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param values the values to look for, null matching the missing rows
+     * @return a mask of the rows equal to one of the values
+     */
+    public Bitmap maskIn(Collection<?> values) {
+        Set<?> set = new HashSet<>(values);
+        Bitmap mask = new Bitmap(size());
+        for (int i = 0; i < size(); i++) {
+            if (set.contains(get(i))) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @return a read-only list view of the column, boxing values on access
+     */
+    public List<V> asList() {
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index) {
+                return Column.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return Column.this.size();
+            }
+        };
+    }
+
+    private UnsupportedOperationException unsupported(String type) {
+        return new UnsupportedOperationException(getType() + " column cannot be read as " + type);
+    }
+
+    /**
+     * Builds a column from an array. Primitive arrays are kept as they are (float values are widened to double),
+     * object arrays are stored in the most specific column type matching all of their elements.
+     *
+     * @param array the array to wrap
+     * @return a column holding the array values
+     * @throws IllegalArgumentException if the array type is not supported
+     */
+    public static Column<?> of(Object array) {
+        if (array instanceof int[]) {
+            return new IntColumn((int[]) array);
+        } else if (array instanceof double[]) {
+            return new DoubleColumn((double[]) array);
+        } else if (array instanceof boolean[]) {
+            return new BooleanColumn((boolean[]) array);
+        } else if (array instanceof float[]) {
+            float[] arr = (float[]) array;
+            double[] values = new double[arr.length];
+            for (int i = 0; i < arr.length; i++) {
+                values[i] = arr[i];
+            }
+            return new DoubleColumn(values);
+        } else if (array instanceof long[]) {
+            return new LongColumn((long[]) array);
+        } else if (array instanceof Object[]) {
+            return fromList(Arrays.asList((Object[]) array));
+        }
+        throw new IllegalArgumentException("Unsuported array type : " + array.getClass().getSimpleName());
+    }
+
+    /**
+     * Builds a column from a list, unboxing it into primitive storage when all non-null elements share the same type.
+     * Null elements are recorded as missing in the validity bitmap. Lists mixing several types are kept as objects.
+     *
+     * @param list the values of the column
+     * @param <V> the type of the values
+     * @return a column holding the list values
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> Column<V> fromList(List<V> list) {
+        Class<?> type = null;
+        for (V value : list) {
+            if (value == null) {
+                continue;
+            }
+            if (type == null) {
+                type = value.getClass();
+            } else if (type != value.getClass()) {
+                return new ObjectColumn<>(list);
+            }
+        }
+
+        if (type == String.class) {
+            return (Column<V>) new StringColumn(list.toArray(new String[0]));
+        }
+        int size = list.size();
+        Bitmap validity = validityOf(list);
+        if (type == Integer.class) {
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++) {
+                Object value = list.get(i);
+                values[i] = value == null ? 0 : (Integer) value;
+            }
+            return (Column<V>) new IntColumn(values, validity);
+        } else if (type == Long.class) {
+            long[] values = new long[size];
+            for (int i = 0; i < size; i++) {
+                Object value = list.get(i);
+                values[i] = value == null ? 0 : (Long) value;
+            }
+            return (Column<V>) new LongColumn(values, validity);
+        } else if (type == Double.class) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                Object value = list.get(i);
+                values[i] = value == null ? 0 : (Double) value;
+            }
+            return (Column<V>) new DoubleColumn(values, validity);
+        } else if (type == Boolean.class) {
+            boolean[] values = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                Object value = list.get(i);
+                values[i] = value != null && (Boolean) value;
+            }
+            return (Column<V>) new BooleanColumn(values, validity);
+        }
+        return new ObjectColumn<>(list);
+    }
+
+    /**
+     * Concatenates columns of the same type into a single column.
+     *
+     * @param parts the columns to concatenate, in order
+     * @param type the type of every part
+     * @return a new column holding the values of every part
+     */
+    static Column<?> concat(List<? extends Column<?>> parts, ColumnType type) {
+        int size = 0;
+        boolean hasNull = false;
+        for (Column<?> part : parts) {
+            size += part.size();
+            hasNull |= part.getValidity() != null;
+        }
+        Bitmap validity = hasNull ? Bitmap.allSet(size) : null;
+        if (hasNull) {
+            int offset = 0;
+            for (Column<?> part : parts) {
+                for (int i = 0; i < part.size(); i++) {
+                    if (part.isNull(i)) {
+                        validity.clear(offset + i);
+                    }
+                }
+                offset += part.size();
+            }
+        }
+
+        int offset = 0;
+        switch (type) {
+            case INT: {
+                int[] values = new int[size];
+                for (Column<?> part : parts) {
+                    for (int i = 0; i < part.size(); i++) {
+                        values[offset++] = part.getInt(i);
+                    }
+                }
+                return new IntColumn(values, validity);
+            }
+            case LONG: {
+                long[] values = new long[size];
+                for (Column<?> part : parts) {
+                    for (int i = 0; i < part.size(); i++) {
+                        values[offset++] = part.getLong(i);
+                    }
+                }
+                return new LongColumn(values, validity);
+            }
+            case DOUBLE: {
+                double[] values = new double[size];
+                for (Column<?> part : parts) {
+                    for (int i = 0; i < part.size(); i++) {
+                        values[offset++] = part.getDouble(i);
+                    }
+                }
+                return new DoubleColumn(values, validity);
+            }
+            case BOOLEAN: {
+                boolean[] values = new boolean[size];
+                for (Column<?> part : parts) {
+                    for (int i = 0; i < part.size(); i++) {
+                        values[offset++] = part.getBoolean(i);
+                    }
+                }
+                return new BooleanColumn(values, validity);
+            }
+            case CATEGORICAL:
+            case STRING: {
+                if (parts.stream().allMatch(part -> part instanceof CategoricalColumn)) {
+                    List<CategoricalColumn> categoricalParts = new ArrayList<>();
+                    for (Column<?> part : parts) {
+                        categoricalParts.add((CategoricalColumn) part);
+                    }
+                    return CategoricalColumn.concat(categoricalParts);
+                }
+                String[] values = new String[size];
+                for (Column<?> part : parts) {
+                    for (int i = 0; i < part.size(); i++) {
+                        values[offset++] = (String) part.get(i);
+                    }
+                }
+                return new StringColumn(values);
+            }
+            default: {
+                List<Object> values = new ArrayList<>(size);
+                for (Column<?> part : parts) {
+                    values.addAll(part.asList());
+                }
+                return new ObjectColumn<>(values);
+            }
+        }
+    }
+
+    /**
+     * @param values the values of a column
+     * @return a bitmap with the non-null values set, null if there is no null value
+     */
+    static Bitmap validityOf(List<?> values) {
+        Bitmap validity = null;
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == null) {
+                if (validity == null) {
+                    validity = Bitmap.allSet(values.size());
+                }
+                validity.clear(i);
+            }
+        }
+        return validity;
+    }
+}
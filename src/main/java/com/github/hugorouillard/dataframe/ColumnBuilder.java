@@ -0,0 +1,441 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Growable buffer building a typed column one value at a time, without boxing.
+ */
+abstract class ColumnBuilder {
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_INITIAL_CAPACITY = 1 << 12;
+    // the largest number of distinct values of an automatically dictionary-encoded column
+    static final int MAX_AUTO_CATEGORIES = 1 << 12;
+
+    protected int size;
+    // one bit per missing row, allocated on the first missing value and grown by the next ones only: the rows
+    // past its end are present
+    private long[] nulls;
+
+    /**
+     * @param type the type of the column to build, OBJECT columns are built as STRING
+     * @param expectedSize the expected number of values, used as initial capacity
+     * @return an empty builder
+     */
+    static ColumnBuilder forType(ColumnType type, int expectedSize) {
+        int capacity = Math.min(MAX_INITIAL_CAPACITY, Math.max(MIN_CAPACITY, expectedSize));
+        switch (type) {
+            case INT:
+                return new IntColumnBuilder(capacity);
+            case LONG:
+                return new LongColumnBuilder(capacity);
+            case DOUBLE:
+                return new DoubleColumnBuilder(capacity);
+            case BOOLEAN:
+                return new BooleanColumnBuilder(capacity);
+            case CATEGORICAL:
+                return new StringColumnBuilder(capacity, true, false);
+            default:
+                return new StringColumnBuilder(capacity, false, false);
+        }
+    }
+
+    /**
+     * Same as {@link #forType}, except that STRING columns are dictionary-encoded as long as they hold at most
+     * {@link #MAX_AUTO_CATEGORIES} distinct values. See {@link CategoricalColumn#decodeIfHighCardinality()}.
+     */
+    static ColumnBuilder forInferredType(ColumnType type, int expectedSize) {
+        if (type == ColumnType.STRING) {
+            return new StringColumnBuilder(Math.min(MAX_INITIAL_CAPACITY, Math.max(MIN_CAPACITY, expectedSize)), true, true);
+        }
+        return forType(type, expectedSize);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Appends a missing value.
+     */
+    void appendNull() {
+        if (nulls == null) {
+            nulls = new long[Bitmap.wordCount(Math.max(size + 1, capacity()))];
+        } else if (nulls.length < Bitmap.wordCount(size + 1)) {
+            nulls = Arrays.copyOf(nulls, Math.max(nulls.length * 2, Bitmap.wordCount(size + 1)));
+        }
+        nulls[size >>> 6] |= 1L << size;
+        ensureCapacity(size + 1);
+        size++;
+    }
+
+    boolean isNull(int index) {
+        return nulls != null && index >>> 6 < nulls.length && (nulls[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Parses a field of the current record of a tokenizer and appends it.
+     * Fields that are empty or cannot be parsed as the column type are appended as missing values.
+     *
+     * @return false if the field cannot be parsed as the column type
+     */
+    final boolean appendField(CsvTokenizer tokenizer, int field) {
+        if (!tryAppendField(tokenizer, field)) {
+            appendNull();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses a field of the current record of a tokenizer and appends it, empty fields being missing values.
+     *
+     * @return false if the field cannot be parsed as the column type, nothing is appended then
+     */
+    abstract boolean tryAppendField(CsvTokenizer tokenizer, int field);
+
+    /**
+     * Copies the values into a builder of a wider type, following {@link TypeClassifier#promote}.
+     * Values promoted to STRING are written in their canonical form.
+     *
+     * @return the promoted builder, this builder must not be used afterwards
+     */
+    ColumnBuilder promote(ColumnType type) {
+        ColumnBuilder promoted = forInferredType(type, capacity());
+        for (int i = 0; i < size; i++) {
+            if (isNull(i)) {
+                promoted.appendNull();
+            } else {
+                appendValueTo(promoted, i);
+            }
+        }
+        return promoted;
+    }
+
+    protected abstract void appendValueTo(ColumnBuilder target, int index);
+
+    /**
+     * @return the built column, the builder must not be used afterwards
+     */
+    abstract Column<?> build();
+
+    protected abstract int capacity();
+
+    protected abstract void ensureCapacity(int capacity);
+
+    protected static int grow(int capacity, int needed) {
+        return Math.max(needed, capacity + (capacity >> 1));
+    }
+
+    protected Bitmap buildValidity() {
+        if (nulls == null) {
+            return null;
+        }
+        Bitmap validity = Bitmap.allSet(size);
+        long[] words = validity.words();
+        for (int w = 0, end = Math.min(words.length, nulls.length); w < end; w++) {
+            words[w] &= ~nulls[w];
+        }
+        return validity;
+    }
+
+    static final class IntColumnBuilder extends ColumnBuilder {
+        private int[] values;
+
+        IntColumnBuilder(int capacity) {
+            values = new int[capacity];
+        }
+
+        void append(int value) {
+            ensureCapacity(size + 1);
+            values[size++] = value;
+        }
+
+        @Override
+        boolean tryAppendField(CsvTokenizer tokenizer, int field) {
+            if (tokenizer.parseInt(field)) {
+                append(tokenizer.intValue());
+            } else if (tokenizer.isEmpty(field)) {
+                appendNull();
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        protected void appendValueTo(ColumnBuilder target, int index) {
+            if (target instanceof LongColumnBuilder) {
+                ((LongColumnBuilder) target).append(values[index]);
+            } else if (target instanceof DoubleColumnBuilder) {
+                ((DoubleColumnBuilder) target).append(values[index]);
+            } else {
+                ((StringColumnBuilder) target).append(Integer.toString(values[index]));
+            }
+        }
+
+        @Override
+        IntColumn build() {
+            return new IntColumn(values.length == size ? values : Arrays.copyOf(values, size), buildValidity());
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+
+    static final class LongColumnBuilder extends ColumnBuilder {
+        private long[] values;
+
+        LongColumnBuilder(int capacity) {
+            values = new long[capacity];
+        }
+
+        void append(long value) {
+            ensureCapacity(size + 1);
+            values[size++] = value;
+        }
+
+        @Override
+        boolean tryAppendField(CsvTokenizer tokenizer, int field) {
+            if (tokenizer.parseLong(field)) {
+                append(tokenizer.longValue());
+            } else if (tokenizer.isEmpty(field)) {
+                appendNull();
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        protected void appendValueTo(ColumnBuilder target, int index) {
+            if (target instanceof DoubleColumnBuilder) {
+                ((DoubleColumnBuilder) target).append(values[index]);
+            } else {
+                ((StringColumnBuilder) target).append(Long.toString(values[index]));
+            }
+        }
+
+        @Override
+        LongColumn build() {
+            return new LongColumn(values.length == size ? values : Arrays.copyOf(values, size), buildValidity());
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+
+    static final class DoubleColumnBuilder extends ColumnBuilder {
+        private double[] values;
+
+        DoubleColumnBuilder(int capacity) {
+            values = new double[capacity];
+        }
+
+        void append(double value) {
+            ensureCapacity(size + 1);
+            values[size++] = value;
+        }
+
+        @Override
+        boolean tryAppendField(CsvTokenizer tokenizer, int field) {
+            if (tokenizer.parseDouble(field)) {
+                append(tokenizer.doubleValue());
+            } else if (tokenizer.isEmpty(field)) {
+                appendNull();
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        protected void appendValueTo(ColumnBuilder target, int index) {
+            ((StringColumnBuilder) target).append(Double.toString(values[index]));
+        }
+
+        @Override
+        DoubleColumn build() {
+            return new DoubleColumn(values.length == size ? values : Arrays.copyOf(values, size), buildValidity());
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+
+    static final class BooleanColumnBuilder extends ColumnBuilder {
+        private boolean[] values;
+
+        BooleanColumnBuilder(int capacity) {
+            values = new boolean[capacity];
+        }
+
+        void append(boolean value) {
+            ensureCapacity(size + 1);
+            values[size++] = value;
+        }
+
+        @Override
+        boolean tryAppendField(CsvTokenizer tokenizer, int field) {
+            if (tokenizer.equalsIgnoreCase(field, "true")) {
+                append(true);
+            } else if (tokenizer.equalsIgnoreCase(field, "false")) {
+                append(false);
+            } else if (tokenizer.isEmpty(field)) {
+                appendNull();
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        protected void appendValueTo(ColumnBuilder target, int index) {
+            ((StringColumnBuilder) target).append(Boolean.toString(values[index]));
+        }
+
+        @Override
+        BooleanColumn build() {
+            return new BooleanColumn(values.length == size ? values : Arrays.copyOf(values, size), buildValidity());
+        }
+
+        @Override
+        protected int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+
+    /**
+     * Builds STRING columns, or CATEGORICAL columns by dictionary-encoding the values as they are appended.
+     */
+    static final class StringColumnBuilder extends ColumnBuilder {
+        private final boolean capped;
+        // plain values, null while the values are encoded
+        private String[] values;
+        // encoded values, null once the values are plain
+        private int[] codes;
+        private Map<String, Integer> codeIndex;
+        private List<String> categories;
+
+        /**
+         * @param encode whether to build a CATEGORICAL column
+         * @param capped whether to fall back to a STRING column past {@link #MAX_AUTO_CATEGORIES} distinct values
+         */
+        StringColumnBuilder(int capacity, boolean encode, boolean capped) {
+            this.capped = capped;
+            if (encode) {
+                codes = new int[capacity];
+                codeIndex = new HashMap<>();
+                categories = new ArrayList<>();
+            } else {
+                values = new String[capacity];
+            }
+        }
+
+        void append(String value) {
+            ensureCapacity(size + 1);
+            if (codes != null) {
+                Integer code = codeIndex.putIfAbsent(value, categories.size());
+                if (code == null) {
+                    categories.add(value);
+                    if (capped && categories.size() > MAX_AUTO_CATEGORIES) {
+                        decode();
+                        values[size++] = value;
+                        return;
+                    }
+                    code = categories.size() - 1;
+                }
+                codes[size++] = code;
+            } else {
+                values[size++] = value;
+            }
+        }
+
+        private void decode() {
+            values = new String[codes.length];
+            for (int i = 0; i < size; i++) {
+                if (!isNull(i)) {
+                    values[i] = categories.get(codes[i]);
+                }
+            }
+            codes = null;
+            codeIndex = null;
+            categories = null;
+        }
+
+        @Override
+        boolean tryAppendField(CsvTokenizer tokenizer, int field) {
+            if (tokenizer.isEmpty(field)) {
+                appendNull();
+            } else {
+                append(tokenizer.getString(field));
+            }
+            return true;
+        }
+
+        @Override
+        protected void appendValueTo(ColumnBuilder target, int index) {
+            ((StringColumnBuilder) target).append(codes != null ? categories.get(codes[index]) : values[index]);
+        }
+
+        @Override
+        Column<String> build() {
+            if (codes != null) {
+                return new CategoricalColumn(codes.length == size ? codes : Arrays.copyOf(codes, size),
+                        categories.toArray(new String[0]), buildValidity());
+            }
+            return new StringColumn(values.length == size ? values : Arrays.copyOf(values, size));
+        }
+
+        @Override
+        protected int capacity() {
+            return codes != null ? codes.length : values.length;
+        }
+
+        @Override
+        protected void ensureCapacity(int capacity) {
+            if (codes != null && capacity > codes.length) {
+                codes = Arrays.copyOf(codes, grow(codes.length, capacity));
+            } else if (codes == null && capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Element-wise operations between numerical columns, or between a column and a scalar, behind the arithmetic of
+ * {@link Series}. The values are read as primitive arrays and combined by the {@link Kernels}.
+ * <p>
+ * Type promotion: int and long operands are combined as longs into a long column, except by a division; any double
+ * operand, or a division, gives a double column. Comparisons between int and long operands are exact, the other ones
+ * compare doubles. A row is missing in the result if it is missing in an operand.
+ */
+final class ColumnMath {
+    private ColumnMath() {
+    }
+
+    static Column<?> apply(Arithmetic operator, Column<?> left, Column<?> right) {
+        checkOperands(left, right);
+        int size = left.size();
+        Bitmap validity = validity(left, right);
+        if (operator != Arithmetic.DIVIDE && isIntegral(left.getType()) && isIntegral(right.getType())) {
+            long[] result = new long[size];
+            Kernels.apply(operator, left.longValues(), right.longValues(), result, size);
+            return new LongColumn(result, validity);
+        }
+        double[] result = new double[size];
+        Kernels.apply(operator, left.doubleValues(), right.doubleValues(), result, size);
+        return new DoubleColumn(result, validity);
+    }
+
+    static Column<?> apply(Arithmetic operator, Column<?> left, Number right) {
+        checkNumeric(left);
+        int size = left.size();
+        if (operator != Arithmetic.DIVIDE && isIntegral(left.getType()) && isIntegral(right)) {
+            long[] result = new long[size];
+            Kernels.apply(operator, left.longValues(), right.longValue(), result, size);
+            return new LongColumn(result, left.getValidity());
+        }
+        double[] result = new double[size];
+        Kernels.apply(operator, left.doubleValues(), right.doubleValue(), result, size);
+        return new DoubleColumn(result, left.getValidity());
+    }
+
+    /**
+     * @return a mask of the rows whose values compare, missing rows are never set
+     */
+    static Bitmap compare(Comparison comparison, Column<?> left, Column<?> right) {
+        checkOperands(left, right);
+        int size = left.size();
+        Bitmap mask = new Bitmap(size);
+        if (isIntegral(left.getType()) && isIntegral(right.getType())) {
+            Kernels.compare(left.longValues(), right.longValues(), size, comparison, mask.words());
+        } else {
+            Kernels.compare(left.doubleValues(), right.doubleValues(), size, comparison, mask.words());
+        }
+        Bitmap validity = validity(left, right);
+        return validity == null ? mask : mask.and(validity);
+    }
+
+    /**
+     * @return a mask of the rows whose value compares to the scalar, missing rows are never set
+     */
+    static Bitmap compare(Comparison comparison, Column<?> left, Number right) {
+        checkNumeric(left);
+        int size = left.size();
+        Bitmap mask = new Bitmap(size);
+        if (isIntegral(left.getType()) && isIntegral(right)) {
+            Kernels.compare(left.longValues(), size, comparison, right.longValue(), mask.words());
+        } else {
+            Kernels.compare(left.doubleValues(), size, comparison, right.doubleValue(), mask.words());
+        }
+        Bitmap validity = left.getValidity();
+        return validity == null ? mask : mask.and(validity);
+    }
+
+    /**
+     * @return a column of the same type holding the absolute values, the minimum int or long value staying negative
+     */
+    static Column<?> abs(Column<?> column) {
+        checkNumeric(column);
+        switch (column.getType()) {
+            case INT:
+                int[] ints = column.intValues();
+                int[] absInts = new int[ints.length];
+                for (int i = 0; i < ints.length; i++) {
+                    absInts[i] = Math.abs(ints[i]);
+                }
+                return new IntColumn(absInts, column.getValidity());
+            case LONG:
+                long[] longs = column.longValues();
+                long[] absLongs = new long[longs.length];
+                for (int i = 0; i < longs.length; i++) {
+                    absLongs[i] = Math.abs(longs[i]);
+                }
+                return new LongColumn(absLongs, column.getValidity());
+            default:
+                return map(column, Math::abs);
+        }
+    }
+
+    /**
+     * @return a column of the same type holding the opposite values, the minimum int or long value staying negative
+     */
+    static Column<?> negate(Column<?> column) {
+        checkNumeric(column);
+        switch (column.getType()) {
+            case INT:
+                int[] ints = column.intValues();
+                int[] negated = new int[ints.length];
+                for (int i = 0; i < ints.length; i++) {
+                    negated[i] = -ints[i];
+                }
+                return new IntColumn(negated, column.getValidity());
+            case LONG:
+                long[] longs = column.longValues();
+                long[] negatedLongs = new long[longs.length];
+                for (int i = 0; i < longs.length; i++) {
+                    negatedLongs[i] = -longs[i];
+                }
+                return new LongColumn(negatedLongs, column.getValidity());
+            default:
+                return map(column, value -> -value);
+        }
+    }
+
+    /**
+     * @return a double column holding the function of each value
+     */
+    static DoubleColumn map(Column<?> column, DoubleUnaryOperator function) {
+        checkNumeric(column);
+        double[] values = column.doubleValues();
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = function.applyAsDouble(values[i]);
+        }
+        return new DoubleColumn(result, column.getValidity());
+    }
+
+    private static boolean isIntegral(ColumnType type) {
+        return type == ColumnType.INT || type == ColumnType.LONG;
+    }
+
+    static boolean isIntegral(Number scalar) {
+        return scalar instanceof Integer || scalar instanceof Long || scalar instanceof Short || scalar instanceof Byte;
+    }
+
+    /**
+     * @return the rows present in both columns, null if no row is missing
+     */
+    private static Bitmap validity(Column<?> left, Column<?> right) {
+        Bitmap leftValidity = left.getValidity();
+        Bitmap rightValidity = right.getValidity();
+        if (leftValidity == null) {
+            return rightValidity;
+        }
+        return rightValidity == null ? leftValidity : leftValidity.and(rightValidity);
+    }
+
+    private static void checkOperands(Column<?> left, Column<?> right) {
+        checkNumeric(left);
+        checkNumeric(right);
+        if (left.size() != right.size()) {
+            throw new IllegalArgumentException("Series must have the same size");
+        }
+    }
+
+    private static void checkNumeric(Column<?> column) {
+        if (!column.isNumeric()) {
+            throw new IllegalArgumentException("Series must contain numerical values");
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.github.hugorouillard.dataframe;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Running statistics of numerical values: count, sum, mean, variance, min and max, computed in a single pass.
+ * <p>
+ * The mean and the sum of squared differences are updated with Welford's method, which stays accurate when the
+ * values are large compared to their spread. Two accumulators can be merged, so the values can be split in chunks
+ * accumulated separately (for instance in parallel) and combined afterwards.
+ * <p>
+ * When every value is added as a long, the minimum and maximum are also kept as longs, exact beyond 2^53.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     ColumnStats stats = series.getColumn().stats();
+ *     double std = stats.getStd();
+ * }</pre>
+ */
+public final class ColumnStats {
+    /**
+     * Size of the state written by {@link #write(ByteBuffer)}.
+     */
+    static final int BYTES = 6 * Long.BYTES;
+    /**
+     * Size of the exact extremes written by {@link #write(ByteBuffer)} after the state, when there are some.
+     */
+    static final int LONG_EXTREMES_BYTES = 2 * Long.BYTES;
+
+    private long count;
+    private double sum;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    // false once a value is not added as a long
+    private boolean integral = true;
+    private long longMin = Long.MAX_VALUE;
+    private long longMax = Long.MIN_VALUE;
+
+    /**
+     * @param m2 the sum of the squared differences between the values and their mean
+     * @return the statistics of values summarized by these figures
+     */
+    static ColumnStats of(long count, double sum, double mean, double m2, double min, double max) {
+        ColumnStats stats = new ColumnStats();
+        if (count > 0) {
+            stats.count = count;
+            stats.sum = sum;
+            stats.mean = mean;
+            stats.m2 = m2;
+            stats.min = min;
+            stats.max = max;
+            stats.integral = false;
+        }
+        return stats;
+    }
+
+    /**
+     * Same as {@link #of(long, double, double, double, double, double)} for integral values, whose extremes are exact.
+     */
+    static ColumnStats of(long count, double sum, double mean, double m2, long min, long max) {
+        ColumnStats stats = of(count, sum, mean, m2, (double) min, (double) max);
+        if (count > 0) {
+            stats.integral = true;
+            stats.longMin = min;
+            stats.longMax = max;
+        }
+        return stats;
+    }
+
+    /**
+     * Adds a value to the statistics.
+     */
+    public void add(double value) {
+        update(value);
+        integral = false;
+    }
+
+    /**
+     * Adds an integral value to the statistics. Its minimum and maximum are kept exactly, see {@link #hasLongExtremes()}.
+     */
+    public void add(long value) {
+        update(value);
+        if (value < longMin) {
+            longMin = value;
+        }
+        if (value > longMax) {
+            longMax = value;
+        }
+    }
+
+    private void update(double value) {
+        count++;
+        sum += value;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Adds the values accumulated by another instance, as if they had been added to this one.
+     *
+     * @param other the statistics to merge, left unchanged
+     * @return this instance
+     */
+    public ColumnStats merge(ColumnStats other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            sum = other.sum;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            integral = other.integral;
+            longMin = other.longMin;
+            longMax = other.longMax;
+            return this;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        integral &= other.integral;
+        longMin = Math.min(longMin, other.longMin);
+        longMax = Math.max(longMax, other.longMax);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the mean of the values, NaN if there is none
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return the population variance of the values, NaN if there is none
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /**
+     * @return the population standard deviation of the values, NaN if there is none
+     */
+    public double getStd() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return the minimum value, NaN if there is none
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return the maximum value, NaN if there is none
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * @return true if every value was added as a long, so that {@link #getLongMin()} and {@link #getLongMax()} are
+     * exact, false if there is no value
+     */
+    public boolean hasLongExtremes() {
+        return count > 0 && integral;
+    }
+
+    /**
+     * @return the exact minimum value
+     * @throws IllegalStateException if the values were not all added as longs
+     */
+    public long getLongMin() {
+        if (!hasLongExtremes()) {
+            throw new IllegalStateException("No exact long minimum");
+        }
+        return longMin;
+    }
+
+    /**
+     * @return the exact maximum value
+     * @throws IllegalStateException if the values were not all added as longs
+     */
+    public long getLongMax() {
+        if (!hasLongExtremes()) {
+            throw new IllegalStateException("No exact long maximum");
+        }
+        return longMax;
+    }
+
+    /**
+     * Writes the accumulated state, {@link #BYTES} bytes, followed by {@link #LONG_EXTREMES_BYTES} bytes if
+     * {@link #hasLongExtremes()}, to be read back by {@link #read(ByteBuffer, boolean)}.
+     */
+    void write(ByteBuffer buffer) {
+        buffer.putLong(count).putDouble(sum).putDouble(mean).putDouble(m2).putDouble(min).putDouble(max);
+        if (hasLongExtremes()) {
+            buffer.putLong(longMin).putLong(longMax);
+        }
+    }
+
+    /**
+     * @param longExtremes true if the state is followed by exact long extremes
+     */
+    static ColumnStats read(ByteBuffer buffer, boolean longExtremes) {
+        ColumnStats stats = new ColumnStats();
+        stats.count = buffer.getLong();
+        stats.sum = buffer.getDouble();
+        stats.mean = buffer.getDouble();
+        stats.m2 = buffer.getDouble();
+        stats.min = buffer.getDouble();
+        stats.max = buffer.getDouble();
+        stats.integral = longExtremes;
+        if (longExtremes) {
+            stats.longMin = buffer.getLong();
+            stats.longMax = buffer.getLong();
+        }
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStats{count=" + count + ", mean=" + getMean() + ", std=" + getStd()
+                + ", min=" + getMin() + ", max=" + getMax() + "}";
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Storage type of a {@link Column}.
+ */
+public enum ColumnType {
+    INT(Integer.class),
+    LONG(Long.class),
+    DOUBLE(Double.class),
+    BOOLEAN(Boolean.class),
+    STRING(String.class),
+    // dictionary-encoded String values
+    CATEGORICAL(String.class),
+    OBJECT(Object.class);
+
+    private final Class<?> javaType;
+
+    ColumnType(Class<?> javaType) {
+        this.javaType = javaType;
+    }
+
+    /**
+     * @return the boxed java type of the values stored in a column of this type
+     */
+    public Class<?> getJavaType() {
+        return javaType;
+    }
+
+    /**
+     * @param javaType a boxed java type
+     * @return the column type storing values of this java type, OBJECT if there is none
+     */
+    public static ColumnType fromJavaType(Class<?> javaType) {
+        for (ColumnType type : values()) {
+            if (type.javaType == javaType) {
+                return type;
+            }
+        }
+        return OBJECT;
+    }
+
+    /**
+     * @return true if columns of this type hold numerical values
+     */
+    public boolean isNumeric() {
+        return this == INT || this == LONG || this == DOUBLE;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Comparison of a value to an operand, as by the Java operators: any comparison with NaN is false, except NOT_EQUAL.
+ */
+enum Comparison {
+    EQUAL("=="),
+    NOT_EQUAL("!="),
+    LESS("<"),
+    LESS_OR_EQUAL("<="),
+    GREATER(">"),
+    GREATER_OR_EQUAL(">=");
+
+    private final String symbol;
+
+    Comparison(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * @return the Java operator
+     */
+    String symbol() {
+        return symbol;
+    }
+
+    boolean test(long value, long operand) {
+        switch (this) {
+            case EQUAL:
+                return value == operand;
+            case NOT_EQUAL:
+                return value != operand;
+            case LESS:
+                return value < operand;
+            case LESS_OR_EQUAL:
+                return value <= operand;
+            case GREATER:
+                return value > operand;
+            default:
+                return value >= operand;
+        }
+    }
+
+    boolean test(double value, double operand) {
+        switch (this) {
+            case EQUAL:
+                return value == operand;
+            case NOT_EQUAL:
+                return value != operand;
+            case LESS:
+                return value < operand;
+            case LESS_OR_EQUAL:
+                return value <= operand;
+            case GREATER:
+                return value > operand;
+            default:
+                return value >= operand;
+        }
+    }
+}
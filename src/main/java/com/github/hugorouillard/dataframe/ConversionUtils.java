@@ -61,19 +61,7 @@ public class ConversionUtils {
          * @param list the list to convert
          * @return typed array after parsing strings
          */
-        // first let's determine the common type of the list
-        Class<?> type = parseStringType(list.get(0));
-        for (String s : list) {
-            if (type != null && !type.equals(parseStringType(s))) {
-                if ((type == Integer.class && parseStringType(s).equals(Long.class)) || (type == Long.class && parseStringType(s).equals(Integer.class))) {
-                    // if there's a mix between long and integer, the type is long
-                    type = Long.class;
-                    continue;
-                }
-                type = String.class;
-                break;
-            }
-        }
+        Class<?> type = inferListType(list);
         List<T> convertedList = new ArrayList<>();
         for (String s : list) {
             Object value = parseValue(s, type);
@@ -82,14 +70,34 @@ public class ConversionUtils {
         return convertedList;
     }
 
+    static Class<?> inferListType(List<String> list) {
+        // empty strings are missing values, they do not take part in the type of the list
+        Class<?> type = null;
+        for (String s : list) {
+            if (s.isEmpty()) {
+                continue;
+            }
+            type = mergeTypes(type, parseStringType(s));
+            if (type == String.class) {
+                break;
+            }
+        }
+        return type == null ? String.class : type;
+    }
+
+    static Class<?> mergeTypes(Class<?> type, Class<?> other) {
+        // integers widen to long then double, any other mix is String
+        return TypeClassifier.promote(type, other);
+    }
+
     private static Object parseValue(String s, Class<?> type) {
         if (s.isEmpty()) {
             return null;
         }
-        if (type == Integer.class) return Integer.parseInt(s);
-        if (type == Long.class) return Long.parseLong(s);
-        if (type == Double.class) return Double.parseDouble(s);
-        if (type == Boolean.class) return Boolean.parseBoolean(s);
+        if (type == Integer.class) return Integer.parseInt(s.trim());
+        if (type == Long.class) return Long.parseLong(s.trim());
+        if (type == Double.class) return Double.parseDouble(s.trim());
+        if (type == Boolean.class) return Boolean.parseBoolean(s.trim());
         if (type == String.class) return s;
         return null;
     }
@@ -97,30 +105,13 @@ public class ConversionUtils {
     public static Class<?> parseStringType(String s) {
         /**
          * Parse a string to determine the most appropriate Java type.
+         * The string is classified lexically, in a single scan, without parsing the value.
          *
          * @param s the string to parse
          * @return Class<?> representing the detected type
          */
-        s = s.trim();
-        try {
-            Integer.parseInt(s);
-            return Integer.class;
-        } catch (NumberFormatException ignored) {}
-
-        try {
-            Long.parseLong(s);
-            return Long.class;
-        } catch (NumberFormatException ignored) {}
-
-        try {
-            Double.parseDouble(s);
-            return Double.class;
-        } catch (NumberFormatException ignored) {}
-
-        if (s.equalsIgnoreCase("true") || s.equalsIgnoreCase("false")) {
-            return Boolean.class;
-        }
-        return String.class;
+        Class<?> type = TypeClassifier.classify(s);
+        return type == null ? String.class : type;
     }
 
     public static ArrayList<String> parseCSVRow(String row, char delimiter) {
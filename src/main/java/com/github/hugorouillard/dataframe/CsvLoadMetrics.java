@@ -0,0 +1,58 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Parse statistics of a CSV file, or of a batch read by a {@link CsvReader}, reported to
+ * {@link DataframeListener#onCsvLoad(CsvLoadMetrics)}.
+ */
+public final class CsvLoadMetrics {
+    private final String file;
+    private final long rows;
+    private final long badCells;
+    private final String[] labels;
+    private final ColumnType[] schema;
+
+    CsvLoadMetrics(String file, long rows, long badCells, String[] labels, ColumnType[] schema) {
+        this.file = file;
+        this.rows = rows;
+        this.badCells = badCells;
+        this.labels = labels.clone();
+        this.schema = schema.clone();
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * @return the number of rows read
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of non-empty cells that could not be parsed as the type of their column, and were read
+     * as missing values
+     */
+    public long getBadCells() {
+        return badCells;
+    }
+
+    public String[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * @return the column types, in the order of {@link #getLabels()}, once inferred and widened
+     */
+    public ColumnType[] getSchema() {
+        return schema.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "CSV " + file + " rows=" + rows + " badCells=" + badCells + " schema=" + Arrays.toString(schema);
+    }
+}
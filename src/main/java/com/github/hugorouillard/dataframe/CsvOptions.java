@@ -0,0 +1,139 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a CSV read: the columns to keep, their types, and the range of rows to read.
+ * <p>
+ * Columns left out of {@link #useColumns} are still split by the tokenizer, but their cells are never parsed nor
+ * stored. Columns given a type by {@link #columnType} are not part of the type inference, which is skipped when every
+ * kept column has a type.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     CsvOptions options = new CsvOptions()
+ *             .useColumns("Id", "Price")
+ *             .columnType("Id", ColumnType.LONG)
+ *             .skipRows(100)
+ *             .maxRows(1000);
+ *     Dataframe df = new Dataframe("big.csv", ';', options);
+ * }</pre>
+ */
+public final class CsvOptions {
+    private final Map<String, ColumnType> columnTypes = new LinkedHashMap<>();
+    private List<String> useColumns;
+    private int sampleSize = CsvReader.DEFAULT_SAMPLE_SIZE;
+    private int skipRows;
+    private int maxRows = Integer.MAX_VALUE;
+
+    /**
+     * Sets the type of a column, bypassing its type inference. Cells that cannot be parsed as this type are missing values.
+     *
+     * @throws IllegalArgumentException if the type is OBJECT
+     */
+    public CsvOptions columnType(String label, ColumnType type) {
+        if (type == ColumnType.OBJECT) {
+            throw new IllegalArgumentException("CSV columns cannot be read as OBJECT");
+        }
+        columnTypes.put(label, type);
+        return this;
+    }
+
+    /**
+     * Sets the type of several columns, see {@link #columnType(String, ColumnType)}.
+     */
+    public CsvOptions schema(Map<String, ColumnType> schema) {
+        for (Map.Entry<String, ColumnType> entry : schema.entrySet()) {
+            columnType(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * Keeps only the given columns, in the order of the file. Every column is kept by default.
+     */
+    public CsvOptions useColumns(String... labels) {
+        useColumns = Arrays.asList(labels.clone());
+        return this;
+    }
+
+    /**
+     * Sets the number of rows, following the header, used to infer the column types.
+     *
+     * @throws IllegalArgumentException if sampleSize is not positive
+     */
+    public CsvOptions sampleSize(int sampleSize) {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("Sample size must be positive");
+        }
+        this.sampleSize = sampleSize;
+        return this;
+    }
+
+    /**
+     * Skips the first rows following the header. They are not part of the type inference either.
+     *
+     * @throws IllegalArgumentException if skipRows is negative
+     */
+    public CsvOptions skipRows(int skipRows) {
+        if (skipRows < 0) {
+            throw new IllegalArgumentException("Skipped rows cannot be negative");
+        }
+        this.skipRows = skipRows;
+        return this;
+    }
+
+    /**
+     * Limits the number of rows read, after the skipped ones.
+     *
+     * @throws IllegalArgumentException if maxRows is negative
+     */
+    public CsvOptions maxRows(int maxRows) {
+        if (maxRows < 0) {
+            throw new IllegalArgumentException("Maximum number of rows cannot be negative");
+        }
+        this.maxRows = maxRows;
+        return this;
+    }
+
+    /**
+     * @return a copy of these options, keeping only the given columns
+     */
+    CsvOptions withColumns(List<String> labels) {
+        CsvOptions copy = new CsvOptions();
+        copy.columnTypes.putAll(columnTypes);
+        copy.useColumns = new ArrayList<>(labels);
+        copy.sampleSize = sampleSize;
+        copy.skipRows = skipRows;
+        copy.maxRows = maxRows;
+        return copy;
+    }
+
+    Map<String, ColumnType> getColumnTypes() {
+        return Collections.unmodifiableMap(columnTypes);
+    }
+
+    /**
+     * @return the labels of the columns to keep, null to keep every column
+     */
+    List<String> getUseColumns() {
+        return useColumns;
+    }
+
+    int getSampleSize() {
+        return sampleSize;
+    }
+
+    int getSkipRows() {
+        return skipRows;
+    }
+
+    int getMaxRows() {
+        return maxRows;
+    }
+}
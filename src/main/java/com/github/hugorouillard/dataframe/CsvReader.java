@@ -0,0 +1,318 @@
+package com.github.hugorouillard.dataframe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming CSV reader, returning the rows of a file as Dataframe batches of bounded size.
+ * <p>
+ * The first row of the file holds the column labels. The column types are inferred once, from the first
+ * {@code sampleSize} rows, and every batch uses them. Cells that cannot be parsed as the type of their column,
+ * like empty cells, are read as missing values. {@link #readAll()} widens the type of a column instead, when a later
+ * cell does not fit it, and stores String columns with few distinct values as {@link CategoricalColumn}.
+ * <p>
+ * A {@link CsvOptions} selects the columns and rows to read, and may set the column types.
+ * <p>
+ * Rows are split by a byte-level tokenizer and numbers are parsed straight into the column buffers, so no String
+ * is created for numerical or boolean cells. Quoted fields may span several lines. The file is expected to be
+ * UTF-8 encoded.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     try (CsvReader reader = new CsvReader("big.csv", ';', 10000)) {
+ *         while (reader.hasNext()) {
+ *             Dataframe batch = reader.next();
+ *             ...
+ *         }
+ *     }
+ * }</pre>
+ */
+public class CsvReader implements Iterator<Dataframe>, Closeable {
+    public static final int DEFAULT_SAMPLE_SIZE = 1000;
+
+    private final String csv_file;
+    private final CsvTokenizer tokenizer;
+    private final int batchSize;
+    // index in the file records of each column read
+    private final int[] fields;
+    private final String[] labels;
+    private final ColumnType[] schema;
+    // whether the type of each column was inferred, rather than given by the options
+    private final boolean[] inferred;
+    private int remainingRows;
+
+    // whether the tokenizer holds a record that is not part of a batch yet
+    private boolean recordPending;
+    private boolean endOfFile;
+
+    /**
+     * Opens a CSV file, inferring the column types from the first {@value #DEFAULT_SAMPLE_SIZE} rows.
+     *
+     * @param csv_file Path to the CSV file to read
+     * @param delimiter Character used as field delimiter in the CSV file
+     * @param batchSize Maximum number of rows of each batch
+     * @throws IOException If there's an error reading the file
+     * @throws IllegalArgumentException If the CSV file is empty or the batch size is not positive
+     */
+    public CsvReader(String csv_file, char delimiter, int batchSize) throws IOException {
+        this(csv_file, delimiter, batchSize, new CsvOptions());
+    }
+
+    /**
+     * Opens a CSV file, inferring the column types from the first {@code sampleSize} rows.
+     * The sample rows are read twice: once to infer the types, then as part of the batches.
+     *
+     * @param csv_file Path to the CSV file to read
+     * @param delimiter Character used as field delimiter in the CSV file
+     * @param batchSize Maximum number of rows of each batch
+     * @param sampleSize Number of rows used to infer the column types
+     * @throws IOException If there's an error reading the file
+     * @throws IllegalArgumentException If the CSV file is empty, or the batch or sample size is not positive
+     */
+    public CsvReader(String csv_file, char delimiter, int batchSize, int sampleSize) throws IOException {
+        this(csv_file, delimiter, batchSize, new CsvOptions().sampleSize(sampleSize));
+    }
+
+    /**
+     * Opens a CSV file, reading the columns and rows selected by the options.
+     * The types of the columns missing from the options schema are inferred from the sample rows.
+     *
+     * @param csv_file Path to the CSV file to read
+     * @param delimiter Character used as field delimiter in the CSV file
+     * @param batchSize Maximum number of rows of each batch
+     * @param options the columns and rows to read
+     * @throws IOException If there's an error reading the file
+     * @throws IllegalArgumentException If the CSV file is empty, the batch size is not positive,
+     *                                  or the options name a column missing from the header
+     */
+    public CsvReader(String csv_file, char delimiter, int batchSize, CsvOptions options) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.csv_file = csv_file;
+        this.batchSize = batchSize;
+        this.remainingRows = options.getMaxRows();
+
+        tokenizer = open(csv_file, delimiter);
+        try {
+            if (!tokenizer.nextRecord()) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            String[] header = new String[tokenizer.fieldCount()];
+            for (int i = 0; i < header.length; i++) {
+                header[i] = tokenizer.getString(i);
+            }
+            fields = selectFields(header, options.getUseColumns());
+            labels = new String[fields.length];
+            schema = new ColumnType[fields.length];
+            inferred = new boolean[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                labels[i] = header[fields[i]];
+                schema[i] = options.getColumnTypes().get(labels[i]);
+                inferred[i] = schema[i] == null;
+            }
+            for (String label : options.getColumnTypes().keySet()) {
+                if (!Arrays.asList(header).contains(label)) {
+                    throw new IllegalArgumentException("Unknown column: " + label);
+                }
+            }
+            if (Arrays.asList(schema).contains(null)) {
+                inferTypes(csv_file, delimiter, options);
+            }
+
+            skipRecords(tokenizer, options.getSkipRows());
+        } catch (IOException | RuntimeException e) {
+            tokenizer.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the labels of the header row of a CSV file, reading nothing else
+     * @throws IllegalArgumentException If the CSV file is empty
+     */
+    static String[] readHeader(String csv_file, char delimiter) throws IOException {
+        try (CsvTokenizer tokenizer = open(csv_file, delimiter)) {
+            if (!tokenizer.nextRecord()) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            String[] header = new String[tokenizer.fieldCount()];
+            for (int i = 0; i < header.length; i++) {
+                header[i] = tokenizer.getString(i);
+            }
+            return header;
+        }
+    }
+
+    private static CsvTokenizer open(String csv_file, char delimiter) throws IOException {
+        return new CsvTokenizer(FileChannel.open(Paths.get(csv_file), StandardOpenOption.READ), delimiter);
+    }
+
+    private static void skipRecords(CsvTokenizer tokenizer, int count) throws IOException {
+        for (int i = 0; i < count && tokenizer.nextRecord(); i++) {
+            // skipped rows are tokenized only
+        }
+    }
+
+    /**
+     * @return the record index of each column to read, in the order of the file
+     */
+    private static int[] selectFields(String[] header, List<String> useColumns) {
+        if (useColumns == null) {
+            int[] fields = new int[header.length];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = i;
+            }
+            return fields;
+        }
+        List<String> labels = Arrays.asList(header);
+        for (String label : useColumns) {
+            if (!labels.contains(label)) {
+                throw new IllegalArgumentException("Unknown column: " + label);
+            }
+        }
+        int[] fields = new int[useColumns.size()];
+        int count = 0;
+        for (int i = 0; i < header.length && count < fields.length; i++) {
+            if (useColumns.contains(header[i]) && labels.indexOf(header[i]) == i) {
+                fields[count++] = i;
+            }
+        }
+        return Arrays.copyOf(fields, count);
+    }
+
+    /**
+     * Infers the type of the columns without one from the sample rows, with a tokenizer of its own.
+     */
+    private void inferTypes(String csv_file, char delimiter, CsvOptions options) throws IOException {
+        Class<?>[] types = new Class[fields.length];
+        try (CsvTokenizer sampler = open(csv_file, delimiter)) {
+            skipRecords(sampler, 1 + options.getSkipRows());
+            int sampleSize = Math.min(options.getSampleSize(), options.getMaxRows());
+            for (int row = 0; row < sampleSize && sampler.nextRecord(); row++) {
+                for (int i = 0; i < fields.length && fields[i] < sampler.fieldCount(); i++) {
+                    if (inferred[i] && types[i] != String.class) {
+                        types[i] = ConversionUtils.mergeTypes(types[i], sampler.classify(fields[i]));
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if (inferred[i]) {
+                schema[i] = ColumnType.fromJavaType(types[i] == null ? String.class : types[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the column labels, read from the header row
+     */
+    public String[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * @return the column types, inferred from the sample rows and widened by {@link #readAll()}
+     */
+    public ColumnType[] getSchema() {
+        return schema.clone();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!recordPending && !endOfFile && remainingRows > 0) {
+            try {
+                recordPending = tokenizer.nextRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            endOfFile = !recordPending;
+        }
+        return recordPending;
+    }
+
+    /**
+     * @return the next batch, holding at most {@code batchSize} rows
+     * @throws NoSuchElementException if every row has been read
+     * @throws UncheckedIOException if there's an error reading the file
+     */
+    @Override
+    public Dataframe next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Instrumentation.OperationTimer timer = Instrumentation.start("CsvReader.next", 0);
+        return timer.stop(readRows(batchSize, false));
+    }
+
+    /**
+     * Reads every remaining row into a single Dataframe.
+     * When a cell cannot be parsed as the inferred type of its column, the column is promoted to a wider type
+     * (int, long, double then String) instead of reading the cell as a missing value.
+     *
+     * @return a Dataframe holding the remaining rows, with no rows if all of them were already read
+     * @throws UncheckedIOException if there's an error reading the file
+     */
+    public Dataframe readAll() {
+        Instrumentation.OperationTimer timer = Instrumentation.start("CsvReader.readAll", 0);
+        return timer.stop(readRows(Integer.MAX_VALUE, true));
+    }
+
+    @Override
+    public void close() throws IOException {
+        tokenizer.close();
+    }
+
+    /**
+     * Reads at most maxRows rows, reporting their parse statistics but not the operation.
+     */
+    Dataframe readRows(int maxRows, boolean promote) {
+        ColumnBuilder[] builders = new ColumnBuilder[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            builders[i] = promote && inferred[i] ? ColumnBuilder.forInferredType(schema[i], maxRows) : ColumnBuilder.forType(schema[i], maxRows);
+        }
+        int rows = 0;
+        long badCells = 0;
+        for (; rows < maxRows && hasNext(); rows++) {
+            int fieldCount = tokenizer.fieldCount();
+            for (int i = 0; i < builders.length; i++) {
+                int field = fields[i];
+                // missing trailing fields are missing values, extra fields are ignored
+                if (field >= fieldCount) {
+                    builders[i].appendNull();
+                } else if (!promote || !inferred[i]) {
+                    if (!builders[i].appendField(tokenizer, field)) {
+                        badCells++;
+                    }
+                } else if (!builders[i].tryAppendField(tokenizer, field)) {
+                    schema[i] = ColumnType.fromJavaType(TypeClassifier.promote(schema[i].getJavaType(), tokenizer.classify(field)));
+                    builders[i] = builders[i].promote(schema[i]);
+                    builders[i].appendField(tokenizer, field);
+                }
+            }
+            recordPending = false;
+            remainingRows--;
+        }
+
+        Series<?>[] series = new Series[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            Column<?> column = builders[i].build();
+            if (column instanceof CategoricalColumn && inferred[i]) {
+                column = ((CategoricalColumn) column).decodeIfHighCardinality();
+            }
+            series[i] = new Series<>(column, labels[i]);
+        }
+        if (Instrumentation.isEnabled()) {
+            Instrumentation.csvLoaded(new CsvLoadMetrics(csv_file, rows, badCells, labels, schema));
+        }
+        return new Dataframe(series);
+    }
+}
@@ -0,0 +1,557 @@
+package com.github.hugorouillard.dataframe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte-level CSV tokenizer. Records are split in place in a byte buffer, and fields are only exposed as offsets:
+ * numbers are parsed straight from the bytes, and Strings are only created when a field is read as text.
+ * <p>
+ * Input is expected to be UTF-8 encoded, with an ASCII delimiter. A field may be quoted, in which case it can hold
+ * delimiters and line breaks, and a doubled quote stands for a single one. Fields are trimmed, and empty lines are
+ * skipped, as in {@link ConversionUtils#parseCSVRow(String, char)}.
+ */
+final class CsvTokenizer implements Closeable {
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ReadableByteChannel channel;
+    private final byte delimiter;
+    private ByteBuffer buffer;
+    private int limit;
+    private boolean endOfInput;
+    // file offset of the first byte of the buffer, only meaningful when reading from a channel
+    private long bufferOffset;
+
+    private int position;
+    private int record;
+    private int fieldCount;
+    // field bounds, relative to the record start: trimmed and without the enclosing quotes
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    // fields with quotes elsewhere than around the value, they need a full unescape
+    private boolean[] escaped = new boolean[16];
+
+    // the buffer bytes read as Latin-1 characters, non-ASCII bytes never match a number or a boolean
+    private final CharSequence bytes = new CharSequence() {
+        @Override
+        public int length() {
+            return limit;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            throw new UnsupportedOperationException();
+        }
+    };
+    private byte[] scratch = new byte[64];
+    private int intValue;
+    private long longValue;
+    private double doubleValue;
+
+    /**
+     * Reads records from a channel, through a growable buffer.
+     */
+    CsvTokenizer(ReadableByteChannel channel, char delimiter) {
+        this.channel = channel;
+        this.delimiter = asciiDelimiter(delimiter);
+        this.buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    }
+
+    /**
+     * Reads the records held between the position and the limit of a buffer, for example a memory-mapped file region.
+     */
+    CsvTokenizer(ByteBuffer buffer, char delimiter) {
+        this.channel = null;
+        this.delimiter = asciiDelimiter(delimiter);
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+        this.endOfInput = true;
+    }
+
+    private static byte asciiDelimiter(char delimiter) {
+        if (delimiter > 127 || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Unsupported CSV delimiter: " + delimiter);
+        }
+        return (byte) delimiter;
+    }
+
+    /**
+     * Moves to the next non-empty record.
+     *
+     * @return false if the end of the input is reached
+     */
+    boolean nextRecord() throws IOException {
+        while (true) {
+            record = position;
+            fieldCount = 0;
+            int fieldStart = 0;
+            boolean inQuote = false;
+            boolean hasQuote = false;
+            int i = position;
+            while (true) {
+                if (i == limit) {
+                    if (!endOfInput) {
+                        int shift = refill();
+                        i -= shift;
+                        continue;
+                    }
+                    position = i;
+                    int end = i;
+                    if (end > record + fieldStart && buffer.get(end - 1) == '\r') {
+                        end--;
+                    }
+                    if (end == record) {
+                        return false;
+                    }
+                    endField(fieldStart, end - record, hasQuote);
+                    break;
+                }
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    inQuote = !inQuote;
+                    hasQuote = true;
+                } else if (!inQuote) {
+                    if (b == delimiter) {
+                        endField(fieldStart, i - record, hasQuote);
+                        fieldStart = i + 1 - record;
+                        hasQuote = false;
+                    } else if (b == '\n') {
+                        int end = i;
+                        if (end > record + fieldStart && buffer.get(end - 1) == '\r') {
+                            end--;
+                        }
+                        position = i + 1;
+                        if (end == record) {
+                            // empty line
+                            break;
+                        }
+                        endField(fieldStart, end - record, hasQuote);
+                        break;
+                    }
+                }
+                i++;
+            }
+            if (fieldCount > 0) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Keeps the current record at the start of the buffer, growing it if needed, and reads more input after it.
+     *
+     * @return the distance the record was moved by
+     */
+    private int refill() throws IOException {
+        int shift = record;
+        int kept = limit - record;
+        if (record == 0 && limit == buffer.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.position(0).limit(limit);
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.position(record).limit(limit);
+            buffer.compact();
+        }
+        bufferOffset += shift;
+        position -= shift;
+        record = 0;
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        if (read < 0) {
+            endOfInput = true;
+        }
+        limit = buffer.position();
+        buffer.limit(buffer.capacity());
+        return shift;
+    }
+
+    private void endField(int rawStart, int rawEnd, boolean hasQuote) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            escaped = Arrays.copyOf(escaped, fieldCount * 2);
+        }
+        int start = record + rawStart;
+        int end = record + rawEnd;
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        boolean complex = false;
+        if (hasQuote) {
+            if (end - start >= 2 && buffer.get(start) == '"' && buffer.get(end - 1) == '"' && !hasQuoteBetween(start + 1, end - 1)) {
+                start++;
+                end--;
+                while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+                    start++;
+                }
+                while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+                    end--;
+                }
+            } else {
+                complex = true;
+                start = record + rawStart;
+                end = record + rawEnd;
+            }
+        }
+        starts[fieldCount] = start - record;
+        ends[fieldCount] = end - record;
+        escaped[fieldCount] = complex;
+        fieldCount++;
+    }
+
+    private boolean hasQuoteBetween(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == '"') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of fields of the current record
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return the file offset following the current record, when reading from a channel
+     */
+    long offset() {
+        return bufferOffset + position;
+    }
+
+    boolean isEmpty(int field) {
+        return starts[field] == ends[field];
+    }
+
+    /**
+     * @return the field as a String, with its quotes removed and trimmed
+     */
+    String getString(int field) {
+        int start = record + starts[field];
+        int end = record + ends[field];
+        if (!escaped[field]) {
+            return decode(start, end);
+        }
+        // same rules as parseCSVRow: a doubled quote is a quote, any other quote opens or closes a quoted section
+        if (scratch.length < end - start) {
+            scratch = new byte[end - start];
+        }
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                if (i + 1 < end && buffer.get(i + 1) == '"') {
+                    scratch[length++] = '"';
+                    i++;
+                }
+            } else {
+                scratch[length++] = b;
+            }
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8).trim();
+    }
+
+    private String decode(int start, int end) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+        }
+        if (scratch.length < end - start) {
+            scratch = new byte[end - start];
+        }
+        for (int i = start; i < end; i++) {
+            scratch[i - start] = buffer.get(i);
+        }
+        return new String(scratch, 0, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return true if the field is equal to the given ASCII text, ignoring case
+     */
+    boolean equalsIgnoreCase(int field, String ascii) {
+        if (escaped[field] || ends[field] - starts[field] != ascii.length()) {
+            return false;
+        }
+        int start = record + starts[field];
+        for (int i = 0; i < ascii.length(); i++) {
+            if (Character.toLowerCase((char) buffer.get(start + i)) != Character.toLowerCase(ascii.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the field as an int, following the syntax of {@link Integer#parseInt(String)}.
+     *
+     * @return true if the field is an int, its value is then returned by {@link #intValue()}
+     */
+    boolean parseInt(int field) {
+        if (escaped[field] || isEmpty(field)) {
+            return false;
+        }
+        int i = record + starts[field];
+        int end = record + ends[field];
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                return false;
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            value = value * 10 + digit;
+            if (value > 1L << 31) {
+                return false;
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            return false;
+        }
+        intValue = (int) value;
+        return true;
+    }
+
+    int intValue() {
+        return intValue;
+    }
+
+    /**
+     * Parses the field as a long, following the syntax of {@link Long#parseLong(String)}.
+     *
+     * @return true if the field is a long, its value is then returned by {@link #longValue()}
+     */
+    boolean parseLong(int field) {
+        if (escaped[field] || isEmpty(field)) {
+            return false;
+        }
+        int i = record + starts[field];
+        int end = record + ends[field];
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                return false;
+            }
+        }
+        // accumulated negatively, like Long.parseLong, so Long.MIN_VALUE is reachable
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        longValue = negative ? result : -result;
+        return true;
+    }
+
+    long longValue() {
+        return longValue;
+    }
+
+    /**
+     * Parses the field as a double. Decimal notation (with an optional exponent and float suffix), NaN and Infinity
+     * are accepted. Values with at most 18 significant digits and a small exponent are computed exactly from the
+     * bytes, other values go through {@link Double#parseDouble(String)}.
+     *
+     * @return true if the field is a double, its value is then returned by {@link #doubleValue()}
+     */
+    boolean parseDouble(int field) {
+        if (escaped[field] || isEmpty(field)) {
+            return false;
+        }
+        int start = record + starts[field];
+        int end = record + ends[field];
+        if (parseDecimal(start, end)) {
+            return true;
+        }
+        int last = buffer.get(end - 1) | 0x20;
+        if ((last == 'd' || last == 'f') && end - 1 > start && parseDecimal(start, end - 1)) {
+            return true;
+        }
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (matches(i, end, "NaN")) {
+            doubleValue = Double.NaN;
+            return true;
+        }
+        if (matches(i, end, "Infinity")) {
+            doubleValue = negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            return true;
+        }
+        return false;
+    }
+
+    double doubleValue() {
+        return doubleValue;
+    }
+
+    private boolean matches(int start, int end, String ascii) {
+        if (end - start != ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buffer.get(start + i) != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean parseDecimal(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean hasDigit = false;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            hasDigit = true;
+            if (significantDigits < 18) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0) {
+                    significantDigits++;
+                }
+            } else {
+                exponent++;
+                truncated |= digit != 0;
+            }
+        }
+        if (i < end && buffer.get(i) == '.') {
+            for (i++; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                hasDigit = true;
+                if (significantDigits < 18) {
+                    mantissa = mantissa * 10 + digit;
+                    exponent--;
+                    if (mantissa != 0) {
+                        significantDigits++;
+                    }
+                } else {
+                    truncated |= digit != 0;
+                }
+            }
+        }
+        if (!hasDigit) {
+            return false;
+        }
+        if (i < end && (buffer.get(i) | 0x20) == 'e') {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            if (i == end) {
+                return false;
+            }
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return false;
+                }
+                if (explicitExponent < 100000) {
+                    explicitExponent = explicitExponent * 10 + digit;
+                }
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (i != end) {
+            return false;
+        }
+
+        if (!truncated && mantissa <= 1L << 53 && exponent >= -22 && exponent <= 22) {
+            // both the mantissa and the power of ten are exact doubles, so is the rounded result
+            double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            doubleValue = negative ? -value : value;
+        } else if (mantissa == 0) {
+            doubleValue = negative ? -0.0 : 0.0;
+        } else {
+            // the syntax is checked already, this cannot throw
+            doubleValue = Double.parseDouble(decode(start, end));
+        }
+        return true;
+    }
+
+    /**
+     * Classifies a field with {@link TypeClassifier}, in a single scan of its bytes.
+     *
+     * @return the type of the field, null if it is empty
+     */
+    Class<?> classify(int field) {
+        if (isEmpty(field)) {
+            return null;
+        }
+        if (escaped[field]) {
+            return String.class;
+        }
+        return TypeClassifier.classify(bytes, record + starts[field], record + ends[field]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.github.hugorouillard.dataframe;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 
 /**
@@ -12,6 +18,8 @@ import java.util.function.Predicate;
  */
 public class Dataframe {
     private final Series<?>[] data_tab;
+    // null to follow Parallelism.getDefault()
+    private Parallelism parallelism;
     /**
      * Constructs a Dataframe from variable arguments where each argument represents a column of data.
      * Columns are labelled by the labels array.
@@ -27,9 +35,8 @@ public class Dataframe {
         }
 
         for (int  i = 0; i < input_series.length; i++) {
-            List<?> column_data_list = ConversionUtils.convertArrayToList(input_series[i]);
-            data_tab[i] = new Series<>(column_data_list, String.valueOf(i));
-            if (i > 0 && data_tab[i - 1].getData().size() != data_tab[i].getData().size()) {
+            data_tab[i] = new Series<>(Column.of(input_series[i]), String.valueOf(i));
+            if (i > 0 && data_tab[i - 1].size() != data_tab[i].size()) {
                 throw new IllegalArgumentException("Lists or arrays must be the same size");
             }
             if (labels.length == input_series.length) {
@@ -38,6 +45,44 @@ public class Dataframe {
         }
     }
 
+    Dataframe(Series<?>[] data_tab) {
+        this.data_tab = data_tab;
+    }
+
+    /**
+     * Returns a Dataframe sharing the columns of this one, whose scans run in the given mode. The mode applies to
+     * the statistics of its series, {@link #describe()} and {@link #filterRows}, and is kept by the frames derived
+     * from it.
+     *
+     * @param parallelism the execution mode
+     * @return a new Dataframe over the same columns
+     */
+    public Dataframe withParallelism(Parallelism parallelism) {
+        Objects.requireNonNull(parallelism);
+        Series<?>[] newData = new Series[data_tab.length];
+        for (int col = 0; col < data_tab.length; col++) {
+            newData[col] = data_tab[col].withParallelism(parallelism);
+        }
+        Dataframe dataframe = new Dataframe(newData);
+        dataframe.parallelism = parallelism;
+        return dataframe;
+    }
+
+    /**
+     * @return the execution mode of the frame, the default one if it was not given one
+     */
+    public Parallelism getParallelism() {
+        return parallelism == null ? Parallelism.getDefault() : parallelism;
+    }
+
+    /**
+     * @return a frame over the given series, keeping the execution mode of this one
+     */
+    Dataframe derive(Series<?>[] newData) {
+        Dataframe dataframe = new Dataframe(newData);
+        return parallelism == null ? dataframe : dataframe.withParallelism(parallelism);
+    }
+
     /**
      * Constructs a Dataframe by reading data from a CSV file.
      * The first row of the CSV file is treated as column labels.
@@ -48,58 +93,133 @@ public class Dataframe {
      * @throws IOException If there's an error reading the file
      * @throws IllegalArgumentException If the CSV file is empty or improperly formatted
      */
-    @SuppressWarnings("unchecked")
     public Dataframe(String csv_file, char delimiter) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(csv_file))) {
-            String line;
-            ArrayList<String> values;
+        // the whole file is the type inference sample, and a single batch
+        this(csv_file, delimiter, Integer.MAX_VALUE);
+    }
 
-            ArrayList<String>[] data_columns = null;
-            while ((line = reader.readLine()) != null) {
-                if (line.isEmpty()) {
-                    continue;
-                }
+    /**
+     * Constructs a Dataframe by reading data from a CSV file, inferring the column types from its first rows only.
+     * The file is then read once more, and a column is promoted to a wider type (int, long, double then String)
+     * when a later value does not fit it.
+     *
+     * @param csv_file Path to the CSV file to read
+     * @param delimiter Character used as field delimiter in the CSV file
+     * @param inferenceRows Number of rows used to infer the column types
+     * @throws IOException If there's an error reading the file
+     * @throws IllegalArgumentException If the CSV file is empty or inferenceRows is not positive
+     */
+    public Dataframe(String csv_file, char delimiter, int inferenceRows) throws IOException {
+        this(csv_file, delimiter, new CsvOptions().sampleSize(inferenceRows));
+    }
 
-                values = ConversionUtils.parseCSVRow(line, delimiter);
-                if (data_columns == null) {
-                    data_columns = new ArrayList[values.size()];
-                }
+    /**
+     * Constructs a Dataframe from the columns and rows of a CSV file selected by the options.
+     * Inferred column types are promoted like in {@link #Dataframe(String, char, int)}, while the types
+     * set by the options are kept, cells that do not fit them being missing values.
+     *
+     * @param csv_file Path to the CSV file to read
+     * @param delimiter Character used as field delimiter in the CSV file
+     * @param options the columns and rows to read
+     * @throws IOException If there's an error reading the file
+     * @throws IllegalArgumentException If the CSV file is empty or the options name a column missing from the header
+     */
+    public Dataframe(String csv_file, char delimiter, CsvOptions options) throws IOException {
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.readCsv", 0);
+        try (CsvReader reader = new CsvReader(csv_file, delimiter, Integer.MAX_VALUE, options)) {
+            data_tab = reader.readRows(Integer.MAX_VALUE, true).data_tab;
+        }
+        timer.stop(rowCount());
+    }
 
-                for (int i = 0; i < values.size(); i++) {
-                    if (data_columns[i] == null) {
-                        data_columns[i] = new ArrayList<>();
-                    }
-                    data_columns[i].add(values.get(i));
-                }
-            }
+    /**
+     * Opens a Dataframe saved by {@link #save(String)}. Int, long and double columns are memory-mapped rather than
+     * read: opening takes about the same time whatever the number of rows, and the operating system loads the pages
+     * of a column when its values are first read. String, categorical and boolean columns are loaded on the heap.
+     *
+     * @param file Path to the file to open
+     * @return a Dataframe holding the saved columns
+     * @throws IOException If there's an error reading the file, or if it is not a saved Dataframe
+     */
+    public static Dataframe open(String file) throws IOException {
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.open", 0);
+        return timer.stop(FrameFile.read(file));
+    }
 
-            if (data_columns == null) {
-                throw new IllegalArgumentException("CSV file is empty");
-            }
+    /**
+     * Saves the Dataframe in a columnar binary file, which {@link #open(String)} loads without parsing any value:
+     * each column is written as a contiguous block of little-endian values, with its validity bitmap, a dictionary
+     * for string values, and statistics for numerical values. An existing file is replaced.
+     *
+     * @param file Path to the file to write
+     * @throws IOException If there's an error writing the file
+     * @throws IllegalArgumentException If a column holds values of type OBJECT
+     */
+    public void save(String file) throws IOException {
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.save", rowCount());
+        FrameFile.write(this, file);
+        timer.stop(rowCount());
+    }
 
-            data_tab = new Series[data_columns.length];
-            for (int i = 0; i < data_columns.length; i++) {
-                data_tab[i] = new Series<>(ConversionUtils.convertStringListToTypedList(data_columns[i].subList(1, data_columns[i].size())),data_columns[i].get(0));
-            }
+    /**
+     * Returns a Dataframe whose int, long and double columns are copied outside of the Java heap, in the given
+     * storage. The other columns are shared with this Dataframe. The new Dataframe works like this one, as long as
+     * the storage is open.
+     *
+     * @param storage the memory receiving the values
+     * @return a new Dataframe with off-heap numerical columns
+     * @throws IllegalStateException If the storage is closed
+     */
+    public Dataframe toOffHeap(OffHeapStorage storage) {
+        Series<?>[] newData = new Series[data_tab.length];
+        for (int col = 0; col < data_tab.length; col++) {
+            newData[col] = new Series<>(storage.store(data_tab[col].getColumn()), data_tab[col].getName());
         }
+        return derive(newData);
     }
 
+    /**
+     * Prints the first rows, and at most {@value DisplayOptions#DEFAULT_COLUMNS} first and last columns.
+     * The rows are written straight to the standard output, see {@link #render(Appendable, DisplayOptions)}.
+     *
+     * @param linesAmount the number of rows to print
+     */
     public void displayFirstLines(int linesAmount) {
-        Object[] subArrays = new Object[data_tab.length];
-        for (int i = 0; i < data_tab.length; i++) {
-            Series<?> s = data_tab[i];
-            subArrays[i] = s.getData().subList(0, Math.min(linesAmount, s.getData().size())).toArray();
-        }
-        System.out.println(new Dataframe(getLabels(), subArrays));
+        display(0, Math.max(0, Math.min(linesAmount, rowCount())));
     }
 
+    /**
+     * Prints the last rows, with their index in this Dataframe, like {@link #displayFirstLines(int)}.
+     *
+     * @param linesAmount the number of rows to print
+     */
     public void displayLastLines(int linesAmount) {
-        Object[] subArrays = new Object[data_tab.length];
-        for (int i = 0; i < data_tab.length; i++) {
-            Series<?> s = data_tab[i];
-            subArrays[i] = s.getData().subList(Math.max(0, s.getData().size() - linesAmount), s.getData().size()).toArray();
+        int rowCount = rowCount();
+        display(Math.max(0, rowCount - Math.max(0, linesAmount)), rowCount);
+    }
+
+    private void display(int from, int to) {
+        try {
+            TableRenderer.render(this, System.out, new DisplayOptions().rows(to - from, 0), from, to);
+        } catch (IOException e) {
+            // PrintStream does not throw
+            throw new UncheckedIOException(e);
         }
-        System.out.println(new Dataframe(getLabels(), subArrays));
+        System.out.println();
+    }
+
+    /**
+     * @return the number of rows, 0 if there is no column
+     */
+    int rowCount() {
+        return data_tab.length == 0 ? 0 : data_tab[0].size();
+    }
+
+    /**
+     * @return a lazy query over this Dataframe, see {@link LazyDataframe}
+     */
+    public LazyDataframe lazy() {
+        return LazyDataframe.of(this);
     }
 
     public String[] getLabels() {
@@ -117,36 +237,39 @@ public class Dataframe {
     /**
      * Returns a new Dataframe containing only the specified rows (by index).
      * Mimics Pandas' df.iloc[[i1, i2, ...]].
+     * The columns of the new Dataframe are views reading the values from this one, see {@link Column#view(int[])}.
      *
      * @param indices the exact row indices to include
      * @return a new Dataframe with those rows
      * @throws IllegalArgumentException if any index is out of bounds
      */
     public Dataframe selectRows(int... indices) {
-        int rowCount = data_tab[0].getData().size();
-        Object[] newData = new Object[data_tab.length];
-
-        for (int col = 0; col < data_tab.length; col++) {
-            List<?> originalCol = data_tab[col].getData();
-            List<Object> selectedCol = new ArrayList<>();
-
-            for (int idx : indices) {
-                if (idx < 0 || idx >= rowCount) {
-                    throw new IllegalArgumentException("Row index out of bounds: " + idx);
-                }
-                selectedCol.add(originalCol.get(idx));
+        int rowCount = data_tab[0].size();
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.selectRows", rowCount);
+        for (int idx : indices) {
+            if (idx < 0 || idx >= rowCount) {
+                throw new IllegalArgumentException("Row index out of bounds: " + idx);
             }
+        }
 
-            newData[col] = selectedCol.toArray();
+        // the views share the index vector, which must not change afterwards
+        return timer.stop(viewRows(indices.clone()));
+    }
+
+    private Dataframe viewRows(int[] rows) {
+        Series<?>[] newData = new Series[data_tab.length];
+        for (int col = 0; col < data_tab.length; col++) {
+            newData[col] = new Series<>(data_tab[col].getColumn().view(rows), data_tab[col].getName());
         }
 
-        return new Dataframe(getLabels(), newData);
+        return derive(newData);
     }
 
 
     /**
     * Returns a new Dataframe containing only the specified rows (by range).
     * Mimics Pandas' df.iloc[from:to]
+    * The columns of the new Dataframe are slices of the columns of this one, no value is copied.
     *
     * @param from the starting index (included)
     * @param to the end index (excluded)
@@ -154,51 +277,98 @@ public class Dataframe {
     * @throws IllegalArgumentException if the range is invalid
     */
     public Dataframe selectRowsRange(int from, int to) {
-        if (from < 0 || to > data_tab[0].getData().size() || from >= to) {
+        if (from < 0 || to > data_tab[0].size() || from >= to) {
             throw new IllegalArgumentException("Invalid row range");
         }
 
-        int[] indices = new int[to - from];
-        for (int i = 0; i < indices.length; i++) {
-            indices[i] = from + i;
-        }
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.selectRowsRange", rowCount());
+        return timer.stop(sliceRows(from, to));
+    }
 
-        return selectRows(indices);
+    private Dataframe sliceRows(int from, int to) {
+        Series<?>[] newData = new Series[data_tab.length];
+        for (int col = 0; col < data_tab.length; col++) {
+            newData[col] = new Series<>(data_tab[col].getColumn().slice(from, to - from), data_tab[col].getName());
+        }
+        return derive(newData);
     }
 
     /**
     * Returns a new Dataframe containing only the specified columns (by labels).
     * Mimics Pandas' df[["col1", "col2", ...]]
+    * The selected columns share their storage with this Dataframe.
     *
     * @param labels the labels of the columns to include
     * @return a new Dataframe with those columns
     * @throws IllegalArgumentException if any label is not found
     */
     public Dataframe selectColumns (String... labels) {
-        List<Series<?>> selectedSeries = new ArrayList<>();
-        List<String> selectedLabels = new ArrayList<>();
-
-        for (String label : labels) {
-            boolean found = false;
+        Series<?>[] newData = new Series[labels.length];
+        for (int i = 0; i < labels.length; i++) {
             for (Series<?> series : data_tab) {
-                if (series.getName().equals(label)) {
-                    selectedSeries.add(series);
-                    selectedLabels.add(label);
-                    found = true;
+                if (series.getName().equals(labels[i])) {
+                    newData[i] = new Series<>(series.getColumn(), labels[i]);
                     break;
                 }
             }
-            if (!found) {
-                throw new IllegalArgumentException("Column not found: " + label);
+            if (newData[i] == null) {
+                throw new IllegalArgumentException("Column not found: " + labels[i]);
             }
         }
 
-        Object[] newData = new Object[selectedSeries.size()];
-        for (int i = 0; i < selectedSeries.size(); i++) {
-            newData[i] = selectedSeries.get(i).getData().toArray();
+        return derive(newData);
+    }
+
+    /**
+     * Returns a new Dataframe with a column added after the others, or replacing the column of the same label.
+     * The other columns, and the values of the series, are shared with the new Dataframe: no value is copied.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     Series<?> pick = df.getDataTab()[3];
+     *     Dataframe withRatio = df.withColumn("Win per pick", df.getDataTab()[2].div(pick));
+     * }</pre>
+     *
+     * @param label the label of the column
+     * @param series the values of the column
+     * @return a new Dataframe with the column
+     * @throws IllegalArgumentException if the series size is not the number of rows.
+     */
+    public Dataframe withColumn(String label, Series<?> series) {
+        if (data_tab.length > 0 && series.size() != data_tab[0].size()) {
+            throw new IllegalArgumentException("Series size must match the number of rows");
         }
+        Series<?> added = new Series<>(series.getColumn(), label);
+        Series<?>[] newData = data_tab.clone();
+        for (int col = 0; col < data_tab.length; col++) {
+            if (data_tab[col].getName().equals(label)) {
+                newData[col] = added;
+                return derive(newData);
+            }
+        }
+        newData = Arrays.copyOf(newData, data_tab.length + 1);
+        newData[data_tab.length] = added;
+        return derive(newData);
+    }
 
-        return new Dataframe(selectedLabels.toArray(new String[0]), newData);
+    /**
+     * Returns a new Dataframe with a column computed by an expression added after the others, or replacing the
+     * column of the same label, see {@link #withColumn(String, Series)}. The expression is evaluated in a single
+     * pass over the rows, in the execution mode of this Dataframe.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     Dataframe rated = df.withColumn("Pick score", col("Win %").sub(50).mul(col("Pick %")));
+     * }</pre>
+     *
+     * @param label the label of the column
+     * @param expression a numerical expression, giving a long or double column, or a condition, giving a boolean one
+     * @return a new Dataframe with the column
+     * @throws IllegalArgumentException if the expression refers to a missing column or does not apply to its types.
+     */
+    public Dataframe withColumn(String label, Expression expression) {
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.withColumn", rowCount());
+        return timer.stop(withColumn(label, new Series<>(expression.evaluate(this), label)));
     }
 
     /**
@@ -214,6 +384,8 @@ public class Dataframe {
      *     Dataframe df = ...;
      *     Dataframe filtered = df.filterRows("Age", value -> ((Integer) value) > 30);
      * }</pre>
+     * In parallel mode (see {@link #withParallelism}), the predicate is called from several threads and in no
+     * particular order, so it must not depend on the previous calls.
      *
      * @param columnLabel The label of the column to use for filtering.
      * @param condition   A predicate that takes a column value and returns true if the corresponding row should be kept.
@@ -221,42 +393,324 @@ public class Dataframe {
      * @throws IllegalArgumentException if the specified column does not exist.
      */
     public Dataframe filterRows(String columnLabel, Predicate<Object> condition) {
-        int colIndex = -1;
-        for (int i = 0; i < data_tab.length; i++) {
-            if (data_tab[i].getName().equals(columnLabel)) {
-                colIndex = i;
-                break;
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.filterRows", rowCount());
+        return timer.stop(keep(getParallelism().mask(column(columnLabel), condition)));
+    }
+
+    /**
+     * Returns a new Dataframe containing only the rows whose value in a column equals the given value.
+     * On a {@link CategoricalColumn}, the value is looked up once in the categories and rows are matched by code.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     Dataframe mages = df.filterRowsEqual("Class", "Mage");
+     * }</pre>
+     *
+     * @param columnLabel The label of the column to use for filtering.
+     * @param value       The value to keep, null keeping the rows with a missing value.
+     * @return A new Dataframe containing only the rows holding the value.
+     * @throws IllegalArgumentException if the specified column does not exist.
+     */
+    public Dataframe filterRowsEqual(String columnLabel, Object value) {
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.filterRowsEqual", rowCount());
+        return timer.stop(keep(maskEqual(columnLabel, value)));
+    }
+
+    /**
+     * Returns a new Dataframe containing only the rows set in a mask, typically built by the {@code mask} methods
+     * and combined with {@link Bitmap#and}, {@link Bitmap#or} and {@link Bitmap#not}.
+     * The columns of the new Dataframe are views, see {@link #selectRows(int...)}.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     Bitmap mask = df.maskDouble("Win %", v -> v > 52).and(df.maskIn("Role", "Mid", "Top"));
+     *     Dataframe filtered = df.filter(mask);
+     * }</pre>
+     *
+     * @param mask the rows to keep, one bit per row
+     * @return A new Dataframe containing only the rows set in the mask.
+     * @throws IllegalArgumentException if the mask size is not the number of rows.
+     */
+    public Dataframe filter(Bitmap mask) {
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.filter", rowCount());
+        return timer.stop(keep(mask));
+    }
+
+    private Dataframe keep(Bitmap mask) {
+        if (data_tab.length > 0 && mask.size() != data_tab[0].size()) {
+            throw new IllegalArgumentException("Mask size must match the number of rows");
+        }
+        // the indices are a new array, owned by the views
+        return viewRows(mask.toIndices());
+    }
+
+    /**
+     * Returns a new Dataframe containing only the rows satisfying a condition over any number of columns. The
+     * condition is checked against the column types, then evaluated in a single pass over the involved columns.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     Dataframe strong = df.filter(col("Win %").gt(52).and(col("Ban %").gt(10)));
+     * }</pre>
+     *
+     * @param condition the condition, see {@link Expression}
+     * @return A new Dataframe containing only the rows satisfying the condition.
+     * @throws IllegalArgumentException if the condition refers to a missing column or does not apply to its types.
+     */
+    public Dataframe filter(Expression condition) {
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.filter", rowCount());
+        return timer.stop(keep(mask(condition)));
+    }
+
+    /**
+     * Evaluates a condition over any number of columns, in the execution mode of this Dataframe.
+     *
+     * @return a mask of the rows satisfying the condition
+     * @throws IllegalArgumentException if the condition refers to a missing column or does not apply to its types.
+     */
+    public Bitmap mask(Expression condition) {
+        return condition.evaluateMask(this);
+    }
+
+    /**
+     * Evaluates a condition on the int values of a column, without boxing them. Missing values are never selected.
+     *
+     * @throws IllegalArgumentException if the specified column does not exist.
+     * @throws UnsupportedOperationException if the column cannot be read as int.
+     */
+    public Bitmap maskInt(String columnLabel, IntPredicate condition) {
+        return column(columnLabel).maskInt(condition);
+    }
+
+    /**
+     * Evaluates a condition on the long values of a column, without boxing them. Missing values are never selected.
+     *
+     * @throws IllegalArgumentException if the specified column does not exist.
+     * @throws UnsupportedOperationException if the column cannot be read as long.
+     */
+    public Bitmap maskLong(String columnLabel, LongPredicate condition) {
+        return column(columnLabel).maskLong(condition);
+    }
+
+    /**
+     * Evaluates a condition on the double values of a column, without boxing them. Missing values are never selected.
+     *
+     * @throws IllegalArgumentException if the specified column does not exist.
+     * @throws UnsupportedOperationException if the column cannot be read as double.
+     */
+    public Bitmap maskDouble(String columnLabel, DoublePredicate condition) {
+        return column(columnLabel).maskDouble(condition);
+    }
+
+    /**
+     * @return a mask of the rows whose value in a column equals the given value, null matching missing values
+     * @throws IllegalArgumentException if the specified column does not exist.
+     */
+    public Bitmap maskEqual(String columnLabel, Object value) {
+        return column(columnLabel).maskEqual(value);
+    }
+
+    /**
+     * @return a mask of the rows whose value in a column is one of the given values, null matching missing values
+     * @throws IllegalArgumentException if the specified column does not exist.
+     */
+    public Bitmap maskIn(String columnLabel, Object... values) {
+        return column(columnLabel).maskIn(Arrays.asList(values));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the specified column does not exist.
+     */
+    Column<?> column(String label) {
+        for (Series<?> series : data_tab) {
+            if (series.getName().equals(label)) {
+                return series.getColumn();
             }
         }
+        throw new IllegalArgumentException("Column not found: " + label);
+    }
+
+    /**
+     * Groups the rows by the values of key columns, to aggregate other columns by group.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     Dataframe winByClass = df.groupBy("Class").agg(Aggregation.MEAN, "Win %");
+     * }</pre>
+     *
+     * @param keys the labels of the key columns
+     * @return the grouped rows, see {@link GroupBy#agg(Aggregation, String...)}
+     * @throws IllegalArgumentException if there is no key, or a key column does not exist
+     */
+    public GroupBy groupBy(String... keys) {
+        return new GroupBy(this, keys);
+    }
+
+    /**
+     * Sorts the rows by key columns in ascending order, missing values last, see
+     * {@link #sortBy(String[], boolean[], boolean)}.
+     *
+     * @param labels the labels of the key columns, by decreasing priority
+     * @return a new Dataframe with the sorted rows
+     * @throws IllegalArgumentException if there is no key, a key column does not exist, or holds values that are not
+     * comparable
+     */
+    public Dataframe sortBy(String... labels) {
+        boolean[] ascending = new boolean[labels.length];
+        Arrays.fill(ascending, true);
+        return sortBy(labels, ascending, false);
+    }
 
-        if (colIndex == -1) {
-            throw new IllegalArgumentException("Column not found: " + columnLabel);
+    /**
+     * Sorts the rows by key columns: rows are ordered by the first key, rows equal on it by the second one, and so
+     * on. The sort is stable, rows equal on every key keep their order.
+     * <p>
+     * Numerical, boolean and categorical keys are sorted by a radix sort, without boxing any value; NaN values come
+     * after the other numbers. String keys are compared. The sort only computes a permutation of the rows: the
+     * columns of the new Dataframe are views over this one, see {@link #selectRows(int...)}.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     Dataframe ranking = df.sortBy(new String[]{"Class", "Win %"}, new boolean[]{true, false}, false);
+     * }</pre>
+     *
+     * @param labels the labels of the key columns, by decreasing priority
+     * @param ascending for each key, true for the ascending order, false for the descending one
+     * @param nullsFirst true to put rows with a missing key before the others, false to put them after
+     * @return a new Dataframe with the sorted rows
+     * @throws IllegalArgumentException if there is no key, the numbers of keys and directions differ, a key column
+     * does not exist, or holds values that are not comparable
+     */
+    public Dataframe sortBy(String[] labels, boolean[] ascending, boolean nullsFirst) {
+        if (labels.length == 0 || labels.length != ascending.length) {
+            throw new IllegalArgumentException("Each key column must have a direction, with at least one key");
+        }
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.sortBy", rowCount());
+        Column<?>[] keys = new Column[labels.length];
+        for (int k = 0; k < labels.length; k++) {
+            keys[k] = column(labels[k]).materialize();
         }
+        return timer.stop(viewRows(Sorting.argsort(keys, ascending, nullsFirst)));
+    }
 
-        List<?> targetColumn = data_tab[colIndex].getData();
-        List<Integer> matchingIndices = new ArrayList<>();
+    /**
+     * Joins this Dataframe with another one on a key column of each, see
+     * {@link #join(Dataframe, String[], String[], JoinType)}.
+     *
+     * @param other the right Dataframe
+     * @param leftOn the label of the key column of this Dataframe
+     * @param rightOn the label of the key column of the other Dataframe
+     * @param type the kind of join
+     * @return a new Dataframe with the joined rows
+     * @throws IllegalArgumentException if a key column does not exist, or the keys are not comparable
+     */
+    public Dataframe join(Dataframe other, String leftOn, String rightOn, JoinType type) {
+        return join(other, new String[]{leftOn}, new String[]{rightOn}, type);
+    }
 
-        for (int i = 0; i < targetColumn.size(); i++) {
-            Object value = targetColumn.get(i);
-            if (condition.test(value)) {
-                matchingIndices.add(i);
+    /**
+     * Joins this Dataframe with another one on key columns, with a hash join building its table on the smaller frame.
+     * Rows with a missing key match nothing.
+     * <p>
+     * The result holds the columns of this Dataframe, then, except for semi and anti joins, those of the other one.
+     * The key columns of the other Dataframe are left out of inner and left joins, where they equal the keys of this
+     * one. Labels of the other Dataframe already in the result are suffixed with {@code _right}, as many times as needed
+     * to be unique. Rows follow the order of this Dataframe, see {@link JoinType}.
+     * <p>
+     * The columns of a side matched by every result row are views over its rows (see {@link Column#view(int[])}),
+     * the others are copied with missing values for the unmatched rows.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     Dataframe joined = champions.join(roles, new String[]{"Name"}, new String[]{"Champion"}, JoinType.LEFT);
+     * }</pre>
+     *
+     * @param other the right Dataframe
+     * @param leftOn the labels of the key columns of this Dataframe
+     * @param rightOn the labels of the key columns of the other Dataframe, in the same order
+     * @param type the kind of join
+     * @return a new Dataframe with the joined rows
+     * @throws IllegalArgumentException if there is no key, the numbers of keys differ, a key column does not exist,
+     * or two key columns are not comparable
+     */
+    public Dataframe join(Dataframe other, String[] leftOn, String[] rightOn, JoinType type) {
+        if (leftOn.length == 0 || leftOn.length != rightOn.length) {
+            throw new IllegalArgumentException("Both sides must have the same number of key columns, at least one");
+        }
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.join", rowCount() + (long) other.rowCount());
+        Column<?>[] left = new Column[leftOn.length];
+        Column<?>[] right = new Column[rightOn.length];
+        for (int k = 0; k < leftOn.length; k++) {
+            left[k] = column(leftOn[k]).materialize();
+            right[k] = other.column(rightOn[k]).materialize();
+        }
+        return timer.stop(joined(other, rightOn, type, Join.hash(left, right, type)));
+    }
+
+    /**
+     * Joins this Dataframe with another one on a key column of each, with a sort-merge join scanning both frames once.
+     * Both key columns must already be sorted in ascending order, missing values aside, which saves building a hash
+     * table. The result is the one of {@link #join(Dataframe, String[], String[], JoinType)}.
+     *
+     * @param other the right Dataframe
+     * @param leftOn the label of the key column of this Dataframe
+     * @param rightOn the label of the key column of the other Dataframe
+     * @param type the kind of join
+     * @return a new Dataframe with the joined rows
+     * @throws IllegalArgumentException if a key column does not exist, is not sorted, or the keys are not comparable
+     */
+    public Dataframe mergeJoin(Dataframe other, String leftOn, String rightOn, JoinType type) {
+        Instrumentation.OperationTimer timer = Instrumentation.start("Dataframe.mergeJoin", rowCount() + (long) other.rowCount());
+        Column<?> left = column(leftOn).materialize();
+        Column<?> right = other.column(rightOn).materialize();
+        return timer.stop(joined(other, new String[]{rightOn}, type, Join.sortMerge(left, right, type)));
+    }
+
+    private Dataframe joined(Dataframe other, String[] rightOn, JoinType type, Join join) {
+        List<Series<?>> newData = new ArrayList<>();
+        Set<String> labels = new HashSet<>();
+        for (Series<?> series : data_tab) {
+            newData.add(new Series<>(joinedColumn(series.getColumn(), join.leftRows), series.getName()));
+            labels.add(series.getName());
+        }
+        if (join.rightRows != null) {
+            boolean dropKeys = !type.keepsUnmatchedRight();
+            for (Series<?> series : other.data_tab) {
+                String label = series.getName();
+                if (dropKeys && Arrays.asList(rightOn).contains(label)) {
+                    continue;
+                }
+                // suffixed as many times as needed, when the frames already hold suffixed labels
+                while (!labels.add(label)) {
+                    label += "_right";
+                }
+                newData.add(new Series<>(joinedColumn(series.getColumn(), join.rightRows), label));
             }
         }
+        return derive(newData.toArray(new Series[0]));
+    }
 
-        // convert List<Integer> to int[] for selectRows
-        int[] indices = matchingIndices.stream().mapToInt(Integer::intValue).toArray();
-        return selectRows(indices);
+    /**
+     * @param rows the row of each result row, -1 for a missing one
+     */
+    private static Column<?> joinedColumn(Column<?> column, int[] rows) {
+        for (int row : rows) {
+            if (row < 0) {
+                return column.selectOrMissing(rows);
+            }
+        }
+        // the views share the index vector, owned by the join
+        return column.view(rows);
     }
 
     /**
      * Generates descriptive statistics for the dataframe.
      * This method computes various statistics for each numerical column in the dataframe.
      */
-    @SuppressWarnings("unchecked")
     public void describe() {
         List<Series<?>> numericalSeries = new ArrayList<>();
         for (Series<?> series : data_tab) {
-            if (!series.getData().isEmpty() && series.getData().get(0) instanceof Number) {
+            if (series.size() > 0 && series.getColumn().isNumeric()) {
                 numericalSeries.add(series);
             }
         }
@@ -269,24 +723,23 @@ public class Dataframe {
         String[] stats = {"count", "mean", "std", "median", "min", "max"};
         StringBuilder sb = new StringBuilder();
 
+        // every statistic is computed once, from a single pass plus a selection for the median
+        String[][] values = new String[stats.length][numericalSeries.size()];
         int[] columnWidths = new int[numericalSeries.size()];
         for (int i = 0; i < numericalSeries.size(); i++) {
-            columnWidths[i] = numericalSeries.get(i).getName().length();
-
-            double count = numericalSeries.get(i).getData().size();
-            double mean = numericalSeries.get(i).mean();
-            double std = numericalSeries.get(i).std();
-            double median = numericalSeries.get(i).median();
-            Object min = ((Series<? extends Number>) numericalSeries.get(i)).min();
-            Object max = ((Series<? extends Number>) numericalSeries.get(i)).max();
-
-            columnWidths[i] = Math.max(columnWidths[i], String.valueOf(count).length());
-            columnWidths[i] = Math.max(columnWidths[i], String.valueOf(mean).trim().length());
-            columnWidths[i] = Math.max(columnWidths[i], String.valueOf(std).trim().length());
-            columnWidths[i] = Math.max(columnWidths[i], min.toString().length());
-            columnWidths[i] = Math.max(columnWidths[i], String.valueOf(median).trim().length());
-            columnWidths[i] = Math.max(columnWidths[i], max.toString().length());
-
+            Series<?> series = numericalSeries.get(i);
+            ColumnStats columnStats = series.stats();
+            values[0][i] = String.valueOf(columnStats.getCount());
+            values[1][i] = String.format("%.6f", columnStats.getMean()).trim();
+            values[2][i] = String.format("%.6f", columnStats.getStd()).trim();
+            values[3][i] = String.format("%.6f", series.median()).trim();
+            values[4][i] = series.formatExtreme(columnStats, false);
+            values[5][i] = series.formatExtreme(columnStats, true);
+
+            columnWidths[i] = series.getName().length();
+            for (String[] row : values) {
+                columnWidths[i] = Math.max(columnWidths[i], row[i].length());
+            }
             columnWidths[i] += 4;
         }
 
@@ -308,37 +761,10 @@ public class Dataframe {
             sb.append("═".repeat(columnWidths[i])).append(i == numericalSeries.size() - 1 ? "╣\n" : "╬");
         }
 
-        for (String stat : stats) {
-            sb.append(String.format("║ %-6s ║", stat));
-
+        for (int s = 0; s < stats.length; s++) {
+            sb.append(String.format("║ %-6s ║", stats[s]));
             for (int i = 0; i < numericalSeries.size(); i++) {
-                Series<? extends Number> series = (Series<? extends Number>) numericalSeries.get(i);
-                String value;
-
-                switch (stat) {
-                    case "count":
-                        value = String.valueOf(series.getData().size());
-                        break;
-                    case "mean":
-                        value = String.format("%.6f", series.mean()).trim();
-                        break;
-                    case "std":
-                        value = String.format("%.6f", series.std()).trim();
-                        break;
-                    case "min":
-                        value = series.min().toString();
-                        break;
-                    case "median":
-                        value = String.format("%.6f", series.median()).trim();
-                        break;
-                    case "max":
-                        value = series.max().toString();
-                        break;
-                    default:
-                        value = "N/A";
-                }
-
-                sb.append(String.format(" %-" + (columnWidths[i] - 2) + "s ║", value));
+                sb.append(String.format(" %-" + (columnWidths[i] - 2) + "s ║", values[s][i]));
             }
             sb.append("\n");
         }
@@ -351,67 +777,45 @@ public class Dataframe {
         System.out.println(sb);
     }
 
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-
-        if (data_tab == null || data_tab.length == 0) {
-            return "Empty dataframe";
-        }
-
-        int[] columnWidths = new int[data_tab.length];
-        for (int i = 0; i < data_tab.length; i++) {
-            columnWidths[i] = data_tab[i].getName().length();
-            for (Object value : data_tab[i].getData()) {
-                if (value == null) {
-                    columnWidths[i] = Math.max(columnWidths[i], 4);
-                } else {
-                    columnWidths[i] = Math.max(columnWidths[i], value.toString().length());
-                }
-            }
-            columnWidths[i] += 4;
-        }
-
-        int indexWidth = 5;
-
-        sb.append(" ".repeat(indexWidth+ 1)).append("╔");
-        for (int i = 0; i < data_tab.length; i++) {
-            sb.append("═".repeat(columnWidths[i])).append(i == data_tab.length - 1 ? "╗\n" : "╦");
-        }
-
-        sb.append(" ".repeat(indexWidth+ 1)).append("║");
-        for (int i = 0; i < data_tab.length; i++) {
-            sb.append(String.format(" %-" + (columnWidths[i] - 2) + "s ║", data_tab[i].getName()));
-        }
-        sb.append("\n");
-
-        sb.append("╔").append("═".repeat(indexWidth)).append("╬");
-        for (int i = 0; i < data_tab.length; i++) {
-            sb.append("═".repeat(columnWidths[i])).append(i == data_tab.length - 1 ? "╣\n" : "╬");
-        }
-
-        int maxRows = 0;
-        for (Series<?> series : data_tab) {
-            maxRows = Math.max(maxRows, series.getData().size());
-        }
-
-        for (int i = 0; i < maxRows; i++) {
-            sb.append(String.format("║ %3d ║", i));
-            for (int j = 0; j < data_tab.length; j++) {
-                if (i < data_tab[j].getData().size()) {
-                    sb.append(String.format(" %-" + (columnWidths[j] - 2) + "s ║", data_tab[j].getData().get(i)));
-                } else {
-                    sb.append(String.format(" %-" + (columnWidths[j] - 2) + "s ║", ""));
-                }
-            }
-            sb.append("\n");
-        }
+    /**
+     * Writes the Dataframe as a table, line by line. Rows and columns beyond the limits of the options are replaced
+     * by an ellipsis row and column, followed by the shape of the whole frame, and only the shown cells are read.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     try (Writer writer = Files.newBufferedWriter(path)) {
+     *         df.render(writer, new DisplayOptions().rows(100, 0).columns(5, 5));
+     *     }
+     * }</pre>
+     *
+     * @param out the destination of the table
+     * @param options the rows and columns to show
+     * @throws IOException If there's an error writing to the destination
+     */
+    public void render(Appendable out, DisplayOptions options) throws IOException {
+        TableRenderer.render(this, out, options, 0, rowCount());
+    }
 
-        sb.append("╚").append("═".repeat(indexWidth)).append("╩");
-        for (int i = 0; i < data_tab.length; i++) {
-            sb.append("═".repeat(columnWidths[i])).append(i == data_tab.length - 1 ? "╝\n" : "╩");
+    /**
+     * @return the table written by {@link #render(Appendable, DisplayOptions)} with these options
+     */
+    public String toString(DisplayOptions options) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            render(sb, options);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
         }
-
         return sb.toString();
     }
+
+    /**
+     * @return the table of the Dataframe, limited to the first and last rows and columns of the default
+     * {@link DisplayOptions}
+     */
+    @Override
+    public String toString() {
+        return toString(new DisplayOptions());
+    }
 }
@@ -0,0 +1,38 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Receives the metrics of the operations run on {@link Dataframe}, {@link Series} and the CSV readers, once they
+ * complete. The listener is set globally with {@link Instrumentation#setListener(DataframeListener)}.
+ * <p>
+ * The methods are called on the thread that ran the operation, right after it, so they should be quick and must not
+ * throw. Operations calling other instrumented operations report each of them, the inner ones first. Operations
+ * failing with an exception report nothing.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     Instrumentation.setListener(new DataframeListener() {
+ *         public void onOperation(OperationMetrics metrics) {
+ *             logger.debug(metrics.toString());
+ *         }
+ *     });
+ * }</pre>
+ */
+public interface DataframeListener {
+    /**
+     * The default listener, ignoring every event. While it is set, operations are not measured at all.
+     */
+    DataframeListener NOOP = new DataframeListener() {
+    };
+
+    /**
+     * Called when an operation completes.
+     */
+    default void onOperation(OperationMetrics metrics) {
+    }
+
+    /**
+     * Called when a CSV file, or a batch of one, has been parsed. The operation reading it is reported afterwards.
+     */
+    default void onCsvLoad(CsvLoadMetrics metrics) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Limits of a rendered Dataframe, see {@link Dataframe#render(Appendable, DisplayOptions)}.
+ * <p>
+ * Frames with more rows than the head and tail ones together show the first and last rows around an ellipsis row,
+ * and likewise for columns. Only the shown cells are read and formatted, so rendering a frame takes the same time
+ * whatever its size.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     DisplayOptions options = new DisplayOptions()
+ *             .rows(5, 5)
+ *             .columns(3, 2)
+ *             .maxCellWidth(20);
+ *     df.render(writer, options);
+ * }</pre>
+ */
+public final class DisplayOptions {
+    public static final int DEFAULT_ROWS = 10;
+    public static final int DEFAULT_COLUMNS = 10;
+
+    private int headRows = DEFAULT_ROWS;
+    private int tailRows = DEFAULT_ROWS;
+    private int headColumns = DEFAULT_COLUMNS;
+    private int tailColumns = DEFAULT_COLUMNS;
+    private int maxCellWidth = Integer.MAX_VALUE;
+
+    /**
+     * Sets the number of first and last rows shown, {@value #DEFAULT_ROWS} of each by default.
+     *
+     * @throws IllegalArgumentException if a number is negative
+     */
+    public DisplayOptions rows(int head, int tail) {
+        if (head < 0 || tail < 0) {
+            throw new IllegalArgumentException("Numbers of rows cannot be negative");
+        }
+        headRows = head;
+        tailRows = tail;
+        return this;
+    }
+
+    /**
+     * Sets the number of first and last columns shown, {@value #DEFAULT_COLUMNS} of each by default.
+     *
+     * @throws IllegalArgumentException if a number is negative
+     */
+    public DisplayOptions columns(int head, int tail) {
+        if (head < 0 || tail < 0) {
+            throw new IllegalArgumentException("Numbers of columns cannot be negative");
+        }
+        headColumns = head;
+        tailColumns = tail;
+        return this;
+    }
+
+    /**
+     * Cuts longer values and labels, ending them with "...". Values are not cut by default.
+     *
+     * @throws IllegalArgumentException if maxCellWidth is less than 3
+     */
+    public DisplayOptions maxCellWidth(int maxCellWidth) {
+        if (maxCellWidth < 3) {
+            throw new IllegalArgumentException("Cell width must be at least 3");
+        }
+        this.maxCellWidth = maxCellWidth;
+        return this;
+    }
+
+    int getHeadRows() {
+        return headRows;
+    }
+
+    int getTailRows() {
+        return tailRows;
+    }
+
+    int getHeadColumns() {
+        return headColumns;
+    }
+
+    int getTailColumns() {
+        return tailColumns;
+    }
+
+    int getMaxCellWidth() {
+        return maxCellWidth;
+    }
+}
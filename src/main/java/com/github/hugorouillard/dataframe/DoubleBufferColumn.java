@@ -0,0 +1,66 @@
+package com.github.hugorouillard.dataframe;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Column of double values read from buffers, see {@link BufferColumn}.
+ */
+final class DoubleBufferColumn extends BufferColumn<Double> {
+    private final DoubleBuffer[] chunks;
+
+    /**
+     * @param chunks the values, {@link #CHUNK_ROWS} per buffer
+     * @param size the number of rows
+     * @param validity the validity of each row, null if no row is missing
+     * @param stats the statistics of the whole column, null if they are not known
+     */
+    DoubleBufferColumn(DoubleBuffer[] chunks, int size, Bitmap validity, ColumnStats stats) {
+        super(size, validity, stats);
+        this.chunks = chunks;
+    }
+
+    @Override
+    public Double get(int index) {
+        return isNull(index) ? null : getDouble(index);
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.DOUBLE;
+    }
+
+    @Override
+    DoubleBufferColumn withMissing(Bitmap present) {
+        return new DoubleBufferColumn(chunks, size, validity == null ? present : validity.and(present), null);
+    }
+
+    @Override
+    public DoubleColumn select(int[] indices) {
+        double[] selected = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = getDouble(indices[i]);
+        }
+        return new DoubleColumn(selected, selectValidity(indices));
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    public double sum() {
+        if (validity != null) {
+            return super.sum();
+        }
+        double sum = 0;
+        for (int c = 0; c < chunks.length; c++) {
+            DoubleBuffer chunk = chunks[c];
+            int rows = chunkRows(size, c);
+            for (int i = 0; i < rows; i++) {
+                sum += chunk.get(i);
+            }
+        }
+        return sum;
+    }
+}
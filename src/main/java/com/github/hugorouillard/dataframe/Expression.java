@@ -0,0 +1,586 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Expression over the columns of a Dataframe, built from {@link #col(String)} and {@link #lit(Number)}: arithmetic
+ * on numerical values, comparisons, and boolean combinations of conditions.
+ * <p>
+ * An expression is checked against the column types of the frame it is evaluated on, then compiled into a single
+ * pass over the rows, fusing every operation: no value is boxed and no intermediate column is built. The rows are
+ * evaluated by blocks of a thousand, each operation running a primitive loop over the whole block, so that the
+ * operations are dispatched once per block rather than once per row, see {@link BlockKernels}.
+ * <p>
+ * Types follow the {@link Series} arithmetic: int and long values are combined as longs, except by a division; a
+ * double operand, or a division, gives doubles. Int and long comparisons are exact, the other ones compare doubles.
+ * A comparison involving a missing value is false, and a boolean column used as a condition is false where it is
+ * missing.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     import static com.github.hugorouillard.dataframe.Expression.col;
+ *
+ *     Dataframe strong = df.filter(col("Win %").gt(52).and(col("Ban %").gt(10)));
+ *     Dataframe rated = df.withColumn("Win per ban", col("Win %").div(col("Ban %")));
+ * }</pre>
+ */
+public abstract class Expression {
+    /**
+     * Type of the values of an expression.
+     */
+    enum Kind {
+        LONG,
+        DOUBLE,
+        BOOLEAN
+    }
+
+    Expression() {
+    }
+
+    /**
+     * @param label the label of a numerical or boolean column
+     * @return the values of the column
+     */
+    public static Expression col(String label) {
+        return new ColumnReference(Objects.requireNonNull(label));
+    }
+
+    /**
+     * @param value an int or long value, compared and combined exactly with int and long columns, or any other number
+     *              read as a double
+     * @return the constant value
+     */
+    public static Expression lit(Number value) {
+        return new Literal(Objects.requireNonNull(value));
+    }
+
+    public Expression add(Expression other) {
+        return new Binary(Arithmetic.ADD, this, other);
+    }
+
+    public Expression add(Number value) {
+        return add(lit(value));
+    }
+
+    public Expression sub(Expression other) {
+        return new Binary(Arithmetic.SUBTRACT, this, other);
+    }
+
+    public Expression sub(Number value) {
+        return sub(lit(value));
+    }
+
+    public Expression mul(Expression other) {
+        return new Binary(Arithmetic.MULTIPLY, this, other);
+    }
+
+    public Expression mul(Number value) {
+        return mul(lit(value));
+    }
+
+    /**
+     * @return the quotient, always as doubles
+     */
+    public Expression div(Expression other) {
+        return new Binary(Arithmetic.DIVIDE, this, other);
+    }
+
+    /**
+     * @return the quotient, always as doubles
+     */
+    public Expression div(Number value) {
+        return div(lit(value));
+    }
+
+    public Expression eq(Expression other) {
+        return new Compare(Comparison.EQUAL, this, other);
+    }
+
+    public Expression eq(Number value) {
+        return eq(lit(value));
+    }
+
+    /**
+     * Compares a string or categorical column to a string, matching dictionary codes on categorical columns.
+     *
+     * @throws IllegalArgumentException if this expression is not a column.
+     */
+    public Expression eq(String value) {
+        return new StringEquality(column(), Objects.requireNonNull(value), true);
+    }
+
+    public Expression ne(Expression other) {
+        return new Compare(Comparison.NOT_EQUAL, this, other);
+    }
+
+    public Expression ne(Number value) {
+        return ne(lit(value));
+    }
+
+    /**
+     * Compares a string or categorical column to a string, missing values being neither equal nor different.
+     *
+     * @throws IllegalArgumentException if this expression is not a column.
+     */
+    public Expression ne(String value) {
+        return new StringEquality(column(), Objects.requireNonNull(value), false);
+    }
+
+    public Expression lt(Expression other) {
+        return new Compare(Comparison.LESS, this, other);
+    }
+
+    public Expression lt(Number value) {
+        return lt(lit(value));
+    }
+
+    public Expression le(Expression other) {
+        return new Compare(Comparison.LESS_OR_EQUAL, this, other);
+    }
+
+    public Expression le(Number value) {
+        return le(lit(value));
+    }
+
+    public Expression gt(Expression other) {
+        return new Compare(Comparison.GREATER, this, other);
+    }
+
+    public Expression gt(Number value) {
+        return gt(lit(value));
+    }
+
+    public Expression ge(Expression other) {
+        return new Compare(Comparison.GREATER_OR_EQUAL, this, other);
+    }
+
+    public Expression ge(Number value) {
+        return ge(lit(value));
+    }
+
+    /**
+     * @return the condition true where both conditions are, the other one being skipped on blocks of rows where
+     * this one is never true
+     */
+    public Expression and(Expression other) {
+        return new Logical(true, this, other);
+    }
+
+    public Expression or(Expression other) {
+        return new Logical(false, this, other);
+    }
+
+    /**
+     * @return the condition true where this one is false, including the rows where it is false because of a missing
+     * value
+     */
+    public Expression not() {
+        return new Not(this);
+    }
+
+    private String column() {
+        if (!(this instanceof ColumnReference)) {
+            throw new IllegalArgumentException("Only columns can be compared to strings: " + this);
+        }
+        return ((ColumnReference) this).label;
+    }
+
+    /**
+     * Checks the expression against the columns of a frame.
+     *
+     * @return the type of the values of the expression
+     * @throws IllegalArgumentException if a column does not exist, or an operation does not apply to its operands.
+     */
+    abstract Kind kind(Dataframe frame);
+
+    /**
+     * Adds the labels of the columns read by the expression.
+     */
+    abstract void addColumns(Set<String> labels);
+
+    /*
+     * Compilation into evaluators, once the kind of the expression is checked.
+     */
+
+    BlockKernels.LongBlock longs(Dataframe frame) {
+        throw new IllegalStateException("Not an integral expression: " + this);
+    }
+
+    BlockKernels.DoubleBlock doubles(Dataframe frame) {
+        return new BlockKernels.LongsAsDoubles(longs(frame));
+    }
+
+    BlockKernels.MaskBlock mask(Dataframe frame) {
+        throw new IllegalStateException("Not a condition: " + this);
+    }
+
+    /**
+     * @return the rows where every column read by the expression has a value, null if no row is missing
+     */
+    Bitmap validity(Dataframe frame) {
+        Set<String> labels = new LinkedHashSet<>();
+        addColumns(labels);
+        Bitmap validity = null;
+        for (String label : labels) {
+            Bitmap columnValidity = frame.column(label).getValidity();
+            if (columnValidity != null) {
+                validity = validity == null ? columnValidity : validity.and(columnValidity);
+            }
+        }
+        return validity;
+    }
+
+    /**
+     * @return the mask of the rows satisfying this condition
+     * @throws IllegalArgumentException if the expression is not a valid condition on the frame.
+     */
+    Bitmap evaluateMask(Dataframe frame) {
+        if (kind(frame) != Kind.BOOLEAN) {
+            throw new IllegalArgumentException("Not a condition: " + this);
+        }
+        return BlockKernels.mask(mask(frame), frame.rowCount(), frame.getParallelism());
+    }
+
+    /**
+     * @return the values of this expression for each row: a long, double or boolean column
+     * @throws IllegalArgumentException if the expression is not valid on the frame.
+     */
+    Column<?> evaluate(Dataframe frame) {
+        switch (kind(frame)) {
+            case LONG:
+                return new LongColumn(BlockKernels.longs(longs(frame), frame.rowCount(), frame.getParallelism()),
+                        validity(frame));
+            case DOUBLE:
+                return new DoubleColumn(BlockKernels.doubles(doubles(frame), frame.rowCount(), frame.getParallelism()),
+                        validity(frame));
+            default:
+                Bitmap mask = evaluateMask(frame);
+                boolean[] values = new boolean[mask.size()];
+                for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+                    values[i] = true;
+                }
+                return new BooleanColumn(values);
+        }
+    }
+
+    private static void checkNumerical(Kind kind, Expression operand) {
+        if (kind == Kind.BOOLEAN) {
+            throw new IllegalArgumentException("Not a numerical expression: " + operand);
+        }
+    }
+
+    private static void checkCondition(Kind kind, Expression operand) {
+        if (kind != Kind.BOOLEAN) {
+            throw new IllegalArgumentException("Not a condition: " + operand);
+        }
+    }
+
+    private static final class ColumnReference extends Expression {
+        private final String label;
+
+        ColumnReference(String label) {
+            this.label = label;
+        }
+
+        @Override
+        Kind kind(Dataframe frame) {
+            ColumnType type = frame.column(label).getType();
+            switch (type) {
+                case INT:
+                case LONG:
+                    return Kind.LONG;
+                case DOUBLE:
+                    return Kind.DOUBLE;
+                case BOOLEAN:
+                    return Kind.BOOLEAN;
+                default:
+                    throw new IllegalArgumentException("Column " + label + " of type " + type
+                            + " is neither numerical nor boolean");
+            }
+        }
+
+        @Override
+        void addColumns(Set<String> labels) {
+            labels.add(label);
+        }
+
+        @Override
+        BlockKernels.LongBlock longs(Dataframe frame) {
+            Column<?> column = frame.column(label);
+            return column.getType() == ColumnType.INT
+                    ? new BlockKernels.IntColumnLongs(column.intValues())
+                    : new BlockKernels.LongColumnLongs(column.longValues());
+        }
+
+        @Override
+        BlockKernels.DoubleBlock doubles(Dataframe frame) {
+            Column<?> column = frame.column(label);
+            switch (column.getType()) {
+                case INT:
+                    return new BlockKernels.IntColumnDoubles(column.intValues());
+                case LONG:
+                    return new BlockKernels.LongColumnDoubles(column.longValues());
+                default:
+                    return new BlockKernels.DoubleColumnDoubles(column.doubleValues());
+            }
+        }
+
+        @Override
+        BlockKernels.MaskBlock mask(Dataframe frame) {
+            Column<?> column = frame.column(label);
+            return new BlockKernels.BooleanColumnMask(column.booleanValues(), column.getValidity());
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final class Literal extends Expression {
+        private final Number value;
+
+        Literal(Number value) {
+            this.value = value;
+        }
+
+        @Override
+        Kind kind(Dataframe frame) {
+            return ColumnMath.isIntegral(value) ? Kind.LONG : Kind.DOUBLE;
+        }
+
+        @Override
+        void addColumns(Set<String> labels) {
+        }
+
+        @Override
+        BlockKernels.LongBlock longs(Dataframe frame) {
+            return new BlockKernels.LongConstant(value.longValue());
+        }
+
+        @Override
+        BlockKernels.DoubleBlock doubles(Dataframe frame) {
+            return new BlockKernels.DoubleConstant(value.doubleValue());
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    private static final class Binary extends Expression {
+        private final Arithmetic operator;
+        private final Expression left;
+        private final Expression right;
+
+        Binary(Arithmetic operator, Expression left, Expression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = Objects.requireNonNull(right);
+        }
+
+        @Override
+        Kind kind(Dataframe frame) {
+            Kind leftKind = left.kind(frame);
+            Kind rightKind = right.kind(frame);
+            checkNumerical(leftKind, left);
+            checkNumerical(rightKind, right);
+            return operator != Arithmetic.DIVIDE && leftKind == Kind.LONG && rightKind == Kind.LONG
+                    ? Kind.LONG : Kind.DOUBLE;
+        }
+
+        @Override
+        void addColumns(Set<String> labels) {
+            left.addColumns(labels);
+            right.addColumns(labels);
+        }
+
+        @Override
+        BlockKernels.LongBlock longs(Dataframe frame) {
+            if (right instanceof Literal) {
+                return new BlockKernels.LongScalarArithmetic(operator, left.longs(frame),
+                        ((Literal) right).value.longValue());
+            }
+            return new BlockKernels.LongArithmetic(operator, left.longs(frame), right.longs(frame));
+        }
+
+        @Override
+        BlockKernels.DoubleBlock doubles(Dataframe frame) {
+            if (kind(frame) == Kind.LONG) {
+                return super.doubles(frame);
+            }
+            if (right instanceof Literal) {
+                return new BlockKernels.DoubleScalarArithmetic(operator, left.doubles(frame),
+                        ((Literal) right).value.doubleValue());
+            }
+            return new BlockKernels.DoubleArithmetic(operator, left.doubles(frame), right.doubles(frame));
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operator.symbol() + " " + right + ")";
+        }
+    }
+
+    private static final class Compare extends Expression {
+        private final Comparison comparison;
+        private final Expression left;
+        private final Expression right;
+
+        Compare(Comparison comparison, Expression left, Expression right) {
+            this.comparison = comparison;
+            this.left = left;
+            this.right = Objects.requireNonNull(right);
+        }
+
+        @Override
+        Kind kind(Dataframe frame) {
+            checkNumerical(left.kind(frame), left);
+            checkNumerical(right.kind(frame), right);
+            return Kind.BOOLEAN;
+        }
+
+        @Override
+        void addColumns(Set<String> labels) {
+            left.addColumns(labels);
+            right.addColumns(labels);
+        }
+
+        @Override
+        BlockKernels.MaskBlock mask(Dataframe frame) {
+            Bitmap validity = validity(frame);
+            boolean literal = right instanceof Literal;
+            if (left.kind(frame) == Kind.LONG && right.kind(frame) == Kind.LONG) {
+                return literal
+                        ? new BlockKernels.LongScalarComparison(comparison, left.longs(frame),
+                                ((Literal) right).value.longValue(), validity)
+                        : new BlockKernels.LongComparison(comparison, left.longs(frame), right.longs(frame), validity);
+            }
+            return literal
+                    ? new BlockKernels.DoubleScalarComparison(comparison, left.doubles(frame),
+                            ((Literal) right).value.doubleValue(), validity)
+                    : new BlockKernels.DoubleComparison(comparison, left.doubles(frame), right.doubles(frame), validity);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + comparison.symbol() + " " + right + ")";
+        }
+    }
+
+    private static final class StringEquality extends Expression {
+        private final String label;
+        private final String value;
+        private final boolean equal;
+
+        StringEquality(String label, String value, boolean equal) {
+            this.label = label;
+            this.value = value;
+            this.equal = equal;
+        }
+
+        @Override
+        Kind kind(Dataframe frame) {
+            ColumnType type = frame.column(label).getType();
+            if (type != ColumnType.STRING && type != ColumnType.CATEGORICAL) {
+                throw new IllegalArgumentException("Column " + label + " of type " + type + " does not hold strings");
+            }
+            return Kind.BOOLEAN;
+        }
+
+        @Override
+        void addColumns(Set<String> labels) {
+            labels.add(label);
+        }
+
+        /**
+         * The equality is evaluated beforehand, as a categorical column matches a single dictionary code.
+         */
+        @Override
+        BlockKernels.MaskBlock mask(Dataframe frame) {
+            Column<?> column = frame.column(label);
+            Bitmap mask = column.maskEqual(value);
+            if (!equal) {
+                mask = mask.not();
+                if (column.getValidity() != null) {
+                    mask = mask.and(column.getValidity());
+                }
+            }
+            return new BlockKernels.BitmapMask(mask);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + label + (equal ? " == \"" : " != \"") + value + "\")";
+        }
+    }
+
+    private static final class Logical extends Expression {
+        private final boolean and;
+        private final Expression left;
+        private final Expression right;
+
+        Logical(boolean and, Expression left, Expression right) {
+            this.and = and;
+            this.left = left;
+            this.right = Objects.requireNonNull(right);
+        }
+
+        @Override
+        Kind kind(Dataframe frame) {
+            checkCondition(left.kind(frame), left);
+            checkCondition(right.kind(frame), right);
+            return Kind.BOOLEAN;
+        }
+
+        @Override
+        void addColumns(Set<String> labels) {
+            left.addColumns(labels);
+            right.addColumns(labels);
+        }
+
+        @Override
+        BlockKernels.MaskBlock mask(Dataframe frame) {
+            return and
+                    ? new BlockKernels.And(left.mask(frame), right.mask(frame))
+                    : new BlockKernels.Or(left.mask(frame), right.mask(frame));
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + (and ? " and " : " or ") + right + ")";
+        }
+    }
+
+    private static final class Not extends Expression {
+        private final Expression operand;
+
+        Not(Expression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Kind kind(Dataframe frame) {
+            checkCondition(operand.kind(frame), operand);
+            return Kind.BOOLEAN;
+        }
+
+        @Override
+        void addColumns(Set<String> labels) {
+            operand.addColumns(labels);
+        }
+
+        @Override
+        BlockKernels.MaskBlock mask(Dataframe frame) {
+            return new BlockKernels.Not(operand.mask(frame));
+        }
+
+        @Override
+        public String toString() {
+            return "not " + operand;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.github.hugorouillard.dataframe;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Native columnar file format, written by {@link Dataframe#save(String)} and read by {@link Dataframe#open(String)}.
+ * <p>
+ * Every number is little-endian. The file starts with a header describing the frame:
+ * <pre>
+ *   magic                8 bytes, "JDFRAME1"
+ *   header length        int, the number of header bytes following
+ *   rows                 int
+ *   columns              int
+ *   for each column:
+ *     label              string
+ *     type               string, the name of the column type
+ *     has statistics     byte, 1 for numerical columns, followed by their count, sum, mean, m2, min and max, or 2
+                        when these are followed by the exact long min and max of integral columns
+ *     validity offset    long, -1 if no row is missing
+ *     values offset      long
+ *     dictionary offset  long, -1 if the column has no dictionary
+ * </pre>
+ * Strings are written as an int byte length followed by their UTF-8 bytes. Offsets count from the start of the
+ * blocks, which follow the header. Every block starts on a 64-byte boundary, and holds contiguous values:
+ * <ul>
+ *   <li>validity: the words of the validity bitmap, 8 bytes each</li>
+ *   <li>values: 4 bytes per int, 8 bytes per long or double, booleans packed as bitmap words, and the dictionary
+ *   code of string values, 4 bytes each</li>
+ *   <li>dictionary: the number of distinct strings, then each string</li>
+ * </ul>
+ * Int, long and double blocks are memory-mapped by {@link #read(String)} and read in place, see
+ * {@link BufferColumn}. Validity, boolean and string blocks are loaded on the heap.
+ */
+final class FrameFile {
+    private static final byte[] MAGIC = "JDFRAME1".getBytes(StandardCharsets.US_ASCII);
+    private static final int PREFIX_BYTES = MAGIC.length + Integer.BYTES;
+    private static final int ALIGNMENT = 64;
+
+    private FrameFile() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if a column holds values of type OBJECT
+     */
+    static void write(Dataframe frame, String file) throws IOException {
+        Series<?>[] series = frame.getDataTab();
+        int rows = series.length == 0 ? 0 : series[0].size();
+        Column<?>[] columns = new Column[series.length];
+        byte[][] dictionaries = new byte[series.length][];
+        long[] validityOffsets = new long[series.length];
+        long[] valuesOffsets = new long[series.length];
+        long[] dictionaryOffsets = new long[series.length];
+
+        // lays out the blocks first, so that the header can be written before them
+        long offset = 0;
+        for (int c = 0; c < series.length; c++) {
+            Column<?> column = series[c].getColumn().materialize();
+            if (column.getType() == ColumnType.OBJECT) {
+                throw new IllegalArgumentException("Columns of type OBJECT cannot be saved: " + series[c].getName());
+            }
+            if (column.getType() == ColumnType.STRING) {
+                String[] values = new String[rows];
+                for (int i = 0; i < rows; i++) {
+                    values[i] = (String) column.get(i);
+                }
+                column = CategoricalColumn.encode(values);
+            }
+            columns[c] = column;
+
+            validityOffsets[c] = column.getValidity() == null ? -1 : offset;
+            if (column.getValidity() != null) {
+                offset = align(offset + (long) Bitmap.wordCount(rows) * Long.BYTES);
+            }
+            valuesOffsets[c] = offset;
+            offset = align(offset + valuesBytes(column.getType(), rows));
+            dictionaryOffsets[c] = -1;
+            if (column instanceof CategoricalColumn) {
+                dictionaries[c] = dictionary((CategoricalColumn) column);
+                dictionaryOffsets[c] = offset;
+                offset = align(offset + dictionaries[c].length);
+            }
+        }
+
+        Output header = new Output();
+        header.putInt(rows).putInt(series.length);
+        for (int c = 0; c < series.length; c++) {
+            header.putString(series[c].getName()).putString(series[c].getType().name());
+            if (series[c].getType().isNumeric()) {
+                ColumnStats stats = columns[c].stats();
+                boolean longExtremes = stats.hasLongExtremes();
+                header.reserve(1 + ColumnStats.BYTES + (longExtremes ? ColumnStats.LONG_EXTREMES_BYTES : 0))
+                        .put((byte) (longExtremes ? 2 : 1));
+                stats.write(header.buffer);
+            } else {
+                header.reserve(1).put((byte) 0);
+            }
+            header.putLong(validityOffsets[c]).putLong(valuesOffsets[c]).putLong(dictionaryOffsets[c]);
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            BlockWriter writer = new BlockWriter(channel);
+            writer.put(MAGIC);
+            writer.putInt(header.buffer.position());
+            writer.put(Arrays.copyOf(header.buffer.array(), header.buffer.position()));
+            writer.align();
+            for (int c = 0; c < columns.length; c++) {
+                writeBlocks(writer, columns[c], dictionaries[c]);
+            }
+            writer.flush();
+        }
+    }
+
+    private static long valuesBytes(ColumnType type, int rows) {
+        switch (type) {
+            case LONG:
+            case DOUBLE:
+                return (long) rows * Long.BYTES;
+            case BOOLEAN:
+                return (long) Bitmap.wordCount(rows) * Long.BYTES;
+            default:
+                return (long) rows * Integer.BYTES;
+        }
+    }
+
+    private static byte[] dictionary(CategoricalColumn column) {
+        Output dictionary = new Output();
+        dictionary.putInt(column.categoryCount());
+        for (int code = 0; code < column.categoryCount(); code++) {
+            dictionary.putString(column.getCategory(code));
+        }
+        return Arrays.copyOf(dictionary.buffer.array(), dictionary.buffer.position());
+    }
+
+    /**
+     * Writes the blocks of a column, in the order of the offsets given by {@link #write(Dataframe, String)}.
+     */
+    private static void writeBlocks(BlockWriter writer, Column<?> column, byte[] dictionary) throws IOException {
+        int rows = column.size();
+        if (column.getValidity() != null) {
+            for (long word : column.getValidity().words()) {
+                writer.putLong(word);
+            }
+            writer.align();
+        }
+        switch (column.getType()) {
+            case INT:
+                for (int i = 0; i < rows; i++) {
+                    writer.putInt(column.getInt(i));
+                }
+                break;
+            case LONG:
+                for (int i = 0; i < rows; i++) {
+                    writer.putLong(column.getLong(i));
+                }
+                break;
+            case DOUBLE:
+                for (int i = 0; i < rows; i++) {
+                    writer.putDouble(column.getDouble(i));
+                }
+                break;
+            case BOOLEAN:
+                for (int w = 0; w < Bitmap.wordCount(rows); w++) {
+                    long word = 0;
+                    for (int i = w << 6; i < Math.min(rows, (w + 1) << 6); i++) {
+                        if (column.getBoolean(i)) {
+                            word |= 1L << i;
+                        }
+                    }
+                    writer.putLong(word);
+                }
+                break;
+            default:
+                CategoricalColumn categorical = (CategoricalColumn) column;
+                for (int i = 0; i < rows; i++) {
+                    writer.putInt(categorical.isNull(i) ? 0 : categorical.getCode(i));
+                }
+        }
+        writer.align();
+        if (dictionary != null) {
+            writer.put(dictionary);
+            writer.align();
+        }
+    }
+
+    /**
+     * @throws IOException if the file cannot be read, or is not a valid dataframe file
+     */
+    static Dataframe read(String file) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            if (channel.size() < PREFIX_BYTES) {
+                throw new IOException("Not a dataframe file: " + file);
+            }
+            ByteBuffer prefix = map(channel, 0, PREFIX_BYTES);
+            byte[] magic = new byte[MAGIC.length];
+            prefix.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a dataframe file: " + file);
+            }
+            int headerLength = prefix.getInt();
+            if (headerLength < 0 || PREFIX_BYTES + (long) headerLength > channel.size()) {
+                throw new IOException("Corrupted dataframe file: " + file);
+            }
+            ByteBuffer header = map(channel, PREFIX_BYTES, headerLength);
+            long blocks = align(PREFIX_BYTES + (long) headerLength);
+
+            try {
+                int rows = header.getInt();
+                Series<?>[] series = new Series[header.getInt()];
+                for (int c = 0; c < series.length; c++) {
+                    String label = getString(header);
+                    ColumnType type = ColumnType.valueOf(getString(header));
+                    byte hasStats = header.get();
+                    ColumnStats stats = hasStats == 0 ? null : ColumnStats.read(header, hasStats == 2);
+                    long validityOffset = header.getLong();
+                    long valuesOffset = blocks + header.getLong();
+                    long dictionaryOffset = header.getLong();
+                    Bitmap validity = validityOffset < 0 ? null : readBitmap(channel, blocks + validityOffset, rows);
+                    Column<?> column = readColumn(channel, type, rows, validity, stats, valuesOffset,
+                            dictionaryOffset < 0 ? -1 : blocks + dictionaryOffset);
+                    series[c] = new Series<>(column, label);
+                }
+                return new Dataframe(series);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Corrupted dataframe file: " + file, e);
+            }
+        }
+    }
+
+    private static Column<?> readColumn(FileChannel channel, ColumnType type, int rows, Bitmap validity,
+                                        ColumnStats stats, long offset, long dictionaryOffset) throws IOException {
+        int chunks = BufferColumn.chunkCount(rows);
+        switch (type) {
+            case INT:
+                IntBuffer[] ints = new IntBuffer[chunks];
+                for (int c = 0; c < chunks; c++) {
+                    ints[c] = mapChunk(channel, offset, c, rows, Integer.BYTES).asIntBuffer();
+                }
+                return new IntBufferColumn(ints, rows, validity, stats);
+            case LONG:
+                LongBuffer[] longs = new LongBuffer[chunks];
+                for (int c = 0; c < chunks; c++) {
+                    longs[c] = mapChunk(channel, offset, c, rows, Long.BYTES).asLongBuffer();
+                }
+                return new LongBufferColumn(longs, rows, validity, stats);
+            case DOUBLE:
+                DoubleBuffer[] doubles = new DoubleBuffer[chunks];
+                for (int c = 0; c < chunks; c++) {
+                    doubles[c] = mapChunk(channel, offset, c, rows, Double.BYTES).asDoubleBuffer();
+                }
+                return new DoubleBufferColumn(doubles, rows, validity, stats);
+            case BOOLEAN:
+                Bitmap bits = readBitmap(channel, offset, rows);
+                boolean[] values = new boolean[rows];
+                for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                    values[i] = true;
+                }
+                return new BooleanColumn(values, validity);
+            case STRING:
+            case CATEGORICAL:
+                int[] codes = new int[rows];
+                for (int c = 0; c < chunks; c++) {
+                    mapChunk(channel, offset, c, rows, Integer.BYTES).asIntBuffer().get(codes, c << BufferColumn.CHUNK_SHIFT,
+                            BufferColumn.chunkRows(rows, c));
+                }
+                String[] categories = readDictionary(channel, dictionaryOffset);
+                CategoricalColumn categorical = new CategoricalColumn(codes, categories, validity);
+                return type == ColumnType.STRING ? categorical.decode() : categorical;
+            default:
+                throw new IllegalArgumentException("Columns of type " + type + " cannot be read");
+        }
+    }
+
+    private static ByteBuffer mapChunk(FileChannel channel, long offset, int chunk, int rows, int bytes)
+            throws IOException {
+        long position = offset + ((long) chunk << BufferColumn.CHUNK_SHIFT) * bytes;
+        return map(channel, position, (long) BufferColumn.chunkRows(rows, chunk) * bytes);
+    }
+
+    private static Bitmap readBitmap(FileChannel channel, long offset, int size) throws IOException {
+        Bitmap bitmap = new Bitmap(size);
+        long[] words = bitmap.words();
+        map(channel, offset, (long) words.length * Long.BYTES).asLongBuffer().get(words);
+        return bitmap;
+    }
+
+    private static String[] readDictionary(FileChannel channel, long offset) throws IOException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("String column without dictionary");
+        }
+        ByteBuffer dictionary = map(channel, offset, Math.min(channel.size() - offset, Integer.MAX_VALUE));
+        String[] values = new String[dictionary.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getString(dictionary);
+        }
+        return values;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (position < 0 || size < 0 || position + size > channel.size()) {
+            throw new IllegalArgumentException("Block out of the file");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long align(long offset) {
+        return (offset + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Growable little-endian buffer, for the header and the dictionaries.
+     */
+    private static final class Output {
+        private ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+        ByteBuffer reserve(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                buffer.flip();
+                buffer = grown.put(buffer);
+            }
+            return buffer;
+        }
+
+        Output putInt(int value) {
+            reserve(Integer.BYTES).putInt(value);
+            return this;
+        }
+
+        Output putLong(long value) {
+            reserve(Long.BYTES).putLong(value);
+            return this;
+        }
+
+        Output putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            reserve(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes);
+            return this;
+        }
+    }
+
+    /**
+     * Writes a file sequentially through a little-endian buffer, keeping track of the position for alignment.
+     */
+    private static final class BlockWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        BlockWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private ByteBuffer reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            position += bytes;
+            return buffer;
+        }
+
+        void putInt(int value) throws IOException {
+            reserve(Integer.BYTES).putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            reserve(Long.BYTES).putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            reserve(Double.BYTES).putDouble(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for (int from = 0; from < bytes.length; from += buffer.capacity()) {
+                int length = Math.min(buffer.capacity(), bytes.length - from);
+                reserve(length).put(bytes, from, length);
+            }
+        }
+
+        /**
+         * Pads with zeros up to the next block boundary.
+         */
+        void align() throws IOException {
+            int padding = (int) (FrameFile.align(position) - position);
+            reserve(padding).put(new byte[padding]);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Rows of a {@link Dataframe} grouped by the values of key columns, built by {@link Dataframe#groupBy(String...)}.
+ * <p>
+ * Each row is given the id of its group through an open-addressing table keyed by primitive longs: int, long and
+ * boolean values, the bits of double values, and the codes of categorical values. Other columns are dictionary
+ * encoded first. Missing keys make their own group. Groups are ordered by first appearance, and the grouping is
+ * computed once and shared by every {@link #agg} call.
+ * <p>
+ * When the frame runs in parallel (see {@link Dataframe#withParallelism}), each morsel of rows is grouped and
+ * aggregated into its own tables, which are then merged in row order: results do not depend on scheduling.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     GroupBy byClass = df.groupBy("Class", "Role");
+ *     Dataframe wins = byClass.agg(Aggregation.MEAN, "Win %", "Ban %");
+ *     Dataframe counts = byClass.agg(Aggregation.COUNT, "Name");
+ * }</pre>
+ */
+public final class GroupBy {
+    private final Dataframe dataframe;
+    private final String[] keys;
+    private Grouping grouping;
+
+    GroupBy(Dataframe dataframe, String[] keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one key column is required");
+        }
+        for (String key : keys) {
+            dataframe.column(key);
+        }
+        this.dataframe = dataframe;
+        this.keys = keys.clone();
+    }
+
+    /**
+     * @return the number of groups
+     */
+    public int groupCount() {
+        return grouping().groups;
+    }
+
+    /**
+     * Aggregates columns by group. The result holds one row per group: the key columns, then one column per label,
+     * labelled like {@code sum(Price)}. COUNT results are LONG, FIRST and LAST keep the type of the column, SUM, MIN
+     * and MAX of INT and LONG columns are exact LONG values, and the other aggregations are DOUBLE, NaN for MIN, MAX
+     * and MEAN over no value.
+     *
+     * @param aggregation the aggregation to apply
+     * @param labels the columns to aggregate
+     * @return a new Dataframe with one row per group
+     * @throws IllegalArgumentException if a column does not exist, or is not numerical for SUM, MEAN, MIN and MAX
+     */
+    public Dataframe agg(Aggregation aggregation, String... labels) {
+        Instrumentation.OperationTimer timer = Instrumentation.start("GroupBy.agg", dataframe.rowCount());
+        Column<?>[] columns = new Column[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            columns[i] = dataframe.column(labels[i]).materialize();
+            aggregation.check(columns[i]);
+        }
+
+        Grouping grouping = grouping();
+        Series<?>[] result = new Series[keys.length + labels.length];
+        for (int k = 0; k < keys.length; k++) {
+            result[k] = new Series<>(grouping.keyColumns[k].select(grouping.firstRows), keys[k]);
+        }
+        for (int i = 0; i < labels.length; i++) {
+            result[keys.length + i] = new Series<>(aggregate(grouping, aggregation, columns[i]), aggregation.label(labels[i]));
+        }
+        return timer.stop(dataframe.derive(result));
+    }
+
+    private Grouping grouping() {
+        if (grouping == null) {
+            grouping = new Grouping(dataframe.getParallelism(), keys, dataframe);
+        }
+        return grouping;
+    }
+
+    private static Column<?> aggregate(Grouping grouping, Aggregation aggregation, Column<?> values) {
+        switch (aggregation) {
+            case FIRST:
+                return values.select(grouping.firstRows);
+            case LAST:
+                return values.select(grouping.lastRows);
+            default:
+                break;
+        }
+        if (aggregation.integral(values)) {
+            return aggregateLongs(grouping, aggregation, values);
+        }
+
+        int morsels = grouping.localGroups.length;
+        long[][] localCounts = new long[morsels][];
+        double[][] localValues = new double[morsels][];
+        grouping.parallelism.forEachMorsel(grouping.rows, (m, from, to) -> {
+            long[] counts = new long[grouping.localGroups[m]];
+            double[] accumulated = aggregation == Aggregation.COUNT ? null : new double[counts.length];
+            accumulate(aggregation, values, grouping.localGroupOf, from, to, counts, accumulated);
+            localCounts[m] = counts;
+            localValues[m] = accumulated;
+        });
+
+        // partial results are merged in row order, so sums do not depend on scheduling
+        long[] counts = new long[grouping.groups];
+        double[] accumulated = aggregation == Aggregation.COUNT ? null : new double[grouping.groups];
+        if (aggregation == Aggregation.MIN || aggregation == Aggregation.MAX) {
+            Arrays.fill(accumulated, aggregation == Aggregation.MIN ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+        }
+        for (int m = 0; m < morsels; m++) {
+            int[] toGlobal = grouping.localToGlobal[m];
+            for (int local = 0; local < localCounts[m].length; local++) {
+                int group = toGlobal == null ? local : toGlobal[local];
+                counts[group] += localCounts[m][local];
+                if (accumulated != null && localCounts[m][local] > 0) {
+                    double value = localValues[m][local];
+                    switch (aggregation) {
+                        case MIN:
+                            accumulated[group] = value < accumulated[group] ? value : accumulated[group];
+                            break;
+                        case MAX:
+                            accumulated[group] = value > accumulated[group] ? value : accumulated[group];
+                            break;
+                        default:
+                            accumulated[group] += value;
+                    }
+                }
+            }
+        }
+
+        if (aggregation == Aggregation.COUNT) {
+            return new LongColumn(counts);
+        }
+        for (int group = 0; group < grouping.groups; group++) {
+            if (aggregation == Aggregation.MEAN) {
+                accumulated[group] /= counts[group];
+            } else if (aggregation != Aggregation.SUM && counts[group] == 0) {
+                accumulated[group] = Double.NaN;
+            }
+        }
+        return new DoubleColumn(accumulated);
+    }
+
+    /**
+     * SUM, MIN and MAX of INT and LONG columns, accumulated in longs since doubles round them beyond 2^53.
+     */
+    private static Column<?> aggregateLongs(Grouping grouping, Aggregation aggregation, Column<?> values) {
+        int morsels = grouping.localGroups.length;
+        long[][] localCounts = new long[morsels][];
+        long[][] localValues = new long[morsels][];
+        grouping.parallelism.forEachMorsel(grouping.rows, (m, from, to) -> {
+            long[] counts = new long[grouping.localGroups[m]];
+            long[] accumulated = new long[counts.length];
+            accumulateLongs(aggregation, values, grouping.localGroupOf, from, to, counts, accumulated);
+            localCounts[m] = counts;
+            localValues[m] = accumulated;
+        });
+
+        long[] counts = new long[grouping.groups];
+        long[] accumulated = new long[grouping.groups];
+        for (int m = 0; m < morsels; m++) {
+            int[] toGlobal = grouping.localToGlobal[m];
+            for (int local = 0; local < localCounts[m].length; local++) {
+                int group = toGlobal == null ? local : toGlobal[local];
+                if (localCounts[m][local] > 0) {
+                    long value = localValues[m][local];
+                    boolean first = counts[group] == 0;
+                    switch (aggregation) {
+                        case MIN:
+                            accumulated[group] = first ? value : Math.min(value, accumulated[group]);
+                            break;
+                        case MAX:
+                            accumulated[group] = first ? value : Math.max(value, accumulated[group]);
+                            break;
+                        default:
+                            accumulated[group] += value;
+                    }
+                    counts[group] += localCounts[m][local];
+                }
+            }
+        }
+
+        // the extremes of groups without values are missing
+        Bitmap validity = null;
+        if (aggregation != Aggregation.SUM) {
+            for (int group = 0; group < grouping.groups; group++) {
+                if (counts[group] == 0) {
+                    if (validity == null) {
+                        validity = Bitmap.allSet(grouping.groups);
+                    }
+                    validity.clear(group);
+                }
+            }
+        }
+        return new LongColumn(accumulated, validity);
+    }
+
+    private static void accumulateLongs(Aggregation aggregation, Column<?> values, int[] groupOf, int from, int to,
+                                        long[] counts, long[] accumulated) {
+        switch (aggregation) {
+            case MIN:
+                Arrays.fill(accumulated, Long.MAX_VALUE);
+                for (int i = values.nextValid(from); i >= 0 && i < to; i = values.nextValid(i + 1)) {
+                    int group = groupOf[i];
+                    long value = values.getLong(i);
+                    counts[group]++;
+                    if (value < accumulated[group]) {
+                        accumulated[group] = value;
+                    }
+                }
+                break;
+            case MAX:
+                Arrays.fill(accumulated, Long.MIN_VALUE);
+                for (int i = values.nextValid(from); i >= 0 && i < to; i = values.nextValid(i + 1)) {
+                    int group = groupOf[i];
+                    long value = values.getLong(i);
+                    counts[group]++;
+                    if (value > accumulated[group]) {
+                        accumulated[group] = value;
+                    }
+                }
+                break;
+            default:
+                for (int i = values.nextValid(from); i >= 0 && i < to; i = values.nextValid(i + 1)) {
+                    int group = groupOf[i];
+                    counts[group]++;
+                    accumulated[group] += values.getLong(i);
+                }
+        }
+    }
+
+    /**
+     * Accumulates the non-missing values of the rows into their local group.
+     */
+    private static void accumulate(Aggregation aggregation, Column<?> values, int[] groupOf, int from, int to,
+                                   long[] counts, double[] accumulated) {
+        switch (aggregation) {
+            case COUNT:
+                for (int i = values.nextValid(from); i >= 0 && i < to; i = values.nextValid(i + 1)) {
+                    counts[groupOf[i]]++;
+                }
+                break;
+            case MIN:
+                Arrays.fill(accumulated, Double.POSITIVE_INFINITY);
+                for (int i = values.nextValid(from); i >= 0 && i < to; i = values.nextValid(i + 1)) {
+                    int group = groupOf[i];
+                    double value = values.getDouble(i);
+                    counts[group]++;
+                    if (value < accumulated[group]) {
+                        accumulated[group] = value;
+                    }
+                }
+                break;
+            case MAX:
+                Arrays.fill(accumulated, Double.NEGATIVE_INFINITY);
+                for (int i = values.nextValid(from); i >= 0 && i < to; i = values.nextValid(i + 1)) {
+                    int group = groupOf[i];
+                    double value = values.getDouble(i);
+                    counts[group]++;
+                    if (value > accumulated[group]) {
+                        accumulated[group] = value;
+                    }
+                }
+                break;
+            default:
+                for (int i = values.nextValid(from); i >= 0 && i < to; i = values.nextValid(i + 1)) {
+                    int group = groupOf[i];
+                    counts[group]++;
+                    accumulated[group] += values.getDouble(i);
+                }
+        }
+    }
+
+    /**
+     * Group id of every row. Each morsel of rows is grouped by its own table into local ids, which are then mapped to
+     * global ids by inserting the keys of each morsel, in row order, into a global table.
+     */
+    private static final class Grouping {
+        private final Parallelism parallelism;
+        private final Column<?>[] keyColumns;
+        private final int rows;
+        // local group of each row, in the morsel holding the row
+        private final int[] localGroupOf;
+        private final int[] localGroups;
+        // global group of each local group, null for a single morsel whose groups are the global ones
+        private final int[][] localToGlobal;
+        private final int groups;
+        private final int[] firstRows;
+        private final int[] lastRows;
+
+        Grouping(Parallelism parallelism, String[] keys, Dataframe dataframe) {
+            this.parallelism = parallelism;
+            keyColumns = new Column[keys.length];
+            for (int k = 0; k < keys.length; k++) {
+                keyColumns[k] = dataframe.column(keys[k]).materialize();
+            }
+            rows = keyColumns[0].size();
+            KeyEncoder encoder = KeyEncoder.of(keyColumns);
+            int width = encoder.width();
+
+            int morsels = parallelism.morselCount(rows);
+            localGroupOf = new int[rows];
+            localGroups = new int[morsels];
+            LongKeyTable[] tables = new LongKeyTable[morsels];
+            int[][] localFirstRows = new int[morsels][];
+            int[][] localLastRows = new int[morsels][];
+            parallelism.forEachMorsel(rows, (m, from, to) -> {
+                long[] morselKeys = encoder.encode(from, to);
+                LongKeyTable table = new LongKeyTable(width, Math.min(to - from, 1024));
+                int[] first = new int[16];
+                int[] last = new int[16];
+                for (int i = from; i < to; i++) {
+                    int known = table.size();
+                    int group = table.add(morselKeys, (i - from) * width);
+                    if (group == first.length) {
+                        first = Arrays.copyOf(first, group * 2);
+                        last = Arrays.copyOf(last, group * 2);
+                    }
+                    if (group == known) {
+                        first[group] = i;
+                    }
+                    last[group] = i;
+                    localGroupOf[i] = group;
+                }
+                tables[m] = table;
+                localGroups[m] = table.size();
+                localFirstRows[m] = first;
+                localLastRows[m] = last;
+            });
+
+            if (morsels == 1) {
+                localToGlobal = new int[1][];
+                groups = localGroups[0];
+                firstRows = Arrays.copyOf(localFirstRows[0], groups);
+                lastRows = Arrays.copyOf(localLastRows[0], groups);
+                return;
+            }
+            localToGlobal = new int[morsels][];
+            LongKeyTable global = new LongKeyTable(width, localGroups[0]);
+            int[] first = new int[Math.max(16, localGroups[0])];
+            int[] last = new int[first.length];
+            for (int m = 0; m < morsels; m++) {
+                localToGlobal[m] = new int[localGroups[m]];
+                for (int local = 0; local < localGroups[m]; local++) {
+                    int known = global.size();
+                    int group = global.add(tables[m].keys(), local * width);
+                    if (group == first.length) {
+                        first = Arrays.copyOf(first, group * 2);
+                        last = Arrays.copyOf(last, group * 2);
+                    }
+                    if (group == known) {
+                        first[group] = localFirstRows[m][local];
+                    }
+                    last[group] = localLastRows[m][local];
+                    localToGlobal[m][local] = group;
+                }
+            }
+            groups = global.size();
+            firstRows = Arrays.copyOf(first, groups);
+            lastRows = Arrays.copyOf(last, groups);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Collection;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * View of the rows of a column at a vector of indices. Values are read from the parent column, so building the view
+ * only copies its validity. Aggregations materialize the view once, to run on primitive storage.
+ * <p>
+ * Views of views are flattened, the parent of a view is never a view itself.
+ *
+ * @param <V> the boxed type of the values
+ */
+final class IndexedColumn<V> extends Column<V> {
+    private final Column<V> parent;
+    private final int[] indices;
+    private Column<V> materialized;
+
+    IndexedColumn(Column<V> parent, int[] indices) {
+        super(parent.selectValidity(indices));
+        this.parent = parent;
+        this.indices = indices;
+    }
+
+    @Override
+    public int size() {
+        return indices.length;
+    }
+
+    @Override
+    public V get(int index) {
+        return parent.get(indices[index]);
+    }
+
+    @Override
+    public ColumnType getType() {
+        return parent.getType();
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return parent.isNumeric();
+    }
+
+    @Override
+    public Column<V> select(int[] indices) {
+        return parent.select(compose(indices));
+    }
+
+    @Override
+    public Column<V> view(int[] indices) {
+        return new IndexedColumn<>(parent, compose(indices));
+    }
+
+    @Override
+    public Column<V> slice(int offset, int length) {
+        checkRange(offset, length);
+        int[] range = new int[length];
+        System.arraycopy(indices, offset, range, 0, length);
+        return new IndexedColumn<>(parent, range);
+    }
+
+    @Override
+    public Column<V> materialize() {
+        if (materialized == null) {
+            materialized = parent.select(indices);
+        }
+        return materialized;
+    }
+
+    private int[] compose(int[] selected) {
+        int[] composed = new int[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            composed[i] = indices[selected[i]];
+        }
+        return composed;
+    }
+
+    @Override
+    public int getInt(int index) {
+        return parent.getInt(indices[index]);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return parent.getLong(indices[index]);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return parent.getDouble(indices[index]);
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return parent.getBoolean(indices[index]);
+    }
+
+    @Override
+    public double sum() {
+        return materialize().sum();
+    }
+
+    @Override
+    public double sumSquaredDiff(double mean) {
+        return materialize().sumSquaredDiff(mean);
+    }
+
+    @Override
+    public ColumnStats stats(int from, int to) {
+        return materialize().stats(from, to);
+    }
+
+    @Override
+    public int argMin(int from, int to) {
+        return materialize().argMin(from, to);
+    }
+
+    @Override
+    public int argMax(int from, int to) {
+        return materialize().argMax(from, to);
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        return materialize().toDoubleArray();
+    }
+
+    @Override
+    public Bitmap maskInt(IntPredicate condition) {
+        return materialize().maskInt(condition);
+    }
+
+    @Override
+    public Bitmap maskLong(LongPredicate condition) {
+        return materialize().maskLong(condition);
+    }
+
+    @Override
+    public Bitmap maskDouble(DoublePredicate condition) {
+        return materialize().maskDouble(condition);
+    }
+
+    @Override
+    public Bitmap maskEqual(Object value) {
+        return materialize().maskEqual(value);
+    }
+
+    @Override
+    public Bitmap maskIn(Collection<?> values) {
+        return materialize().maskIn(values);
+    }
+}
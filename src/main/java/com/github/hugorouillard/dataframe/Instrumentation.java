@@ -0,0 +1,140 @@
+package com.github.hugorouillard.dataframe;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Objects;
+
+/**
+ * Global registration of the {@link DataframeListener} receiving the operation metrics.
+ * <p>
+ * The default listener is {@link DataframeListener#NOOP}: operations then only check which listener is set, and
+ * measure nothing. With another listener, each operation reads the clock and the bytes allocated by its thread
+ * before and after running.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     JmxMetricsListener jmx = new JmxMetricsListener();
+ *     Instrumentation.setListener(jmx);
+ * }</pre>
+ */
+public final class Instrumentation {
+    private static volatile DataframeListener listener = DataframeListener.NOOP;
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Sets the listener of every operation, {@link DataframeListener#NOOP} to stop measuring.
+     */
+    public static void setListener(DataframeListener listener) {
+        Instrumentation.listener = Objects.requireNonNull(listener);
+    }
+
+    public static DataframeListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Starts measuring an operation.
+     *
+     * @param rowsIn the rows of the frame or series the operation runs on
+     * @return the timer to stop once the operation completes, doing nothing if no listener is set
+     */
+    static OperationTimer start(String operation, long rowsIn) {
+        DataframeListener current = listener;
+        return current == DataframeListener.NOOP ? OperationTimer.DISABLED : new OperationTimer(current, operation, rowsIn);
+    }
+
+    /**
+     * @return whether events should be built, as they would be dropped otherwise
+     */
+    static boolean isEnabled() {
+        return listener != DataframeListener.NOOP;
+    }
+
+    static void csvLoaded(CsvLoadMetrics metrics) {
+        listener.onCsvLoad(metrics);
+    }
+
+    /**
+     * Measure of an operation in progress.
+     */
+    static final class OperationTimer {
+        static final OperationTimer DISABLED = new OperationTimer();
+
+        private final DataframeListener listener;
+        private final String operation;
+        private final long rowsIn;
+        private final long startNanos;
+        private final long startBytes;
+
+        private OperationTimer() {
+            listener = null;
+            operation = null;
+            rowsIn = 0;
+            startNanos = 0;
+            startBytes = 0;
+        }
+
+        OperationTimer(DataframeListener listener, String operation, long rowsIn) {
+            this.listener = listener;
+            this.operation = operation;
+            this.rowsIn = rowsIn;
+            this.startBytes = Allocation.currentThreadBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Reports the operation to the listener set when it started.
+         */
+        void stop(long rowsOut) {
+            if (listener != null) {
+                long wallTime = System.nanoTime() - startNanos;
+                long bytes = startBytes < 0 ? -1 : Allocation.currentThreadBytes() - startBytes;
+                listener.onOperation(new OperationMetrics(operation, wallTime, rowsIn, rowsOut, bytes));
+            }
+        }
+
+        /**
+         * Reports the operation with the rows of its result.
+         *
+         * @return the result
+         */
+        Dataframe stop(Dataframe result) {
+            if (listener != null) {
+                stop(result.rowCount());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Allocation counter of the JVM, only loaded once a listener is set.
+     */
+    private static final class Allocation {
+        private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+        private static com.sun.management.ThreadMXBean threads() {
+            try {
+                ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+                if (threads instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+                    return (com.sun.management.ThreadMXBean) threads;
+                }
+            } catch (LinkageError e) {
+                // the jdk.management module is missing
+            }
+            return null;
+        }
+
+        /**
+         * @return the bytes allocated by the current thread so far, -1 if they are not counted
+         */
+        static long currentThreadBytes() {
+            if (THREADS == null || !THREADS.isThreadAllocatedMemoryEnabled()) {
+                return -1;
+            }
+            return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.hugorouillard.dataframe;
+
+import java.nio.IntBuffer;
+
+/**
+ * Column of int values read from buffers, see {@link BufferColumn}.
+ */
+final class IntBufferColumn extends BufferColumn<Integer> {
+    private final IntBuffer[] chunks;
+
+    /**
+     * @param chunks the values, {@link #CHUNK_ROWS} per buffer
+     * @param size the number of rows
+     * @param validity the validity of each row, null if no row is missing
+     * @param stats the statistics of the whole column, null if they are not known
+     */
+    IntBufferColumn(IntBuffer[] chunks, int size, Bitmap validity, ColumnStats stats) {
+        super(size, validity, stats);
+        this.chunks = chunks;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return isNull(index) ? null : getInt(index);
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.INT;
+    }
+
+    @Override
+    IntBufferColumn withMissing(Bitmap present) {
+        return new IntBufferColumn(chunks, size, validity == null ? present : validity.and(present), null);
+    }
+
+    @Override
+    public IntColumn select(int[] indices) {
+        int[] selected = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = getInt(indices[i]);
+        }
+        return new IntColumn(selected, selectValidity(indices));
+    }
+
+    @Override
+    public int getInt(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public double sum() {
+        if (validity != null) {
+            return super.sum();
+        }
+        long sum = 0;
+        for (int c = 0; c < chunks.length; c++) {
+            IntBuffer chunk = chunks[c];
+            int rows = chunkRows(size, c);
+            for (int i = 0; i < rows; i++) {
+                sum += chunk.get(i);
+            }
+        }
+        return sum;
+    }
+}
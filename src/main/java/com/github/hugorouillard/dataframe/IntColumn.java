@@ -0,0 +1,216 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Column of int values backed by a primitive array.
+ * Missing rows hold an unspecified value in the array and are cleared in the validity bitmap.
+ */
+public class IntColumn extends Column<Integer> {
+    private final int[] values;
+
+    public IntColumn(int[] values) {
+        this(values, null);
+    }
+
+    /**
+     * @param values the values of the column
+     * @param validity the validity of each row, null if no row is missing
+     */
+    public IntColumn(int[] values, Bitmap validity) {
+        super(validity);
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return isNull(index) ? null : values[index];
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.INT;
+    }
+
+    @Override
+    IntColumn withMissing(Bitmap present) {
+        return new IntColumn(values, validity == null ? present : validity.and(present));
+    }
+
+    @Override
+    public IntColumn select(int[] indices) {
+        int[] selected = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+        return new IntColumn(selected, selectValidity(indices));
+    }
+
+    @Override
+    int[] intValues() {
+        return values;
+    }
+
+    @Override
+    public int getInt(int index) {
+        return values[index];
+    }
+
+    @Override
+    public long getLong(int index) {
+        return values[index];
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    @Override
+    public double sum() {
+        long sum = 0;
+        if (validity == null) {
+            return Kernels.sum(values, 0, values.length);
+        }
+        long[] words = validity.words();
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            if (word == -1L) {
+                sum += Kernels.sum(values, base, base + 64);
+            } else {
+                while (word != 0) {
+                    sum += values[base + Long.numberOfTrailingZeros(word)];
+                    word &= word - 1;
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public double sumSquaredDiff(double mean) {
+        double sum = 0;
+        if (validity == null) {
+            return Kernels.sumSquaredDiff(values, 0, values.length, mean);
+        }
+        long[] words = validity.words();
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            while (word != 0) {
+                double diff = values[base + Long.numberOfTrailingZeros(word)] - mean;
+                sum += diff * diff;
+                word &= word - 1;
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public ColumnStats stats(int from, int to) {
+        if (validity == null) {
+            // two passes over the range, in vectorizable kernels, rather than one update per value
+            double sum = Kernels.sum(values, from, to);
+            double mean = sum / (to - from);
+            return ColumnStats.of(to - from, sum, mean, Kernels.sumSquaredDiff(values, from, to, mean),
+                    Kernels.min(values, from, to), Kernels.max(values, from, to));
+        }
+        ColumnStats stats = new ColumnStats();
+        long[] words = validity.words();
+        for (int w = from >>> 6; w << 6 < to; w++) {
+            long word = words[w];
+            int base = w << 6;
+            if (word == -1L && base >= from && base + 64 <= to) {
+                for (int i = base; i < base + 64; i++) {
+                    stats.add(values[i]);
+                }
+            } else {
+                word &= rangeMask(base, from, to);
+                while (word != 0) {
+                    stats.add(values[base + Long.numberOfTrailingZeros(word)]);
+                    word &= word - 1;
+                }
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public int argMin(int from, int to) {
+        int index = nextValid(from);
+        if (index < 0 || index >= to) {
+            return -1;
+        }
+        if (validity == null) {
+            for (int i = from + 1; i < to; i++) {
+                if (values[i] < values[index]) {
+                    index = i;
+                }
+            }
+            return index;
+        }
+        for (int i = index; i >= 0 && i < to; i = validity.nextSetBit(i + 1)) {
+            if (values[i] < values[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public int argMax(int from, int to) {
+        int index = nextValid(from);
+        if (index < 0 || index >= to) {
+            return -1;
+        }
+        if (validity == null) {
+            for (int i = from + 1; i < to; i++) {
+                if (values[i] > values[index]) {
+                    index = i;
+                }
+            }
+            return index;
+        }
+        for (int i = index; i >= 0 && i < to; i = validity.nextSetBit(i + 1)) {
+            if (values[i] > values[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public Bitmap maskInt(IntPredicate condition) {
+        Bitmap mask = new Bitmap(values.length);
+        long[] words = mask.words();
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            long valid = validity == null ? -1L : validity.words()[w];
+            long word = 0;
+            if (valid == -1L) {
+                int end = Math.min(base + 64, values.length);
+                for (int i = base; i < end; i++) {
+                    if (condition.test(values[i])) {
+                        word |= 1L << i;
+                    }
+                }
+            } else {
+                while (valid != 0) {
+                    int i = base + Long.numberOfTrailingZeros(valid);
+                    if (condition.test(values[i])) {
+                        word |= 1L << i;
+                    }
+                    valid &= valid - 1;
+                }
+            }
+            words[w] = word;
+        }
+        return mask;
+    }
+}
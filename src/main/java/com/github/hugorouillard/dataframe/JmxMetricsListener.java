@@ -0,0 +1,269 @@
+package com.github.hugorouillard.dataframe;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener accumulating the operation metrics into MXBeans, so that JMX monitoring tools can read them.
+ * <p>
+ * Each operation gets a bean named like {@code com.github.hugorouillard.dataframe:type=Operation,name=Dataframe.filterRows},
+ * registered the first time it is reported, and CSV parse statistics are summed in the bean
+ * {@code com.github.hugorouillard.dataframe:type=CsvLoads}. Totals only grow: monitoring tools compute rates from
+ * successive readings. A bean whose name is already taken in the server, by another listener for instance, is not
+ * registered and its totals are not published.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     JmxMetricsListener jmx = new JmxMetricsListener();
+ *     Instrumentation.setListener(jmx);
+ *     ...
+ *     Instrumentation.setListener(DataframeListener.NOOP);
+ *     jmx.close();
+ * }</pre>
+ */
+public final class JmxMetricsListener implements DataframeListener, AutoCloseable {
+    public static final String DOMAIN = "com.github.hugorouillard.dataframe";
+
+    /**
+     * Totals of the runs of one operation.
+     */
+    public interface OperationMXBean {
+        long getCount();
+
+        long getTotalTimeNanos();
+
+        long getMaxTimeNanos();
+
+        long getRowsIn();
+
+        long getRowsOut();
+
+        /**
+         * @return the bytes allocated by the calling threads, leaving out the runs where the JVM did not count them
+         */
+        long getAllocatedBytes();
+    }
+
+    /**
+     * Totals of the CSV files and batches parsed.
+     */
+    public interface CsvLoadsMXBean {
+        long getLoads();
+
+        long getRows();
+
+        long getBadCells();
+    }
+
+    private final MBeanServer server;
+    private final String domain;
+    private final Map<String, OperationTotals> operations = new ConcurrentHashMap<>();
+    private final CsvTotals csvLoads = new CsvTotals();
+    private final ObjectName csvLoadsName;
+    private volatile boolean closed;
+
+    /**
+     * Registers the beans in the platform MBean server, under {@value #DOMAIN}.
+     *
+     * @throws IllegalStateException if another listener already registered its beans there
+     */
+    public JmxMetricsListener() {
+        this(ManagementFactory.getPlatformMBeanServer(), DOMAIN);
+    }
+
+    /**
+     * @param server the server registering the beans
+     * @param domain the domain of the bean names
+     * @throws IllegalStateException if another listener already registered its beans in this domain
+     * @throws IllegalArgumentException if the domain is not valid in a bean name
+     */
+    public JmxMetricsListener(MBeanServer server, String domain) {
+        this.server = server;
+        this.domain = domain;
+        csvLoadsName = name("type=CsvLoads");
+        register(csvLoads, csvLoadsName);
+    }
+
+    @Override
+    public void onOperation(OperationMetrics metrics) {
+        OperationTotals totals = operations.get(metrics.getOperation());
+        if (totals == null) {
+            totals = createOperation(metrics.getOperation());
+            if (totals == null) {
+                return;
+            }
+        }
+        totals.add(metrics);
+    }
+
+    /**
+     * Registers the bean of an operation, unless the listener is closed. Synchronized with {@link #close()}, so that
+     * every registered bean is unregistered.
+     *
+     * @return the totals of the operation, null if the listener is closed
+     */
+    private synchronized OperationTotals createOperation(String operation) {
+        if (closed) {
+            return null;
+        }
+        return operations.computeIfAbsent(operation, name -> {
+            OperationTotals created = new OperationTotals();
+            created.registered = tryRegister(created, operationName(name));
+            return created;
+        });
+    }
+
+    @Override
+    public void onCsvLoad(CsvLoadMetrics metrics) {
+        if (closed) {
+            return;
+        }
+        csvLoads.loads.increment();
+        csvLoads.rows.add(metrics.getRows());
+        csvLoads.badCells.add(metrics.getBadCells());
+    }
+
+    /**
+     * @return the bean name of an operation
+     */
+    public ObjectName operationName(String operation) {
+        return name("type=Operation,name=" + ObjectName.quote(operation));
+    }
+
+    /**
+     * Unregisters the beans. The metrics reported afterwards are ignored: a new listener is needed to publish them
+     * again.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Map.Entry<String, OperationTotals> entry : operations.entrySet()) {
+            if (entry.getValue().registered) {
+                unregister(operationName(entry.getKey()));
+            }
+        }
+        operations.clear();
+        unregister(csvLoadsName);
+    }
+
+    private ObjectName name(String properties) {
+        try {
+            return new ObjectName(domain + ":" + properties);
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid bean name: " + domain + ":" + properties, e);
+        }
+    }
+
+    private void register(Object bean, ObjectName name) {
+        try {
+            server.registerMBean(bean, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + name, e);
+        }
+    }
+
+    /**
+     * Listeners must not throw, so the beans registered while reporting are dropped when their name is taken.
+     *
+     * @return true if the bean was registered
+     */
+    private boolean tryRegister(Object bean, ObjectName name) {
+        try {
+            server.registerMBean(bean, name);
+            return true;
+        } catch (JMException e) {
+            return false;
+        }
+    }
+
+    private void unregister(ObjectName name) {
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister " + name, e);
+        }
+    }
+
+    private static final class OperationTotals implements OperationMXBean {
+        private boolean registered;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalTime = new LongAdder();
+        private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+        private final LongAdder rowsIn = new LongAdder();
+        private final LongAdder rowsOut = new LongAdder();
+        private final LongAdder allocated = new LongAdder();
+
+        void add(OperationMetrics metrics) {
+            count.increment();
+            totalTime.add(metrics.getWallTimeNanos());
+            maxTime.accumulate(metrics.getWallTimeNanos());
+            rowsIn.add(metrics.getRowsIn());
+            rowsOut.add(metrics.getRowsOut());
+            if (metrics.getAllocatedBytes() > 0) {
+                allocated.add(metrics.getAllocatedBytes());
+            }
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public long getTotalTimeNanos() {
+            return totalTime.sum();
+        }
+
+        @Override
+        public long getMaxTimeNanos() {
+            return maxTime.get();
+        }
+
+        @Override
+        public long getRowsIn() {
+            return rowsIn.sum();
+        }
+
+        @Override
+        public long getRowsOut() {
+            return rowsOut.sum();
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            return allocated.sum();
+        }
+    }
+
+    private static final class CsvTotals implements CsvLoadsMXBean {
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder badCells = new LongAdder();
+
+        @Override
+        public long getLoads() {
+            return loads.sum();
+        }
+
+        @Override
+        public long getRows() {
+            return rows.sum();
+        }
+
+        @Override
+        public long getBadCells() {
+            return badCells.sum();
+        }
+    }
+}
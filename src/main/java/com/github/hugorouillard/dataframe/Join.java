@@ -0,0 +1,208 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Row pairs of a join between two frames: the i-th result row is made of left row {@code leftRows[i]} and right row
+ * {@code rightRows[i]}, -1 standing for a missing side.
+ * <p>
+ * Result rows follow the order of the left rows, each left row being paired with its matching right rows in their
+ * order. Right rows matching nothing come last, in their order.
+ */
+final class Join {
+    final int[] leftRows;
+    // null for semi and anti joins, which only keep left rows
+    final int[] rightRows;
+
+    private Join(int[] leftRows, int[] rightRows) {
+        this.leftRows = leftRows;
+        this.rightRows = rightRows;
+    }
+
+    /**
+     * Hash join: the keys of the smaller side are inserted in a table, those of the other side are looked up.
+     *
+     * @param left the left key columns, materialized
+     * @param right the right key columns, materialized
+     */
+    static Join hash(Column<?>[] left, Column<?>[] right, JoinType type) {
+        KeyEncoder[] encoders = KeyEncoder.of(left, right);
+        int leftSize = left[0].size();
+        int rightSize = right[0].size();
+        boolean buildLeft = leftSize < rightSize;
+        LongKeyTable table = new LongKeyTable(encoders[0].width(), Math.min(leftSize, rightSize));
+        int[] leftIds;
+        int[] rightIds;
+        if (buildLeft) {
+            leftIds = keyIds(encoders[0], leftSize, table, true);
+            rightIds = keyIds(encoders[1], rightSize, table, false);
+        } else {
+            rightIds = keyIds(encoders[1], rightSize, table, true);
+            leftIds = keyIds(encoders[0], leftSize, table, false);
+        }
+
+        // right rows of each key, chained in row order
+        int[] head = new int[table.size()];
+        Arrays.fill(head, -1);
+        int[] next = new int[rightSize];
+        for (int r = rightSize - 1; r >= 0; r--) {
+            int id = rightIds[r];
+            if (id >= 0) {
+                next[r] = head[id];
+                head[id] = r;
+            }
+        }
+
+        Pairs pairs = new Pairs(type.filtersLeft() ? 0 : Math.max(leftSize, rightSize));
+        Bitmap matchedRight = type.keepsUnmatchedRight() ? new Bitmap(rightSize) : null;
+        for (int l = 0; l < leftSize; l++) {
+            int r = leftIds[l] < 0 ? -1 : head[leftIds[l]];
+            if (type.filtersLeft()) {
+                if (r >= 0 == (type == JoinType.SEMI)) {
+                    pairs.add(l, -1);
+                }
+            } else if (r < 0) {
+                if (type.keepsUnmatchedLeft()) {
+                    pairs.add(l, -1);
+                }
+            } else {
+                for (; r >= 0; r = next[r]) {
+                    pairs.add(l, r);
+                    if (matchedRight != null) {
+                        matchedRight.set(r);
+                    }
+                }
+            }
+        }
+        return pairs.toJoin(type, matchedRight);
+    }
+
+    /**
+     * @return the id of the key of each row, -1 if the row is missing a key or, when not inserting, if its key is not
+     * in the table
+     */
+    private static int[] keyIds(KeyEncoder encoder, int size, LongKeyTable table, boolean insert) {
+        long[] keys = encoder.encode(0, size);
+        int width = encoder.width();
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (encoder.hasNull(i)) {
+                ids[i] = -1;
+            } else {
+                ids[i] = insert ? table.add(keys, i * width) : table.find(keys, i * width);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Sort-merge join over keys sorted in ascending order, missing keys aside: both sides are scanned once.
+     *
+     * @param left the left key column, materialized
+     * @param right the right key column, materialized
+     * @throws IllegalArgumentException if the keys are not comparable, or not sorted
+     */
+    static Join sortMerge(Column<?> left, Column<?> right, JoinType type) {
+        RowComparator comparator = comparator(left.getType(), right.getType());
+        checkSorted(left, comparator);
+        checkSorted(right, comparator);
+
+        Pairs pairs = new Pairs(type.filtersLeft() ? 0 : Math.max(left.size(), right.size()));
+        Bitmap matchedRight = type.keepsUnmatchedRight() ? new Bitmap(right.size()) : null;
+        int r = right.nextValid(0);
+        for (int l = 0; l < left.size(); l++) {
+            boolean matched = false;
+            if (!left.isNull(l)) {
+                while (r >= 0 && comparator.compare(right, r, left, l) < 0) {
+                    r = right.nextValid(r + 1);
+                }
+                // the run of equal right keys is scanned again by the following left rows of the same key
+                for (int run = r; run >= 0 && comparator.compare(right, run, left, l) == 0; run = right.nextValid(run + 1)) {
+                    matched = true;
+                    if (type.filtersLeft()) {
+                        break;
+                    }
+                    pairs.add(l, run);
+                    if (matchedRight != null) {
+                        matchedRight.set(run);
+                    }
+                }
+            }
+            if (type.filtersLeft()) {
+                if (matched == (type == JoinType.SEMI)) {
+                    pairs.add(l, -1);
+                }
+            } else if (!matched && type.keepsUnmatchedLeft()) {
+                pairs.add(l, -1);
+            }
+        }
+        return pairs.toJoin(type, matchedRight);
+    }
+
+    private interface RowComparator {
+        int compare(Column<?> a, int i, Column<?> b, int j);
+    }
+
+    private static RowComparator comparator(ColumnType left, ColumnType right) {
+        if (left.isNumeric() && right.isNumeric()) {
+            if (left == ColumnType.DOUBLE || right == ColumnType.DOUBLE) {
+                return (a, i, b, j) -> Double.compare(a.getDouble(i), b.getDouble(j));
+            }
+            return (a, i, b, j) -> Long.compare(a.getLong(i), b.getLong(j));
+        }
+        boolean leftText = left == ColumnType.STRING || left == ColumnType.CATEGORICAL;
+        boolean rightText = right == ColumnType.STRING || right == ColumnType.CATEGORICAL;
+        if (leftText && rightText) {
+            return (a, i, b, j) -> ((String) a.get(i)).compareTo((String) b.get(j));
+        }
+        throw new IllegalArgumentException("Join keys must have comparable types: " + left + " and " + right);
+    }
+
+    private static void checkSorted(Column<?> column, RowComparator comparator) {
+        int previous = column.nextValid(0);
+        for (int i = previous < 0 ? -1 : column.nextValid(previous + 1); i >= 0; i = column.nextValid(i + 1)) {
+            if (comparator.compare(column, previous, column, i) > 0) {
+                throw new IllegalArgumentException("Join keys must be sorted in ascending order");
+            }
+            previous = i;
+        }
+    }
+
+    /**
+     * Growable pair of row index vectors.
+     */
+    private static final class Pairs {
+        private int[] left;
+        private int[] right;
+        private int size;
+
+        Pairs(int expectedSize) {
+            left = new int[Math.max(16, expectedSize)];
+            right = new int[left.length];
+        }
+
+        void add(int l, int r) {
+            if (size == left.length) {
+                left = Arrays.copyOf(left, size * 2);
+                right = Arrays.copyOf(right, size * 2);
+            }
+            left[size] = l;
+            right[size] = r;
+            size++;
+        }
+
+        /**
+         * @param matchedRight the right rows matched, to append the others, null if they are not kept
+         */
+        Join toJoin(JoinType type, Bitmap matchedRight) {
+            if (matchedRight != null) {
+                Bitmap unmatched = matchedRight.not();
+                for (int r = unmatched.nextSetBit(0); r >= 0; r = unmatched.nextSetBit(r + 1)) {
+                    add(-1, r);
+                }
+            }
+            int[] leftRows = Arrays.copyOf(left, size);
+            return new Join(leftRows, type.filtersLeft() ? null : Arrays.copyOf(right, size));
+        }
+    }
+}
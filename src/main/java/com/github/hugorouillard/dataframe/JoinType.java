@@ -0,0 +1,47 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Kind of join between two Dataframes, see {@link Dataframe#join(Dataframe, String, String, JoinType)}.
+ * Rows whose key is missing never match.
+ */
+public enum JoinType {
+    /**
+     * Pairs of matching rows.
+     */
+    INNER,
+    /**
+     * Pairs of matching rows, and the left rows matching nothing with missing right values.
+     */
+    LEFT,
+    /**
+     * Pairs of matching rows, and the right rows matching nothing with missing left values.
+     */
+    RIGHT,
+    /**
+     * Pairs of matching rows, and the rows of either side matching nothing with missing values on the other side.
+     */
+    OUTER,
+    /**
+     * Left rows matching at least one right row, with the left columns only.
+     */
+    SEMI,
+    /**
+     * Left rows matching no right row, with the left columns only.
+     */
+    ANTI;
+
+    /**
+     * @return true if the result only holds left rows and left columns
+     */
+    boolean filtersLeft() {
+        return this == SEMI || this == ANTI;
+    }
+
+    boolean keepsUnmatchedLeft() {
+        return this == LEFT || this == OUTER;
+    }
+
+    boolean keepsUnmatchedRight() {
+        return this == RIGHT || this == OUTER;
+    }
+}
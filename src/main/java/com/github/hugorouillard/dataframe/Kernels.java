@@ -0,0 +1,121 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Numerical kernels over primitive arrays: the inner loops of aggregations, comparisons and arithmetic.
+ * <p>
+ * This version runs the {@link ScalarKernels}. The JAR is a multi-release JAR: when built by a JDK 17 or later, it
+ * also holds a version of this class for Java 17, compiled from {@code src/main/java17}, which runs the kernels on
+ * vector instructions through the {@code jdk.incubator.vector} module, if the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+final class Kernels {
+    private Kernels() {
+    }
+
+    /**
+     * @return true if the kernels run on vector instructions
+     */
+    static boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * @return the sum of the values in the range, 0 if it is empty. Longs are summed as doubles, which do not
+     * overflow.
+     */
+    static long sum(int[] values, int from, int to) {
+        return ScalarKernels.sum(values, from, to);
+    }
+
+    static double sum(long[] values, int from, int to) {
+        return ScalarKernels.sum(values, from, to);
+    }
+
+    static double sum(double[] values, int from, int to) {
+        return ScalarKernels.sum(values, from, to);
+    }
+
+    /**
+     * @return the smallest value in the range, the largest value of the type if it is empty. NaN values are ignored.
+     */
+    static int min(int[] values, int from, int to) {
+        return ScalarKernels.min(values, from, to);
+    }
+
+    /**
+     * @return the largest value in the range, the smallest value of the type if it is empty. NaN values are ignored.
+     */
+    static int max(int[] values, int from, int to) {
+        return ScalarKernels.max(values, from, to);
+    }
+
+    static long min(long[] values, int from, int to) {
+        return ScalarKernels.min(values, from, to);
+    }
+
+    static long max(long[] values, int from, int to) {
+        return ScalarKernels.max(values, from, to);
+    }
+
+    static double min(double[] values, int from, int to) {
+        return ScalarKernels.min(values, from, to);
+    }
+
+    static double max(double[] values, int from, int to) {
+        return ScalarKernels.max(values, from, to);
+    }
+
+    /**
+     * @return the sum of the squared differences between the values of the range and the mean
+     */
+    static double sumSquaredDiff(int[] values, int from, int to, double mean) {
+        return ScalarKernels.sumSquaredDiff(values, from, to, mean);
+    }
+
+    static double sumSquaredDiff(long[] values, int from, int to, double mean) {
+        return ScalarKernels.sumSquaredDiff(values, from, to, mean);
+    }
+
+    static double sumSquaredDiff(double[] values, int from, int to, double mean) {
+        return ScalarKernels.sumSquaredDiff(values, from, to, mean);
+    }
+
+    /**
+     * Sets bit i of the words when {@code values[i]} compares to the operand, for the first {@code size} values.
+     */
+    static void compare(double[] values, int size, Comparison comparison, double operand, long[] words) {
+        ScalarKernels.compare(values, size, comparison, operand, words);
+    }
+
+    static void compare(double[] values, double[] operands, int size, Comparison comparison, long[] words) {
+        ScalarKernels.compare(values, operands, size, comparison, words);
+    }
+
+    static void compare(long[] values, int size, Comparison comparison, long operand, long[] words) {
+        ScalarKernels.compare(values, size, comparison, operand, words);
+    }
+
+    static void compare(long[] values, long[] operands, int size, Comparison comparison, long[] words) {
+        ScalarKernels.compare(values, operands, size, comparison, words);
+    }
+
+    /**
+     * Stores {@code left[i] operator right[i]} in {@code result[i]}, for the first {@code size} values. Long
+     * results overflow silently.
+     */
+    static void apply(Arithmetic operator, double[] left, double[] right, double[] result, int size) {
+        ScalarKernels.apply(operator, left, right, result, size);
+    }
+
+    static void apply(Arithmetic operator, double[] left, double right, double[] result, int size) {
+        ScalarKernels.apply(operator, left, right, result, size);
+    }
+
+    static void apply(Arithmetic operator, long[] left, long[] right, long[] result, int size) {
+        ScalarKernels.apply(operator, left, right, result, size);
+    }
+
+    static void apply(Arithmetic operator, long[] left, long right, long[] result, int size) {
+        ScalarKernels.apply(operator, left, right, result, size);
+    }
+}
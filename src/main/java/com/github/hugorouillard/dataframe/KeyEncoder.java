@@ -0,0 +1,184 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes the values of key columns into fixed-width tuples of longs, the keys of a {@link LongKeyTable}.
+ * <p>
+ * Int, long and boolean values are stored as is, double values by their bits, and categorical values by their codes.
+ * Other values are given codes by a dictionary built once, the only step boxing values. Rows holding equal values
+ * get equal keys; missing values are stored as 0, with a bit per column telling them apart when requested.
+ */
+final class KeyEncoder {
+    private final Column<?>[] columns;
+    // dictionary code of each row, for the columns not encoded from their own storage
+    private final long[][] codes;
+    // columns whose values are encoded as double bits, to match the double keys of another frame
+    private final boolean[] asDouble;
+    private final int width;
+
+    private KeyEncoder(Column<?>[] columns, long[][] codes, boolean[] asDouble, boolean nullBits) {
+        this.columns = columns;
+        this.codes = codes;
+        this.asDouble = asDouble;
+        this.width = columns.length + (nullBits ? (columns.length + 63) / 64 : 0);
+    }
+
+    /**
+     * @param columns the key columns, materialized
+     * @return an encoder telling missing values apart, for grouping
+     */
+    static KeyEncoder of(Column<?>[] columns) {
+        long[][] codes = new long[columns.length][];
+        boolean nullable = false;
+        for (int k = 0; k < columns.length; k++) {
+            switch (columns[k].getType()) {
+                case INT:
+                case LONG:
+                case DOUBLE:
+                case BOOLEAN:
+                case CATEGORICAL:
+                    break;
+                default:
+                    codes[k] = dictionaryCodes(columns[k], new HashMap<>());
+            }
+            nullable |= columns[k].nullCount() > 0;
+        }
+        return new KeyEncoder(columns, codes, new boolean[columns.length], nullable);
+    }
+
+    /**
+     * @param left the key columns of a frame, materialized
+     * @param right the key columns of another frame, materialized
+     * @return two encoders giving equal keys to equal values of both frames, rows with a missing key are left to
+     * the caller, see {@link #hasNull(int)}
+     * @throws IllegalArgumentException if two key columns do not hold comparable values
+     */
+    static KeyEncoder[] of(Column<?>[] left, Column<?>[] right) {
+        long[][] leftCodes = new long[left.length][];
+        long[][] rightCodes = new long[right.length][];
+        boolean[] leftAsDouble = new boolean[left.length];
+        boolean[] rightAsDouble = new boolean[right.length];
+        for (int k = 0; k < left.length; k++) {
+            ColumnType leftType = left[k].getType();
+            ColumnType rightType = right[k].getType();
+            if (leftType.isNumeric() && rightType.isNumeric()) {
+                // an int key matches a double key of the same value
+                boolean doubles = leftType == ColumnType.DOUBLE || rightType == ColumnType.DOUBLE;
+                leftAsDouble[k] = doubles;
+                rightAsDouble[k] = doubles;
+            } else if (isText(leftType) && isText(rightType)) {
+                Map<Object, Integer> dictionary = new HashMap<>();
+                leftCodes[k] = dictionaryCodes(left[k], dictionary);
+                rightCodes[k] = dictionaryCodes(right[k], dictionary);
+            } else if (leftType != rightType || leftType != ColumnType.BOOLEAN) {
+                throw new IllegalArgumentException("Join keys must have comparable types: " + leftType + " and " + rightType);
+            }
+        }
+        return new KeyEncoder[]{
+                new KeyEncoder(left, leftCodes, leftAsDouble, false),
+                new KeyEncoder(right, rightCodes, rightAsDouble, false)
+        };
+    }
+
+    private static boolean isText(ColumnType type) {
+        return type == ColumnType.STRING || type == ColumnType.CATEGORICAL || type == ColumnType.OBJECT;
+    }
+
+    /**
+     * @return the code of each row in the dictionary, extended with the values not in it yet
+     */
+    private static long[] dictionaryCodes(Column<?> column, Map<Object, Integer> dictionary) {
+        long[] codes = new long[column.size()];
+        if (column instanceof CategoricalColumn) {
+            // only the categories are looked up, rows are translated through their codes
+            CategoricalColumn categorical = (CategoricalColumn) column;
+            int[] translated = new int[categorical.categoryCount()];
+            for (int code = 0; code < translated.length; code++) {
+                translated[code] = dictionary.computeIfAbsent(categorical.getCategory(code), value -> dictionary.size());
+            }
+            for (int i = column.nextValid(0); i >= 0; i = column.nextValid(i + 1)) {
+                codes[i] = translated[categorical.getCode(i)];
+            }
+            return codes;
+        }
+        for (int i = column.nextValid(0); i >= 0; i = column.nextValid(i + 1)) {
+            codes[i] = dictionary.computeIfAbsent(column.get(i), value -> dictionary.size());
+        }
+        return codes;
+    }
+
+    /**
+     * @return the number of longs of each key
+     */
+    int width() {
+        return width;
+    }
+
+    /**
+     * @return true if a key column is missing at this row
+     */
+    boolean hasNull(int row) {
+        for (Column<?> column : columns) {
+            if (column.isNull(row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param from the first row, inclusive
+     * @param to the last row, exclusive
+     * @return the keys of the rows, {@link #width()} longs per row
+     */
+    long[] encode(int from, int to) {
+        long[] keys = new long[(to - from) * width];
+        for (int k = 0; k < columns.length; k++) {
+            Column<?> column = columns[k];
+            if (codes[k] != null) {
+                for (int i = from, at = k; i < to; i++, at += width) {
+                    keys[at] = codes[k][i];
+                }
+            } else if (asDouble[k] || column.getType() == ColumnType.DOUBLE) {
+                for (int i = from, at = k; i < to; i++, at += width) {
+                    double value = column.getDouble(i);
+                    // -0.0 and 0.0 are one key, and doubleToLongBits gives every NaN the same bits
+                    keys[at] = Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+                }
+            } else {
+                switch (column.getType()) {
+                    case INT:
+                    case LONG:
+                        for (int i = from, at = k; i < to; i++, at += width) {
+                            keys[at] = column.getLong(i);
+                        }
+                        break;
+                    case BOOLEAN:
+                        for (int i = from, at = k; i < to; i++, at += width) {
+                            keys[at] = column.getBoolean(i) ? 1 : 0;
+                        }
+                        break;
+                    default:
+                        CategoricalColumn categorical = (CategoricalColumn) column;
+                        for (int i = from, at = k; i < to; i++, at += width) {
+                            keys[at] = categorical.getCode(i);
+                        }
+                }
+            }
+            if (column.nullCount() > 0) {
+                int nullWord = width > columns.length ? columns.length + k / 64 : -1;
+                for (int i = from, at = 0; i < to; i++, at += width) {
+                    if (column.isNull(i)) {
+                        keys[at + k] = 0;
+                        if (nullWord >= 0) {
+                            keys[at + nullWord] |= 1L << k;
+                        }
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,438 @@
+package com.github.hugorouillard.dataframe;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Lazy query over a CSV file or a Dataframe. Each method records a step of a logical plan and returns a new
+ * LazyDataframe, nothing is read or computed before {@link #collect()}.
+ * <p>
+ * On collect, the plan is optimized: adjacent filters are fused into a single mask, projections are narrowed to the
+ * columns used afterwards, and only the columns needed by the whole plan are read from the CSV file.
+ * Filters then select rows through views, so no intermediate Dataframe copies any value.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     Dataframe mageMid = LazyDataframe.scanCsv("champions.csv", ';')
+ *             .filterEqual("Class", "Mage")
+ *             .filterEqual("Role", "MID")
+ *             .select("Name", "Win %")
+ *             .collect();
+ * }</pre>
+ */
+public final class LazyDataframe {
+    private final Scan scan;
+    private final List<Operation> operations;
+
+    private LazyDataframe(Scan scan, List<Operation> operations) {
+        this.scan = scan;
+        this.operations = operations;
+    }
+
+    /**
+     * Starts a query over a CSV file, read as by {@link Dataframe#Dataframe(String, char)}.
+     */
+    public static LazyDataframe scanCsv(String csv_file, char delimiter) {
+        return scanCsv(csv_file, delimiter, new CsvOptions().sampleSize(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Starts a query over a CSV file, read as by {@link Dataframe#Dataframe(String, char, CsvOptions)}.
+     * The options columns are further narrowed to the ones used by the query.
+     */
+    public static LazyDataframe scanCsv(String csv_file, char delimiter, CsvOptions options) {
+        return new LazyDataframe(new CsvScan(csv_file, delimiter, options), Collections.emptyList());
+    }
+
+    static LazyDataframe of(Dataframe dataframe) {
+        return new LazyDataframe(new FrameScan(dataframe), Collections.emptyList());
+    }
+
+    /**
+     * Keeps only the given columns, in that order.
+     */
+    public LazyDataframe select(String... labels) {
+        return then(new Projection(Arrays.asList(labels)));
+    }
+
+    public LazyDataframe filterInt(String label, IntPredicate condition) {
+        return filter(label, "int predicate", frame -> frame.maskInt(label, condition));
+    }
+
+    public LazyDataframe filterLong(String label, LongPredicate condition) {
+        return filter(label, "long predicate", frame -> frame.maskLong(label, condition));
+    }
+
+    public LazyDataframe filterDouble(String label, DoublePredicate condition) {
+        return filter(label, "double predicate", frame -> frame.maskDouble(label, condition));
+    }
+
+    public LazyDataframe filterEqual(String label, Object value) {
+        return filter(label, "= " + value, frame -> frame.maskEqual(label, value));
+    }
+
+    public LazyDataframe filterIn(String label, Object... values) {
+        return filter(label, "in " + Arrays.toString(values), frame -> frame.maskIn(label, values));
+    }
+
+    /**
+     * Same as {@link Dataframe#filterRows(String, Predicate)}, the predicate is called on every row, in order unless
+     * the scanned frame runs in parallel.
+     */
+    public LazyDataframe filterRows(String label, Predicate<Object> condition) {
+        return filter(label, "predicate", frame -> frame.getParallelism().mask(frame.column(label), condition));
+    }
+
+    /**
+     * Aggregates columns into a single row, labelled like {@code mean(Price)}.
+     */
+    public LazyDataframe agg(Aggregation aggregation, String... labels) {
+        return then(new Aggregate(aggregation, Arrays.asList(labels)));
+    }
+
+    /**
+     * Same as {@link Dataframe#filter(Expression)}, fused with the adjacent filters.
+     */
+    public LazyDataframe filter(Expression condition) {
+        Set<String> labels = new LinkedHashSet<>();
+        condition.addColumns(labels);
+        return then(new Filter(Collections.singletonList(new Condition(new ArrayList<>(labels), condition.toString(),
+                frame -> frame.mask(condition)))));
+    }
+
+    private LazyDataframe filter(String label, String description, Function<Dataframe, Bitmap> mask) {
+        return then(new Filter(Collections.singletonList(new Condition(Collections.singletonList(label),
+                label + " " + description, mask))));
+    }
+
+    private LazyDataframe then(Operation operation) {
+        List<Operation> next = new ArrayList<>(operations);
+        next.add(operation);
+        return new LazyDataframe(scan, Collections.unmodifiableList(next));
+    }
+
+    /**
+     * @return the optimized plan, one step per line, starting with the scan
+     */
+    public String explain() {
+        List<Operation> plan = optimize();
+        StringBuilder sb = new StringBuilder();
+        sb.append(scan.describe(requiredColumns(plan))).append('\n');
+        for (Operation operation : plan) {
+            sb.append(operation.describe()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Runs the optimized plan.
+     *
+     * @return the query result
+     * @throws IOException If there's an error reading the CSV file
+     * @throws IllegalArgumentException If a step refers to a missing column
+     */
+    public Dataframe collect() throws IOException {
+        List<Operation> plan = optimize();
+        checkProjections();
+        Dataframe frame = scan.read(requiredColumns(plan));
+        for (Operation operation : plan) {
+            frame = operation.apply(frame);
+        }
+        return frame;
+    }
+
+    /**
+     * Fuses adjacent filters, then narrows each projection to the columns used by the following steps.
+     */
+    private List<Operation> optimize() {
+        List<Operation> fused = new ArrayList<>();
+        for (Operation operation : operations) {
+            Operation last = fused.isEmpty() ? null : fused.get(fused.size() - 1);
+            if (last instanceof Filter && operation instanceof Filter) {
+                List<Condition> conditions = new ArrayList<>(((Filter) last).conditions);
+                conditions.addAll(((Filter) operation).conditions);
+                fused.set(fused.size() - 1, new Filter(conditions));
+            } else {
+                fused.add(operation);
+            }
+        }
+
+        // null stands for every column
+        List<String> needed = null;
+        for (int i = fused.size() - 1; i >= 0; i--) {
+            Operation operation = fused.get(i);
+            if (operation instanceof Projection && needed != null) {
+                List<String> labels = new ArrayList<>(((Projection) operation).labels);
+                labels.retainAll(needed);
+                operation = new Projection(labels);
+                fused.set(i, operation);
+            }
+            needed = operation.requiredColumns(needed);
+        }
+        return fused;
+    }
+
+    /**
+     * Checks the labels of the projections against the columns reaching them, since the optimized projections leave
+     * out the unused labels: a missing column fails as on a Dataframe, even when nothing uses it afterwards.
+     */
+    private void checkProjections() throws IOException {
+        boolean projects = false;
+        for (Operation operation : operations) {
+            projects |= operation instanceof Projection;
+        }
+        if (!projects) {
+            return;
+        }
+        List<String> columns = scan.columns();
+        for (Operation operation : operations) {
+            columns = operation.columns(columns);
+        }
+    }
+
+    private static List<String> requiredColumns(List<Operation> plan) {
+        List<String> needed = null;
+        for (int i = plan.size() - 1; i >= 0; i--) {
+            needed = plan.get(i).requiredColumns(needed);
+        }
+        return needed;
+    }
+
+    private abstract static class Scan {
+        /**
+         * @param columns the columns to read, null for every column
+         */
+        abstract Dataframe read(List<String> columns) throws IOException;
+
+        /**
+         * @return the labels of every column that can be read
+         */
+        abstract List<String> columns() throws IOException;
+
+        abstract String describe(List<String> columns);
+    }
+
+    private static final class CsvScan extends Scan {
+        private final String csv_file;
+        private final char delimiter;
+        private final CsvOptions options;
+
+        CsvScan(String csv_file, char delimiter, CsvOptions options) {
+            this.csv_file = csv_file;
+            this.delimiter = delimiter;
+            this.options = options;
+        }
+
+        @Override
+        Dataframe read(List<String> columns) throws IOException {
+            return new Dataframe(csv_file, delimiter, columns == null ? options : options.withColumns(narrow(columns)));
+        }
+
+        /**
+         * @return the columns among the ones of the options, so that the query cannot read a column they leave out
+         */
+        private List<String> narrow(List<String> columns) {
+            if (options.getUseColumns() == null) {
+                return columns;
+            }
+            List<String> narrowed = new ArrayList<>(columns);
+            narrowed.retainAll(options.getUseColumns());
+            return narrowed;
+        }
+
+        @Override
+        List<String> columns() throws IOException {
+            List<String> header = new ArrayList<>(Arrays.asList(CsvReader.readHeader(csv_file, delimiter)));
+            if (options.getUseColumns() != null) {
+                header.retainAll(options.getUseColumns());
+            }
+            return header;
+        }
+
+        @Override
+        String describe(List<String> columns) {
+            return "Scan " + csv_file + (columns == null ? "" : " columns=" + narrow(columns));
+        }
+    }
+
+    private static final class FrameScan extends Scan {
+        private final Dataframe dataframe;
+
+        FrameScan(Dataframe dataframe) {
+            this.dataframe = dataframe;
+        }
+
+        @Override
+        Dataframe read(List<String> columns) {
+            return columns == null ? dataframe : dataframe.selectColumns(columns.toArray(new String[0]));
+        }
+
+        @Override
+        List<String> columns() {
+            return Arrays.asList(dataframe.getLabels());
+        }
+
+        @Override
+        String describe(List<String> columns) {
+            return "Scan dataframe" + (columns == null ? "" : " columns=" + columns);
+        }
+    }
+
+    private abstract static class Operation {
+        /**
+         * @param needed the columns used after this step, null for every column
+         * @return the columns used by this step and the following ones, null for every column
+         */
+        abstract List<String> requiredColumns(List<String> needed);
+
+        /**
+         * @param input the labels of the columns reaching this step
+         * @return the labels of the columns after this step
+         */
+        abstract List<String> columns(List<String> input);
+
+        abstract Dataframe apply(Dataframe frame);
+
+        abstract String describe();
+    }
+
+    private static final class Projection extends Operation {
+        private final List<String> labels;
+
+        Projection(List<String> labels) {
+            this.labels = labels;
+        }
+
+        @Override
+        List<String> requiredColumns(List<String> needed) {
+            return labels;
+        }
+
+        @Override
+        List<String> columns(List<String> input) {
+            for (String label : labels) {
+                if (!input.contains(label)) {
+                    throw new IllegalArgumentException("Column not found: " + label);
+                }
+            }
+            return labels;
+        }
+
+        @Override
+        Dataframe apply(Dataframe frame) {
+            return frame.selectColumns(labels.toArray(new String[0]));
+        }
+
+        @Override
+        String describe() {
+            return "Project " + labels;
+        }
+    }
+
+    private static final class Condition {
+        private final List<String> labels;
+        private final String description;
+        private final Function<Dataframe, Bitmap> mask;
+
+        Condition(List<String> labels, String description, Function<Dataframe, Bitmap> mask) {
+            this.labels = labels;
+            this.description = description;
+            this.mask = mask;
+        }
+    }
+
+    /**
+     * Keeps the rows satisfying every condition. The masks are combined before any row is selected.
+     */
+    private static final class Filter extends Operation {
+        private final List<Condition> conditions;
+
+        Filter(List<Condition> conditions) {
+            this.conditions = conditions;
+        }
+
+        @Override
+        List<String> requiredColumns(List<String> needed) {
+            if (needed == null) {
+                return null;
+            }
+            Set<String> required = new LinkedHashSet<>(needed);
+            for (Condition condition : conditions) {
+                required.addAll(condition.labels);
+            }
+            return new ArrayList<>(required);
+        }
+
+        @Override
+        List<String> columns(List<String> input) {
+            return input;
+        }
+
+        @Override
+        Dataframe apply(Dataframe frame) {
+            Bitmap mask = null;
+            for (Condition condition : conditions) {
+                Bitmap conditionMask = condition.mask.apply(frame);
+                mask = mask == null ? conditionMask : mask.and(conditionMask);
+            }
+            return frame.filter(mask);
+        }
+
+        @Override
+        String describe() {
+            StringBuilder sb = new StringBuilder("Filter");
+            for (int i = 0; i < conditions.size(); i++) {
+                sb.append(i == 0 ? " " : " and ").append(conditions.get(i).description);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class Aggregate extends Operation {
+        private final Aggregation aggregation;
+        private final List<String> labels;
+
+        Aggregate(Aggregation aggregation, List<String> labels) {
+            this.aggregation = aggregation;
+            this.labels = labels;
+        }
+
+        @Override
+        List<String> requiredColumns(List<String> needed) {
+            return labels;
+        }
+
+        @Override
+        List<String> columns(List<String> input) {
+            List<String> columns = new ArrayList<>();
+            for (String label : labels) {
+                columns.add(aggregation.label(label));
+            }
+            return columns;
+        }
+
+        @Override
+        Dataframe apply(Dataframe frame) {
+            Series<?>[] series = new Series[labels.size()];
+            for (int i = 0; i < series.length; i++) {
+                series[i] = new Series<>(aggregation.apply(frame.column(labels.get(i))), aggregation.label(labels.get(i)));
+            }
+            return new Dataframe(series);
+        }
+
+        @Override
+        String describe() {
+            return "Aggregate " + aggregation + " " + labels;
+        }
+    }
+}
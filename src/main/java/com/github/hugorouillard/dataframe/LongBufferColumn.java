@@ -0,0 +1,71 @@
+package com.github.hugorouillard.dataframe;
+
+import java.nio.LongBuffer;
+
+/**
+ * Column of long values read from buffers, see {@link BufferColumn}.
+ */
+final class LongBufferColumn extends BufferColumn<Long> {
+    private final LongBuffer[] chunks;
+
+    /**
+     * @param chunks the values, {@link #CHUNK_ROWS} per buffer
+     * @param size the number of rows
+     * @param validity the validity of each row, null if no row is missing
+     * @param stats the statistics of the whole column, null if they are not known
+     */
+    LongBufferColumn(LongBuffer[] chunks, int size, Bitmap validity, ColumnStats stats) {
+        super(size, validity, stats);
+        this.chunks = chunks;
+    }
+
+    @Override
+    public Long get(int index) {
+        return isNull(index) ? null : getLong(index);
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.LONG;
+    }
+
+    @Override
+    LongBufferColumn withMissing(Bitmap present) {
+        return new LongBufferColumn(chunks, size, validity == null ? present : validity.and(present), null);
+    }
+
+    @Override
+    public LongColumn select(int[] indices) {
+        long[] selected = new long[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = getLong(indices[i]);
+        }
+        return new LongColumn(selected, selectValidity(indices));
+    }
+
+    @Override
+    public long getLong(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public double sum() {
+        if (validity != null) {
+            return super.sum();
+        }
+        long sum = 0;
+        for (int c = 0; c < chunks.length; c++) {
+            LongBuffer chunk = chunks[c];
+            int rows = chunkRows(size, c);
+            for (int i = 0; i < rows; i++) {
+                sum += chunk.get(i);
+            }
+        }
+        return sum;
+    }
+}
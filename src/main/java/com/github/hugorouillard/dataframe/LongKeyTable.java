@@ -0,0 +1,131 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table mapping keys made of a fixed number of longs to dense ids, given in insertion order.
+ * Keys are stored flat in a single long array and probed linearly, so neither keys nor ids are ever boxed.
+ */
+final class LongKeyTable {
+    private final int width;
+    // width longs per id
+    private long[] keys;
+    private int[] hashes;
+    // id held by each slot, -1 for an empty slot
+    private int[] slots;
+    private int size;
+
+    /**
+     * @param width the number of longs of each key
+     * @param expectedSize the expected number of keys
+     */
+    LongKeyTable(int width, int expectedSize) {
+        this.width = width;
+        int capacity = Math.max(4, expectedSize);
+        this.keys = new long[capacity * width];
+        this.hashes = new int[capacity];
+        this.slots = newSlots(tableSize(capacity));
+    }
+
+    /**
+     * @param key the array holding the key
+     * @param offset the index of the first long of the key
+     * @return the id of the key, a new one if the key was not in the table
+     */
+    int add(long[] key, int offset) {
+        int hash = hash(key, offset);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot];
+            if (id < 0) {
+                return insert(slot, hash, key, offset);
+            }
+            if (hashes[id] == hash && Arrays.equals(keys, id * width, id * width + width, key, offset, offset + width)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * @param key the array holding the key
+     * @param offset the index of the first long of the key
+     * @return the id of the key, -1 if the key is not in the table
+     */
+    int find(long[] key, int offset) {
+        int hash = hash(key, offset);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot];
+            if (id < 0 || hashes[id] == hash && Arrays.equals(keys, id * width, id * width + width, key, offset, offset + width)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * @return the number of keys, the next id
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the keys by id, width longs each
+     */
+    long[] keys() {
+        return keys;
+    }
+
+    private int insert(int slot, int hash, long[] key, int offset) {
+        if (size == hashes.length) {
+            keys = Arrays.copyOf(keys, size * 2 * width);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        System.arraycopy(key, offset, keys, id * width, width);
+        hashes[id] = hash;
+        slots[slot] = id;
+        // keeps the load factor under one half
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        slots = newSlots(slots.length * 2);
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id;
+        }
+    }
+
+    private int hash(long[] key, int offset) {
+        long h = 0;
+        for (int i = offset; i < offset + width; i++) {
+            h = (h ^ key[i]) * 0x9E3779B97F4A7C15L;
+        }
+        // final mix of MurmurHash3, so that close keys spread over the slots
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * @return the smallest power of two holding this number of keys under the load factor
+     */
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int[] newSlots(int length) {
+        int[] slots = new int[length];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column of arbitrary objects, used when values do not share a single primitive type.
+ * It is numerical when its first non-null value is a {@link Number}.
+ *
+ * @param <V> the type of the values
+ */
+public class ObjectColumn<V> extends Column<V> {
+    private final List<V> values;
+
+    public ObjectColumn(List<V> values) {
+        super(validityOf(values));
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public V get(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.OBJECT;
+    }
+
+    @Override
+    ObjectColumn<V> withMissing(Bitmap present) {
+        List<V> kept = new ArrayList<>(values);
+        for (int i = 0; i < kept.size(); i++) {
+            if (!present.get(i)) {
+                kept.set(i, null);
+            }
+        }
+        return new ObjectColumn<>(kept);
+    }
+
+    @Override
+    public ObjectColumn<V> select(int[] indices) {
+        List<V> selected = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            selected.add(values.get(index));
+        }
+        return new ObjectColumn<>(selected);
+    }
+
+    @Override
+    public boolean isNumeric() {
+        int first = nextValid(0);
+        return first >= 0 && values.get(first) instanceof Number;
+    }
+
+    @Override
+    public int getInt(int index) {
+        return ((Number) values.get(index)).intValue();
+    }
+
+    @Override
+    public long getLong(int index) {
+        return ((Number) values.get(index)).longValue();
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return ((Number) values.get(index)).doubleValue();
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return (Boolean) values.get(index);
+    }
+}
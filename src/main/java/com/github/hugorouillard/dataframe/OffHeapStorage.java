@@ -0,0 +1,207 @@
+package com.github.hugorouillard.dataframe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memory outside of the Java heap holding the values of numerical columns, filled by
+ * {@link Dataframe#toOffHeap(OffHeapStorage)}. Off-heap values are neither limited by the maximum heap size nor
+ * scanned by the garbage collector, and columns stored there work like any other column.
+ * <p>
+ * The memory is either direct memory, limited by the {@code -XX:MaxDirectMemorySize} option of the JVM, or the pages
+ * of a temporary file mapped in memory, which the operating system writes out when memory runs short, so that
+ * frames can be larger than the physical memory.
+ * <p>
+ * The memory is released when the storage is closed, rather than when the garbage collector finds it unreachable.
+ * The columns of a closed storage cannot be read anymore: they must not be in use when it is closed.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     try (OffHeapStorage storage = OffHeapStorage.mapped("/tmp")) {
+ *         Dataframe offHeap = df.toOffHeap(storage);
+ *         double mean = offHeap.getDataTab()[0].mean();
+ *     }
+ * }</pre>
+ */
+public final class OffHeapStorage implements AutoCloseable {
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+        // sun.misc.Unsafe.invokeCleaner, Java 9 and later, releases a direct buffer at once
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // the buffers are then released by the garbage collector
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    // null for direct memory
+    private final FileChannel file;
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    // chunk arrays of the stored columns, emptied on close so that no column reads released memory
+    private final List<Buffer[]> chunks = new ArrayList<>();
+    private long allocatedBytes;
+    private long fileSize;
+    private boolean closed;
+
+    /**
+     * Creates a storage in direct memory.
+     */
+    public OffHeapStorage() {
+        this.file = null;
+    }
+
+    private OffHeapStorage(FileChannel file) {
+        this.file = file;
+    }
+
+    /**
+     * Creates a storage in a temporary file mapped in memory, deleted at the latest when the storage is closed.
+     *
+     * @param directory the directory of the temporary file
+     * @return a new storage
+     * @throws IOException If the file cannot be created
+     */
+    public static OffHeapStorage mapped(String directory) throws IOException {
+        Path path = Files.createTempFile(Paths.get(directory), "dataframe", ".offheap");
+        return new OffHeapStorage(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE));
+    }
+
+    /**
+     * @return the number of bytes held by the storage
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Copies the values of a column in the storage.
+     *
+     * @return a column reading the stored values, or the column itself if it does not hold numerical values
+     * @throws IllegalStateException if the storage is closed
+     */
+    synchronized Column<?> store(Column<?> column) {
+        if (closed) {
+            throw new IllegalStateException("Off-heap storage is closed");
+        }
+        int size = column.size();
+        int chunkCount = BufferColumn.chunkCount(size);
+        switch (column.getType()) {
+            case INT:
+                IntBuffer[] ints = new IntBuffer[chunkCount];
+                for (int c = 0; c < chunkCount; c++) {
+                    int base = c << BufferColumn.CHUNK_SHIFT;
+                    ints[c] = allocate(BufferColumn.chunkRows(size, c), Integer.BYTES).asIntBuffer();
+                    for (int i = 0; i < ints[c].capacity(); i++) {
+                        ints[c].put(i, column.getInt(base + i));
+                    }
+                }
+                chunks.add(ints);
+                return new IntBufferColumn(ints, size, column.getValidity(), null);
+            case LONG:
+                LongBuffer[] longs = new LongBuffer[chunkCount];
+                for (int c = 0; c < chunkCount; c++) {
+                    int base = c << BufferColumn.CHUNK_SHIFT;
+                    longs[c] = allocate(BufferColumn.chunkRows(size, c), Long.BYTES).asLongBuffer();
+                    for (int i = 0; i < longs[c].capacity(); i++) {
+                        longs[c].put(i, column.getLong(base + i));
+                    }
+                }
+                chunks.add(longs);
+                return new LongBufferColumn(longs, size, column.getValidity(), null);
+            case DOUBLE:
+                DoubleBuffer[] doubles = new DoubleBuffer[chunkCount];
+                for (int c = 0; c < chunkCount; c++) {
+                    int base = c << BufferColumn.CHUNK_SHIFT;
+                    doubles[c] = allocate(BufferColumn.chunkRows(size, c), Double.BYTES).asDoubleBuffer();
+                    for (int i = 0; i < doubles[c].capacity(); i++) {
+                        doubles[c].put(i, column.getDouble(base + i));
+                    }
+                }
+                chunks.add(doubles);
+                return new DoubleBufferColumn(doubles, size, column.getValidity(), null);
+            default:
+                return column;
+        }
+    }
+
+    private ByteBuffer allocate(int rows, int bytes) {
+        int length = rows * bytes;
+        ByteBuffer buffer;
+        if (file == null) {
+            buffer = ByteBuffer.allocateDirect(length);
+        } else {
+            try {
+                // mapping a region past the end of the file extends it
+                buffer = file.map(FileChannel.MapMode.READ_WRITE, fileSize, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            fileSize += length;
+        }
+        buffers.add(buffer);
+        allocatedBytes += length;
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Releases the memory of the storage, and deletes its file if it has one. Closing a closed storage does nothing.
+     *
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Buffer[] columnChunks : chunks) {
+            Arrays.fill(columnChunks, null);
+        }
+        chunks.clear();
+        if (INVOKE_CLEANER != null) {
+            for (ByteBuffer buffer : buffers) {
+                try {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                } catch (ReflectiveOperationException e) {
+                    // left to the garbage collector
+                }
+            }
+        }
+        buffers.clear();
+        allocatedBytes = 0;
+        if (file != null) {
+            file.close();
+        }
+    }
+}
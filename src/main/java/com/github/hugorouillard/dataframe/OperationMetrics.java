@@ -0,0 +1,64 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Measures of a completed operation, reported to {@link DataframeListener#onOperation(OperationMetrics)}.
+ * <p>
+ * Operations are named after the class and method called, like {@code Dataframe.filterRows} or
+ * {@code Series.median}.
+ */
+public final class OperationMetrics {
+    private final String operation;
+    private final long wallTimeNanos;
+    private final long rowsIn;
+    private final long rowsOut;
+    private final long allocatedBytes;
+
+    OperationMetrics(String operation, long wallTimeNanos, long rowsIn, long rowsOut, long allocatedBytes) {
+        this.operation = operation;
+        this.wallTimeNanos = wallTimeNanos;
+        this.rowsIn = rowsIn;
+        this.rowsOut = rowsOut;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the elapsed time of the operation, in nanoseconds
+     */
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    /**
+     * @return the rows of the frame or series the operation ran on, of both frames for joins, 0 for loads
+     */
+    public long getRowsIn() {
+        return rowsIn;
+    }
+
+    /**
+     * @return the rows of the resulting frame or series, 1 for statistics
+     */
+    public long getRowsOut() {
+        return rowsOut;
+    }
+
+    /**
+     * Memory allocated by the calling thread during the operation, as counted by the JVM. Work run on fork-join
+     * workers by a parallel operation is not included.
+     *
+     * @return the allocated bytes, -1 if the JVM does not count them
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return operation + " rows=" + rowsIn + "->" + rowsOut + " time=" + wallTimeNanos / 1000 + "us"
+                + (allocatedBytes < 0 ? "" : " allocated=" + allocatedBytes + "B");
+    }
+}
@@ -0,0 +1,250 @@
+package com.github.hugorouillard.dataframe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded CSV loader. The file is memory-mapped and split into byte ranges aligned on record boundaries,
+ * each range being tokenized in place on a fork-join worker. The per-range columns are then stitched into one Dataframe.
+ * <p>
+ * The result is the same as {@link Dataframe#Dataframe(String, char)}: the first row holds the column labels,
+ * and the column types are inferred from every row. The file is expected to be UTF-8 encoded.
+ */
+public final class ParallelCsvReader {
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private ParallelCsvReader() {
+    }
+
+    /**
+     * Reads a CSV file using the common fork-join pool.
+     *
+     * @param csv_file Path to the CSV file to read
+     * @param delimiter Character used as field delimiter in the CSV file
+     * @return a Dataframe holding every row of the file
+     * @throws IOException If there's an error reading the file
+     * @throws IllegalArgumentException If the CSV file is empty
+     */
+    public static Dataframe read(String csv_file, char delimiter) throws IOException {
+        return read(csv_file, delimiter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads a CSV file, parsing its chunks on the given pool.
+     *
+     * @param csv_file Path to the CSV file to read
+     * @param delimiter Character used as field delimiter in the CSV file
+     * @param pool the pool running the parsing tasks
+     * @return a Dataframe holding every row of the file
+     * @throws IOException If there's an error reading the file
+     * @throws IllegalArgumentException If the CSV file is empty
+     */
+    public static Dataframe read(String csv_file, char delimiter, ForkJoinPool pool) throws IOException {
+        Instrumentation.OperationTimer timer = Instrumentation.start("ParallelCsvReader.read", 0);
+        String[] labels;
+        long headerEnd;
+        try (CsvTokenizer header = new CsvTokenizer(FileChannel.open(Paths.get(csv_file), StandardOpenOption.READ), delimiter)) {
+            if (!header.nextRecord()) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            labels = new String[header.fieldCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = header.getString(i);
+            }
+            headerEnd = header.offset();
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(csv_file), StandardOpenOption.READ)) {
+            long[] bounds = recordBounds(channel, headerEnd, channel.size(), pool);
+
+            List<ForkJoinTask<Class<?>[]>> classifyTasks = new ArrayList<>();
+            for (int c = 0; c + 1 < bounds.length; c++) {
+                long start = bounds[c];
+                long end = bounds[c + 1];
+                classifyTasks.add(pool.submit(() -> classifyChunk(channel, start, end, delimiter, labels.length)));
+            }
+            // types are inferred over every chunk before any parsing, so all the chunks agree
+            Class<?>[] types = new Class[labels.length];
+            for (ForkJoinTask<Class<?>[]> task : classifyTasks) {
+                Class<?>[] chunkTypes = join(task);
+                for (int i = 0; i < labels.length; i++) {
+                    types[i] = ConversionUtils.mergeTypes(types[i], chunkTypes[i]);
+                }
+            }
+            ColumnType[] schema = new ColumnType[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                schema[i] = ColumnType.fromJavaType(types[i] == null ? String.class : types[i]);
+            }
+
+            LongAdder badCells = new LongAdder();
+            List<ForkJoinTask<Column<?>[]>> parseTasks = new ArrayList<>();
+            for (int c = 0; c + 1 < bounds.length; c++) {
+                long start = bounds[c];
+                long end = bounds[c + 1];
+                parseTasks.add(pool.submit(() -> parseChunk(channel, start, end, delimiter, schema, badCells)));
+            }
+            List<List<Column<?>>> parts = new ArrayList<>();
+            for (int i = 0; i < labels.length; i++) {
+                parts.add(new ArrayList<>());
+            }
+            for (ForkJoinTask<Column<?>[]> task : parseTasks) {
+                Column<?>[] columns = join(task);
+                for (int i = 0; i < labels.length; i++) {
+                    parts.get(i).add(columns[i]);
+                }
+            }
+
+            Series<?>[] series = new Series[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                Column<?> column = Column.concat(parts.get(i), schema[i]);
+                if (column instanceof CategoricalColumn) {
+                    column = ((CategoricalColumn) column).decodeIfHighCardinality();
+                }
+                series[i] = new Series<>(column, labels[i]);
+            }
+            Dataframe dataframe = new Dataframe(series);
+            if (Instrumentation.isEnabled()) {
+                Instrumentation.csvLoaded(new CsvLoadMetrics(csv_file, dataframe.rowCount(), badCells.sum(), labels, schema));
+            }
+            return timer.stop(dataframe);
+        }
+    }
+
+    /**
+     * Splits [start, end) into ranges starting right after a line break that is not inside a quoted field.
+     * The quote state at each tentative split point is found by counting quotes in every block in parallel,
+     * then summing their parities.
+     *
+     * @return the range bounds, the first one being start and the last one end
+     */
+    private static long[] recordBounds(FileChannel channel, long start, long end, ForkJoinPool pool) throws IOException {
+        long length = end - start;
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, length / (4L * pool.getParallelism()) + 1));
+        int blocks = (int) Math.max(1, (length + chunkSize - 1) / chunkSize);
+
+        List<ForkJoinTask<Long>> countTasks = new ArrayList<>();
+        for (int b = 0; b < blocks; b++) {
+            long blockStart = start + b * chunkSize;
+            long blockEnd = Math.min(end, blockStart + chunkSize);
+            countTasks.add(pool.submit(() -> countQuotes(channel, blockStart, blockEnd)));
+        }
+
+        long[] bounds = new long[blocks + 1];
+        bounds[0] = start;
+        bounds[blocks] = end;
+        long quotes = join(countTasks.get(0));
+        for (int b = 1; b < blocks; b++) {
+            // when a record spans a whole block, this is the previous bound and the previous range is empty
+            bounds[b] = nextRecord(channel, start + b * chunkSize, end, (quotes & 1) == 1);
+            quotes += join(countTasks.get(b));
+        }
+        return bounds;
+    }
+
+    private static long countQuotes(FileChannel channel, long start, long end) {
+        MappedByteBuffer buffer = map(channel, start, end);
+        long count = 0;
+        for (int i = 0; i < buffer.limit(); i++) {
+            if (buffer.get(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param inQuote whether position is inside a quoted field
+     * @return the offset following the first line break at or after position that is not inside quotes
+     */
+    private static long nextRecord(FileChannel channel, long position, long end, boolean inQuote) throws IOException {
+        long blockStart = position;
+        while (blockStart < end) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, blockStart, Math.min(MIN_CHUNK_SIZE, end - blockStart));
+            for (int i = 0; i < buffer.limit(); i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    inQuote = !inQuote;
+                } else if (b == '\n' && !inQuote) {
+                    return blockStart + i + 1;
+                }
+            }
+            blockStart += buffer.limit();
+        }
+        return end;
+    }
+
+    private static Class<?>[] classifyChunk(FileChannel channel, long start, long end, char delimiter, int columnCount) {
+        Class<?>[] types = new Class[columnCount];
+        try {
+            CsvTokenizer tokenizer = new CsvTokenizer(map(channel, start, end), delimiter);
+            while (tokenizer.nextRecord()) {
+                for (int i = 0; i < columnCount && i < tokenizer.fieldCount(); i++) {
+                    if (types[i] != String.class) {
+                        types[i] = ConversionUtils.mergeTypes(types[i], tokenizer.classify(i));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return types;
+    }
+
+    private static Column<?>[] parseChunk(FileChannel channel, long start, long end, char delimiter, ColumnType[] schema,
+                                          LongAdder badCells) {
+        ColumnBuilder[] builders = new ColumnBuilder[schema.length];
+        for (int i = 0; i < schema.length; i++) {
+            builders[i] = ColumnBuilder.forInferredType(schema[i], (int) Math.min(end - start, Integer.MAX_VALUE) / 8);
+        }
+        long bad = 0;
+        try {
+            CsvTokenizer tokenizer = new CsvTokenizer(map(channel, start, end), delimiter);
+            while (tokenizer.nextRecord()) {
+                int fieldCount = tokenizer.fieldCount();
+                for (int i = 0; i < builders.length; i++) {
+                    if (i < fieldCount) {
+                        if (!builders[i].appendField(tokenizer, i)) {
+                            bad++;
+                        }
+                    } else {
+                        builders[i].appendNull();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        badCells.add(bad);
+        Column<?>[] columns = new Column[schema.length];
+        for (int i = 0; i < schema.length; i++) {
+            columns[i] = builders[i].build();
+        }
+        return columns;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long start, long end) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> T join(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
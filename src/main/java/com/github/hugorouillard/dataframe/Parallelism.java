@@ -0,0 +1,234 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Execution mode of the column scans of {@link Series} and {@link Dataframe}: sequential on the caller thread, or
+ * split into morsels of rows processed on a {@link ForkJoinPool}.
+ * <p>
+ * Morsels are fixed ranges of rows, sized to fit in the CPU cache, and their partial results are always merged in
+ * row order. Results therefore only depend on the morsel size, never on the number of threads or on scheduling.
+ * Columns holding a single morsel are scanned on the caller thread.
+ * <p>
+ * The mode is set globally with {@link #setDefault(Parallelism)}, or per frame with
+ * {@link Dataframe#withParallelism(Parallelism)} and per series with {@link Series#withParallelism(Parallelism)}.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     Dataframe parallel = df.withParallelism(Parallelism.of(ForkJoinPool.commonPool()));
+ *     parallel.describe();
+ * }</pre>
+ */
+public final class Parallelism {
+    /**
+     * Rows per morsel by default, 128 KB of doubles.
+     */
+    public static final int DEFAULT_MORSEL_ROWS = 1 << 14;
+
+    private static final Parallelism SEQUENTIAL = new Parallelism(null, DEFAULT_MORSEL_ROWS);
+    private static volatile Parallelism defaultParallelism = SEQUENTIAL;
+
+    private final ForkJoinPool pool;
+    private final int morselRows;
+
+    private Parallelism(ForkJoinPool pool, int morselRows) {
+        this.pool = pool;
+        this.morselRows = morselRows;
+    }
+
+    /**
+     * @return the mode running every scan on the caller thread, the default one
+     */
+    public static Parallelism sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * @return a mode running the scans on the given pool
+     */
+    public static Parallelism of(ForkJoinPool pool) {
+        return new Parallelism(Objects.requireNonNull(pool), DEFAULT_MORSEL_ROWS);
+    }
+
+    /**
+     * Creates a dedicated pool, which should be reused rather than created for each scan.
+     *
+     * @param parallelism the number of worker threads
+     * @return a mode running the scans on a new pool of this parallelism
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public static Parallelism of(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        return of(new ForkJoinPool(parallelism));
+    }
+
+    /**
+     * @param morselRows the number of rows per morsel, rounded up to a multiple of 64
+     * @return the same mode with morsels of this size
+     * @throws IllegalArgumentException if morselRows is not positive
+     */
+    public Parallelism morselRows(int morselRows) {
+        if (morselRows <= 0) {
+            throw new IllegalArgumentException("Morsel size must be positive");
+        }
+        return new Parallelism(pool, (int) Math.min(Integer.MAX_VALUE & ~63, (morselRows + 63L) & ~63L));
+    }
+
+    /**
+     * Sets the mode of the series and frames which were not given one.
+     */
+    public static void setDefault(Parallelism parallelism) {
+        defaultParallelism = Objects.requireNonNull(parallelism);
+    }
+
+    public static Parallelism getDefault() {
+        return defaultParallelism;
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    public int getMorselRows() {
+        return morselRows;
+    }
+
+    /**
+     * @return true if a column of this size is split across workers
+     */
+    boolean splits(int size) {
+        return pool != null && size > morselRows;
+    }
+
+    /**
+     * Task over the rows of one morsel.
+     */
+    interface MorselTask {
+        void run(int morsel, int from, int to);
+    }
+
+    /**
+     * Runs a task on each morsel of the rows, and waits for all of them. Morsel boundaries are multiples of 64, so
+     * tasks can write the bitmap words of their rows without synchronization. Rows which are not split make a
+     * single morsel run on the caller thread.
+     */
+    void forEachMorsel(int size, MorselTask task) {
+        if (splits(size)) {
+            pool.invoke(new MorselAction(task, size, 0, morselCount(size)));
+        } else {
+            task.run(0, 0, size);
+        }
+    }
+
+    private void runMorsel(MorselTask task, int size, int morsel) {
+        int from = morsel * morselRows;
+        task.run(morsel, from, (int) Math.min(size, (long) from + morselRows));
+    }
+
+    /**
+     * @return the number of morsels of {@link #forEachMorsel}
+     */
+    int morselCount(int size) {
+        return splits(size) ? (int) ((size + (long) morselRows - 1) / morselRows) : 1;
+    }
+
+    /**
+     * @return the statistics of the column, merged from each morsel in row order
+     */
+    ColumnStats stats(Column<?> column) {
+        if (!splits(column.size())) {
+            return column.stats();
+        }
+        Column<?> values = column.materialize();
+        ColumnStats[] partials = new ColumnStats[morselCount(values.size())];
+        forEachMorsel(values.size(), (m, from, to) -> partials[m] = values.stats(from, to));
+        ColumnStats stats = new ColumnStats();
+        for (ColumnStats partial : partials) {
+            stats.merge(partial);
+        }
+        return stats;
+    }
+
+    /**
+     * @return the index of the first minimum value of the column, -1 if the column has no value
+     */
+    int argMin(Column<?> column) {
+        return argExtreme(column, false);
+    }
+
+    /**
+     * @return the index of the first maximum value of the column, -1 if the column has no value
+     */
+    int argMax(Column<?> column) {
+        return argExtreme(column, true);
+    }
+
+    private int argExtreme(Column<?> column, boolean max) {
+        if (!splits(column.size())) {
+            return max ? column.argMax() : column.argMin();
+        }
+        Column<?> values = column.materialize();
+        int[] partials = new int[morselCount(values.size())];
+        forEachMorsel(values.size(), (m, from, to) -> partials[m] = max ? values.argMax(from, to) : values.argMin(from, to));
+        // strict comparisons in row order keep the first extreme, as a sequential scan does
+        int index = -1;
+        for (int partial : partials) {
+            if (partial >= 0 && (index < 0 || (max
+                    ? values.getDouble(partial) > values.getDouble(index)
+                    : values.getDouble(partial) < values.getDouble(index)))) {
+                index = partial;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return a mask of the rows whose value satisfies the condition, tested on every row
+     */
+    Bitmap mask(Column<?> column, Predicate<Object> condition) {
+        Bitmap mask = new Bitmap(column.size());
+        forEachMorsel(column.size(), (m, from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (condition.test(column.get(i))) {
+                    mask.set(i);
+                }
+            }
+        });
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return pool == null ? "Parallelism{sequential}"
+                : "Parallelism{parallelism=" + pool.getParallelism() + ", morselRows=" + morselRows + "}";
+    }
+
+    private final class MorselAction extends RecursiveAction {
+        private final MorselTask task;
+        private final int size;
+        private final int fromMorsel;
+        private final int toMorsel;
+
+        MorselAction(MorselTask task, int size, int fromMorsel, int toMorsel) {
+            this.task = task;
+            this.size = size;
+            this.fromMorsel = fromMorsel;
+            this.toMorsel = toMorsel;
+        }
+
+        @Override
+        protected void compute() {
+            if (toMorsel - fromMorsel == 1) {
+                runMorsel(task, size, fromMorsel);
+                return;
+            }
+            int mid = (fromMorsel + toMorsel) >>> 1;
+            invokeAll(new MorselAction(task, size, fromMorsel, mid), new MorselAction(task, size, mid, toMorsel));
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.github.hugorouillard.dataframe;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Streaming approximation of the quantiles of numerical values (a KLL sketch), in memory independent of the number
+ * of values.
+ * <p>
+ * Values are kept in levels of compactors: an item of level h stands for 2^h values. When a level is full, it is
+ * sorted and every other item is promoted to the next level, so the retained items stay close to
+ * {@code 3 * k}. The rank error of a quantile is about {@code 3.3 / k} of the number of values, around 1.7% with
+ * the default {@code k}; the exact minimum and maximum are kept.
+ * <p>
+ * Sketches of the same {@code k} can be merged, so quantiles over chunks, CSV batches or files can be combined without
+ * holding the values. Sketches are {@link Serializable}. NaN values are ignored.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     QuantileSketch latency = new QuantileSketch();
+ *     CsvReader reader = new CsvReader("requests.csv", ';', 100_000);
+ *     while (reader.hasNext()) {
+ *         latency.merge(reader.next().getDataTab()[2].sketch());
+ *     }
+ *     double[] p = latency.quantiles(0.5, 0.95, 0.99);
+ * }</pre>
+ */
+public final class QuantileSketch implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_K = 200;
+    private static final int MIN_K = 8;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    // levels[h] holds sizes[h] items, each standing for 2^h values
+    private double[][] levels;
+    private int[] sizes;
+    // alternates between the even and odd items kept by a compaction, so compactions do not bias the ranks
+    private boolean oddItems;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k the size of the largest level, the rank error decreases as {@code 1 / k}
+     * @throws IllegalArgumentException if k is less than 8
+     */
+    public QuantileSketch(int k) {
+        if (k < MIN_K) {
+            throw new IllegalArgumentException("Sketch size must be at least " + MIN_K);
+        }
+        this.k = k;
+        this.levels = new double[][]{new double[k]};
+        this.sizes = new int[1];
+    }
+
+    /**
+     * @param rankError the tolerated rank error, as a fraction of the number of values
+     * @return an empty sketch whose quantiles are about within this rank error
+     * @throws IllegalArgumentException if rankError is not between 0 and 1 (exclusive)
+     */
+    public static QuantileSketch withRankError(double rankError) {
+        if (!(rankError > 0 && rankError < 1)) {
+            throw new IllegalArgumentException("Rank error must be between 0 and 1");
+        }
+        return new QuantileSketch((int) Math.max(MIN_K, Math.ceil(3.3 / rankError)));
+    }
+
+    /**
+     * Adds a value to the sketch, NaN values are ignored.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        append(0, value);
+        if (sizes[0] >= capacity(0)) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds the values summarized by another sketch, as if they had been added to this one.
+     *
+     * @param other the sketch to merge, left unchanged
+     * @return this sketch
+     * @throws IllegalArgumentException if the sketches do not have the same k
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Sketches must have the same size");
+        }
+        if (other.count == 0) {
+            return this;
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        compress();
+        return this;
+    }
+
+    /**
+     * @param q the quantile, between 0 and 1
+     * @return the approximate value at this quantile, NaN if the sketch is empty
+     * @throws IllegalArgumentException if q is not between 0 and 1
+     */
+    public double quantile(double q) {
+        return quantiles(q)[0];
+    }
+
+    /**
+     * @param qs the quantiles, between 0 and 1
+     * @return the approximate value at each quantile, NaN if the sketch is empty
+     * @throws IllegalArgumentException if a quantile is not between 0 and 1
+     */
+    public double[] quantiles(double... qs) {
+        for (double q : qs) {
+            checkQuantile(q);
+        }
+        double[] result = new double[qs.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        // sorted retained items, with the cumulated number of values they stand for
+        double[] values = new double[0];
+        long[] ranks = new long[0];
+        for (int h = 0; h < levels.length; h++) {
+            double[] level = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(level);
+            double[] mergedValues = new double[values.length + level.length];
+            long[] mergedRanks = new long[mergedValues.length];
+            long weight = 1L << h;
+            int a = 0;
+            int b = 0;
+            long rank = 0;
+            for (int i = 0; i < mergedValues.length; i++) {
+                if (b == level.length || (a < values.length && values[a] <= level[b])) {
+                    rank += ranks[a] - (a == 0 ? 0 : ranks[a - 1]);
+                    mergedValues[i] = values[a++];
+                } else {
+                    rank += weight;
+                    mergedValues[i] = level[b++];
+                }
+                mergedRanks[i] = rank;
+            }
+            values = mergedValues;
+            ranks = mergedRanks;
+        }
+
+        for (int i = 0; i < qs.length; i++) {
+            if (qs[i] == 0) {
+                result[i] = min;
+            } else if (qs[i] == 1) {
+                result[i] = max;
+            } else {
+                double target = qs[i] * count;
+                int index = 0;
+                int high = ranks.length - 1;
+                while (index < high) {
+                    int mid = (index + high) >>> 1;
+                    if (ranks[mid] < target) {
+                        index = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                result[i] = values[index];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of values added to the sketch
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * @return the exact minimum value, NaN if the sketch is empty
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return the exact maximum value, NaN if the sketch is empty
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    static void checkQuantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+    }
+
+    private void append(int level, double value) {
+        if (level >= levels.length) {
+            int height = levels.length;
+            levels = Arrays.copyOf(levels, level + 1);
+            sizes = Arrays.copyOf(sizes, level + 1);
+            for (int h = height; h <= level; h++) {
+                levels[h] = new double[capacity(h)];
+            }
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(2, levels[level].length * 2));
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    /**
+     * @return the number of items a level can hold, from k for the top level down to 2 for the lower ones
+     */
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    /**
+     * Compacts the full levels, from the bottom up, until every level fits its capacity.
+     */
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (sizes[h] >= capacity(h)) {
+                compact(h);
+            }
+        }
+    }
+
+    /**
+     * Promotes every other item of a level, in sorted order, to the next level. An odd item stays in the level.
+     */
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        int kept = size % 2;
+        int start = kept + (oddItems ? 1 : 0);
+        oddItems = !oddItems;
+        // append may grow the levels array, so items is read from the local reference
+        for (int i = start; i < size; i += 2) {
+            append(level + 1, items[i]);
+        }
+        sizes[level] = kept;
+    }
+}
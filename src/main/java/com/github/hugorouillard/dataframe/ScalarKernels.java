@@ -0,0 +1,266 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Scalar implementation of the {@link Kernels}: plain loops over primitive arrays, which the JIT compiler unrolls
+ * and, for the simplest ones, vectorizes on its own.
+ */
+final class ScalarKernels {
+    private ScalarKernels() {
+    }
+
+    static long sum(int[] values, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static double sum(long[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static double sum(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static int min(int[] values, int from, int to) {
+        int min = Integer.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    static int max(int[] values, int from, int to) {
+        int max = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    static long min(long[] values, int from, int to) {
+        long min = Long.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    static long max(long[] values, int from, int to) {
+        long max = Long.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    static double min(double[] values, int from, int to) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            if (values[i] < min) {
+                min = values[i];
+            }
+        }
+        return min;
+    }
+
+    static double max(double[] values, int from, int to) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            if (values[i] > max) {
+                max = values[i];
+            }
+        }
+        return max;
+    }
+
+    static double sumSquaredDiff(int[] values, int from, int to, double mean) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            double diff = values[i] - mean;
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    static double sumSquaredDiff(long[] values, int from, int to, double mean) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            double diff = values[i] - mean;
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    static double sumSquaredDiff(double[] values, int from, int to, double mean) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            double diff = values[i] - mean;
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    static void compare(double[] values, int size, Comparison comparison, double operand, long[] words) {
+        for (int base = 0; base < size; base += 64) {
+            long word = 0;
+            int end = Math.min(base + 64, size);
+            for (int i = base; i < end; i++) {
+                if (comparison.test(values[i], operand)) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    static void compare(double[] values, double[] operands, int size, Comparison comparison, long[] words) {
+        for (int base = 0; base < size; base += 64) {
+            long word = 0;
+            int end = Math.min(base + 64, size);
+            for (int i = base; i < end; i++) {
+                if (comparison.test(values[i], operands[i])) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    static void compare(long[] values, int size, Comparison comparison, long operand, long[] words) {
+        for (int base = 0; base < size; base += 64) {
+            long word = 0;
+            int end = Math.min(base + 64, size);
+            for (int i = base; i < end; i++) {
+                if (comparison.test(values[i], operand)) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    static void compare(long[] values, long[] operands, int size, Comparison comparison, long[] words) {
+        for (int base = 0; base < size; base += 64) {
+            long word = 0;
+            int end = Math.min(base + 64, size);
+            for (int i = base; i < end; i++) {
+                if (comparison.test(values[i], operands[i])) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    /*
+     * The operator is switched on outside of the loops, so that each loop is simple enough to be vectorized by the JIT
+     * compiler.
+     */
+
+    static void apply(Arithmetic operator, double[] left, double[] right, double[] result, int size) {
+        switch (operator) {
+            case ADD:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] + right[i];
+                }
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] - right[i];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] * right[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] / right[i];
+                }
+        }
+    }
+
+    static void apply(Arithmetic operator, double[] left, double right, double[] result, int size) {
+        switch (operator) {
+            case ADD:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] + right;
+                }
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] - right;
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] * right;
+                }
+                break;
+            default:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] / right;
+                }
+        }
+    }
+
+    static void apply(Arithmetic operator, long[] left, long[] right, long[] result, int size) {
+        switch (operator) {
+            case ADD:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] + right[i];
+                }
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] - right[i];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] * right[i];
+                }
+                break;
+            default:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] / right[i];
+                }
+        }
+    }
+
+    static void apply(Arithmetic operator, long[] left, long right, long[] result, int size) {
+        switch (operator) {
+            case ADD:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] + right;
+                }
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] - right;
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] * right;
+                }
+                break;
+            default:
+                for (int i = 0; i < size; i++) {
+                    result[i] = left[i] / right;
+                }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Order statistics of double arrays by quickselect, in linear expected time instead of the full sort.
+ * NaN values are ordered after every other value, as by {@link Arrays#sort(double[])}.
+ */
+final class Selection {
+    /**
+     * Ranges at most this long are sorted directly.
+     */
+    private static final int SORT_THRESHOLD = 16;
+
+    private Selection() {
+    }
+
+    /**
+     * @param values the values, reordered in place
+     * @return the median of the values, NaN if there is none
+     */
+    static double median(double[] values) {
+        int size = values.length;
+        if (size == 0) {
+            return Double.NaN;
+        }
+        double upper = select(values, size / 2);
+        if (size % 2 == 1) {
+            return upper;
+        }
+        // after the selection, the lower middle value is the largest of the left part
+        double lower = values[0];
+        for (int i = 1; i < size / 2; i++) {
+            if (values[i] > lower) {
+                lower = values[i];
+            }
+        }
+        return (lower + upper) / 2.0;
+    }
+
+    /**
+     * @param values the values, reordered in place
+     * @param q the quantile, between 0 and 1
+     * @return the value at this quantile, interpolated between the two closest ranks, NaN if there is none
+     */
+    static double quantile(double[] values, double q) {
+        int size = values.length;
+        if (size == 0) {
+            return Double.NaN;
+        }
+        double position = q * (size - 1);
+        int rank = (int) position;
+        double lower = select(values, rank);
+        double fraction = position - rank;
+        if (fraction == 0) {
+            return lower;
+        }
+        // after the selection, the next rank is the smallest value of the right part
+        double upper = values[rank + 1];
+        for (int i = rank + 2; i < size; i++) {
+            if (values[i] < upper) {
+                upper = values[i];
+            }
+        }
+        return lower + (upper - lower) * fraction;
+    }
+
+    /**
+     * Reorders the values so that the k-th smallest is at index k, smaller or equal values before it,
+     * greater or equal values after it.
+     *
+     * @param values the values, reordered in place
+     * @param k the rank of the value to find, starting at 0
+     * @return the k-th smallest value
+     */
+    static double select(double[] values, int k) {
+        // NaN values break comparisons, move them to the end where a sort would put them
+        int end = values.length;
+        for (int i = end - 1; i >= 0; i--) {
+            if (Double.isNaN(values[i])) {
+                values[i] = values[--end];
+                values[end] = Double.NaN;
+            }
+        }
+        if (k >= end) {
+            return Double.NaN;
+        }
+
+        int from = 0;
+        int to = end - 1;
+        // falls back to a sort on inputs defeating the median-of-three pivot
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(end));
+        while (to - from > SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                Arrays.sort(values, from, to + 1);
+                return values[k];
+            }
+            int mid = (from + to) >>> 1;
+            if (values[mid] < values[from]) {
+                swap(values, mid, from);
+            }
+            if (values[to] < values[from]) {
+                swap(values, to, from);
+            }
+            if (values[to] < values[mid]) {
+                swap(values, to, mid);
+            }
+            double pivot = values[mid];
+
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i++, j--);
+                }
+            }
+            if (k <= j) {
+                to = j;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                return values[k];
+            }
+        }
+        Arrays.sort(values, from, to + 1);
+        return values[k];
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
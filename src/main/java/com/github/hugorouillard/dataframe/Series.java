@@ -1,17 +1,42 @@
 package com.github.hugorouillard.dataframe;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
 
 public class Series<V> {
-    private final List<V> data;
+    private final Column<V> column;
     private String name;
+    // null to follow Parallelism.getDefault()
+    private Parallelism parallelism;
 
     public Series(List<V> data, String name) {
-        this.data = data;
+        this(Column.fromList(data), name);
+    }
+
+    public Series(Column<V> column, String name) {
+        this.column = column;
         this.name = name;
     }
 
+    /**
+     * Returns a series sharing the values and the name of this one, whose statistics run in the given mode.
+     *
+     * @param parallelism the execution mode of mean, std, min, max and stats
+     * @return a new series over the same column
+     */
+    public Series<V> withParallelism(Parallelism parallelism) {
+        Series<V> series = new Series<>(column, name);
+        series.parallelism = Objects.requireNonNull(parallelism);
+        return series;
+    }
+
+    /**
+     * @return the execution mode of the series, the default one if it was not given one
+     */
+    public Parallelism getParallelism() {
+        return parallelism == null ? Parallelism.getDefault() : parallelism;
+    }
+
     /**
      * Return the mean of the series, only works with numerical series (int, double, long...)
      *
@@ -22,11 +47,11 @@ public class Series<V> {
         if (notNumerical()) {
             throw new IllegalArgumentException("Series must contain numerical values");
         }
-        double sum = 0;
-        for (V value : data) {
-            sum += ((Number) value).doubleValue();
-        }
-        return sum / data.size();
+        Instrumentation.OperationTimer timer = Instrumentation.start("Series.mean", column.size());
+        // the same statistics as std() and describe(), so that they agree in every execution mode
+        double mean = getParallelism().stats(column).getMean();
+        timer.stop(1);
+        return mean;
     }
 
     /**
@@ -40,36 +65,99 @@ public class Series<V> {
             throw new IllegalArgumentException("Series must contain numerical values");
         }
 
-        List<Double> sorted = new ArrayList<>();
-        for (V value : data) {
-            sorted.add(((Number) value).doubleValue());
+        Instrumentation.OperationTimer timer = Instrumentation.start("Series.median", column.size());
+        double median = Selection.median(column.toDoubleArray());
+        timer.stop(1);
+        return median;
+    }
+
+    /**
+     * Return the exact quantile of the series, interpolated between the two closest values, only works with
+     * numerical series (int, double, long...). The values are copied once, then partially ordered by selection.
+     *
+     * @param q the quantile, between 0 and 1
+     * @throws IllegalArgumentException if the series is not numerical, or q is not between 0 and 1.
+     * @return double the value at this quantile, NaN if the series has no value
+     */
+    public double quantile(double q) {
+        if (notNumerical()) {
+            throw new IllegalArgumentException("Series must contain numerical values");
+        }
+        QuantileSketch.checkQuantile(q);
+        Instrumentation.OperationTimer timer = Instrumentation.start("Series.quantile", column.size());
+        double quantile = Selection.quantile(column.toDoubleArray(), q);
+        timer.stop(1);
+        return quantile;
+    }
+
+    /**
+     * Return approximate quantiles of the series, from a {@link QuantileSketch} built in a single pass
+     * without copying the values. Only works with numerical series (int, double, long...)
+     *
+     * @param qs the quantiles, between 0 and 1
+     * @throws IllegalArgumentException if the series is not numerical, or a quantile is not between 0 and 1.
+     * @return double[] the approximate value at each quantile
+     */
+    public double[] approxQuantiles(double... qs) {
+        return sketch().quantiles(qs);
+    }
+
+    /**
+     * Return a quantile sketch of the series with the default size, see {@link #sketch(int)}.
+     */
+    public QuantileSketch sketch() {
+        return sketch(QuantileSketch.DEFAULT_K);
+    }
+
+    /**
+     * Return a quantile sketch of the series values, which can be merged with sketches of other chunks of the
+     * same column. Only works with numerical series (int, double, long...)
+     *
+     * @param k the size of the sketch
+     * @throws IllegalArgumentException if the series is not numerical.
+     * @return QuantileSketch the sketch of the series values
+     */
+    public QuantileSketch sketch(int k) {
+        if (notNumerical()) {
+            throw new IllegalArgumentException("Series must contain numerical values");
         }
-        Collections.sort(sorted);
-        int size = sorted.size();
-        if (size % 2 == 0) {
-            return (sorted.get(size / 2 - 1) + sorted.get(size / 2)) / 2.0;
-        } else {
-            return sorted.get(size / 2);
+        QuantileSketch sketch = new QuantileSketch(k);
+        for (int i = column.nextValid(0); i >= 0; i = column.nextValid(i + 1)) {
+            sketch.add(column.getDouble(i));
         }
+        return sketch;
     }
 
     /**
-     * Return the median of the series, only works with numerical series (int, double, long...)
+     * Return the standard deviation of the series, only works with numerical series (int, double, long...)
      *
      * @throws IllegalArgumentException if the series is not numerical.
-     * @return double median of the series
+     * @return double standard deviation of the series
      */
     public double std() {
         if (notNumerical()) {
             throw new IllegalArgumentException("Series must contain numerical values");
         }
-        double mean = mean();
-        double sum_square_diff = 0;
-        for (V value : data) {
-            double val = ((Number) value).doubleValue();
-            sum_square_diff += Math.pow(val - mean, 2);
+        Instrumentation.OperationTimer timer = Instrumentation.start("Series.std", column.size());
+        double std = getParallelism().stats(column).getStd();
+        timer.stop(1);
+        return std;
+    }
+
+    /**
+     * Return the count, sum, mean, variance, min and max of the series, computed in a single pass over the values.
+     *
+     * @throws IllegalArgumentException if the series is not numerical.
+     * @return ColumnStats the statistics of the series
+     */
+    public ColumnStats stats() {
+        if (notNumerical()) {
+            throw new IllegalArgumentException("Series must contain numerical values");
         }
-        return Math.sqrt(sum_square_diff / data.size());
+        Instrumentation.OperationTimer timer = Instrumentation.start("Series.stats", column.size());
+        ColumnStats stats = getParallelism().stats(column);
+        timer.stop(1);
+        return stats;
     }
 
     /**
@@ -82,16 +170,8 @@ public class Series<V> {
         if (notNumerical()) {
             throw new IllegalArgumentException("Series must contain numerical values");
         }
-        double min_value = ((Number) data.get(0)).doubleValue();
-        V element = data.get(0);
-        for (V value : data) {
-            double val = ((Number) value).doubleValue();
-            if (val < min_value) {
-                min_value = val;
-                element = value;
-            }
-        }
-        return element;
+        int index = getParallelism().argMin(column);
+        return index < 0 ? null : column.get(index);
     }
 
     /**
@@ -104,20 +184,280 @@ public class Series<V> {
         if (notNumerical()) {
             throw new IllegalArgumentException("Series must contain numerical values");
         }
-        double min_value = ((Number) data.get(0)).doubleValue();
-        V element = data.get(0);
-        for (V value : data) {
-            double val = ((Number) value).doubleValue();
-            if (val > min_value) {
-                min_value = val;
-                element = value;
-            }
-        }
-        return element;
+        int index = getParallelism().argMax(column);
+        return index < 0 ? null : column.get(index);
+    }
+
+    /**
+     * Return the indices that sort the series in ascending order, missing values last.
+     * Equal values keep their order.
+     *
+     * @throws IllegalArgumentException if the values are not comparable.
+     * @return int[] the row indices in sorted order
+     */
+    public int[] argsort() {
+        return argsort(true, false);
+    }
+
+    /**
+     * Return the indices that sort the series, equal values keeping their order. Numerical, boolean and categorical
+     * values are sorted by a radix sort, without boxing; NaN values come after the other numbers.
+     *
+     * @param ascending true for the ascending order, false for the descending one
+     * @param nullsFirst true to put missing values first, false to put them last
+     * @throws IllegalArgumentException if the values are not comparable.
+     * @return int[] the row indices in sorted order
+     */
+    public int[] argsort(boolean ascending, boolean nullsFirst) {
+        return Sorting.argsort(new Column[]{column.materialize()}, new boolean[]{ascending}, nullsFirst);
+    }
+
+    /*
+     * Element-wise arithmetic, between numerical series of the same size or with a scalar. The values are combined
+     * in loops over primitive arrays, and a row is missing in the result if it is missing in an operand. Int and long
+     * operands give a long series, except for a division; a double operand, or a division, gives a double series.
+     * The result keeps the name and the execution mode of this series.
+     */
+
+    /**
+     * @return the sum of the values of both series, a long series if both hold int or long values, a double series otherwise
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    public Series<?> add(Series<?> other) {
+        return derive(ColumnMath.apply(Arithmetic.ADD, column, other.column));
+    }
+
+    /**
+     * @param scalar an int or long scalar keeps int and long values integral, any other number gives doubles
+     * @return the sum of the values and the scalar
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Series<?> add(Number scalar) {
+        return derive(ColumnMath.apply(Arithmetic.ADD, column, scalar));
+    }
+
+    /**
+     * @return the values of this series minus the values of the other one, a long series if both hold int or long values, a double series otherwise
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    public Series<?> sub(Series<?> other) {
+        return derive(ColumnMath.apply(Arithmetic.SUBTRACT, column, other.column));
+    }
+
+    /**
+     * @param scalar an int or long scalar keeps int and long values integral, any other number gives doubles
+     * @return the values minus the scalar
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Series<?> sub(Number scalar) {
+        return derive(ColumnMath.apply(Arithmetic.SUBTRACT, column, scalar));
+    }
+
+    /**
+     * @return the product of the values of both series, a long series if both hold int or long values, a double series otherwise
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    public Series<?> mul(Series<?> other) {
+        return derive(ColumnMath.apply(Arithmetic.MULTIPLY, column, other.column));
+    }
+
+    /**
+     * @param scalar an int or long scalar keeps int and long values integral, any other number gives doubles
+     * @return the product of the values and the scalar
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Series<?> mul(Number scalar) {
+        return derive(ColumnMath.apply(Arithmetic.MULTIPLY, column, scalar));
+    }
+
+    /**
+     * @return the values of this series divided by the values of the other one, always as doubles
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    @SuppressWarnings("unchecked")
+    public Series<Double> div(Series<?> other) {
+        return derive((Column<Double>) ColumnMath.apply(Arithmetic.DIVIDE, column, other.column));
+    }
+
+    /**
+     * @return the values divided by the scalar, always as doubles
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    @SuppressWarnings("unchecked")
+    public Series<Double> div(Number scalar) {
+        return derive((Column<Double>) ColumnMath.apply(Arithmetic.DIVIDE, column, scalar));
+    }
+
+    /**
+     * Compares the values of both series, row by row. Int and long values are compared exactly, the other ones as
+     * doubles, NaN comparing as by the Java operators.
+     * <p>
+     * Example usage:
+     * <pre>{@code
+     *     Series<?> win = df.getDataTab()[2];
+     *     Dataframe filtered = df.filter(win.gt(52).and(win.lt(55)));
+     * }</pre>
+     *
+     * @return a mask of the rows whose value is equal to the value of the other series, missing rows are never set
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    public Bitmap eq(Series<?> other) {
+        return ColumnMath.compare(Comparison.EQUAL, column, other.column);
+    }
+
+    /**
+     * @return a mask of the rows whose value is equal to the scalar, missing rows are never set
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Bitmap eq(Number scalar) {
+        return ColumnMath.compare(Comparison.EQUAL, column, scalar);
+    }
+
+    /**
+     * @return a mask of the rows whose value is not equal to the value of the other series, missing rows are never set
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    public Bitmap ne(Series<?> other) {
+        return ColumnMath.compare(Comparison.NOT_EQUAL, column, other.column);
+    }
+
+    /**
+     * @return a mask of the rows whose value is not equal to the scalar, missing rows are never set
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Bitmap ne(Number scalar) {
+        return ColumnMath.compare(Comparison.NOT_EQUAL, column, scalar);
+    }
+
+    /**
+     * @return a mask of the rows whose value is less than the value of the other series, missing rows are never set
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    public Bitmap lt(Series<?> other) {
+        return ColumnMath.compare(Comparison.LESS, column, other.column);
+    }
+
+    /**
+     * @return a mask of the rows whose value is less than the scalar, missing rows are never set
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Bitmap lt(Number scalar) {
+        return ColumnMath.compare(Comparison.LESS, column, scalar);
+    }
+
+    /**
+     * @return a mask of the rows whose value is less than or equal to the value of the other series, missing rows are never set
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    public Bitmap le(Series<?> other) {
+        return ColumnMath.compare(Comparison.LESS_OR_EQUAL, column, other.column);
+    }
+
+    /**
+     * @return a mask of the rows whose value is less than or equal to the scalar, missing rows are never set
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Bitmap le(Number scalar) {
+        return ColumnMath.compare(Comparison.LESS_OR_EQUAL, column, scalar);
+    }
+
+    /**
+     * @return a mask of the rows whose value is greater than the value of the other series, missing rows are never set
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    public Bitmap gt(Series<?> other) {
+        return ColumnMath.compare(Comparison.GREATER, column, other.column);
+    }
+
+    /**
+     * @return a mask of the rows whose value is greater than the scalar, missing rows are never set
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Bitmap gt(Number scalar) {
+        return ColumnMath.compare(Comparison.GREATER, column, scalar);
+    }
+
+    /**
+     * @return a mask of the rows whose value is greater than or equal to the value of the other series, missing rows are never set
+     * @throws IllegalArgumentException if a series is not numerical, or the sizes differ.
+     */
+    public Bitmap ge(Series<?> other) {
+        return ColumnMath.compare(Comparison.GREATER_OR_EQUAL, column, other.column);
+    }
+
+    /**
+     * @return a mask of the rows whose value is greater than or equal to the scalar, missing rows are never set
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Bitmap ge(Number scalar) {
+        return ColumnMath.compare(Comparison.GREATER_OR_EQUAL, column, scalar);
+    }
+
+    /**
+     * @return the absolute values, of the same type. The smallest int or long value stays negative.
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    @SuppressWarnings("unchecked")
+    public Series<V> abs() {
+        return derive((Column<V>) ColumnMath.abs(column));
+    }
+
+    /**
+     * @return the opposite values, of the same type. The smallest int or long value stays negative.
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    @SuppressWarnings("unchecked")
+    public Series<V> negate() {
+        return derive((Column<V>) ColumnMath.negate(column));
+    }
+
+    /**
+     * @return the square roots of the values, NaN for negative values
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Series<Double> sqrt() {
+        return mapToDouble(Math::sqrt);
+    }
+
+    /**
+     * @return the natural logarithms of the values, NaN for negative values and -Infinity for 0
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Series<Double> log() {
+        return mapToDouble(Math::log);
+    }
+
+    /**
+     * @return e raised to the power of the values
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Series<Double> exp() {
+        return mapToDouble(Math::exp);
+    }
+
+    /**
+     * Applies a function to each value read as a double, without boxing. Missing rows stay missing, whatever the
+     * function returns for them.
+     *
+     * @param function the function of a value
+     * @return the results of the function, as doubles
+     * @throws IllegalArgumentException if the series is not numerical.
+     */
+    public Series<Double> mapToDouble(DoubleUnaryOperator function) {
+        return derive(ColumnMath.map(column, function));
+    }
+
+    /**
+     * @return a series over the given column, with the name and the execution mode of this one
+     */
+    private <R> Series<R> derive(Column<R> result) {
+        Series<R> series = new Series<>(result, name);
+        series.parallelism = parallelism;
+        return series;
     }
 
     private boolean notNumerical() {
-        return !(data.get(0) instanceof Number);
+        return !column.isNumeric();
     }
 
     public void setName(String name) {
@@ -128,8 +468,84 @@ public class Series<V> {
         return this.name;
     }
 
+    /**
+     * @return a read-only list view of the series values
+     */
     public List<V> getData() {
-        return this.data;
+        return column.asList();
+    }
+
+    public Column<V> getColumn() {
+        return column;
+    }
+
+    public ColumnType getType() {
+        return column.getType();
+    }
+
+    public int size() {
+        return column.size();
+    }
+
+    public V get(int index) {
+        return column.get(index);
+    }
+
+    /**
+     * @return true if the value at the given index is missing
+     */
+    public boolean isNull(int index) {
+        return column.isNull(index);
+    }
+
+    /**
+     * @return the number of missing values in the series
+     */
+    public int nullCount() {
+        return column.nullCount();
+    }
+
+    /**
+     * @return the number of non-missing values in the series
+     */
+    public int count() {
+        return column.count();
+    }
+
+    /**
+     * Unboxed accessor, only works with int columns.
+     *
+     * @throws UnsupportedOperationException if the series does not hold int values.
+     */
+    public int getInt(int index) {
+        return column.getInt(index);
+    }
+
+    /**
+     * Unboxed accessor, only works with int and long columns.
+     *
+     * @throws UnsupportedOperationException if the series does not hold integer values.
+     */
+    public long getLong(int index) {
+        return column.getLong(index);
+    }
+
+    /**
+     * Unboxed accessor, only works with numerical columns.
+     *
+     * @throws UnsupportedOperationException if the series is not numerical.
+     */
+    public double getDouble(int index) {
+        return column.getDouble(index);
+    }
+
+    /**
+     * Unboxed accessor, only works with boolean columns.
+     *
+     * @throws UnsupportedOperationException if the series does not hold boolean values.
+     */
+    public boolean getBoolean(int index) {
+        return column.getBoolean(index);
     }
 
     /**
@@ -139,31 +555,50 @@ public class Series<V> {
      * @throws IllegalArgumentException if the series is not numerical.
      */
     public void describe() {
-        double count = data.size();
-        double mean = mean();
-        double std_ = std();
-        V min = min();
-        V max = max();
+        ColumnStats stats = stats();
         double median = median();
 
-        System.out.println("count \t" + count);
-        System.out.println("mean \t" + mean);
+        System.out.println("count \t" + (double) stats.getCount());
+        System.out.println("mean \t" + stats.getMean());
         System.out.println("median \t" + median);
-        System.out.println("std \t" + std_);
-        System.out.println("min \t" + min);
-        System.out.println("max \t" + max);
+        System.out.println("std \t" + stats.getStd());
+        System.out.println("min \t" + formatExtreme(stats, false));
+        System.out.println("max \t" + formatExtreme(stats, true));
+
+        System.out.println("Name = " + getName() + ", type = " + valueClass());
+    }
+
+    /**
+     * @param stats the statistics of the series, from {@link #stats()}
+     * @param max true for the maximum, false for the minimum
+     * @return the extreme as {@link #min()} and {@link #max()} would print it, "null" if the series has no value.
+     * Ints and longs are printed from their exact extremes, since the double ones are rounded beyond 2^53.
+     */
+    String formatExtreme(ColumnStats stats, boolean max) {
+        if (stats.getCount() == 0) {
+            return "null";
+        }
+        if (stats.hasLongExtremes()) {
+            return String.valueOf(max ? stats.getLongMax() : stats.getLongMin());
+        }
+        double value = max ? stats.getMax() : stats.getMin();
+        ColumnType type = column.getType();
+        return type == ColumnType.INT || type == ColumnType.LONG ? String.valueOf((long) value) : String.valueOf(value);
+    }
 
-        System.out.println("Name = " + getName() + ", type = " + data.get(0).getClass());
+    private Class<?> valueClass() {
+        int first = column.nextValid(0);
+        return first < 0 ? column.getType().getJavaType() : column.get(first).getClass();
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < data.size(); i++) {
-            V value = data.get(i);
-            sb.append(i).append("\t").append(value.toString()).append("\n");
+        for (int i = 0; i < column.size(); i++) {
+            V value = column.get(i);
+            sb.append(i).append("\t").append(value).append("\n");
         }
-        sb.append("Name: ").append(name).append(", type: ").append(data.get(0).getClass()).append("\n");
+        sb.append("Name: ").append(name).append(", type: ").append(valueClass()).append("\n");
         return sb.toString();
     }
 }
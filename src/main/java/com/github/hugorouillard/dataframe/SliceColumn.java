@@ -0,0 +1,99 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * View of a range of rows of a column. Values are read from the parent column at an offset, so building the view
+ * only copies the matching words of its validity. Aggregations materialize the view once, to run on primitive storage.
+ * <p>
+ * Views of views are flattened, the parent of a view is never a view itself.
+ *
+ * @param <V> the boxed type of the values
+ */
+final class SliceColumn<V> extends Column<V> {
+    private final Column<V> parent;
+    private final int offset;
+    private final int length;
+    private Column<V> materialized;
+
+    SliceColumn(Column<V> parent, int offset, int length) {
+        super(parent.getValidity() == null ? null : parent.getValidity().slice(offset, length));
+        this.parent = parent;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    @Override
+    public V get(int index) {
+        return parent.get(offset + index);
+    }
+
+    @Override
+    public ColumnType getType() {
+        return parent.getType();
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return parent.isNumeric();
+    }
+
+    @Override
+    public Column<V> select(int[] indices) {
+        return parent.select(shift(indices));
+    }
+
+    @Override
+    public Column<V> view(int[] indices) {
+        return new IndexedColumn<>(parent, shift(indices));
+    }
+
+    @Override
+    public Column<V> slice(int offset, int length) {
+        checkRange(offset, length);
+        return new SliceColumn<>(parent, this.offset + offset, length);
+    }
+
+    @Override
+    public Column<V> materialize() {
+        if (materialized == null) {
+            int[] range = new int[length];
+            for (int i = 0; i < length; i++) {
+                range[i] = offset + i;
+            }
+            materialized = parent.select(range);
+        }
+        return materialized;
+    }
+
+    private int[] shift(int[] indices) {
+        int[] shifted = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            shifted[i] = offset + indices[i];
+        }
+        return shifted;
+    }
+
+    @Override
+    public int getInt(int index) {
+        return parent.getInt(offset + index);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return parent.getLong(offset + index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return parent.getDouble(offset + index);
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return parent.getBoolean(offset + index);
+    }
+}
@@ -0,0 +1,253 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Stable sorts of rows by the values of key columns, giving a permutation vector rather than moving values.
+ * <p>
+ * Int, long, double, boolean and categorical keys are mapped to longs whose unsigned order is the order of the
+ * values, then sorted by a least-significant-digit radix sort: no value is boxed and no comparison is made. Double
+ * values are ordered as by {@link Double#compare}, NaN last. String and object keys are sorted by a merge sort
+ * over row indices. Missing values are kept apart from the sort and put first or last.
+ * <p>
+ * Several keys are sorted from the last to the first, each sort being stable, so that rows equal on a key keep the
+ * order given by the following keys.
+ */
+final class Sorting {
+    /**
+     * Ranges at most this long are sorted by insertion by the merge sort.
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    private Sorting() {
+    }
+
+    /**
+     * @param columns the key columns, materialized
+     * @param ascending the direction of each key
+     * @param nullsFirst true to put missing values before the others, false to put them after
+     * @return the rows in sorted order
+     * @throws IllegalArgumentException if a key column holds values that are not comparable
+     */
+    static int[] argsort(Column<?>[] columns, boolean[] ascending, boolean nullsFirst) {
+        int[] rows = new int[columns[0].size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        for (int k = columns.length - 1; k >= 0; k--) {
+            rows = sort(columns[k], ascending[k], nullsFirst, rows);
+        }
+        return rows;
+    }
+
+    private static int[] sort(Column<?> column, boolean ascending, boolean nullsFirst, int[] rows) {
+        int[] valid = rows;
+        int[] nulls = new int[0];
+        if (column.nullCount() > 0) {
+            // splits the rows, keeping their order on both sides
+            valid = new int[column.count()];
+            nulls = new int[rows.length - valid.length];
+            int v = 0;
+            int n = 0;
+            for (int row : rows) {
+                if (column.isNull(row)) {
+                    nulls[n++] = row;
+                } else {
+                    valid[v++] = row;
+                }
+            }
+        }
+
+        long[] keys = radixKeys(column, valid, ascending);
+        int[] sorted = keys != null ? radixSort(keys, valid) : mergeSort(column, valid, ascending);
+        if (nulls.length == 0) {
+            return sorted;
+        }
+        int[] result = new int[rows.length];
+        System.arraycopy(nullsFirst ? nulls : sorted, 0, result, 0, nullsFirst ? nulls.length : sorted.length);
+        System.arraycopy(nullsFirst ? sorted : nulls, 0, result, nullsFirst ? nulls.length : sorted.length,
+                nullsFirst ? sorted.length : nulls.length);
+        return result;
+    }
+
+    /**
+     * @return the radix key of each row, in the order of the rows, null if the column is sorted by comparison
+     */
+    private static long[] radixKeys(Column<?> column, int[] rows, boolean ascending) {
+        long[] keys = new long[rows.length];
+        switch (column.getType()) {
+            case INT:
+                for (int i = 0; i < rows.length; i++) {
+                    // flipping the sign bit orders negative values first, on four bytes only
+                    keys[i] = (column.getInt(rows[i]) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+                }
+                break;
+            case LONG:
+                for (int i = 0; i < rows.length; i++) {
+                    keys[i] = column.getLong(rows[i]) ^ Long.MIN_VALUE;
+                }
+                break;
+            case DOUBLE:
+                for (int i = 0; i < rows.length; i++) {
+                    // negative values have their bits reversed, positive ones their sign bit set
+                    long bits = Double.doubleToLongBits(column.getDouble(rows[i]));
+                    keys[i] = bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+                }
+                break;
+            case BOOLEAN:
+                for (int i = 0; i < rows.length; i++) {
+                    keys[i] = column.getBoolean(rows[i]) ? 1 : 0;
+                }
+                break;
+            case CATEGORICAL:
+                CategoricalColumn categorical = (CategoricalColumn) column;
+                int[] ranks = categoryRanks(categorical);
+                for (int i = 0; i < rows.length; i++) {
+                    keys[i] = ranks[categorical.getCode(rows[i])];
+                }
+                break;
+            default:
+                return null;
+        }
+        if (!ascending) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = ~keys[i];
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @return the rank of each category in the order of the category values, only the categories being compared
+     */
+    private static int[] categoryRanks(CategoricalColumn column) {
+        int count = column.categoryCount();
+        int[] codes = new int[count];
+        for (int code = 0; code < count; code++) {
+            codes[code] = code;
+        }
+        int[] sorted = mergeSort((a, b) -> column.getCategory(a).compareTo(column.getCategory(b)), codes);
+        int[] ranks = new int[count];
+        for (int rank = 0; rank < count; rank++) {
+            ranks[sorted[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Stable radix sort by bytes, from the least significant one. Bytes equal in every key are skipped, so that small
+     * keys only take a few passes.
+     *
+     * @param keys the key of each row, reordered
+     * @param rows the rows, reordered
+     * @return the rows in the unsigned order of their keys
+     */
+    private static int[] radixSort(long[] keys, int[] rows) {
+        int size = rows.length;
+        if (size < 2) {
+            return rows;
+        }
+        int[][] counts = new int[Long.BYTES][256];
+        for (long key : keys) {
+            for (int b = 0; b < Long.BYTES; b++) {
+                counts[b][(int) (key >>> (b * 8)) & 0xFF]++;
+            }
+        }
+
+        long[] keyBuffer = null;
+        int[] rowBuffer = null;
+        for (int b = 0; b < Long.BYTES; b++) {
+            int[] count = counts[b];
+            if (count[(int) (keys[0] >>> (b * 8)) & 0xFF] == size) {
+                continue;
+            }
+            if (keyBuffer == null) {
+                keyBuffer = new long[size];
+                rowBuffer = new int[size];
+            }
+            int offset = 0;
+            for (int digit = 0; digit < 256; digit++) {
+                int digitCount = count[digit];
+                count[digit] = offset;
+                offset += digitCount;
+            }
+            int shift = b * 8;
+            for (int i = 0; i < size; i++) {
+                int at = count[(int) (keys[i] >>> shift) & 0xFF]++;
+                keyBuffer[at] = keys[i];
+                rowBuffer[at] = rows[i];
+            }
+            long[] swappedKeys = keys;
+            keys = keyBuffer;
+            keyBuffer = swappedKeys;
+            int[] swappedRows = rows;
+            rows = rowBuffer;
+            rowBuffer = swappedRows;
+        }
+        return rows;
+    }
+
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int[] mergeSort(Column<?> column, int[] rows, boolean ascending) {
+        RowComparator comparator = (a, b) -> {
+            Object left = column.get(a);
+            Object right = column.get(b);
+            if (!(left instanceof Comparable)) {
+                throw new IllegalArgumentException("Series values must be comparable");
+            }
+            try {
+                return ((Comparable) left).compareTo(right);
+            } catch (ClassCastException e) {
+                throw new IllegalArgumentException("Series values must be comparable", e);
+            }
+        };
+        return mergeSort(ascending ? comparator : (a, b) -> comparator.compare(b, a), rows);
+    }
+
+    /**
+     * Stable merge sort of row indices, without boxing them.
+     *
+     * @param rows the rows, reordered
+     * @return the rows in sorted order
+     */
+    private static int[] mergeSort(RowComparator comparator, int[] rows) {
+        int[] buffer = rows.clone();
+        mergeSort(comparator, buffer, rows, 0, rows.length);
+        return rows;
+    }
+
+    /**
+     * Sorts the range of {@code target}, {@code source} holding the same rows and being used as a buffer.
+     */
+    private static void mergeSort(RowComparator comparator, int[] source, int[] target, int from, int to) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = target[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(target[j], row) > 0) {
+                    target[j + 1] = target[j];
+                    j--;
+                }
+                target[j + 1] = row;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        // the halves are sorted in the buffer, then merged back
+        mergeSort(comparator, target, source, from, middle);
+        mergeSort(comparator, target, source, middle, to);
+        if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+            System.arraycopy(source, from, target, from, to - from);
+            return;
+        }
+        for (int i = from, l = from, r = middle; i < to; i++) {
+            if (r >= to || l < middle && comparator.compare(source[l], source[r]) <= 0) {
+                target[i] = source[l++];
+            } else {
+                target[i] = source[r++];
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.hugorouillard.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Column of String values backed by an array.
+ * Missing rows are null in the array, and cleared in the validity bitmap.
+ */
+public class StringColumn extends Column<String> {
+    private final String[] values;
+
+    public StringColumn(String[] values) {
+        super(validityOf(Arrays.asList(values)));
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.STRING;
+    }
+
+    @Override
+    StringColumn withMissing(Bitmap present) {
+        String[] kept = values.clone();
+        for (int i = 0; i < kept.length; i++) {
+            if (!present.get(i)) {
+                kept[i] = null;
+            }
+        }
+        return new StringColumn(kept);
+    }
+
+    @Override
+    public StringColumn select(int[] indices) {
+        String[] selected = new String[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            selected[i] = values[indices[i]];
+        }
+        return new StringColumn(selected);
+    }
+}
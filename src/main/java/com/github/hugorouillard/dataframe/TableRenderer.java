@@ -0,0 +1,157 @@
+package com.github.hugorouillard.dataframe;
+
+import java.io.IOException;
+
+/**
+ * Writes a Dataframe as a box-drawn table, line by line. Only the shown cells are read: the column widths are
+ * computed by formatting them once, and they are formatted again while writing, so no table is held in memory.
+ */
+final class TableRenderer {
+    private static final String ELLIPSIS = "...";
+    // stands for the hidden rows in the shown row indices
+    private static final int HIDDEN = -1;
+
+    private final Series<?>[] data;
+    // shown columns, null for the hidden ones
+    private final Series<?>[] columns;
+    private final int[] rows;
+    private final boolean rowsCut;
+    private final int maxCellWidth;
+    private final int indexWidth;
+    private final int[] widths;
+
+    /**
+     * @param from the first row of the range to show
+     * @param to the end of the range, excluded
+     */
+    private TableRenderer(Series<?>[] data, DisplayOptions options, int from, int to) {
+        this.data = data;
+        this.maxCellWidth = options.getMaxCellWidth();
+        columns = shownColumns(data, options.getHeadColumns(), options.getTailColumns());
+        rowsCut = (long) options.getHeadRows() + options.getTailRows() < to - from;
+        rows = shownRows(from, to, options.getHeadRows(), options.getTailRows());
+        indexWidth = Math.max(3, String.valueOf(Math.max(0, to - 1)).length()) + 2;
+
+        widths = new int[columns.length];
+        for (int j = 0; j < columns.length; j++) {
+            int width = label(j).length();
+            for (int row : rows) {
+                width = Math.max(width, cell(j, row).length());
+            }
+            widths[j] = width + 4;
+        }
+    }
+
+    /**
+     * Renders the rows [from, to) of a frame, within the limits of the options.
+     */
+    static void render(Dataframe dataframe, Appendable out, DisplayOptions options, int from, int to) throws IOException {
+        Series<?>[] data = dataframe.getDataTab();
+        if (data == null || data.length == 0) {
+            out.append("Empty dataframe");
+            return;
+        }
+        new TableRenderer(data, options, from, to).write(out);
+    }
+
+    private static Series<?>[] shownColumns(Series<?>[] data, int head, int tail) {
+        if ((long) head + tail >= data.length) {
+            return data.clone();
+        }
+        Series<?>[] shown = new Series[head + 1 + tail];
+        System.arraycopy(data, 0, shown, 0, head);
+        System.arraycopy(data, data.length - tail, shown, head + 1, tail);
+        return shown;
+    }
+
+    private static int[] shownRows(int from, int to, int head, int tail) {
+        int count = to - from;
+        boolean cut = (long) head + tail < count;
+        int[] rows = new int[cut ? head + 1 + tail : count];
+        for (int i = 0; i < rows.length; i++) {
+            if (!cut || i < head) {
+                rows[i] = from + i;
+            } else if (i == head) {
+                rows[i] = HIDDEN;
+            } else {
+                rows[i] = to - tail + (i - head - 1);
+            }
+        }
+        return rows;
+    }
+
+    private String label(int column) {
+        return columns[column] == null ? ELLIPSIS : cut(columns[column].getName());
+    }
+
+    private String cell(int column, int row) {
+        return columns[column] == null || row == HIDDEN ? ELLIPSIS : cut(String.valueOf(columns[column].get(row)));
+    }
+
+    private String cut(String value) {
+        return value.length() <= maxCellWidth ? value : value.substring(0, maxCellWidth - ELLIPSIS.length()) + ELLIPSIS;
+    }
+
+    private void write(Appendable out) throws IOException {
+        StringBuilder line = new StringBuilder();
+
+        repeat(line, ' ', indexWidth + 1).append('╔');
+        border(line, '╦', '╗');
+        flush(line, out);
+
+        repeat(line, ' ', indexWidth + 1).append('║');
+        for (int j = 0; j < columns.length; j++) {
+            pad(line, label(j), widths[j]);
+        }
+        flush(line, out);
+
+        repeat(line.append('╔'), '═', indexWidth).append('╬');
+        border(line, '╬', '╣');
+        flush(line, out);
+
+        for (int row : rows) {
+            String index = row == HIDDEN ? ELLIPSIS : String.valueOf(row);
+            line.append("║ ");
+            repeat(line, ' ', indexWidth - 2 - index.length()).append(index).append(" ║");
+            for (int j = 0; j < columns.length; j++) {
+                pad(line, cell(j, row), widths[j]);
+            }
+            flush(line, out);
+        }
+
+        repeat(line.append('╚'), '═', indexWidth).append('╩');
+        border(line, '╩', '╝');
+        flush(line, out);
+
+        if (rowsCut || columns.length < data.length) {
+            out.append("[").append(String.valueOf(data[0].size())).append(" rows x ")
+                    .append(String.valueOf(data.length)).append(" columns]\n");
+        }
+    }
+
+    private void border(StringBuilder line, char separator, char end) {
+        for (int j = 0; j < columns.length; j++) {
+            repeat(line, '═', widths[j]).append(j == columns.length - 1 ? end : separator);
+        }
+    }
+
+    /**
+     * Appends a cell left-aligned in its column, followed by the column separator.
+     */
+    private static void pad(StringBuilder line, String value, int width) {
+        line.append(' ').append(value);
+        repeat(line, ' ', width - 2 - value.length()).append(" ║");
+    }
+
+    private static StringBuilder repeat(StringBuilder line, char c, int count) {
+        for (int i = 0; i < count; i++) {
+            line.append(c);
+        }
+        return line;
+    }
+
+    private static void flush(StringBuilder line, Appendable out) throws IOException {
+        out.append(line.append('\n'));
+        line.setLength(0);
+    }
+}
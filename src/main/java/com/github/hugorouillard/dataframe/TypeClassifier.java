@@ -0,0 +1,195 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Lexical type classifier for CSV cells. Text is scanned once, and no value is parsed, so classifying a cell never
+ * throws nor allocates.
+ * <p>
+ * Types are promoted in this order as values are seen: Integer, Long, Double, String. Boolean values only mix
+ * with other booleans, any other mix is String.
+ */
+final class TypeClassifier {
+    private static final String INT_MAX = "2147483647";
+    private static final String INT_MIN = "2147483648";
+    private static final String LONG_MAX = "9223372036854775807";
+    private static final String LONG_MIN = "9223372036854775808";
+
+    private TypeClassifier() {
+    }
+
+    /**
+     * Classifies a trimmed text like {@link Integer#parseInt}, {@link Long#parseLong} and {@link Double#parseDouble}
+     * would accept it, hexadecimal floating-point literals excepted.
+     *
+     * @param text the text holding the value
+     * @param start the index of the first character of the value
+     * @param end the index following the last character of the value
+     * @return Integer, Long, Double, Boolean or String class, null if the value is empty
+     */
+    static Class<?> classify(CharSequence text, int start, int end) {
+        if (start == end) {
+            return null;
+        }
+        int i = start;
+        char first = text.charAt(i);
+        boolean negative = false;
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        int integerStart = i;
+        while (i < end && isDigit(text.charAt(i))) {
+            i++;
+        }
+        int integerDigits = i - integerStart;
+        if (i == end) {
+            return integerDigits == 0 ? String.class : integerType(text, integerStart, end, negative);
+        }
+
+        int fractionDigits = 0;
+        if (text.charAt(i) == '.') {
+            int fractionStart = ++i;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+            }
+            fractionDigits = i - fractionStart;
+        }
+        if (integerDigits + fractionDigits == 0) {
+            return wordType(text, start, end, integerStart);
+        }
+        if (i < end && (text.charAt(i) | 0x20) == 'e') {
+            i++;
+            if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == exponentStart) {
+                return String.class;
+            }
+        }
+        if (i < end) {
+            int suffix = text.charAt(i) | 0x20;
+            if (suffix == 'd' || suffix == 'f') {
+                i++;
+            }
+        }
+        return i == end ? Double.class : String.class;
+    }
+
+    static Class<?> classify(String text) {
+        String trimmed = text.trim();
+        return classify(trimmed, 0, trimmed.length());
+    }
+
+    /**
+     * @return whether a value of the given classified type can be stored in a column of the given type
+     */
+    static boolean fits(Class<?> valueType, ColumnType type) {
+        switch (type) {
+            case INT:
+                return valueType == Integer.class;
+            case LONG:
+                return valueType == Integer.class || valueType == Long.class;
+            case DOUBLE:
+                return valueType == Integer.class || valueType == Long.class || valueType == Double.class;
+            case BOOLEAN:
+                return valueType == Boolean.class;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return the narrowest type holding values of both types, null standing for no value yet
+     */
+    static Class<?> promote(Class<?> type, Class<?> other) {
+        if (type == null || type == other) {
+            return other;
+        }
+        if (other == null) {
+            return type;
+        }
+        return Math.max(rank(type), rank(other)) < rank(String.class) && type != Boolean.class && other != Boolean.class
+                ? (rank(type) > rank(other) ? type : other)
+                : String.class;
+    }
+
+    private static int rank(Class<?> type) {
+        if (type == Integer.class) {
+            return 0;
+        } else if (type == Long.class) {
+            return 1;
+        } else if (type == Double.class) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static Class<?> integerType(CharSequence text, int start, int end, boolean negative) {
+        while (start < end - 1 && text.charAt(start) == '0') {
+            start++;
+        }
+        int digits = end - start;
+        if (digits < INT_MAX.length() || digits == INT_MAX.length() && compare(text, start, negative ? INT_MIN : INT_MAX) <= 0) {
+            return Integer.class;
+        }
+        if (digits < LONG_MAX.length() || digits == LONG_MAX.length() && compare(text, start, negative ? LONG_MIN : LONG_MAX) <= 0) {
+            return Long.class;
+        }
+        return Double.class;
+    }
+
+    private static int compare(CharSequence text, int start, String bound) {
+        for (int i = 0; i < bound.length(); i++) {
+            int diff = text.charAt(start + i) - bound.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Classifies values without any digit: booleans, NaN and Infinity.
+     */
+    private static Class<?> wordType(CharSequence text, int start, int end, int unsignedStart) {
+        if (unsignedStart == start && (equalsIgnoreCase(text, start, end, "true") || equalsIgnoreCase(text, start, end, "false"))) {
+            return Boolean.class;
+        }
+        if (equals(text, unsignedStart, end, "NaN") || equals(text, unsignedStart, end, "Infinity")) {
+            return Double.class;
+        }
+        return String.class;
+    }
+
+    private static boolean equals(CharSequence text, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (text.charAt(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence text, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
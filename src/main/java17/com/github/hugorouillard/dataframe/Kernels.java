@@ -0,0 +1,154 @@
+package com.github.hugorouillard.dataframe;
+
+/**
+ * Numerical kernels over primitive arrays: the inner loops of aggregations, comparisons and arithmetic.
+ * <p>
+ * Java 17 version of the multi-release JAR: the kernels run the {@link VectorKernels} when the
+ * {@code jdk.incubator.vector} module is enabled, with {@code --add-modules jdk.incubator.vector}, and the
+ * {@link ScalarKernels} otherwise. The vector classes are only loaded in the first case.
+ */
+final class Kernels {
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private Kernels() {
+    }
+
+    /**
+     * @return true if the kernels run on vector instructions
+     */
+    static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * @return the sum of the values in the range, 0 if it is empty. Longs are summed as doubles, which do not
+     * overflow.
+     */
+    static long sum(int[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.sum(values, from, to) : ScalarKernels.sum(values, from, to);
+    }
+
+    static double sum(long[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.sum(values, from, to) : ScalarKernels.sum(values, from, to);
+    }
+
+    static double sum(double[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.sum(values, from, to) : ScalarKernels.sum(values, from, to);
+    }
+
+    /**
+     * @return the smallest value in the range, the largest value of the type if it is empty. NaN values are ignored.
+     */
+    static int min(int[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.min(values, from, to) : ScalarKernels.min(values, from, to);
+    }
+
+    /**
+     * @return the largest value in the range, the smallest value of the type if it is empty. NaN values are ignored.
+     */
+    static int max(int[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.max(values, from, to) : ScalarKernels.max(values, from, to);
+    }
+
+    static long min(long[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.min(values, from, to) : ScalarKernels.min(values, from, to);
+    }
+
+    static long max(long[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.max(values, from, to) : ScalarKernels.max(values, from, to);
+    }
+
+    static double min(double[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.min(values, from, to) : ScalarKernels.min(values, from, to);
+    }
+
+    static double max(double[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.max(values, from, to) : ScalarKernels.max(values, from, to);
+    }
+
+    /**
+     * @return the sum of the squared differences between the values of the range and the mean
+     */
+    static double sumSquaredDiff(int[] values, int from, int to, double mean) {
+        return VECTORIZED ? VectorKernels.sumSquaredDiff(values, from, to, mean) : ScalarKernels.sumSquaredDiff(values, from, to, mean);
+    }
+
+    static double sumSquaredDiff(long[] values, int from, int to, double mean) {
+        return VECTORIZED ? VectorKernels.sumSquaredDiff(values, from, to, mean) : ScalarKernels.sumSquaredDiff(values, from, to, mean);
+    }
+
+    static double sumSquaredDiff(double[] values, int from, int to, double mean) {
+        return VECTORIZED ? VectorKernels.sumSquaredDiff(values, from, to, mean) : ScalarKernels.sumSquaredDiff(values, from, to, mean);
+    }
+
+    /**
+     * Sets bit i of the words when {@code values[i]} compares to the operand, for the first {@code size} values.
+     */
+    static void compare(double[] values, int size, Comparison comparison, double operand, long[] words) {
+        if (VECTORIZED) {
+            VectorKernels.compare(values, size, comparison, operand, words);
+        } else {
+            ScalarKernels.compare(values, size, comparison, operand, words);
+        }
+    }
+
+    static void compare(double[] values, double[] operands, int size, Comparison comparison, long[] words) {
+        if (VECTORIZED) {
+            VectorKernels.compare(values, operands, size, comparison, words);
+        } else {
+            ScalarKernels.compare(values, operands, size, comparison, words);
+        }
+    }
+
+    static void compare(long[] values, int size, Comparison comparison, long operand, long[] words) {
+        if (VECTORIZED) {
+            VectorKernels.compare(values, size, comparison, operand, words);
+        } else {
+            ScalarKernels.compare(values, size, comparison, operand, words);
+        }
+    }
+
+    static void compare(long[] values, long[] operands, int size, Comparison comparison, long[] words) {
+        if (VECTORIZED) {
+            VectorKernels.compare(values, operands, size, comparison, words);
+        } else {
+            ScalarKernels.compare(values, operands, size, comparison, words);
+        }
+    }
+
+    /**
+     * Stores {@code left[i] operator right[i]} in {@code result[i]}, for the first {@code size} values. Long
+     * results overflow silently.
+     */
+    static void apply(Arithmetic operator, double[] left, double[] right, double[] result, int size) {
+        if (VECTORIZED) {
+            VectorKernels.apply(operator, left, right, result, size);
+        } else {
+            ScalarKernels.apply(operator, left, right, result, size);
+        }
+    }
+
+    static void apply(Arithmetic operator, double[] left, double right, double[] result, int size) {
+        if (VECTORIZED) {
+            VectorKernels.apply(operator, left, right, result, size);
+        } else {
+            ScalarKernels.apply(operator, left, right, result, size);
+        }
+    }
+
+    static void apply(Arithmetic operator, long[] left, long[] right, long[] result, int size) {
+        if (VECTORIZED) {
+            VectorKernels.apply(operator, left, right, result, size);
+        } else {
+            ScalarKernels.apply(operator, left, right, result, size);
+        }
+    }
+
+    static void apply(Arithmetic operator, long[] left, long right, long[] result, int size) {
+        if (VECTORIZED) {
+            VectorKernels.apply(operator, left, right, result, size);
+        } else {
+            ScalarKernels.apply(operator, left, right, result, size);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.github.hugorouillard.dataframe;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of the {@link Kernels} on the vector instructions of the processor, through the
+ * {@code jdk.incubator.vector} module: each loop processes as many values at once as the widest vectors hold, then
+ * the remaining values one by one.
+ * <p>
+ * Sums of doubles are computed in as many partial sums as there are vector lanes, so their rounding may differ from
+ * the scalar sums in the last bits.
+ */
+final class VectorKernels {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    static long sum(int[] values, int from, int to) {
+        // each int vector is widened into two long vectors of the same size
+        LongVector sums = LongVector.zero(LONGS);
+        int i = from;
+        int bound = from + INTS.loopBound(to - from);
+        for (; i < bound; i += INTS.length()) {
+            IntVector vector = IntVector.fromArray(INTS, values, i);
+            sums = sums.add(vector.convertShape(VectorOperators.I2L, LONGS, 0))
+                    .add(vector.convertShape(VectorOperators.I2L, LONGS, 1));
+        }
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static double sum(long[] values, int from, int to) {
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        int i = from;
+        int bound = from + LONGS.loopBound(to - from);
+        for (; i < bound; i += LONGS.length()) {
+            sums = sums.add(LongVector.fromArray(LONGS, values, i).convertShape(VectorOperators.L2D, DOUBLES, 0));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static double sum(double[] values, int from, int to) {
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        int i = from;
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (; i < bound; i += DOUBLES.length()) {
+            sums = sums.add(DoubleVector.fromArray(DOUBLES, values, i));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static int min(int[] values, int from, int to) {
+        IntVector mins = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        int i = from;
+        int bound = from + INTS.loopBound(to - from);
+        for (; i < bound; i += INTS.length()) {
+            mins = mins.min(IntVector.fromArray(INTS, values, i));
+        }
+        int min = mins.reduceLanes(VectorOperators.MIN);
+        for (; i < to; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    static int max(int[] values, int from, int to) {
+        IntVector maxs = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        int i = from;
+        int bound = from + INTS.loopBound(to - from);
+        for (; i < bound; i += INTS.length()) {
+            maxs = maxs.max(IntVector.fromArray(INTS, values, i));
+        }
+        int max = maxs.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    static long min(long[] values, int from, int to) {
+        LongVector mins = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        int i = from;
+        int bound = from + LONGS.loopBound(to - from);
+        for (; i < bound; i += LONGS.length()) {
+            mins = mins.min(LongVector.fromArray(LONGS, values, i));
+        }
+        long min = mins.reduceLanes(VectorOperators.MIN);
+        for (; i < to; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    static long max(long[] values, int from, int to) {
+        LongVector maxs = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        int i = from;
+        int bound = from + LONGS.loopBound(to - from);
+        for (; i < bound; i += LONGS.length()) {
+            maxs = maxs.max(LongVector.fromArray(LONGS, values, i));
+        }
+        long max = maxs.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /*
+     * The minimum and maximum of doubles keep the lanes whose comparison is true, so that NaN values, which compare
+     * false, are ignored as by the scalar kernels.
+     */
+
+    static double min(double[] values, int from, int to) {
+        DoubleVector mins = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        int i = from;
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector vector = DoubleVector.fromArray(DOUBLES, values, i);
+            mins = mins.blend(vector, vector.compare(VectorOperators.LT, mins));
+        }
+        double min = mins.reduceLanes(VectorOperators.MIN);
+        for (; i < to; i++) {
+            if (values[i] < min) {
+                min = values[i];
+            }
+        }
+        return min;
+    }
+
+    static double max(double[] values, int from, int to) {
+        DoubleVector maxs = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        int i = from;
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector vector = DoubleVector.fromArray(DOUBLES, values, i);
+            maxs = maxs.blend(vector, vector.compare(VectorOperators.GT, maxs));
+        }
+        double max = maxs.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            if (values[i] > max) {
+                max = values[i];
+            }
+        }
+        return max;
+    }
+
+    static double sumSquaredDiff(int[] values, int from, int to, double mean) {
+        DoubleVector means = DoubleVector.broadcast(DOUBLES, mean);
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        int i = from;
+        int bound = from + INTS.loopBound(to - from);
+        for (; i < bound; i += INTS.length()) {
+            IntVector vector = IntVector.fromArray(INTS, values, i);
+            DoubleVector low = ((DoubleVector) vector.convertShape(VectorOperators.I2D, DOUBLES, 0)).sub(means);
+            DoubleVector high = ((DoubleVector) vector.convertShape(VectorOperators.I2D, DOUBLES, 1)).sub(means);
+            sums = high.fma(high, low.fma(low, sums));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            double diff = values[i] - mean;
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    static double sumSquaredDiff(long[] values, int from, int to, double mean) {
+        DoubleVector means = DoubleVector.broadcast(DOUBLES, mean);
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        int i = from;
+        int bound = from + LONGS.loopBound(to - from);
+        for (; i < bound; i += LONGS.length()) {
+            DoubleVector diff = ((DoubleVector) LongVector.fromArray(LONGS, values, i)
+                    .convertShape(VectorOperators.L2D, DOUBLES, 0)).sub(means);
+            sums = diff.fma(diff, sums);
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            double diff = values[i] - mean;
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    static double sumSquaredDiff(double[] values, int from, int to, double mean) {
+        DoubleVector means = DoubleVector.broadcast(DOUBLES, mean);
+        DoubleVector sums = DoubleVector.zero(DOUBLES);
+        int i = from;
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector diff = DoubleVector.fromArray(DOUBLES, values, i).sub(means);
+            sums = diff.fma(diff, sums);
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            double diff = values[i] - mean;
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    static void compare(double[] values, int size, Comparison comparison, double operand, long[] words) {
+        VectorOperators.Comparison operator = operator(comparison);
+        int lanes = DOUBLES.length();
+        for (int base = 0; base < size; base += 64) {
+            int end = Math.min(base + 64, size);
+            long word = 0;
+            int i = base;
+            // 64 is a multiple of the number of lanes, so that the masks of a word fill it exactly
+            for (; i + lanes <= end; i += lanes) {
+                word |= DoubleVector.fromArray(DOUBLES, values, i).compare(operator, operand).toLong() << i;
+            }
+            for (; i < end; i++) {
+                if (comparison.test(values[i], operand)) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    static void compare(double[] values, double[] operands, int size, Comparison comparison, long[] words) {
+        VectorOperators.Comparison operator = operator(comparison);
+        int lanes = DOUBLES.length();
+        for (int base = 0; base < size; base += 64) {
+            int end = Math.min(base + 64, size);
+            long word = 0;
+            int i = base;
+            for (; i + lanes <= end; i += lanes) {
+                word |= DoubleVector.fromArray(DOUBLES, values, i)
+                        .compare(operator, DoubleVector.fromArray(DOUBLES, operands, i)).toLong() << i;
+            }
+            for (; i < end; i++) {
+                if (comparison.test(values[i], operands[i])) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    static void compare(long[] values, int size, Comparison comparison, long operand, long[] words) {
+        VectorOperators.Comparison operator = operator(comparison);
+        int lanes = LONGS.length();
+        for (int base = 0; base < size; base += 64) {
+            int end = Math.min(base + 64, size);
+            long word = 0;
+            int i = base;
+            for (; i + lanes <= end; i += lanes) {
+                word |= LongVector.fromArray(LONGS, values, i).compare(operator, operand).toLong() << i;
+            }
+            for (; i < end; i++) {
+                if (comparison.test(values[i], operand)) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    static void compare(long[] values, long[] operands, int size, Comparison comparison, long[] words) {
+        VectorOperators.Comparison operator = operator(comparison);
+        int lanes = LONGS.length();
+        for (int base = 0; base < size; base += 64) {
+            int end = Math.min(base + 64, size);
+            long word = 0;
+            int i = base;
+            for (; i + lanes <= end; i += lanes) {
+                word |= LongVector.fromArray(LONGS, values, i)
+                        .compare(operator, LongVector.fromArray(LONGS, operands, i)).toLong() << i;
+            }
+            for (; i < end; i++) {
+                if (comparison.test(values[i], operands[i])) {
+                    word |= 1L << i;
+                }
+            }
+            words[base >>> 6] = word;
+        }
+    }
+
+    private static VectorOperators.Comparison operator(Comparison comparison) {
+        switch (comparison) {
+            case EQUAL:
+                return VectorOperators.EQ;
+            case NOT_EQUAL:
+                return VectorOperators.NE;
+            case LESS:
+                return VectorOperators.LT;
+            case LESS_OR_EQUAL:
+                return VectorOperators.LE;
+            case GREATER:
+                return VectorOperators.GT;
+            default:
+                return VectorOperators.GE;
+        }
+    }
+
+    private static VectorOperators.Binary operator(Arithmetic operator) {
+        switch (operator) {
+            case ADD:
+                return VectorOperators.ADD;
+            case SUBTRACT:
+                return VectorOperators.SUB;
+            case MULTIPLY:
+                return VectorOperators.MUL;
+            default:
+                return VectorOperators.DIV;
+        }
+    }
+
+    static void apply(Arithmetic operator, double[] left, double[] right, double[] result, int size) {
+        VectorOperators.Binary binary = operator(operator);
+        int i = 0;
+        int bound = DOUBLES.loopBound(size);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, left, i).lanewise(binary, DoubleVector.fromArray(DOUBLES, right, i))
+                    .intoArray(result, i);
+        }
+        for (; i < size; i++) {
+            result[i] = operator.apply(left[i], right[i]);
+        }
+    }
+
+    static void apply(Arithmetic operator, double[] left, double right, double[] result, int size) {
+        VectorOperators.Binary binary = operator(operator);
+        int i = 0;
+        int bound = DOUBLES.loopBound(size);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, left, i).lanewise(binary, right).intoArray(result, i);
+        }
+        for (; i < size; i++) {
+            result[i] = operator.apply(left[i], right);
+        }
+    }
+
+    /*
+     * Vector instructions do not divide integers, so long divisions run the scalar kernel.
+     */
+
+    static void apply(Arithmetic operator, long[] left, long[] right, long[] result, int size) {
+        if (operator == Arithmetic.DIVIDE) {
+            ScalarKernels.apply(operator, left, right, result, size);
+            return;
+        }
+        VectorOperators.Binary binary = operator(operator);
+        int i = 0;
+        int bound = LONGS.loopBound(size);
+        for (; i < bound; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, left, i).lanewise(binary, LongVector.fromArray(LONGS, right, i))
+                    .intoArray(result, i);
+        }
+        for (; i < size; i++) {
+            result[i] = operator.apply(left[i], right[i]);
+        }
+    }
+
+    static void apply(Arithmetic operator, long[] left, long right, long[] result, int size) {
+        if (operator == Arithmetic.DIVIDE) {
+            ScalarKernels.apply(operator, left, right, result, size);
+            return;
+        }
+        VectorOperators.Binary binary = operator(operator);
+        int i = 0;
+        int bound = LONGS.loopBound(size);
+        for (; i < bound; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, left, i).lanewise(binary, right).intoArray(result, i);
+        }
+        for (; i < size; i++) {
+            result[i] = operator.apply(left[i], right);
+        }
+    }
+}
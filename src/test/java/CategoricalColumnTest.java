@@ -0,0 +1,96 @@
+import com.github.hugorouillard.dataframe.CategoricalColumn;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.CsvOptions;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.ParallelCsvReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CategoricalColumnTest {
+    private static final String[] ROLES = {"Top", "Jungle", "Mid", "Bot", "Support"};
+
+    private Path tempFile;
+
+    @Before
+    public void setUp() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("Name,Role");
+        for (int i = 0; i < 100; i++) {
+            lines.add("champion" + i + "," + (i % 7 == 6 ? "" : ROLES[i % 5]));
+        }
+        tempFile = Files.createTempFile("categorical", ".csv");
+        Files.write(tempFile, lines);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testLowCardinalityColumnsAreEncoded() throws IOException {
+        Dataframe df = new Dataframe(tempFile.toString(), ',');
+        assertEquals(ColumnType.STRING, df.getDataTab()[0].getType());
+        assertEquals(ColumnType.CATEGORICAL, df.getDataTab()[1].getType());
+
+        CategoricalColumn roles = (CategoricalColumn) df.getDataTab()[1].getColumn();
+        assertEquals(List.of(ROLES), roles.getCategories());
+        assertEquals("Mid", roles.get(2));
+        assertEquals(2, roles.getCode(2));
+        assertNull(roles.get(6));
+        assertEquals(-1, roles.getCode(6));
+        assertEquals(86, roles.count());
+    }
+
+    @Test
+    public void testEqualityFilterMatchesCodes() throws IOException {
+        Dataframe df = new Dataframe(tempFile.toString(), ',');
+        Dataframe mids = df.filterRowsEqual("Role", "Mid");
+        Dataframe expected = df.filterRows("Role", v -> "Mid".equals(v));
+        assertEquals(expected.getDataTab()[0].getData(), mids.getDataTab()[0].getData());
+        assertEquals(ColumnType.CATEGORICAL, mids.getDataTab()[1].getType());
+        assertEquals(17, mids.getDataTab()[1].size());
+
+        assertEquals(14, df.filterRowsEqual("Role", null).getDataTab()[0].size());
+        assertEquals(0, df.filterRowsEqual("Role", "Coach").getDataTab()[0].size());
+        assertEquals(1, df.filterRowsEqual("Name", "champion3").getDataTab()[0].size());
+    }
+
+    @Test
+    public void testParallelReaderMergesCategories() throws IOException {
+        Dataframe expected = new Dataframe(tempFile.toString(), ',');
+        Dataframe actual = ParallelCsvReader.read(tempFile.toString(), ',');
+        assertEquals(ColumnType.CATEGORICAL, actual.getDataTab()[1].getType());
+        assertEquals(expected.getDataTab()[1].getData(), actual.getDataTab()[1].getData());
+    }
+
+    @Test
+    public void testGivenTypeControlsEncoding() throws IOException {
+        Dataframe plain = new Dataframe(tempFile.toString(), ',', new CsvOptions().columnType("Role", ColumnType.STRING));
+        assertEquals(ColumnType.STRING, plain.getDataTab()[1].getType());
+
+        Dataframe encoded = new Dataframe(tempFile.toString(), ',', new CsvOptions().columnType("Name", ColumnType.CATEGORICAL));
+        assertEquals(ColumnType.CATEGORICAL, encoded.getDataTab()[0].getType());
+        assertEquals(100, ((CategoricalColumn) encoded.getDataTab()[0].getColumn()).categoryCount());
+    }
+
+    @Test
+    public void testEncodeAndDecode() {
+        CategoricalColumn column = CategoricalColumn.encode(new String[]{"b", null, "a", "b"});
+        assertEquals(List.of("b", "a"), column.getCategories());
+        assertEquals(0, column.codeOf("b"));
+        assertEquals(-1, column.codeOf("c"));
+        assertEquals(List.of("b", "b"), column.select(new int[]{0, 3}).asList());
+        assertEquals(ColumnType.STRING, column.decode().getType());
+        assertEquals(column.asList(), column.decode().asList());
+    }
+}
@@ -0,0 +1,116 @@
+import com.github.hugorouillard.dataframe.ColumnStats;
+import com.github.hugorouillard.dataframe.Bitmap;
+import com.github.hugorouillard.dataframe.DoubleColumn;
+import com.github.hugorouillard.dataframe.LongColumn;
+import com.github.hugorouillard.dataframe.Series;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class ColumnStatsTest {
+
+    @Test
+    public void testSinglePass() {
+        List<Integer> data = new ArrayList<>(Arrays.asList(2, 4, 4, 4, null, 5, 5, 7, 9));
+        ColumnStats stats = new Series<>(data, "Values").stats();
+        assertEquals(8, stats.getCount());
+        assertEquals(40.0, stats.getSum(), 0.0);
+        assertEquals(5.0, stats.getMean(), 1e-12);
+        assertEquals(4.0, stats.getVariance(), 1e-12);
+        assertEquals(2.0, stats.getStd(), 1e-12);
+        assertEquals(2.0, stats.getMin(), 0.0);
+        assertEquals(9.0, stats.getMax(), 0.0);
+    }
+
+    @Test
+    public void testMergeMatchesSinglePass() {
+        Random random = new Random(42);
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * 10 + 3;
+        }
+        ColumnStats whole = new DoubleColumn(values).stats();
+
+        ColumnStats merged = new ColumnStats();
+        for (int from = 0; from < values.length; from += 137) {
+            ColumnStats chunk = new DoubleColumn(Arrays.copyOfRange(values, from, Math.min(from + 137, values.length))).stats();
+            merged.merge(chunk);
+        }
+        assertEquals(whole.getCount(), merged.getCount());
+        assertEquals(whole.getMean(), merged.getMean(), 1e-12);
+        assertEquals(whole.getVariance(), merged.getVariance(), 1e-9);
+        assertEquals(whole.getMin(), merged.getMin(), 0.0);
+        assertEquals(whole.getMax(), merged.getMax(), 0.0);
+        assertEquals(whole.getMean(), new ColumnStats().merge(whole).getMean(), 0.0);
+    }
+
+    @Test
+    public void testExactLongExtremes() {
+        // 2^53 + 1 is not a double, the double extremes round it
+        long big = 9007199254740993L;
+        long[] values = {3, big, -big, 1};
+        Bitmap validity = Bitmap.allSet(values.length);
+        validity.clear(3);
+        for (ColumnStats stats : Arrays.asList(new LongColumn(values).stats(), new LongColumn(values, validity).stats(),
+                new LongColumn(values).stats(0, 2).merge(new LongColumn(values).stats(2, 4)))) {
+            assertTrue(stats.hasLongExtremes());
+            assertEquals(-big, stats.getLongMin());
+            assertEquals(big, stats.getLongMax());
+        }
+
+        ColumnStats mixed = new LongColumn(values).stats();
+        mixed.add(0.5);
+        assertFalse(mixed.hasLongExtremes());
+        assertFalse(new DoubleColumn(new double[]{1, 2}).stats().hasLongExtremes());
+        assertFalse(new ColumnStats().hasLongExtremes());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoLongExtremesOfDoubles() {
+        new DoubleColumn(new double[]{1, 2}).stats().getLongMin();
+    }
+
+    @Test
+    public void testStableWithLargeOffset() {
+        ColumnStats stats = new ColumnStats();
+        for (double value : new double[]{1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16}) {
+            stats.add(value);
+        }
+        assertEquals(22.5, stats.getVariance(), 1e-6);
+    }
+
+    @Test
+    public void testEmpty() {
+        ColumnStats stats = new ColumnStats();
+        assertEquals(0, stats.getCount());
+        assertTrue(Double.isNaN(stats.getMean()));
+        assertTrue(Double.isNaN(stats.getStd()));
+        assertTrue(Double.isNaN(stats.getMin()));
+    }
+
+    @Test
+    public void testMedianBySelection() {
+        Random random = new Random(7);
+        for (int size = 1; size < 200; size += 13) {
+            List<Double> data = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                data.add(random.nextInt(20) * 1.5);
+            }
+            data.add(null);
+            double[] sorted = data.stream().filter(v -> v != null).mapToDouble(Double::doubleValue).sorted().toArray();
+            double expected = size % 2 == 1 ? sorted[size / 2] : (sorted[size / 2 - 1] + sorted[size / 2]) / 2.0;
+            assertEquals(expected, new Series<>(data, "Values").median(), 0.0);
+        }
+    }
+
+    @Test
+    public void testMedianWithNaN() {
+        Series<Double> series = new Series<>(Arrays.asList(Double.NaN, 3.0, 1.0), "Values");
+        assertEquals(3.0, series.median(), 0.0);
+    }
+}
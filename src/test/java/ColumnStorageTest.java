@@ -0,0 +1,75 @@
+import com.github.hugorouillard.dataframe.Column;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.DoubleColumn;
+import com.github.hugorouillard.dataframe.Series;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ColumnStorageTest {
+
+    @Test
+    public void testPrimitiveArraysKeepTheirType() {
+        Dataframe df = new Dataframe(new String[]{},
+                new int[]{1, 2},
+                new long[]{3L, 4L},
+                new double[]{1.5, 2.5},
+                new float[]{1.5F, 2.5F},
+                new boolean[]{true, false},
+                new String[]{"a", "b"});
+
+        assertEquals(ColumnType.INT, df.getDataTab()[0].getType());
+        assertEquals(ColumnType.LONG, df.getDataTab()[1].getType());
+        assertEquals(ColumnType.DOUBLE, df.getDataTab()[2].getType());
+        assertEquals(ColumnType.DOUBLE, df.getDataTab()[3].getType());
+        assertEquals(ColumnType.BOOLEAN, df.getDataTab()[4].getType());
+        assertEquals(ColumnType.STRING, df.getDataTab()[5].getType());
+    }
+
+    @Test
+    public void testBoxedListsAreUnboxed() {
+        List<Integer> data = Arrays.asList(1, 2, 3);
+        Series<Integer> series = new Series<>(data, "Ints");
+        assertEquals(ColumnType.INT, series.getType());
+        assertEquals(2, series.getInt(1));
+        assertEquals(2L, series.getLong(1));
+        assertEquals(2.0, series.getDouble(1), 0.0001);
+        assertEquals(Integer.valueOf(2), series.getData().get(1));
+    }
+
+    @Test
+    public void testMixedListsStayObjects() {
+        List<Object> data = Arrays.asList(1, 2L, 3.5);
+        Series<Object> series = new Series<>(data, "Mixed");
+        assertEquals(ColumnType.OBJECT, series.getType());
+        assertEquals(6.5, series.mean() * 3, 0.0001);
+    }
+
+    @Test
+    public void testUnboxedAccessors() {
+        Series<Double> series = new Series<>(new DoubleColumn(new double[]{4.0, 1.0, 7.0}), "D");
+        assertEquals(7.0, series.getDouble(2), 0.0001);
+        assertEquals(4.0, series.mean(), 0.0001);
+        assertEquals(Double.valueOf(1.0), series.min());
+        assertEquals(Double.valueOf(7.0), series.max());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testWrongUnboxedAccessor() {
+        Column<?> column = Column.of(new String[]{"a"});
+        column.getDouble(0);
+    }
+
+    @Test
+    public void testSelectKeepsPrimitiveStorage() {
+        Dataframe df = new Dataframe(new String[]{"A"}, new int[]{10, 20, 30});
+        Dataframe result = df.selectRows(2, 0);
+        assertEquals(ColumnType.INT, result.getDataTab()[0].getType());
+        assertEquals(30, result.getDataTab()[0].getInt(0));
+        assertEquals(10, result.getDataTab()[0].getInt(1));
+    }
+}
@@ -0,0 +1,105 @@
+import com.github.hugorouillard.dataframe.Bitmap;
+import com.github.hugorouillard.dataframe.Column;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.DoubleColumn;
+import com.github.hugorouillard.dataframe.IntColumn;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ColumnViewTest {
+
+    private static IntColumn column(int size) {
+        int[] values = new int[size];
+        Bitmap validity = Bitmap.allSet(size);
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+            if (i % 3 == 0) {
+                validity.clear(i);
+            }
+        }
+        return new IntColumn(values, validity);
+    }
+
+    @Test
+    public void testSliceReadsParentValues() {
+        IntColumn column = column(200);
+        Column<Integer> slice = column.slice(70, 100);
+        assertEquals(100, slice.size());
+        assertEquals(ColumnType.INT, slice.getType());
+        assertEquals(Integer.valueOf(71), slice.get(1));
+        assertNull(slice.get(2));
+        assertEquals(column.select(range(70, 170)).asList(), slice.asList());
+        assertEquals(column.select(range(70, 170)).sum(), slice.sum(), 0.0);
+        assertEquals(67, slice.count());
+        assertEquals(column.select(range(70, 170)).asList(), slice.materialize().asList());
+        assertSame(slice.materialize(), slice.materialize());
+
+        Column<Integer> nested = slice.slice(10, 5);
+        assertEquals(Arrays.asList(80, null, 82, 83, null), nested.asList());
+        assertEquals(2, nested.nullCount());
+    }
+
+    @Test
+    public void testViewMaterializesForAggregates() {
+        DoubleColumn column = new DoubleColumn(new double[]{5.0, 1.0, 4.0, 2.0, 3.0});
+        int[] indices = {4, 0, 2};
+        Column<Double> view = column.view(indices);
+        assertEquals(Arrays.asList(3.0, 5.0, 4.0), view.asList());
+        assertEquals(12.0, view.sum(), 0.0);
+        assertEquals(0, view.argMin());
+        assertEquals(1, view.argMax());
+        assertSame(view.materialize(), view.materialize());
+
+        Column<Double> nested = view.view(new int[]{2, 0});
+        assertEquals(Arrays.asList(4.0, 3.0), nested.asList());
+        assertEquals(Arrays.asList(5.0, 4.0), view.slice(1, 2).asList());
+        assertEquals(Arrays.asList(4.0, 2.0), column.slice(2, 3).view(new int[]{0, 1}).asList());
+    }
+
+    @Test
+    public void testBitmapSlice() {
+        Random random = new Random(7);
+        Bitmap bitmap = new Bitmap(300);
+        for (int i = 0; i < 300; i++) {
+            if (random.nextBoolean()) {
+                bitmap.set(i);
+            }
+        }
+        for (int from : new int[]{0, 1, 63, 64, 65, 130}) {
+            for (int length : new int[]{0, 1, 64, 100, 300 - from}) {
+                Bitmap slice = bitmap.slice(from, length);
+                assertEquals(bitmap.select(range(from, from + length)), slice);
+            }
+        }
+    }
+
+    @Test
+    public void testSelectionsShareStorage() {
+        Dataframe df = new Dataframe(new String[]{"A", "B"}, new int[]{1, 2, 3, 4}, new String[]{"w", "x", "y", "z"});
+        Dataframe columns = df.selectColumns("B");
+        assertSame(df.getDataTab()[1].getColumn(), columns.getDataTab()[0].getColumn());
+
+        int[] indices = {3, 1};
+        Dataframe rows = df.selectRows(indices);
+        indices[0] = 0;
+        assertEquals(List.of(4, 2), rows.getDataTab()[0].getData());
+
+        Dataframe chained = df.selectRowsRange(1, 4).selectColumns("A").filterRows("A", v -> (Integer) v % 2 == 0);
+        assertEquals(List.of(2, 4), chained.getDataTab()[0].getData());
+        assertEquals(3.0, chained.getDataTab()[0].mean(), 0.0);
+    }
+
+    private static int[] range(int from, int to) {
+        int[] indices = new int[to - from];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = from + i;
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,241 @@
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.CsvOptions;
+import com.github.hugorouillard.dataframe.CsvReader;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.ParallelCsvReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CsvReaderTest {
+    private Path tempFile;
+
+    @Before
+    public void setUp() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("Id;Name;Score");
+        for (int i = 0; i < 25; i++) {
+            lines.add(i + ";name" + i + ";" + (i * 0.5));
+            if (i == 10) {
+                lines.add("");
+            }
+        }
+        tempFile = Files.createTempFile("stream", ".csv");
+        Files.write(tempFile, lines);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testBatchesHaveBoundedSize() throws IOException {
+        List<Integer> sizes = new ArrayList<>();
+        int expectedId = 0;
+        try (CsvReader reader = new CsvReader(tempFile.toString(), ';', 10)) {
+            while (reader.hasNext()) {
+                Dataframe batch = reader.next();
+                sizes.add(batch.getDataTab()[0].size());
+                for (int i = 0; i < batch.getDataTab()[0].size(); i++) {
+                    assertEquals(expectedId++, batch.getDataTab()[0].getInt(i));
+                }
+            }
+        }
+        assertEquals(List.of(10, 10, 5), sizes);
+    }
+
+    @Test
+    public void testSchemaInferredOnceFromSample() throws IOException {
+        try (CsvReader reader = new CsvReader(tempFile.toString(), ';', 4, 3)) {
+            assertArrayEquals(new String[]{"Id", "Name", "Score"}, reader.getLabels());
+            assertArrayEquals(new ColumnType[]{ColumnType.INT, ColumnType.STRING, ColumnType.DOUBLE}, reader.getSchema());
+            int batches = 0;
+            while (reader.hasNext()) {
+                Dataframe batch = reader.next();
+                assertEquals(ColumnType.DOUBLE, batch.getDataTab()[2].getType());
+                batches++;
+            }
+            assertEquals(7, batches);
+        }
+    }
+
+    @Test
+    public void testCellsNotMatchingSchemaAreMissing() throws IOException {
+        Files.write(tempFile, List.of("A,B", "1,x", "2,y", "oops,z"));
+        try (CsvReader reader = new CsvReader(tempFile.toString(), ',', 10, 2)) {
+            Dataframe batch = reader.next();
+            assertEquals(ColumnType.INT, batch.getDataTab()[0].getType());
+            assertTrue(batch.getDataTab()[0].isNull(2));
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testReadAllAfterBatch() throws IOException {
+        try (CsvReader reader = new CsvReader(tempFile.toString(), ';', 20)) {
+            reader.next();
+            Dataframe rest = reader.readAll();
+            assertEquals(5, rest.getDataTab()[0].size());
+            assertEquals(20, rest.getDataTab()[0].getInt(0));
+            assertEquals(0, reader.readAll().getDataTab()[0].size());
+        }
+    }
+
+    @Test
+    public void testHeaderOnly() throws IOException {
+        Files.write(tempFile, List.of("A,B"));
+        Dataframe df = new Dataframe(tempFile.toString(), ',');
+        assertEquals(2, df.getDataTab().length);
+        assertEquals(0, df.getDataTab()[0].size());
+    }
+
+    @Test
+    public void testQuotedFieldsSpanningLines() throws IOException {
+        Files.write(tempFile, List.of(
+                "Name,Comment,Value",
+                "a,\"first line",
+                "second line\",\"1\"",
+                "b,\"say \"\"hi\"\", twice\",2",
+                "c,plain,3"
+        ));
+        Dataframe df = new Dataframe(tempFile.toString(), ',');
+        assertEquals(3, df.getDataTab()[0].size());
+        assertEquals("first line\nsecond line", df.getDataTab()[1].get(0));
+        assertEquals("say \"hi\", twice", df.getDataTab()[1].get(1));
+        assertEquals(ColumnType.INT, df.getDataTab()[2].getType());
+        assertEquals(1, df.getDataTab()[2].getInt(0));
+        assertEquals(3, df.getDataTab()[2].getInt(2));
+    }
+
+    @Test
+    public void testNumbersParsedExactly() throws IOException {
+        java.util.Random random = new java.util.Random(42);
+        List<String> lines = new ArrayList<>();
+        List<Double> doubles = new ArrayList<>();
+        List<Long> longs = new ArrayList<>();
+        lines.add("D,L");
+        for (int i = 0; i < 100000; i++) {
+            double d = i % 3 == 0 ? random.nextGaussian() * 1e6 : Math.round(random.nextDouble() * 10000) / 100.0;
+            long l = random.nextLong();
+            doubles.add(d);
+            longs.add(l);
+            lines.add(d + "," + l + "\r");
+        }
+        Files.write(tempFile, lines);
+        Dataframe df = new Dataframe(tempFile.toString(), ',');
+        assertEquals(ColumnType.DOUBLE, df.getDataTab()[0].getType());
+        assertEquals(ColumnType.LONG, df.getDataTab()[1].getType());
+        for (int i = 0; i < doubles.size(); i++) {
+            assertEquals(Double.doubleToLongBits(doubles.get(i)), Double.doubleToLongBits(df.getDataTab()[0].getDouble(i)));
+            assertEquals((long) longs.get(i), df.getDataTab()[1].getLong(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyFile() throws IOException {
+        Files.write(tempFile, List.of());
+        new CsvReader(tempFile.toString(), ',', 10).close();
+    }
+
+    @Test
+    public void testTypesPromotedAfterInferenceRows() throws IOException {
+        Files.write(tempFile, List.of("A,B,C", "1,true,7", "2,false,8", "3000000000,x,9.5", ",true,10"));
+        Dataframe df = new Dataframe(tempFile.toString(), ',', 2);
+        assertEquals(ColumnType.LONG, df.getDataTab()[0].getType());
+        assertEquals(3000000000L, df.getDataTab()[0].getLong(2));
+        assertTrue(df.getDataTab()[0].isNull(3));
+        assertEquals(ColumnType.STRING, df.getDataTab()[1].getType());
+        assertEquals(List.of("true", "false", "x", "true"), df.getDataTab()[1].getData());
+        assertEquals(ColumnType.DOUBLE, df.getDataTab()[2].getType());
+        assertEquals(9.5, df.getDataTab()[2].getDouble(2), 0.0);
+        assertEquals(10.0, df.getDataTab()[2].getDouble(3), 0.0);
+
+        try (CsvReader reader = new CsvReader(tempFile.toString(), ',', 10, 2)) {
+            Dataframe batch = reader.next();
+            assertEquals(ColumnType.INT, batch.getDataTab()[0].getType());
+            assertTrue(batch.getDataTab()[0].isNull(2));
+        }
+    }
+
+    @Test
+    public void testOptionsSelectColumnsAndRows() throws IOException {
+        CsvOptions options = new CsvOptions()
+                .useColumns("Score", "Id")
+                .columnType("Id", ColumnType.LONG)
+                .skipRows(5)
+                .maxRows(12);
+        Dataframe df = new Dataframe(tempFile.toString(), ';', options);
+        assertEquals(2, df.getDataTab().length);
+        assertEquals("Id", df.getDataTab()[0].getName());
+        assertEquals(ColumnType.LONG, df.getDataTab()[0].getType());
+        assertEquals("Score", df.getDataTab()[1].getName());
+        assertEquals(ColumnType.DOUBLE, df.getDataTab()[1].getType());
+        assertEquals(12, df.getDataTab()[0].size());
+        assertEquals(5L, df.getDataTab()[0].getLong(0));
+        assertEquals(16L, df.getDataTab()[0].getLong(11));
+        assertEquals(8.0, df.getDataTab()[1].getDouble(11), 0.0);
+
+        try (CsvReader reader = new CsvReader(tempFile.toString(), ';', 5, options)) {
+            int rows = 0;
+            while (reader.hasNext()) {
+                rows += reader.next().getDataTab()[0].size();
+            }
+            assertEquals(12, rows);
+        }
+    }
+
+    @Test
+    public void testGivenTypesAreNotPromoted() throws IOException {
+        Files.write(tempFile, List.of("A,B", "1,2", "x,y"));
+        Dataframe df = new Dataframe(tempFile.toString(), ',', new CsvOptions().columnType("A", ColumnType.INT));
+        assertEquals(ColumnType.INT, df.getDataTab()[0].getType());
+        assertTrue(df.getDataTab()[0].isNull(1));
+        assertEquals(ColumnType.STRING, df.getDataTab()[1].getType());
+        assertEquals(List.of("2", "y"), df.getDataTab()[1].getData());
+    }
+
+    @Test
+    public void testEarlyMissingValuesInLargeFile() throws IOException {
+        // the missing values are tracked from the first one, well before the builders grow to the file size
+        int rows = 100_000;
+        List<String> lines = new ArrayList<>();
+        lines.add("x,y,z");
+        for (int i = 0; i < rows; i++) {
+            String x = i == 10 || i == 70_000 ? "" : String.valueOf(i);
+            String z = i == 0 ? "" : i == 90_000 ? "text" : String.valueOf(i);
+            lines.add(x + "," + i + "," + z);
+        }
+        Files.write(tempFile, lines);
+
+        List<Dataframe> frames = List.of(
+                new Dataframe(tempFile.toString(), ','),
+                new Dataframe(tempFile.toString(), ',', new CsvOptions().columnType("x", ColumnType.INT)),
+                ParallelCsvReader.read(tempFile.toString(), ','));
+        for (Dataframe df : frames) {
+            assertEquals(ColumnType.INT, df.getDataTab()[0].getType());
+            assertEquals(rows, df.getDataTab()[0].size());
+            assertEquals(rows - 2, df.getDataTab()[0].count());
+            assertTrue(df.getDataTab()[0].isNull(10));
+            assertTrue(df.getDataTab()[0].isNull(70_000));
+            assertEquals(99_999, df.getDataTab()[0].getInt(rows - 1));
+            // the promotion of z to STRING copies the missing values
+            assertEquals(rows - 1, df.getDataTab()[2].count());
+            assertTrue(df.getDataTab()[2].isNull(0));
+            assertEquals("99999", df.getDataTab()[2].get(rows - 1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownColumn() throws IOException {
+        new Dataframe(tempFile.toString(), ';', new CsvOptions().useColumns("Id", "Missing"));
+    }
+}
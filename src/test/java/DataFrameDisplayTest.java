@@ -1,10 +1,13 @@
 import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.DisplayOptions;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.StringWriter;
 
 import static org.junit.Assert.*;
 
@@ -99,4 +102,69 @@ public class DataFrameDisplayTest {
         assertTrue(output.contains("1.4")); // std
         assertTrue(output.contains("1")); // min
     }
+
+    @Test
+    public void testDescribeKeepsExactLongs() {
+        // 2^53 + 1 is not a double, its statistics round it to 2^53
+        Dataframe longs = new Dataframe(new String[]{"L"}, new long[]{9007199254740993L, 1L});
+        longs.describe();
+        longs.getDataTab()[0].describe();
+        String output = outContent.toString();
+        assertTrue(output, output.contains("9007199254740993"));
+        assertFalse(output, output.contains("9007199254740992"));
+    }
+
+    @Test
+    public void testDisplayLastLinesKeepsRowIndices() {
+        df.displayLastLines(2);
+        String[] lines = outContent.toString().split("\\R");
+        assertEquals(6, lines.length);
+        // the captured output uses the platform charset, which may not encode the borders
+        assertTrue(lines[3], lines[3].matches(".   3 . 4 .*"));
+        assertTrue(lines[4], lines[4].matches(".   4 . 5 .*"));
+    }
+
+    @Test
+    public void testRenderTruncatesRowsAndColumns() throws IOException {
+        int rows = 100_000;
+        String[] labels = new String[30];
+        Object[] columns = new Object[30];
+        for (int c = 0; c < columns.length; c++) {
+            int[] values = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = i % 1000 == 500 ? 123_456_789 : c;
+            }
+            labels[c] = "C" + c;
+            columns[c] = values;
+        }
+        Dataframe big = new Dataframe(labels, columns);
+
+        StringWriter writer = new StringWriter();
+        big.render(writer, new DisplayOptions().rows(2, 1).columns(2, 1));
+        String[] lines = writer.toString().split("\\R");
+        assertEquals(9, lines.length);
+        assertEquals("        ║ C0    ║ C1    ║ ...   ║ C29   ║", lines[1]);
+        assertEquals("║     0 ║ 0     ║ 1     ║ ...   ║ 29    ║", lines[3]);
+        // widths only depend on the shown rows, not on the hidden wider values
+        assertEquals("║   ... ║ ...   ║ ...   ║ ...   ║ ...   ║", lines[5]);
+        assertEquals("║ 99999 ║ 0     ║ 1     ║ ...   ║ 29    ║", lines[6]);
+        assertEquals("[100000 rows x 30 columns]", lines[8]);
+
+        // the default limits apply to toString
+        assertEquals(2 * DisplayOptions.DEFAULT_ROWS + 1 + 5, big.toString().split("\\R").length);
+    }
+
+    @Test
+    public void testMaxCellWidth() {
+        Dataframe words = new Dataframe(new String[]{"Description"}, (Object) new String[]{"short", "a rather long sentence"});
+        String output = words.toString(new DisplayOptions().maxCellWidth(8));
+        assertTrue(output, output.contains("║ Descr...   ║"));
+        assertTrue(output, output.contains("║ a rat...   ║"));
+        assertTrue(output, output.contains("║ short      ║"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDisplayOptions() {
+        new DisplayOptions().rows(-1, 5);
+    }
 }
@@ -0,0 +1,161 @@
+import com.github.hugorouillard.dataframe.Bitmap;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.LazyDataframe;
+import com.github.hugorouillard.dataframe.Parallelism;
+import com.github.hugorouillard.dataframe.Series;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.github.hugorouillard.dataframe.Expression.col;
+import static com.github.hugorouillard.dataframe.Expression.lit;
+import static org.junit.Assert.*;
+
+public class ExpressionTest {
+    private static final int ROWS = 5000;
+
+    private Dataframe df;
+    private int[] picks;
+    private double[] wins;
+    private double[] bans;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(3);
+        picks = new int[ROWS];
+        wins = new double[ROWS];
+        bans = new double[ROWS];
+        long[] games = new long[ROWS];
+        boolean[] flags = new boolean[ROWS];
+        String[] roles = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            picks[i] = random.nextInt(100);
+            wins[i] = 45 + random.nextDouble() * 10;
+            bans[i] = random.nextDouble() * 20;
+            games[i] = 1_000_000_000_000L + i;
+            flags[i] = i % 3 == 0;
+            roles[i] = new String[]{"MID", "TOP", "ADC"}[i % 3];
+        }
+        df = new Dataframe(new String[]{"Pick", "Win %", "Ban %", "Games", "Flag", "Role"},
+                picks, wins, bans, games, flags, roles);
+    }
+
+    @Test
+    public void testConditionOverSeveralColumns() {
+        Bitmap mask = df.mask(col("Win %").gt(52).and(col("Ban %").gt(10)));
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(wins[i] > 52 && bans[i] > 10, mask.get(i));
+        }
+        Dataframe filtered = df.filter(col("Win %").gt(52).and(col("Ban %").gt(10)));
+        assertEquals(mask.cardinality(), filtered.getDataTab()[0].size());
+    }
+
+    @Test
+    public void testArithmeticInsideConditions() {
+        Bitmap mask = df.mask(col("Win %").sub(50).mul(col("Pick")).ge(lit(100)).or(col("Pick").lt(3)).not());
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(!((wins[i] - 50) * picks[i] >= 100 || picks[i] < 3), mask.get(i));
+        }
+        // bits past the last row stay cleared after a negation
+        assertEquals(mask.cardinality(), mask.toIndices().length);
+    }
+
+    @Test
+    public void testIntegralComparisonsAreExact() {
+        Bitmap mask = df.mask(col("Games").add(col("Pick")).ge(1_000_000_000_000L + 4990));
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(1_000_000_000_000L + i + picks[i] >= 1_000_000_000_000L + 4990, mask.get(i));
+        }
+    }
+
+    @Test
+    public void testBooleanAndStringConditions() {
+        Bitmap mask = df.mask(col("Flag").and(col("Role").eq("MID")).or(col("Role").ne("MID").and(col("Pick").eq(7))));
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(i % 3 == 0 || picks[i] == 7, mask.get(i));
+        }
+    }
+
+    @Test
+    public void testWithColumnTypes() {
+        Dataframe derived = df.withColumn("Score", col("Pick").mul(2).add(col("Pick")))
+                .withColumn("Ratio", col("Win %").div(col("Ban %")))
+                .withColumn("Half", col("Pick").div(2))
+                .withColumn("Strong", col("Win %").gt(52));
+        Series<?>[] data = derived.getDataTab();
+        assertEquals(ColumnType.LONG, data[6].getType());
+        assertEquals(ColumnType.DOUBLE, data[7].getType());
+        assertEquals(ColumnType.DOUBLE, data[8].getType());
+        assertEquals(ColumnType.BOOLEAN, data[9].getType());
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(3L * picks[i], data[6].getLong(i));
+            assertEquals(wins[i] / bans[i], data[7].getDouble(i), 0.0);
+            assertEquals(picks[i] / 2.0, data[8].getDouble(i), 0.0);
+            assertEquals(wins[i] > 52, data[9].getBoolean(i));
+        }
+    }
+
+    @Test
+    public void testMissingValues() {
+        Dataframe frame = new Dataframe(new String[]{"A", "B"},
+                new Integer[]{1, null, 5, 7, null}, new Double[]{1.0, 2.0, null, 4.0, 5.0});
+
+        assertArrayEquals(new int[]{3}, frame.mask(col("A").gt(2).and(col("B").gt(2))).toIndices());
+        assertArrayEquals(new int[]{0, 2, 3}, frame.mask(col("A").ge(0)).toIndices());
+        assertArrayEquals(new int[]{1, 4}, frame.mask(col("A").ge(0).not()).toIndices());
+        assertEquals(Arrays.asList(2.0, null, null, 11.0, null), frame.withColumn("C", col("A").add(col("B"))).getDataTab()[2].getData());
+    }
+
+    @Test
+    public void testParallelEvaluationMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Dataframe parallel = df.withParallelism(Parallelism.of(pool).morselRows(200));
+            assertEquals(df.mask(col("Win %").gt(col("Ban %").add(40))),
+                    parallel.mask(col("Win %").gt(col("Ban %").add(40))));
+            assertEquals(df.withColumn("S", col("Pick").mul(col("Win %"))).getDataTab()[6].getData(),
+                    parallel.withColumn("S", col("Pick").mul(col("Win %"))).getDataTab()[6].getData());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testTypeChecking() {
+        assertTypeError(() -> df.mask(col("Role").gt(1)));
+        assertTypeError(() -> df.mask(col("Win %").add(1)));
+        assertTypeError(() -> df.mask(col("Win %").gt(1).and(col("Pick"))));
+        assertTypeError(() -> df.mask(col("Flag").add(1).gt(0)));
+        assertTypeError(() -> df.mask(col("Pick").eq("MID")));
+        assertTypeError(() -> df.mask(col("Missing").gt(0)));
+        assertTypeError(() -> col("Pick").add(1).eq("MID"));
+    }
+
+    private static void assertTypeError(Runnable evaluation) {
+        try {
+            evaluation.run();
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testLazyFilter() throws IOException {
+        LazyDataframe lazy = df.lazy()
+                .filter(col("Win %").gt(52).and(col("Ban %").gt(10)))
+                .filterEqual("Role", "MID")
+                .select("Pick");
+        String[] steps = lazy.explain().split("\n");
+        assertTrue(steps[0], steps[0].endsWith("columns=[Pick, Win %, Ban %, Role]"));
+        assertEquals("Filter ((Win % > 52) and (Ban % > 10)) and Role = MID", steps[1]);
+
+        Dataframe eager = df.filter(col("Win %").gt(52).and(col("Ban %").gt(10)).and(col("Role").eq("MID")));
+        assertEquals(eager.getDataTab()[0].getData(), lazy.collect().getDataTab()[0].getData());
+    }
+}
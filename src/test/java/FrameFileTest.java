@@ -0,0 +1,120 @@
+import com.github.hugorouillard.dataframe.Aggregation;
+import com.github.hugorouillard.dataframe.ColumnStats;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.CsvOptions;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.Series;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FrameFileTest {
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("frame", ".jdf");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private Dataframe roundTrip(Dataframe frame) throws IOException {
+        frame.save(file.toString());
+        return Dataframe.open(file.toString());
+    }
+
+    private static void assertSameFrame(Dataframe expected, Dataframe actual) {
+        assertArrayEquals(expected.getLabels(), actual.getLabels());
+        for (int col = 0; col < expected.getDataTab().length; col++) {
+            assertEquals(expected.getDataTab()[col].getType(), actual.getDataTab()[col].getType());
+            assertEquals(expected.getDataTab()[col].getData(), actual.getDataTab()[col].getData());
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Dataframe frame = new Dataframe(new String[]{"Int", "Long", "Double", "Flag", "Name"},
+                new Integer[]{1, null, -3, 4}, new long[]{Long.MIN_VALUE, 0, 7, Long.MAX_VALUE},
+                new Double[]{0.5, Double.NaN, null, -2.25}, new Boolean[]{true, null, false, true},
+                new String[]{"Ahri", null, "Garen", "Ahri"});
+        Dataframe opened = roundTrip(frame);
+        assertSameFrame(frame, opened);
+        assertEquals(1, opened.getDataTab()[0].nullCount());
+        assertEquals(ColumnType.STRING, opened.getDataTab()[4].getType());
+        assertEquals(Long.MAX_VALUE, opened.getDataTab()[1].stats().getLongMax());
+        assertEquals(-3L, opened.getDataTab()[0].stats().getLongMin());
+    }
+
+    @Test
+    public void testCategoricalAndViews() throws IOException {
+        Path csv = Files.createTempFile("frame", ".csv");
+        Dataframe frame;
+        try {
+            Files.write(csv, Arrays.asList("Role,Win", "Mid,50.5", "Top,", "Mid,49.0", "Support,51.0"));
+            frame = new Dataframe(csv.toString(), ',', new CsvOptions().columnType("Role", ColumnType.CATEGORICAL));
+        } finally {
+            Files.delete(csv);
+        }
+        Dataframe sorted = frame.sortBy("Win");
+        Dataframe opened = roundTrip(sorted);
+        assertSameFrame(sorted, opened);
+        assertEquals(ColumnType.CATEGORICAL, opened.getDataTab()[0].getType());
+        assertEquals(Arrays.asList("Mid", "Mid", "Support", "Top"), opened.getDataTab()[0].getData());
+    }
+
+    @Test
+    public void testMappedColumns() throws IOException {
+        int rows = 10_000;
+        double[] values = new double[rows];
+        int[] keys = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = i * 0.25 - 100;
+            keys[i] = i % 7;
+        }
+        Dataframe frame = new Dataframe(new String[]{"Value", "Key"}, values, keys);
+        Dataframe opened = roundTrip(frame);
+
+        Series<?> value = opened.getDataTab()[0];
+        ColumnStats stats = value.stats();
+        ColumnStats expected = frame.getDataTab()[0].stats();
+        assertEquals(expected.getCount(), stats.getCount());
+        assertEquals(expected.getMean(), stats.getMean(), 0.0);
+        assertEquals(expected.getStd(), stats.getStd(), 0.0);
+        assertEquals(frame.getDataTab()[0].median(), value.median(), 0.0);
+        assertEquals(frame.getDataTab()[0].max(), value.max());
+
+        Dataframe filtered = opened.filterRows("Key", key -> (Integer) key == 3);
+        assertEquals(rows / 7 + 1, filtered.getDataTab()[0].size());
+        assertEquals(-99.25, filtered.getDataTab()[0].getDouble(0), 0.0);
+        assertEquals(frame.groupBy("Key").agg(Aggregation.SUM, "Value").getDataTab()[1].getData(),
+                opened.groupBy("Key").agg(Aggregation.SUM, "Value").getDataTab()[1].getData());
+    }
+
+    @Test
+    public void testEmptyFrame() throws IOException {
+        Dataframe frame = new Dataframe(new String[]{"x"}, new int[0]);
+        Dataframe opened = roundTrip(frame);
+        assertEquals(0, opened.getDataTab()[0].size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAFrameFile() throws IOException {
+        Files.write(file, Arrays.asList("a,b", "1,2"));
+        Dataframe.open(file.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testObjectColumn() throws IOException {
+        new Dataframe(new String[]{"mixed"}, (Object) new Object[]{1, "a"}).save(file.toString());
+    }
+}
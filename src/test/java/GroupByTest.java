@@ -0,0 +1,157 @@
+import com.github.hugorouillard.dataframe.Aggregation;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.CsvOptions;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.GroupBy;
+import com.github.hugorouillard.dataframe.Parallelism;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class GroupByTest {
+    private static final int ROWS = 1000;
+    private static final String[] CLASSES = {"Mage", "Tank", "Fighter"};
+
+    private Dataframe df;
+
+    @Before
+    public void setUp() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("Class,Tier,Name,Win");
+        for (int i = 0; i < ROWS; i++) {
+            String tier = i % 11 == 0 ? "" : String.valueOf(i % 4);
+            String win = i % 7 == 0 ? "" : String.valueOf(40 + i % 13 + 0.5);
+            lines.add(CLASSES[i % 3] + "," + tier + ",champion" + i % 50 + "," + win);
+        }
+        Path file = Files.createTempFile("groupby", ".csv");
+        try {
+            Files.write(file, lines);
+            df = new Dataframe(file.toString(), ',', new CsvOptions().columnType("Name", ColumnType.STRING));
+        } finally {
+            Files.delete(file);
+        }
+        assertEquals(ColumnType.CATEGORICAL, df.getDataTab()[0].getType());
+    }
+
+    @Test
+    public void testSumMatchesBoxedMap() {
+        Map<String, Double> sums = new LinkedHashMap<>();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            String key = CLASSES[i % 3] + "/" + (i % 11 == 0 ? null : i % 4);
+            sums.merge(key, i % 7 == 0 ? 0.0 : 40 + i % 13 + 0.5, Double::sum);
+            counts.merge(key, i % 7 == 0 ? 0L : 1L, Long::sum);
+        }
+
+        GroupBy grouped = df.groupBy("Class", "Tier");
+        assertEquals(sums.size(), grouped.groupCount());
+        Dataframe summed = grouped.agg(Aggregation.SUM, "Win");
+        Dataframe counted = grouped.agg(Aggregation.COUNT, "Win");
+        assertArrayEquals(new String[]{"Class", "Tier", "sum(Win)"}, summed.getLabels());
+        assertEquals(ColumnType.CATEGORICAL, summed.getDataTab()[0].getType());
+        assertEquals(ColumnType.LONG, counted.getDataTab()[2].getType());
+
+        int group = 0;
+        for (Map.Entry<String, Double> entry : sums.entrySet()) {
+            String key = summed.getDataTab()[0].get(group) + "/" + summed.getDataTab()[1].get(group);
+            assertEquals(entry.getKey(), key);
+            assertEquals(entry.getValue(), summed.getDataTab()[2].getDouble(group), 1e-9);
+            assertEquals((long) counts.get(entry.getKey()), counted.getDataTab()[2].getLong(group));
+            group++;
+        }
+    }
+
+    @Test
+    public void testFirstLastMinMax() {
+        GroupBy byName = df.groupBy("Name");
+        assertEquals(50, byName.groupCount());
+        Dataframe first = byName.agg(Aggregation.FIRST, "Class", "Tier");
+        assertEquals("champion0", first.getDataTab()[0].get(0));
+        assertEquals("Mage", first.getDataTab()[1].get(0));
+        assertNull(first.getDataTab()[2].get(0));
+        assertEquals(ColumnType.INT, first.getDataTab()[2].getType());
+
+        Dataframe last = byName.agg(Aggregation.LAST, "Tier");
+        assertEquals(950 % 4, last.getDataTab()[1].get(0));
+
+        Dataframe min = df.groupBy("Class").agg(Aggregation.MIN, "Win");
+        Dataframe max = df.groupBy("Class").agg(Aggregation.MAX, "Win");
+        Dataframe mean = df.groupBy("Class").agg(Aggregation.MEAN, "Win");
+        assertEquals(40.5, min.getDataTab()[1].getDouble(0), 0.0);
+        assertEquals(52.5, max.getDataTab()[1].getDouble(0), 0.0);
+        double expected = df.filterRowsEqual("Class", "Mage").getDataTab()[3].mean();
+        assertEquals(expected, mean.getDataTab()[1].getDouble(0), 1e-9);
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Dataframe parallel = df.withParallelism(Parallelism.of(pool).morselRows(64));
+            for (Aggregation aggregation : Aggregation.values()) {
+                Dataframe expected = df.groupBy("Tier", "Name").agg(aggregation, "Win");
+                Dataframe actual = parallel.groupBy("Tier", "Name").agg(aggregation, "Win");
+                for (int col = 0; col < 3; col++) {
+                    assertEquals(aggregation.toString(), expected.getDataTab()[col].getData(), actual.getDataTab()[col].getData());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLongAggregationsStayExact() throws IOException {
+        // 2^53 + 1 is not a double, it would be rounded by a double accumulator
+        long big = 9007199254740993L;
+        Dataframe frame = new Dataframe(new String[]{"Key", "Value"},
+                new Integer[]{1, 2, 1, 2, 3}, new Long[]{big, -1L, 2L, big, null});
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (Dataframe input : Arrays.asList(frame, frame.withParallelism(Parallelism.of(pool).morselRows(2)))) {
+                Dataframe sum = input.groupBy("Key").agg(Aggregation.SUM, "Value");
+                Dataframe min = input.groupBy("Key").agg(Aggregation.MIN, "Value");
+                Dataframe max = input.groupBy("Key").agg(Aggregation.MAX, "Value");
+                assertEquals(ColumnType.LONG, sum.getDataTab()[1].getType());
+                assertEquals(Arrays.asList(big + 2, big - 1, 0L), sum.getDataTab()[1].getData());
+                assertEquals(Arrays.asList(2L, -1L, null), min.getDataTab()[1].getData());
+                assertEquals(Arrays.asList(big, big, null), max.getDataTab()[1].getData());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(2 * big + 1, frame.lazy().agg(Aggregation.SUM, "Value").collect().getDataTab()[0].getLong(0));
+        assertEquals(big, frame.lazy().agg(Aggregation.MAX, "Value").collect().getDataTab()[0].getLong(0));
+    }
+
+    @Test
+    public void testPrimitiveKeys() {
+        Dataframe frame = new Dataframe(new String[]{"Id", "Score", "Flag"},
+                new long[]{3, 1, 3, 2, 1}, new double[]{0.0, -0.0, 1.5, Double.NaN, Double.NaN},
+                new boolean[]{true, false, true, true, false});
+        assertEquals(Arrays.asList(3L, 1L, 2L), frame.groupBy("Id").agg(Aggregation.COUNT, "Id").getDataTab()[0].getData());
+        assertEquals(3, frame.groupBy("Score").groupCount());
+        assertEquals(Arrays.asList(2L, 2L, 1L), frame.groupBy("Flag", "Id").agg(Aggregation.COUNT, "Score").getDataTab()[2].getData());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSumOfStrings() {
+        df.groupBy("Class").agg(Aggregation.SUM, "Name");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownKey() {
+        df.groupBy("Missing");
+    }
+}
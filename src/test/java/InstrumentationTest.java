@@ -0,0 +1,171 @@
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.CsvLoadMetrics;
+import com.github.hugorouillard.dataframe.CsvOptions;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.DataframeListener;
+import com.github.hugorouillard.dataframe.Instrumentation;
+import com.github.hugorouillard.dataframe.JmxMetricsListener;
+import com.github.hugorouillard.dataframe.OperationMetrics;
+import com.github.hugorouillard.dataframe.ParallelCsvReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.hugorouillard.dataframe.Expression.col;
+import static org.junit.Assert.*;
+
+public class InstrumentationTest {
+    private final List<OperationMetrics> operations = new ArrayList<>();
+    private final List<CsvLoadMetrics> loads = new ArrayList<>();
+    private Path tempFile;
+
+    @Before
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("metrics", ".csv");
+        Files.write(tempFile, Arrays.asList("Id;Score;Name", "1;2.5;a", "2;x;b", "3;;c", "4;1.5;d"));
+        Instrumentation.setListener(new DataframeListener() {
+            @Override
+            public void onOperation(OperationMetrics metrics) {
+                operations.add(metrics);
+            }
+
+            @Override
+            public void onCsvLoad(CsvLoadMetrics metrics) {
+                loads.add(metrics);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Instrumentation.setListener(DataframeListener.NOOP);
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testOperationsReportRows() {
+        Dataframe df = new Dataframe(new String[]{"A", "B"}, new int[]{1, 2, 3, 4, 5, 6}, new double[]{1, 2, 3, 4, 5, 6});
+        df.filterRows("A", value -> (Integer) value > 2).selectRows(0, 2);
+        df.filter(col("B").le(2));
+        df.getDataTab()[1].mean();
+
+        assertEquals(4, operations.size());
+        assertOperation(operations.get(0), "Dataframe.filterRows", 6, 4);
+        assertOperation(operations.get(1), "Dataframe.selectRows", 4, 2);
+        assertOperation(operations.get(2), "Dataframe.filter", 6, 2);
+        assertOperation(operations.get(3), "Series.mean", 6, 1);
+        for (OperationMetrics metrics : operations) {
+            assertTrue(metrics.getWallTimeNanos() >= 0);
+            assertTrue(metrics.getAllocatedBytes() >= -1);
+        }
+    }
+
+    private static void assertOperation(OperationMetrics metrics, String operation, long rowsIn, long rowsOut) {
+        assertEquals(operation, metrics.getOperation());
+        assertEquals(rowsIn, metrics.getRowsIn());
+        assertEquals(rowsOut, metrics.getRowsOut());
+    }
+
+    @Test
+    public void testCsvLoadsReportParseStatistics() throws IOException {
+        new Dataframe(tempFile.toString(), ';');
+        assertEquals(1, loads.size());
+        assertEquals(4, loads.get(0).getRows());
+        assertEquals(0, loads.get(0).getBadCells());
+        // the inferred type of Score is widened to String by the "x" cell
+        assertArrayEquals(new ColumnType[]{ColumnType.INT, ColumnType.STRING, ColumnType.STRING}, loads.get(0).getSchema());
+        assertOperation(operations.get(0), "Dataframe.readCsv", 0, 4);
+
+        new Dataframe(tempFile.toString(), ';', new CsvOptions().columnType("Score", ColumnType.DOUBLE));
+        assertEquals(1, loads.get(1).getBadCells());
+        assertEquals(ColumnType.DOUBLE, loads.get(1).getSchema()[1]);
+
+        ParallelCsvReader.read(tempFile.toString(), ';');
+        assertEquals(4, loads.get(2).getRows());
+        assertOperation(operations.get(operations.size() - 1), "ParallelCsvReader.read", 0, 4);
+    }
+
+    @Test
+    public void testNoopListenerMeasuresNothing() {
+        Instrumentation.setListener(DataframeListener.NOOP);
+        new Dataframe(new String[]{"A"}, new int[]{1, 2, 3}).filterRows("A", value -> true);
+        assertTrue(operations.isEmpty());
+    }
+
+    @Test
+    public void testJmxBeans() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        JmxMetricsListener jmx = new JmxMetricsListener(server, "test.dataframe");
+        Instrumentation.setListener(jmx);
+        try {
+            Dataframe df = new Dataframe(tempFile.toString(), ';', new CsvOptions().columnType("Score", ColumnType.DOUBLE));
+            df.selectRows(1, 2);
+            df.selectRows(0);
+
+            ObjectName select = jmx.operationName("Dataframe.selectRows");
+            assertEquals(2L, server.getAttribute(select, "Count"));
+            assertEquals(8L, server.getAttribute(select, "RowsIn"));
+            assertEquals(3L, server.getAttribute(select, "RowsOut"));
+            assertTrue((Long) server.getAttribute(select, "MaxTimeNanos") <= (Long) server.getAttribute(select, "TotalTimeNanos"));
+
+            ObjectName csv = new ObjectName("test.dataframe:type=CsvLoads");
+            assertEquals(1L, server.getAttribute(csv, "Loads"));
+            assertEquals(4L, server.getAttribute(csv, "Rows"));
+            assertEquals(1L, server.getAttribute(csv, "BadCells"));
+        } finally {
+            Instrumentation.setListener(DataframeListener.NOOP);
+            jmx.close();
+        }
+        assertTrue(server.queryNames(new ObjectName("test.dataframe:*"), null).isEmpty());
+    }
+
+    @Test
+    public void testJmxCloseIsFinal() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        JmxMetricsListener jmx = new JmxMetricsListener(server, "test.dataframe");
+        jmx.close();
+        Instrumentation.setListener(jmx);
+        try {
+            new Dataframe(tempFile.toString(), ';').selectRows(0);
+        } finally {
+            Instrumentation.setListener(DataframeListener.NOOP);
+        }
+        jmx.close();
+        assertTrue(server.queryNames(new ObjectName("test.dataframe:*"), null).isEmpty());
+    }
+
+    public interface OtherMXBean {
+        int getValue();
+    }
+
+    @Test
+    public void testJmxNameClashesDoNotThrow() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        JmxMetricsListener jmx = new JmxMetricsListener(server, "test.dataframe");
+        ObjectName taken = jmx.operationName("Dataframe.selectRows");
+        OtherMXBean other = () -> 42;
+        server.registerMBean(other, taken);
+        Dataframe df = new Dataframe(new String[]{"A"}, new int[]{1, 2, 3});
+        Instrumentation.setListener(jmx);
+        try {
+            df.selectRows(0);
+            df.filterRows("A", value -> true);
+        } finally {
+            Instrumentation.setListener(DataframeListener.NOOP);
+            jmx.close();
+        }
+        // the bean of the other owner is left in place
+        assertEquals(42, server.getAttribute(taken, "Value"));
+        assertEquals(1, server.queryNames(new ObjectName("test.dataframe:*"), null).size());
+    }
+}
@@ -0,0 +1,132 @@
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.JoinType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JoinTest {
+    // sorted keys, with duplicates on both sides and a missing key on each
+    private final Dataframe left = new Dataframe(new String[]{"Id", "Name"},
+            new Integer[]{1, 2, 2, 4, null}, new String[]{"a", "b", "c", "d", "e"});
+    private final Dataframe right = new Dataframe(new String[]{"Id", "Score"},
+            new Integer[]{2, 2, 3, 4, null}, new double[]{20.0, 21.0, 30.0, 40.0, 50.0});
+
+    private static List<?> column(Dataframe frame, int col) {
+        return frame.getDataTab()[col].getData();
+    }
+
+    @Test
+    public void testInner() {
+        Dataframe joined = left.join(right, "Id", "Id", JoinType.INNER);
+        assertArrayEquals(new String[]{"Id", "Name", "Score"}, joined.getLabels());
+        assertEquals(Arrays.asList(2, 2, 2, 2, 4), column(joined, 0));
+        assertEquals(Arrays.asList("b", "b", "c", "c", "d"), column(joined, 1));
+        assertEquals(Arrays.asList(20.0, 21.0, 20.0, 21.0, 40.0), column(joined, 2));
+    }
+
+    @Test
+    public void testLeftAndRight() {
+        Dataframe leftJoined = left.join(right, "Id", "Id", JoinType.LEFT);
+        assertEquals(Arrays.asList("a", "b", "b", "c", "c", "d", "e"), column(leftJoined, 1));
+        assertEquals(Arrays.asList(null, 20.0, 21.0, 20.0, 21.0, 40.0, null), column(leftJoined, 2));
+        assertEquals(ColumnType.DOUBLE, leftJoined.getDataTab()[2].getType());
+
+        Dataframe rightJoined = left.join(right, "Id", "Id", JoinType.RIGHT);
+        assertArrayEquals(new String[]{"Id", "Name", "Id_right", "Score"}, rightJoined.getLabels());
+        assertEquals(Arrays.asList(2, 2, 2, 2, 4, null, null), column(rightJoined, 0));
+        assertEquals(Arrays.asList(2, 2, 2, 2, 4, 3, null), column(rightJoined, 2));
+        assertEquals(Arrays.asList(20.0, 21.0, 20.0, 21.0, 40.0, 30.0, 50.0), column(rightJoined, 3));
+    }
+
+    @Test
+    public void testSuffixedLabelsStayUnique() {
+        Dataframe suffixed = new Dataframe(new String[]{"Id", "Score", "Score_right"},
+                new int[]{1, 2}, new double[]{1.0, 2.0}, new double[]{3.0, 4.0});
+        Dataframe joined = suffixed.join(right, "Id", "Id", JoinType.INNER);
+        assertArrayEquals(new String[]{"Id", "Score", "Score_right", "Score_right_right"}, joined.getLabels());
+        assertEquals(Arrays.asList(20.0, 21.0), column(joined, 3));
+
+        Dataframe both = new Dataframe(new String[]{"Id", "Name", "Name_right"},
+                new int[]{2, 4}, new String[]{"x", "y"}, new String[]{"z", "w"});
+        assertArrayEquals(new String[]{"Id", "Name", "Name_right", "Name_right_right"},
+                left.join(both, "Id", "Id", JoinType.INNER).getLabels());
+    }
+
+    @Test
+    public void testOuterSemiAnti() {
+        Dataframe outer = left.join(right, "Id", "Id", JoinType.OUTER);
+        assertEquals(Arrays.asList("a", "b", "b", "c", "c", "d", "e", null, null), column(outer, 1));
+        assertEquals(Arrays.asList(null, 2, 2, 2, 2, 4, null, 3, null), column(outer, 2));
+
+        Dataframe semi = left.join(right, "Id", "Id", JoinType.SEMI);
+        assertArrayEquals(new String[]{"Id", "Name"}, semi.getLabels());
+        assertEquals(Arrays.asList("b", "c", "d"), column(semi, 1));
+        assertEquals(Arrays.asList("a", "e"), column(left.join(right, "Id", "Id", JoinType.ANTI), 1));
+    }
+
+    @Test
+    public void testMergeMatchesHash() {
+        for (JoinType type : JoinType.values()) {
+            Dataframe hashed = left.join(right, "Id", "Id", type);
+            Dataframe merged = left.mergeJoin(right, "Id", "Id", type);
+            assertArrayEquals(hashed.getLabels(), merged.getLabels());
+            for (int col = 0; col < hashed.getDataTab().length; col++) {
+                assertEquals(type.toString(), column(hashed, col), column(merged, col));
+            }
+        }
+    }
+
+    @Test
+    public void testBuildOnEitherSide() {
+        Dataframe small = new Dataframe(new String[]{"Key"}, new long[]{4, 1});
+        Dataframe large = new Dataframe(new String[]{"Key", "Value"},
+                new double[]{1.0, 2.0, 4.0, 4.0, 5.0}, new int[]{10, 20, 40, 41, 50});
+        // int keys match double keys of the same value, whichever side the table is built on
+        assertEquals(Arrays.asList(40, 41, 10), column(small.join(large, "Key", "Key", JoinType.INNER), 1));
+        assertEquals(Arrays.asList(1.0, 4.0, 4.0), column(large.join(small, "Key", "Key", JoinType.SEMI), 0));
+    }
+
+    @Test
+    public void testMultipleKeysAndCategorical() throws IOException {
+        Path file = Files.createTempFile("join", ".csv");
+        Dataframe champions;
+        try {
+            Files.write(file, Arrays.asList("Name,Role,Win", "Ahri,Mid,50.5", "Garen,Top,51.0", "Ahri,Support,49.0",
+                    "Ahri,Mid,52.0"));
+            champions = new Dataframe(file.toString(), ',');
+        } finally {
+            Files.delete(file);
+        }
+        assertEquals(ColumnType.CATEGORICAL, champions.getDataTab()[0].getType());
+
+        Dataframe tiers = new Dataframe(new String[]{"Champion", "Lane", "Tier"},
+                new String[]{"Ahri", "Garen", "Ahri"}, new String[]{"Mid", "Top", "Top"}, new String[]{"S", "A", "C"});
+        Dataframe joined = champions.join(tiers, new String[]{"Name", "Role"}, new String[]{"Champion", "Lane"},
+                JoinType.LEFT);
+        assertArrayEquals(new String[]{"Name", "Role", "Win", "Tier"}, joined.getLabels());
+        assertEquals(Arrays.asList("S", "A", null, "S"), column(joined, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeUnsorted() {
+        Dataframe unsorted = new Dataframe(new String[]{"Id"}, new int[]{3, 1, 2});
+        unsorted.mergeJoin(right, "Id", "Id", JoinType.INNER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncomparableKeys() {
+        left.join(right, "Name", "Score", JoinType.INNER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyCountMismatch() {
+        left.join(right, new String[]{"Id", "Name"}, new String[]{"Id"}, JoinType.INNER);
+    }
+}
@@ -0,0 +1,135 @@
+import com.github.hugorouillard.dataframe.Aggregation;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.CsvOptions;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.LazyDataframe;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LazyDataframeTest {
+    private Path tempFile;
+
+    @Before
+    public void setUp() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("Name;Class;Role;Win;Ban;Unused");
+        String[] classes = {"Mage", "Tank", "Fighter"};
+        String[] roles = {"MID", "TOP", "SUPPORT", "ADC"};
+        for (int i = 0; i < 60; i++) {
+            lines.add("champion" + i + ";" + classes[i % 3] + ";" + roles[i % 4] + ";" + (45 + i % 10) + "." + i % 7 + ";" + i + ";x");
+        }
+        tempFile = Files.createTempFile("lazy", ".csv");
+        Files.write(tempFile, lines);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testMatchesEagerPipeline() throws IOException {
+        Dataframe df = new Dataframe(tempFile.toString(), ';');
+        Dataframe eager = df.filterRowsEqual("Class", "Mage")
+                .filterRowsEqual("Role", "MID")
+                .selectColumns("Name", "Win");
+
+        LazyDataframe lazy = LazyDataframe.scanCsv(tempFile.toString(), ';')
+                .filterEqual("Class", "Mage")
+                .filterEqual("Role", "MID")
+                .select("Name", "Win");
+        Dataframe collected = lazy.collect();
+
+        assertArrayEquals(new String[]{"Name", "Win"}, collected.getLabels());
+        assertEquals(eager.getDataTab()[0].getData(), collected.getDataTab()[0].getData());
+        assertEquals(eager.getDataTab()[1].getData(), collected.getDataTab()[1].getData());
+        assertEquals(5, collected.getDataTab()[0].size());
+    }
+
+    @Test
+    public void testPlanIsOptimized() {
+        String plan = LazyDataframe.scanCsv(tempFile.toString(), ';')
+                .select("Name", "Role", "Win", "Ban")
+                .filterDouble("Win", v -> v > 50)
+                .filterIn("Role", "MID", "TOP")
+                .select("Name", "Win")
+                .explain();
+        String[] steps = plan.split("\n");
+        assertEquals(4, steps.length);
+        assertTrue(steps[0], steps[0].endsWith("columns=[Name, Role, Win]"));
+        assertEquals("Project [Name, Role, Win]", steps[1]);
+        assertEquals("Filter Win double predicate and Role in [MID, TOP]", steps[2]);
+        assertEquals("Project [Name, Win]", steps[3]);
+    }
+
+    @Test
+    public void testAggregation() throws IOException {
+        Dataframe result = LazyDataframe.scanCsv(tempFile.toString(), ';')
+                .filterInt("Ban", v -> v >= 10)
+                .agg(Aggregation.SUM, "Ban")
+                .collect();
+        assertEquals(1, result.getDataTab()[0].size());
+        assertEquals("sum(Ban)", result.getDataTab()[0].getName());
+        assertEquals((10 + 59) * 50 / 2.0, result.getDataTab()[0].getDouble(0), 0.0);
+
+        Dataframe count = new Dataframe(tempFile.toString(), ';').lazy()
+                .filterRows("Name", v -> v.toString().endsWith("7"))
+                .agg(Aggregation.COUNT, "Name")
+                .collect();
+        assertEquals(ColumnType.LONG, count.getDataTab()[0].getType());
+        assertEquals(6L, count.getDataTab()[0].getLong(0));
+    }
+
+    @Test
+    public void testOptionsColumnsNarrowed() throws IOException {
+        CsvOptions options = new CsvOptions().useColumns("Name", "Win", "Class");
+        LazyDataframe lazy = LazyDataframe.scanCsv(tempFile.toString(), ';', options)
+                .filterEqual("Class", "Mage")
+                .select("Name");
+        assertTrue(lazy.explain(), lazy.explain().startsWith("Scan " + tempFile + " columns=[Name, Class]"));
+        assertEquals(20, lazy.collect().getDataTab()[0].size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFilterOnColumnLeftOutByOptions() throws IOException {
+        LazyDataframe.scanCsv(tempFile.toString(), ';', new CsvOptions().useColumns("Name", "Win"))
+                .filterEqual("Class", "Mage")
+                .select("Name")
+                .collect();
+    }
+
+    @Test
+    public void testUnknownProjectedColumnFailsLikeEager() throws IOException {
+        Dataframe df = new Dataframe(tempFile.toString(), ';');
+        List<LazyDataframe> queries = List.of(
+                LazyDataframe.scanCsv(tempFile.toString(), ';').select("Win", "Typo").agg(Aggregation.MEAN, "Win"),
+                df.lazy().select("Win", "Typo").agg(Aggregation.MEAN, "Win"),
+                df.lazy().select("Win").select("Win", "Ban").select("Win"));
+        for (LazyDataframe query : queries) {
+            try {
+                query.collect();
+                fail(query.explain());
+            } catch (IllegalArgumentException e) {
+                // as Dataframe.selectColumns
+            }
+        }
+        assertEquals(1, df.lazy().select("Win", "Ban").agg(Aggregation.MEAN, "Win").collect().getDataTab()[0].size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFilterOnProjectedOutColumn() throws IOException {
+        LazyDataframe.scanCsv(tempFile.toString(), ';')
+                .select("Name")
+                .filterEqual("Role", "MID")
+                .collect();
+    }
+}
@@ -0,0 +1,99 @@
+import com.github.hugorouillard.dataframe.Bitmap;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.CsvOptions;
+import com.github.hugorouillard.dataframe.Dataframe;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MaskFilterTest {
+    private static final int ROWS = 150;
+
+    private Dataframe df;
+
+    @Before
+    public void setUp() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("Int,Long,Double,Role,Name");
+        for (int i = 0; i < ROWS; i++) {
+            String role = i % 10 == 9 ? "" : new String[]{"TOP", "MID", "ADC"}[i % 3];
+            boolean missing = i % 5 == 0;
+            lines.add((missing ? "" : i) + "," + i * 1_000_000_000L + "," + (missing ? "" : i / 2.0) + "," + role + "," + role);
+        }
+        Path file = Files.createTempFile("masks", ".csv");
+        try {
+            Files.write(file, lines);
+            df = new Dataframe(file.toString(), ',', new CsvOptions().columnType("Name", ColumnType.STRING));
+        } finally {
+            Files.delete(file);
+        }
+        assertEquals(ColumnType.CATEGORICAL, df.getDataTab()[3].getType());
+    }
+
+    @Test
+    public void testPrimitiveMasksSkipMissingRows() {
+        Bitmap ints = df.maskInt("Int", v -> v >= 100);
+        assertEquals(40, ints.cardinality());
+        assertFalse(ints.get(100));
+        assertTrue(ints.get(101));
+
+        assertEquals(ints, df.maskDouble("Double", v -> v >= 50.0));
+        assertEquals(50, df.maskLong("Long", v -> v >= 100_000_000_000L).cardinality());
+        assertEquals(ints, df.maskDouble("Int", v -> v >= 100.0));
+    }
+
+    @Test
+    public void testMasksCompose() {
+        Bitmap mid = df.maskEqual("Role", "MID");
+        Bitmap top = df.maskEqual("Role", "TOP");
+        assertEquals(df.maskIn("Role", "MID", "TOP"), mid.or(top));
+        assertEquals(df.maskIn("Name", "MID", "TOP"), mid.or(top));
+        assertEquals(0, mid.and(top).cardinality());
+        assertEquals(df.maskEqual("Role", null), mid.or(top).or(df.maskEqual("Role", "ADC")).not());
+        assertEquals(mid, mid.andNot(top));
+
+        Dataframe filtered = df.filter(mid.and(df.maskInt("Int", v -> v < 30)));
+        List<Object> expected = new ArrayList<>();
+        for (int i = 1; i < 30; i += 3) {
+            if (i % 5 != 0 && i % 10 != 9) {
+                expected.add(i);
+            }
+        }
+        assertEquals(expected, filtered.getDataTab()[0].getData());
+        assertEquals(filtered.getDataTab()[0].getData(), filtered.filter(filtered.maskEqual("Role", "MID")).getDataTab()[0].getData());
+    }
+
+    @Test
+    public void testFilterRowsMatchesMasks() {
+        Dataframe boxed = df.filterRows("Double", v -> v != null && (Double) v > 20);
+        Dataframe masked = df.filter(df.maskDouble("Double", v -> v > 20));
+        assertEquals(boxed.getDataTab()[1].getData(), masked.getDataTab()[1].getData());
+    }
+
+    @Test
+    public void testToIndices() {
+        Bitmap bitmap = new Bitmap(130);
+        bitmap.set(0);
+        bitmap.set(64);
+        bitmap.set(129);
+        assertArrayEquals(new int[]{0, 64, 129}, bitmap.toIndices());
+        assertEquals(127, bitmap.not().cardinality());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaskSizeMismatch() {
+        df.filter(new Bitmap(ROWS + 1));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testStringColumnCannotBeMaskedAsDouble() {
+        df.maskDouble("Name", v -> v > 0);
+    }
+}
@@ -0,0 +1,106 @@
+import com.github.hugorouillard.dataframe.Bitmap;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.Series;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NullValuesTest {
+    private Path tempFile;
+
+    @Before
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("nulls", ".csv");
+        Files.write(tempFile, Arrays.asList(
+                "Name,Latency,Errors",
+                "a,1.5,3",
+                "b,,4",
+                ",4.5,",
+                "d,3.0,5"
+        ));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testCsvEmptyCellsStayPrimitive() throws IOException {
+        Dataframe df = new Dataframe(tempFile.toString(), ',');
+        Series<?> latency = df.getDataTab()[1];
+        Series<?> errors = df.getDataTab()[2];
+
+        assertEquals(ColumnType.DOUBLE, latency.getType());
+        assertEquals(ColumnType.INT, errors.getType());
+        assertTrue(latency.isNull(1));
+        assertFalse(latency.isNull(0));
+        assertNull(latency.getData().get(1));
+        assertEquals(1, latency.nullCount());
+        assertEquals(3, latency.count());
+        assertTrue(df.getDataTab()[0].isNull(2));
+    }
+
+    @Test
+    public void testAggregatesSkipNulls() throws IOException {
+        Dataframe df = new Dataframe(tempFile.toString(), ',');
+        Series<?> latency = df.getDataTab()[1];
+        assertEquals(3.0, latency.mean(), 0.0001);
+        assertEquals(3.0, latency.median(), 0.0001);
+        assertEquals(1.5, ((Number) latency.min()).doubleValue(), 0.0001);
+        assertEquals(4.5, ((Number) latency.max()).doubleValue(), 0.0001);
+        assertEquals(Math.sqrt(1.5), latency.std(), 0.0001);
+        assertEquals(4.0, df.getDataTab()[2].mean(), 0.0001);
+    }
+
+    @Test
+    public void testNullsInBoxedList() {
+        List<Integer> data = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            data.add(i % 3 == 0 ? null : i);
+        }
+        Series<Integer> series = new Series<>(data, "Sparse");
+        assertEquals(ColumnType.INT, series.getType());
+        assertEquals(67, series.nullCount());
+
+        double sum = 0;
+        for (Integer value : data) {
+            if (value != null) {
+                sum += value;
+            }
+        }
+        assertEquals(sum / 133, series.mean(), 0.0001);
+        assertEquals(Integer.valueOf(1), series.min());
+        assertEquals(Integer.valueOf(199), series.max());
+    }
+
+    @Test
+    public void testSelectKeepsValidity() {
+        Dataframe df = new Dataframe(new String[]{"A"}, (Object) new Integer[]{1, null, 3});
+        Dataframe result = df.selectRows(1, 2);
+        assertTrue(result.getDataTab()[0].isNull(0));
+        assertEquals(3, result.getDataTab()[0].getInt(1));
+    }
+
+    @Test
+    public void testBitmap() {
+        Bitmap bitmap = Bitmap.allSet(130);
+        assertEquals(130, bitmap.cardinality());
+        bitmap.clear(0);
+        bitmap.clear(64);
+        assertEquals(128, bitmap.cardinality());
+        assertEquals(1, bitmap.nextSetBit(0));
+        assertEquals(65, bitmap.nextSetBit(64));
+        assertEquals(-1, bitmap.nextSetBit(130));
+    }
+}
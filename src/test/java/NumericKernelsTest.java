@@ -0,0 +1,80 @@
+import com.github.hugorouillard.dataframe.Column;
+import com.github.hugorouillard.dataframe.ColumnStats;
+import com.github.hugorouillard.dataframe.DoubleColumn;
+import com.github.hugorouillard.dataframe.IntColumn;
+import com.github.hugorouillard.dataframe.LongColumn;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class NumericKernelsTest {
+
+    private static ColumnStats reference(Column<?> column, int from, int to) {
+        ColumnStats stats = new ColumnStats();
+        for (int i = from; i < to; i++) {
+            stats.add(column.getDouble(i));
+        }
+        return stats;
+    }
+
+    private static void assertSameStats(ColumnStats expected, ColumnStats actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getSum(), actual.getSum(), Math.abs(expected.getSum()) * 1e-12);
+        assertEquals(expected.getMean(), actual.getMean(), Math.abs(expected.getMean()) * 1e-12 + 1e-12);
+        assertEquals(expected.getVariance(), actual.getVariance(), expected.getVariance() * 1e-9 + 1e-12);
+        assertEquals(expected.getMin(), actual.getMin(), 0.0);
+        assertEquals(expected.getMax(), actual.getMax(), 0.0);
+    }
+
+    @Test
+    public void testRangesOfEveryLength() {
+        // lengths around the vector sizes; the vector loops themselves run in the vector profile, see KernelsTest
+        Random random = new Random(7);
+        for (int size = 0; size < 150; size++) {
+            int[] ints = new int[size];
+            long[] longs = new long[size];
+            double[] doubles = new double[size];
+            for (int i = 0; i < size; i++) {
+                ints[i] = random.nextInt();
+                longs[i] = random.nextLong() >> 12;
+                doubles[i] = random.nextGaussian() * 1000;
+            }
+            for (Column<?> column : new Column<?>[]{new IntColumn(ints), new LongColumn(longs), new DoubleColumn(doubles)}) {
+                assertSameStats(reference(column, 0, size), column.stats());
+                assertEquals(reference(column, 0, size).getSum(), column.sum(), Math.abs(column.sum()) * 1e-12);
+                int from = size / 3;
+                int to = size - size / 5;
+                assertSameStats(reference(column, from, to), column.stats(from, to));
+            }
+        }
+    }
+
+    @Test
+    public void testExtremeValues() {
+        int[] ints = new int[100];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i % 2 == 0 ? Integer.MAX_VALUE : Integer.MIN_VALUE + 1;
+        }
+        ints[37] = Integer.MIN_VALUE;
+        ColumnStats stats = new IntColumn(ints).stats();
+        // int sums are computed on longs, without overflow
+        assertEquals(50.0 * Integer.MAX_VALUE + 49.0 * (Integer.MIN_VALUE + 1) + Integer.MIN_VALUE, stats.getSum(), 0.0);
+        assertEquals(Integer.MIN_VALUE, stats.getMin(), 0.0);
+        assertEquals(Integer.MAX_VALUE, stats.getMax(), 0.0);
+    }
+
+    @Test
+    public void testNaNIgnoredByMinAndMax() {
+        double[] values = new double[40];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 3 == 0 ? Double.NaN : i;
+        }
+        ColumnStats stats = new DoubleColumn(values).stats();
+        assertEquals(1.0, stats.getMin(), 0.0);
+        assertEquals(38.0, stats.getMax(), 0.0);
+        assertTrue(Double.isNaN(stats.getSum()));
+        assertTrue(Double.isNaN(stats.getMean()));
+    }
+}
@@ -0,0 +1,103 @@
+import com.github.hugorouillard.dataframe.Aggregation;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.OffHeapStorage;
+import com.github.hugorouillard.dataframe.Series;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class OffHeapStorageTest {
+    private static final int ROWS = 5000;
+
+    private static Dataframe frame() {
+        Integer[] ints = new Integer[ROWS];
+        long[] longs = new long[ROWS];
+        double[] doubles = new double[ROWS];
+        String[] names = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            ints[i] = i % 10 == 0 ? null : i % 13;
+            longs[i] = (long) i * i;
+            doubles[i] = Math.sin(i);
+            names[i] = "n" + i % 4;
+        }
+        return new Dataframe(new String[]{"Int", "Long", "Double", "Name"}, ints, longs, doubles, names);
+    }
+
+    private static void assertSameResults(Dataframe expected, Dataframe actual) {
+        for (int col = 0; col < 3; col++) {
+            Series<?> e = expected.getDataTab()[col];
+            Series<?> a = actual.getDataTab()[col];
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getData(), a.getData());
+            assertEquals(e.mean(), a.mean(), Math.abs(e.mean()) * 1e-12);
+            assertEquals(e.std(), a.std(), e.std() * 1e-12);
+            assertEquals(e.min(), a.min());
+            assertEquals(e.max(), a.max());
+        }
+        assertEquals(expected.selectRows(3, 1, 4).getDataTab()[2].getData(),
+                actual.selectRows(3, 1, 4).getDataTab()[2].getData());
+        assertEquals(expected.sortBy("Int").getDataTab()[1].getData(), actual.sortBy("Int").getDataTab()[1].getData());
+        assertEquals(expected.groupBy("Name").agg(Aggregation.SUM, "Long").getDataTab()[1].getData(),
+                actual.groupBy("Name").agg(Aggregation.SUM, "Long").getDataTab()[1].getData());
+        assertEquals(expected.filterRows("Int", value -> value != null && (Integer) value > 6).getDataTab()[2].getData(),
+                actual.filterRows("Int", value -> value != null && (Integer) value > 6).getDataTab()[2].getData());
+    }
+
+    @Test
+    public void testDirectMemory() throws IOException {
+        Dataframe frame = frame();
+        try (OffHeapStorage storage = new OffHeapStorage()) {
+            Dataframe offHeap = frame.toOffHeap(storage);
+            assertEquals((long) ROWS * (4 + 8 + 8), storage.getAllocatedBytes());
+            assertSame(frame.getDataTab()[3].getColumn(), offHeap.getDataTab()[3].getColumn());
+            assertEquals(ROWS / 10, offHeap.getDataTab()[0].nullCount());
+            assertSameResults(frame, offHeap);
+        }
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        Path directory = Files.createTempDirectory("offheap");
+        try {
+            Dataframe frame = frame();
+            OffHeapStorage storage = OffHeapStorage.mapped(directory.toString());
+            Dataframe offHeap = frame.toOffHeap(storage);
+            assertEquals((long) ROWS * (4 + 8 + 8), storage.getAllocatedBytes());
+            assertSameResults(frame, offHeap);
+
+            storage.close();
+            assertTrue(storage.isClosed());
+            assertEquals(0, storage.getAllocatedBytes());
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(0, files.count());
+            }
+            storage.close();
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testViewsAreCopied() throws IOException {
+        Dataframe sorted = frame().sortBy("Double");
+        try (OffHeapStorage storage = new OffHeapStorage()) {
+            Dataframe offHeap = sorted.toOffHeap(storage);
+            assertEquals(ColumnType.DOUBLE, offHeap.getDataTab()[2].getType());
+            assertEquals(sorted.getDataTab()[2].getData(), offHeap.getDataTab()[2].getData());
+            assertEquals(sorted.getDataTab()[0].getData(), offHeap.getDataTab()[0].getData());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedStorage() throws IOException {
+        OffHeapStorage storage = new OffHeapStorage();
+        storage.close();
+        frame().toOffHeap(storage);
+    }
+}
@@ -0,0 +1,73 @@
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.ParallelCsvReader;
+import com.github.hugorouillard.dataframe.Series;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ParallelCsvReaderTest {
+    private Path tempFile;
+
+    @Before
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("parallel", ".csv");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testSameResultAsSequentialLoad() throws IOException {
+        // a few MB, so the file is split into several chunks
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile)) {
+            writer.write("Id,Label,Value,Flag\n");
+            for (int i = 0; i < 120000; i++) {
+                writer.write(i + ",\"label, \"\"" + i + "\"\"\"," + (i % 7 == 0 ? "" : String.valueOf(i * 0.25)) + "," + (i % 2 == 0) + "\r\n");
+            }
+        }
+        Dataframe expected = new Dataframe(tempFile.toString(), ',');
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Dataframe actual = ParallelCsvReader.read(tempFile.toString(), ',', pool);
+            assertArrayEquals(expected.getLabels(), actual.getLabels());
+            for (int c = 0; c < expected.getDataTab().length; c++) {
+                Series<?> e = expected.getDataTab()[c];
+                Series<?> a = actual.getDataTab()[c];
+                assertEquals(e.getType(), a.getType());
+                assertEquals(e.getData(), a.getData());
+            }
+            assertEquals(ColumnType.INT, actual.getDataTab()[0].getType());
+            assertEquals("label, \"5\"", actual.getDataTab()[1].get(5));
+            assertTrue(actual.getDataTab()[2].isNull(7));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSmallFile() throws IOException {
+        Files.write(tempFile, List.of("", "A;B", "1;x", "", "2;y"));
+        Dataframe df = ParallelCsvReader.read(tempFile.toString(), ';');
+        assertArrayEquals(new String[]{"A", "B"}, df.getLabels());
+        assertEquals(2, df.getDataTab()[0].size());
+        assertEquals(2, df.getDataTab()[0].getInt(1));
+        assertEquals("y", df.getDataTab()[1].get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyFile() throws IOException {
+        ParallelCsvReader.read(tempFile.toString(), ',');
+    }
+}
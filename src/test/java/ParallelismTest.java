@@ -0,0 +1,96 @@
+import com.github.hugorouillard.dataframe.Bitmap;
+import com.github.hugorouillard.dataframe.ColumnStats;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.DoubleColumn;
+import com.github.hugorouillard.dataframe.Parallelism;
+import com.github.hugorouillard.dataframe.Series;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ParallelismTest {
+    private static final int ROWS = 100_000;
+
+    private static ForkJoinPool pool;
+    private static Series<Double> values;
+
+    @BeforeClass
+    public static void setUp() {
+        pool = new ForkJoinPool(4);
+        Random random = new Random(11);
+        double[] data = new double[ROWS];
+        Bitmap validity = new Bitmap(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            data[i] = random.nextGaussian() * 1e3 + 1e6;
+            if (i % 17 != 0) {
+                validity.set(i);
+            }
+        }
+        values = new Series<>(new DoubleColumn(data, validity), "Values");
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testMatchesSequential() {
+        Series<Double> parallel = values.withParallelism(Parallelism.of(pool).morselRows(1000));
+        assertEquals(values.mean(), parallel.mean(), 1e-6);
+        assertEquals(values.std(), parallel.std(), 1e-6);
+        assertEquals(values.min(), parallel.min());
+        assertEquals(values.max(), parallel.max());
+        assertEquals(values.stats().getCount(), parallel.stats().getCount());
+        assertEquals(values.stats().getMean(), values.mean(), 0.0);
+        assertEquals(parallel.stats().getMean(), parallel.mean(), 0.0);
+    }
+
+    @Test
+    public void testDeterministic() {
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        ColumnStats single = values.withParallelism(Parallelism.of(singleThread).morselRows(1000)).stats();
+        singleThread.shutdown();
+        for (int run = 0; run < 5; run++) {
+            ColumnStats stats = values.withParallelism(Parallelism.of(pool).morselRows(1000)).stats();
+            assertEquals(single.getMean(), stats.getMean(), 0.0);
+            assertEquals(single.getVariance(), stats.getVariance(), 0.0);
+            assertEquals(single.getSum(), stats.getSum(), 0.0);
+        }
+    }
+
+    @Test
+    public void testFilterRows() {
+        Dataframe df = new Dataframe(new String[]{"Id"}, (Object) range(ROWS));
+        Dataframe parallel = df.withParallelism(Parallelism.of(pool).morselRows(100));
+        Dataframe filtered = parallel.filterRows("Id", v -> (Integer) v % 3 == 0);
+        assertEquals(df.filterRows("Id", v -> (Integer) v % 3 == 0).getDataTab()[0].getData(),
+                filtered.getDataTab()[0].getData());
+        assertSame(parallel.getParallelism(), filtered.getParallelism());
+        assertSame(parallel.getParallelism(), filtered.getDataTab()[0].getParallelism());
+    }
+
+    @Test
+    public void testMorselRowsRounded() {
+        assertEquals(128, Parallelism.of(pool).morselRows(100).getMorselRows());
+        assertFalse(Parallelism.getDefault().isParallel());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        Parallelism.of(0);
+    }
+
+    private static int[] range(int size) {
+        int[] range = new int[size];
+        for (int i = 0; i < size; i++) {
+            range[i] = i;
+        }
+        return range;
+    }
+}
@@ -0,0 +1,118 @@
+import com.github.hugorouillard.dataframe.DoubleColumn;
+import com.github.hugorouillard.dataframe.QuantileSketch;
+import com.github.hugorouillard.dataframe.Series;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class QuantileSketchTest {
+    private static final int SIZE = 100_000;
+
+    private static double[] shuffledRange(long seed) {
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            values.add((double) i);
+        }
+        Collections.shuffle(values, new Random(seed));
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private static void assertRankError(double q, double value, double error) {
+        // values are 0 .. SIZE - 1, so a value is its own rank
+        assertEquals("quantile " + q, q * SIZE, value, error * SIZE);
+    }
+
+    @Test
+    public void testApproxQuantilesWithinRankError() {
+        Series<Double> series = new Series<>(new DoubleColumn(shuffledRange(1)), "Latency");
+        double[] quantiles = series.approxQuantiles(0.01, 0.25, 0.5, 0.95, 0.99);
+        assertRankError(0.01, quantiles[0], 0.02);
+        assertRankError(0.25, quantiles[1], 0.02);
+        assertRankError(0.5, quantiles[2], 0.02);
+        assertRankError(0.95, quantiles[3], 0.02);
+        assertRankError(0.99, quantiles[4], 0.02);
+        assertEquals(0.0, series.sketch().quantile(0), 0.0);
+        assertEquals(SIZE - 1, series.sketch().quantile(1), 0.0);
+    }
+
+    @Test
+    public void testRankErrorBound() {
+        QuantileSketch sketch = QuantileSketch.withRankError(0.005);
+        for (double value : shuffledRange(2)) {
+            sketch.add(value);
+        }
+        for (double q = 0.05; q < 1; q += 0.05) {
+            assertRankError(q, sketch.quantile(q), 0.005);
+        }
+    }
+
+    @Test
+    public void testMergeChunks() {
+        double[] values = shuffledRange(3);
+        QuantileSketch merged = new QuantileSketch();
+        for (int from = 0; from < SIZE; from += 7_000) {
+            double[] chunk = Arrays.copyOfRange(values, from, Math.min(from + 7_000, SIZE));
+            merged.merge(new Series<>(new DoubleColumn(chunk), "Chunk").sketch());
+        }
+        assertEquals(SIZE, merged.getCount());
+        assertRankError(0.5, merged.quantile(0.5), 0.02);
+        assertRankError(0.99, merged.quantile(0.99), 0.02);
+    }
+
+    @Test
+    public void testSerializable() throws IOException, ClassNotFoundException {
+        QuantileSketch sketch = new QuantileSketch(64);
+        for (double value : shuffledRange(4)) {
+            sketch.add(value);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(sketch);
+        }
+        QuantileSketch copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (QuantileSketch) in.readObject();
+        }
+        assertArrayEquals(sketch.quantiles(0.5, 0.9), copy.quantiles(0.5, 0.9), 0.0);
+        assertEquals(sketch.getCount(), copy.getCount());
+    }
+
+    @Test
+    public void testExactQuantile() {
+        Series<Integer> series = new Series<>(Arrays.asList(7, 1, null, 3, 9, 5), "Values");
+        assertEquals(5.0, series.quantile(0.5), 0.0);
+        assertEquals(series.median(), series.quantile(0.5), 0.0);
+        assertEquals(1.0, series.quantile(0), 0.0);
+        assertEquals(9.0, series.quantile(1), 0.0);
+        assertEquals(2.0, series.quantile(0.125), 1e-12);
+    }
+
+    @Test
+    public void testEmptySketch() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(Double.NaN);
+        assertEquals(0, sketch.getCount());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() {
+        new Series<>(Arrays.asList(1, 2), "Values").quantile(1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentSizes() {
+        new QuantileSketch(100).merge(new QuantileSketch(200));
+    }
+}
@@ -0,0 +1,128 @@
+import com.github.hugorouillard.dataframe.Bitmap;
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.Series;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SeriesArithmeticTest {
+
+    private static Series<?> series(Object... values) {
+        return new Series<>(Arrays.asList(values), "S");
+    }
+
+    @Test
+    public void testTypePromotion() {
+        Series<?> ints = series(1, 2, 3);
+        Series<?> longs = series(10L, 20L, 30L);
+        Series<?> doubles = series(0.5, 1.5, 2.5);
+
+        assertEquals(ColumnType.LONG, ints.add(ints).getType());
+        assertEquals(Arrays.asList(11L, 22L, 33L), ints.add(longs).getData());
+        assertEquals(Arrays.asList(1.5, 3.5, 5.5), ints.add(doubles).getData());
+        assertEquals(Arrays.asList(9L, 18L, 27L), longs.sub(ints).getData());
+        assertEquals(Arrays.asList(2L, 4L, 6L), ints.mul(2).getData());
+        assertEquals(Arrays.asList(0.5, 1.0, 1.5), ints.mul(0.5).getData());
+        assertEquals(Arrays.asList(0.5, 1.0, 1.5), ints.div(2).getData());
+        assertEquals(Arrays.asList(10.0, 10.0, 10.0), longs.div(ints).getData());
+        assertEquals("S", ints.add(1).getName());
+    }
+
+    @Test
+    public void testIntOperandsDoNotOverflow() {
+        Series<?> ints = series(Integer.MAX_VALUE, Integer.MIN_VALUE);
+        assertEquals(Arrays.asList(2L * Integer.MAX_VALUE, 2L * Integer.MIN_VALUE), ints.add(ints).getData());
+        assertEquals(Arrays.asList((long) Integer.MAX_VALUE * Integer.MAX_VALUE, (long) Integer.MIN_VALUE * Integer.MAX_VALUE),
+                ints.mul(Integer.MAX_VALUE).getData());
+    }
+
+    @Test
+    public void testMissingValuesPropagate() {
+        Series<?> left = series(1, null, 3, 4);
+        Series<?> right = series(1.0, 2.0, null, 4.0);
+        assertEquals(Arrays.asList(2.0, null, null, 8.0), left.add(right).getData());
+        assertEquals(Arrays.asList(null, null, null, 1), series(null, null, null, -1).abs().getData());
+        assertEquals(2, left.add(right).nullCount());
+        assertEquals(Arrays.asList(-1, null, -3, -4), left.negate().getData());
+    }
+
+    @Test
+    public void testComparisons() {
+        Series<?> values = series(1, 5, null, 7, 3);
+        assertArrayEquals(new int[]{1, 3}, values.gt(4).toIndices());
+        assertArrayEquals(new int[]{0, 4}, values.le(3.5).toIndices());
+        assertArrayEquals(new int[]{0, 1, 3, 4}, values.ne(100).toIndices());
+        assertArrayEquals(new int[]{1}, values.eq(series(0L, 5L, 8L, 9L, 1L)).toIndices());
+
+        // longs beyond the exact range of doubles are compared exactly
+        Series<?> big = series(Long.MAX_VALUE, Long.MAX_VALUE - 1);
+        assertArrayEquals(new int[]{1}, big.lt(Long.MAX_VALUE).toIndices());
+
+        Series<?> doubles = series(Double.NaN, 1.0, 2.0);
+        assertArrayEquals(new int[]{0, 1, 2}, doubles.ne(5).toIndices());
+        assertArrayEquals(new int[]{2}, doubles.ge(2).toIndices());
+    }
+
+    @Test
+    public void testComparisonsOverManyRows() {
+        double[] data = new double[1000];
+        Object[] boxed = new Object[data.length];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = Math.sin(i);
+            boxed[i] = data[i];
+        }
+        Bitmap mask = series(boxed).gt(0.5);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i] > 0.5, mask.get(i));
+        }
+    }
+
+    @Test
+    public void testUnaryFunctions() {
+        Series<?> values = series(-4, 0, 9);
+        assertEquals(ColumnType.INT, values.abs().getType());
+        assertEquals(Arrays.asList(4, 0, 9), values.abs().getData());
+        assertEquals(3.0, values.sqrt().get(2), 0.0);
+        assertTrue(Double.isNaN(values.sqrt().get(0)));
+        assertEquals(Double.NEGATIVE_INFINITY, values.log().get(1), 0.0);
+        assertEquals(1.0, values.exp().get(1), 0.0);
+        assertEquals(Arrays.asList(-3.0, 1.0, 10.0), values.mapToDouble(v -> v + 1).getData());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonNumericalSeries() {
+        series("a", "b").add(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSizeMismatch() {
+        series(1, 2).add(series(1, 2, 3));
+    }
+
+    @Test
+    public void testWithColumnSharesColumns() {
+        Dataframe df = new Dataframe(new String[]{"A", "B"}, new int[]{1, 2, 3}, new double[]{0.5, 1.0, 1.5});
+        Series<?> a = df.getDataTab()[0];
+        Series<?> b = df.getDataTab()[1];
+
+        Dataframe added = df.withColumn("C", a.mul(b));
+        assertArrayEquals(new String[]{"A", "B", "C"}, added.getLabels());
+        assertSame(a.getColumn(), added.getDataTab()[0].getColumn());
+        assertEquals(Arrays.asList(0.5, 2.0, 4.5), added.getDataTab()[2].getData());
+        assertArrayEquals(new String[]{"A", "B"}, df.getLabels());
+
+        Dataframe replaced = added.withColumn("A", a.negate());
+        assertArrayEquals(new String[]{"A", "B", "C"}, replaced.getLabels());
+        assertEquals(Arrays.asList(-1, -2, -3), replaced.getDataTab()[0].getData());
+        assertSame(added.getDataTab()[2].getColumn(), replaced.getDataTab()[2].getColumn());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithColumnSizeMismatch() {
+        Dataframe df = new Dataframe(new String[]{"A"}, new int[]{1, 2, 3});
+        df.withColumn("B", series(1, 2));
+    }
+}
@@ -0,0 +1,113 @@
+import com.github.hugorouillard.dataframe.ColumnType;
+import com.github.hugorouillard.dataframe.CsvOptions;
+import com.github.hugorouillard.dataframe.Dataframe;
+import com.github.hugorouillard.dataframe.Series;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class SortTest {
+
+    private static List<?> column(Dataframe frame, int col) {
+        return frame.getDataTab()[col].getData();
+    }
+
+    @Test
+    public void testArgsortDoubles() {
+        Series<Double> series = new Series<>(Arrays.asList(3.5, -0.0, Double.NaN, null, -7.25, 0.0, 3.5,
+                Double.NEGATIVE_INFINITY), "x");
+        assertArrayEquals(new int[]{7, 4, 1, 5, 0, 6, 2, 3}, series.argsort());
+        assertArrayEquals(new int[]{3, 2, 0, 6, 5, 1, 4, 7}, series.argsort(false, true));
+    }
+
+    @Test
+    public void testArgsortMatchesBoxedSort() {
+        Random random = new Random(17);
+        int size = 5000;
+        int[] ints = new int[size];
+        long[] longs = new long[size];
+        double[] doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = random.nextInt(2000) - 1000;
+            longs[i] = random.nextLong();
+            doubles[i] = random.nextGaussian() * 1e6;
+        }
+        Dataframe frame = new Dataframe(new String[]{"i", "l", "d"}, ints, longs, doubles);
+        for (int col = 0; col < 3; col++) {
+            Series<?> series = frame.getDataTab()[col];
+            Comparator<Integer> byValue = Comparator.comparingDouble(series::getDouble);
+            if (col == 1) {
+                byValue = Comparator.comparingLong(series::getLong);
+            }
+            int[] expected = IntStream.range(0, size).boxed().sorted(byValue).mapToInt(Integer::intValue).toArray();
+            assertArrayEquals(expected, series.argsort());
+            int[] descending = IntStream.range(0, size).boxed().sorted(byValue.reversed()).mapToInt(Integer::intValue)
+                    .toArray();
+            assertArrayEquals(descending, series.argsort(false, false));
+        }
+    }
+
+    @Test
+    public void testSortByMultipleKeys() {
+        Dataframe frame = new Dataframe(new String[]{"Class", "Win", "Name"},
+                new String[]{"Tank", "Mage", "Tank", "Mage", null, "Mage"},
+                new Integer[]{50, 52, null, 48, 51, 52},
+                new String[]{"a", "b", "c", "d", "e", "f"});
+        Dataframe sorted = frame.sortBy(new String[]{"Class", "Win"}, new boolean[]{true, false}, false);
+        assertEquals(Arrays.asList("b", "f", "d", "a", "c", "e"), column(sorted, 2));
+
+        Dataframe nullsFirst = frame.sortBy(new String[]{"Class", "Win"}, new boolean[]{true, false}, true);
+        assertEquals(Arrays.asList("e", "b", "f", "d", "c", "a"), column(nullsFirst, 2));
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f"), column(frame.sortBy("Name"), 2));
+    }
+
+    @Test
+    public void testSortCategoricalAndBoolean() throws IOException {
+        Path file = Files.createTempFile("sort", ".csv");
+        Dataframe frame;
+        try {
+            Files.write(file, Arrays.asList("Role,Ranked", "Top,true", "Mid,false", "Support,true", "Mid,true",
+                    "Jungle,false"));
+            frame = new Dataframe(file.toString(), ',', new CsvOptions().columnType("Role", ColumnType.CATEGORICAL));
+        } finally {
+            Files.delete(file);
+        }
+        assertEquals(ColumnType.CATEGORICAL, frame.getDataTab()[0].getType());
+        Dataframe sorted = frame.sortBy("Role");
+        assertEquals(Arrays.asList("Jungle", "Mid", "Mid", "Support", "Top"), column(sorted, 0));
+        assertEquals(Arrays.asList(false, false, true, true, true), column(sorted, 1));
+        assertEquals(Arrays.asList("Mid", "Jungle", "Top", "Support", "Mid"), column(frame.sortBy("Ranked"), 0));
+    }
+
+    @Test
+    public void testSortedFrameIsView() {
+        Dataframe frame = new Dataframe(new String[]{"x"}, new int[]{3, 1, 2});
+        Dataframe sorted = frame.sortBy("x");
+        assertEquals(Arrays.asList(1, 2, 3), column(sorted, 0));
+        assertNotSame(sorted.getDataTab()[0].getColumn(), sorted.getDataTab()[0].getColumn().materialize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownColumn() {
+        new Dataframe(new String[]{"x"}, new int[]{1}).sortBy("y");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDirectionMismatch() {
+        new Dataframe(new String[]{"x"}, new int[]{1}).sortBy(new String[]{"x"}, new boolean[0], false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncomparableValues() {
+        new Series<>(Arrays.asList(1, "a", 2.0), "mixed").argsort();
+    }
+}
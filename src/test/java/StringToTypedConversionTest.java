@@ -74,4 +74,31 @@ public class StringToTypedConversionTest {
         assertEquals(3, result.size());
         assertNull(result.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseStringTypeMatchesJavaParsers() {
+        assertEquals(Integer.class, ConversionUtils.parseStringType(" -2147483648 "));
+        assertEquals(Integer.class, ConversionUtils.parseStringType("+0002147483647"));
+        assertEquals(Long.class, ConversionUtils.parseStringType("2147483648"));
+        assertEquals(Long.class, ConversionUtils.parseStringType("-9223372036854775808"));
+        assertEquals(Double.class, ConversionUtils.parseStringType("9223372036854775808"));
+        assertEquals(Double.class, ConversionUtils.parseStringType(".5e-3"));
+        assertEquals(Double.class, ConversionUtils.parseStringType("1.f"));
+        assertEquals(Double.class, ConversionUtils.parseStringType("-Infinity"));
+        assertEquals(Double.class, ConversionUtils.parseStringType("NaN"));
+        assertEquals(Boolean.class, ConversionUtils.parseStringType("False"));
+        assertEquals(String.class, ConversionUtils.parseStringType("-"));
+        assertEquals(String.class, ConversionUtils.parseStringType("1e"));
+        assertEquals(String.class, ConversionUtils.parseStringType("1.2.3"));
+        assertEquals(String.class, ConversionUtils.parseStringType("+true"));
+        assertEquals(String.class, ConversionUtils.parseStringType("nan"));
+    }
+
+    @Test
+    public void testConvertStringListToTypedList_PromotedToDouble() {
+        List<String> input = List.of("1", "4000000000", "2.5");
+        List<?> result = ConversionUtils.convertStringListToTypedList(input);
+
+        assertEquals(List.of(1.0, 4.0e9, 2.5), result);
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.hugorouillard.dataframe;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the kernels in use against the scalar ones. The vector profile runs it a second time on the multi-release
+ * jar with the vector module, setting dataframe.vectorized so that the vector kernels are known to be tested.
+ */
+public class KernelsTest {
+    // longer than a few vectors of the widest species, so that every tail length is covered
+    private static final int MAX_SIZE = 150;
+
+    @Test
+    public void testVectorizedWhenExpected() {
+        assertEquals(Boolean.getBoolean("dataframe.vectorized"), Kernels.isVectorized());
+    }
+
+    @Test
+    public void testDoubleComparisons() {
+        Random random = new Random(3);
+        for (int size = 0; size < MAX_SIZE; size++) {
+            double[] values = doubles(random, size);
+            double[] operands = doubles(random, size);
+            for (Comparison comparison : Comparison.values()) {
+                for (double operand : new double[]{0.5, Double.NaN}) {
+                    long[] expected = new long[words(size)];
+                    long[] actual = new long[words(size)];
+                    ScalarKernels.compare(values, size, comparison, operand, expected);
+                    Kernels.compare(values, size, comparison, operand, actual);
+                    assertArrayEquals(comparison + " " + operand + " size " + size, expected, actual);
+                }
+                long[] expected = new long[words(size)];
+                long[] actual = new long[words(size)];
+                ScalarKernels.compare(values, operands, size, comparison, expected);
+                Kernels.compare(values, operands, size, comparison, actual);
+                assertArrayEquals(comparison + " size " + size, expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testNaNIsNotEqualToEverything() {
+        double[] values = new double[MAX_SIZE];
+        Arrays.fill(values, Double.NaN);
+        long[] words = new long[words(MAX_SIZE)];
+        Kernels.compare(values, MAX_SIZE, Comparison.NOT_EQUAL, Double.NaN, words);
+        assertEquals(MAX_SIZE, Long.bitCount(words[0]) + Long.bitCount(words[1]) + Long.bitCount(words[2]));
+        Kernels.compare(values, MAX_SIZE, Comparison.EQUAL, Double.NaN, words);
+        assertArrayEquals(new long[words(MAX_SIZE)], words);
+        Kernels.compare(values, values, MAX_SIZE, Comparison.NOT_EQUAL, words);
+        assertEquals(MAX_SIZE, Long.bitCount(words[0]) + Long.bitCount(words[1]) + Long.bitCount(words[2]));
+    }
+
+    @Test
+    public void testLongComparisons() {
+        Random random = new Random(5);
+        for (int size = 0; size < MAX_SIZE; size++) {
+            long[] values = longs(random, size);
+            long[] operands = longs(random, size);
+            for (Comparison comparison : Comparison.values()) {
+                long[] expected = new long[words(size)];
+                long[] actual = new long[words(size)];
+                ScalarKernels.compare(values, size, comparison, 2L, expected);
+                Kernels.compare(values, size, comparison, 2L, actual);
+                assertArrayEquals(comparison + " size " + size, expected, actual);
+                ScalarKernels.compare(values, operands, size, comparison, expected);
+                Kernels.compare(values, operands, size, comparison, actual);
+                assertArrayEquals(comparison + " size " + size, expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testDoubleArithmetic() {
+        Random random = new Random(11);
+        for (int size = 0; size < MAX_SIZE; size++) {
+            double[] left = doubles(random, size);
+            double[] right = doubles(random, size);
+            for (Arithmetic operator : Arithmetic.values()) {
+                double[] expected = new double[size];
+                double[] actual = new double[size];
+                ScalarKernels.apply(operator, left, right, expected, size);
+                Kernels.apply(operator, left, right, actual, size);
+                assertArrayEquals(operator + " size " + size, expected, actual, 0.0);
+                ScalarKernels.apply(operator, left, 0.0, expected, size);
+                Kernels.apply(operator, left, 0.0, actual, size);
+                assertArrayEquals(operator + " size " + size, expected, actual, 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testLongArithmetic() {
+        Random random = new Random(13);
+        for (int size = 0; size < MAX_SIZE; size++) {
+            long[] left = longs(random, size);
+            long[] right = longs(random, size);
+            for (int i = 0; i < size; i++) {
+                if (right[i] == 0) {
+                    right[i] = -1;
+                }
+            }
+            for (Arithmetic operator : Arithmetic.values()) {
+                long[] expected = new long[size];
+                long[] actual = new long[size];
+                ScalarKernels.apply(operator, left, right, expected, size);
+                Kernels.apply(operator, left, right, actual, size);
+                assertArrayEquals(operator + " size " + size, expected, actual);
+                ScalarKernels.apply(operator, left, -3L, expected, size);
+                Kernels.apply(operator, left, -3L, actual, size);
+                assertArrayEquals(operator + " size " + size, expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testLongDivisionTruncates() {
+        long[] left = {7, -7, Long.MIN_VALUE, 9007199254740993L, 5};
+        long[] result = new long[left.length];
+        Kernels.apply(Arithmetic.DIVIDE, left, 2L, result, left.length);
+        assertArrayEquals(new long[]{3, -3, Long.MIN_VALUE / 2, 4503599627370496L, 2}, result);
+        Kernels.apply(Arithmetic.DIVIDE, left, new long[]{2, 2, -1, 1, -2}, result, left.length);
+        assertArrayEquals(new long[]{3, -3, Long.MIN_VALUE, 9007199254740993L, -2}, result);
+    }
+
+    private static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    private static double[] doubles(Random random, int size) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            // a few repeated values and NaNs, so that the equality comparisons hold now and then
+            int kind = random.nextInt(8);
+            values[i] = kind == 0 ? Double.NaN : kind == 1 ? 0.5 : random.nextGaussian();
+        }
+        return values;
+    }
+
+    private static long[] longs(Random random, int size) {
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(4) == 0 ? 2L : random.nextLong() >> random.nextInt(64);
+        }
+        return values;
+    }
+}